@@ -0,0 +1,67 @@
+package com.example.dongjubeauty.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnalyzeRequest JSON 읽기/쓰기 비용 (Jackson 바인딩).
+ * read 는 snake_case, readLegacy 는 camelCase 별칭(imageBase64, trace_id, exifCorrection) 본문입니다.
+ * 읽고 다시 보내는 전체 경로 비교는 Base64ForwardBenchmark 를 보세요.
+ *
+ * ./gradlew jmh -Pjmh.includes=AnalyzeRequestJsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnalyzeRequestJsonBenchmark {
+
+    /** 디코딩된 이미지 크기 */
+    @Param({"102400", "1048576", "5242880"})
+    public int imageBytes;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] json;
+    private byte[] legacyJson;
+    private AnalyzeRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+        String base64 = Base64.getEncoder().encodeToString(image);
+        json = ("{\"image_base64\":\"" + base64
+                + "\",\"options\":{\"traceId\":\"bench\",\"exif_correction\":true}}").getBytes(StandardCharsets.UTF_8);
+        legacyJson = ("{\"imageBase64\":\"" + base64
+                + "\",\"options\":{\"trace_id\":\"bench\",\"exifCorrection\":true}}").getBytes(StandardCharsets.UTF_8);
+        request = mapper.readValue(json, AnalyzeRequest.class);
+    }
+
+    @Benchmark
+    public AnalyzeRequest read() throws IOException {
+        return mapper.readValue(json, AnalyzeRequest.class);
+    }
+
+    @Benchmark
+    public AnalyzeRequest readLegacy() throws IOException {
+        return mapper.readValue(legacyJson, AnalyzeRequest.class);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return mapper.writeValueAsBytes(request);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.dongjubeauty.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 파일을 FastAPI 멀티파트 본문으로 보낼 때의 요청당 할당량 비교.
+ * 업로드는 Tomcat 처럼 임시 파일에 있다고 가정하고, RestClient 가 쓰는 FormHttpMessageConverter 로 본문을 씁니다.
+ * <ul>
+ *   <li>copyBytes: 기존 faceShapeFile 방식 (getBytes() 후 byte[] 파트)</li>
+ *   <li>streamResource: 파일 리소스를 그대로 스트리밍</li>
+ * </ul>
+ * ./gradlew jmh -Pjmh.includes=MultipartUploadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultipartUploadBenchmark {
+
+    @Param({"1048576", "20971520"})
+    public int uploadBytes;
+
+    private Path tempFile;
+    private MultipartFile file;
+    private final FormHttpMessageConverter converter = new FormHttpMessageConverter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] data = new byte[uploadBytes];
+        new Random(42).nextBytes(data);
+        tempFile = Files.createTempFile("upload-bench", ".jpg");
+        Files.write(tempFile, data);
+        file = new DiskMultipartFile(tempFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Benchmark
+    public void copyBytes() throws IOException {
+        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        mb.part("file", file.getBytes()).filename("photo.jpg").contentType(MediaType.IMAGE_JPEG);
+        write(mb);
+    }
+
+    @Benchmark
+    public void streamResource() throws IOException {
+        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        mb.part("file", file.getResource()).filename("photo.jpg").contentType(MediaType.IMAGE_JPEG);
+        write(mb);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void write(MultipartBodyBuilder mb) throws IOException {
+        MultiValueMap body = mb.build();
+        converter.write(body, MediaType.MULTIPART_FORM_DATA, new NullOutputMessage());
+    }
+
+    /** 본문을 버리는 출력 (네트워크 전송 대신) */
+    private static final class NullOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    /** Tomcat 의 디스크 기반 Part 와 같은 동작을 하는 MultipartFile */
+    private record DiskMultipartFile(Path path) implements MultipartFile {
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public Resource getResource() {
+            return new FileSystemResource(path);
+        }
+
+        @Override
+        public void transferTo(java.io.File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * base64 JSON 요청을 읽어 FastAPI 로 다시 보내는 비용 (파싱 + 전송 본문 쓰기).
+ * <ul>
+ *   <li>jacksonDto: 기존 방식. AnalyzeRequest 로 바인딩(base64 String) 후 JSON 으로 재직렬화</li>
+ *   <li>streamingToJson: 본문에서 바로 디코딩 후 base64 JSON 으로 인코딩하며 쓰기</li>
+ *   <li>streamingToMultipart: 본문에서 바로 디코딩 후 바이너리 멀티파트로 쓰기</li>
+ * </ul>
+ * ./gradlew jmh -Pjmh.includes=Base64ForwardBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Base64ForwardBenchmark {
+
+    /** 디코딩된 이미지 크기 */
+    @Param({"102400", "1048576", "5242880"})
+    public int imageBytes;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final FormHttpMessageConverter form = new FormHttpMessageConverter();
+    private byte[] requestJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+        requestJson = ("{\"image_base64\":\"" + Base64.getEncoder().encodeToString(image)
+                + "\",\"options\":{\"traceId\":\"bench\",\"exif_correction\":true}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void jacksonDto() throws IOException {
+        AnalyzeRequest req = mapper.readValue(requestJson, AnalyzeRequest.class);
+        mapper.writeValue(OutputStream.nullOutputStream(), req);
+    }
+
+    @Benchmark
+    public void streamingToJson() throws IOException {
+        DecodedImageRequest req = read();
+        Base64ImageReader.write(req, mapper, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void streamingToMultipart() throws IOException {
+        DecodedImageRequest req = read();
+        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        mb.part("file", req.asResource()).contentType(req.mediaType());
+        MultiValueMap body = mb.build();
+        form.write(body, MediaType.MULTIPART_FORM_DATA, new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+    }
+
+    private DecodedImageRequest read() throws IOException {
+        // 컨트롤러처럼 Content-Length 로 버퍼 크기를 잡음
+        return Base64ImageReader.read(new ByteArrayInputStream(requestJson), mapper,
+                Long.MAX_VALUE, requestJson.length / 4 * 3);
+    }
+}
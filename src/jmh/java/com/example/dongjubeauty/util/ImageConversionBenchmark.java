@@ -0,0 +1,64 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.support.ImageFixtures;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessOptions;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 샘플(ImageFixtures)별 전처리 비용.
+ * <ul>
+ *   <li>preprocess: 서비스 기본값(긴 변 1600, 품질 0.9, EXIF 회전 보정)으로 전처리</li>
+ *   <li>passThrough: 크기 제한·회전 보정 없음 (JPEG 는 헤더만 읽고 원본 통과, PNG 는 JPEG 재인코딩)</li>
+ *   <li>exifOrientation: EXIF Orientation 태그 읽기</li>
+ * </ul>
+ * ./gradlew jmh -Pjmh.includes=ImageConversionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ImageConversionBenchmark {
+
+    @Param({ImageFixtures.JPEG_SMALL, ImageFixtures.JPEG_MEDIUM, ImageFixtures.JPEG_LARGE,
+            ImageFixtures.JPEG_LARGE_ROTATED, ImageFixtures.PNG_MEDIUM})
+    public String fixture;
+
+    private final PreprocessOptions defaults = new PreprocessOptions(1600, 0.9f, true);
+    private final PreprocessOptions untouched = new PreprocessOptions(Integer.MAX_VALUE, 0.9f, false);
+    private byte[] bytes;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ImageFixtures.Fixture f = ImageFixtures.generated(fixture);
+        bytes = f.bytes();
+        file = new MockMultipartFile("file", f.filename(), f.contentType(), bytes);
+    }
+
+    @Benchmark
+    public PreprocessResult preprocess() throws IOException {
+        return ImageConversionUtils.preprocess(file, defaults);
+    }
+
+    @Benchmark
+    public PreprocessResult passThrough() throws IOException {
+        return ImageConversionUtils.preprocess(file, untouched);
+    }
+
+    @Benchmark
+    public int exifOrientation() {
+        return ImageConversionUtils.readExifOrientation(bytes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 해상도 디코딩(기존 convertToJpegIfHeic 방식) vs 서브샘플링 전처리.
+ * 요청당 할당량은 gc 프로파일러의 gc.alloc.rate.norm(B/op) 으로 비교합니다.
+ *
+ * ./gradlew jmh -Pjmh.includes=ImageDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImageDecodeBenchmark {
+
+    /** 원본 해상도 (가로x세로) */
+    @Param({"4032x3024", "8064x6048"})
+    public String size;
+
+    private byte[] jpeg;
+    private MockMultipartFile file;
+    private final PreprocessOptions options = new PreprocessOptions(1600, 0.9f, false);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] wh = size.split("x");
+        int w = Integer.parseInt(wh[0]);
+        int h = Integer.parseInt(wh[1]);
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        // 압축이 너무 잘 되지 않도록 그라데이션 + 잡음
+        java.util.Random random = new java.util.Random(42);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int r = (x * 255 / w) ^ (random.nextInt(32));
+                int g = (y * 255 / h) ^ (random.nextInt(32));
+                img.setRGB(x, y, (r << 16) | (g << 8) | 128);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "jpeg", out);
+        jpeg = out.toByteArray();
+        file = new MockMultipartFile("file", "photo.png", "image/png", jpeg);
+    }
+
+    @Benchmark
+    public byte[] fullDecode() throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object subsampledPreprocess() throws IOException {
+        return ImageConversionUtils.preprocess(file, options);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.dongjubeauty.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 응답마다 붙이는 한국어 라벨 비용 (addKoreanLabels).
+ * payload: 퍼스널 컬러 / 얼굴형 / 오류 응답, 각각 Accept-Language 없음(기본 한국어)과 영어 요청.
+ *
+ * ./gradlew jmh -Pjmh.includes=LocalizationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocalizationBenchmark {
+
+    @Param({"personal_color", "face_shape", "error"})
+    public String payload;
+
+    private Map<String, Object> response;
+
+    @Setup
+    public void setUp() {
+        response = new LinkedHashMap<>();
+        switch (payload) {
+            case "personal_color" -> {
+                response.put("status", "ok");
+                response.put("season", "Spring");
+                response.put("tone", "WARM");
+                response.put("traceId", "bench-trace");
+                response.put("confidence", 0.92);
+            }
+            case "face_shape" -> {
+                response.put("status", "ok");
+                response.put("face_shape", "oval");
+                response.put("traceId", "bench-trace");
+            }
+            default -> {
+                response.put("status", "error");
+                response.put("code", "NO_FACE");
+                response.put("message", "no face detected");
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> korean() {
+        return LocalizationUtils.addKoreanLabels(response);
+    }
+
+    @Benchmark
+    public Map<String, Object> english() {
+        return LocalizationUtils.addKoreanLabels(response, "en-US,en;q=0.9");
+    }
+}
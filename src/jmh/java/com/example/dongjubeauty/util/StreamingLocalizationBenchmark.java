@@ -0,0 +1,78 @@
+package com.example.dongjubeauty.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 디버그 응답(랜드마크 배열 + base64 오버레이)에 라벨을 붙여 다시 쓰는 비용.
+ * mapRoundTrip: Map 으로 읽기 → addKoreanLabels → 다시 직렬화 (기존 경로)
+ * streaming:    StreamingLocalizer 로 토큰을 그대로 옮기며 라벨 추가
+ * overlayKb: 0 이면 디버그 없는 일반 응답.
+ *
+ * ./gradlew jmh -Pjmh.includes=StreamingLocalizationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamingLocalizationBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"0", "64", "512", "2048"})
+    public int overlayKb;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "ok");
+        body.put("season", "Autumn");
+        body.put("tone", "warm");
+        body.put("confidence", 0.87);
+        body.put("traceId", "bench-trace");
+        if (overlayKb > 0) {
+            List<List<Double>> landmarks = new ArrayList<>();
+            for (int i = 0; i < 468; i++) {
+                landmarks.add(List.of(random.nextDouble(), random.nextDouble(), random.nextDouble()));
+            }
+            byte[] overlay = new byte[overlayKb * 1024];
+            random.nextBytes(overlay);
+            Map<String, Object> debug = new LinkedHashMap<>();
+            debug.put("landmarks", landmarks);
+            debug.put("skin_rgb", List.of(212, 176, 150));
+            debug.put("overlay_png_base64", Base64.getEncoder().encodeToString(overlay));
+            body.put("debug", debug);
+        }
+        json = mapper.writeValueAsString(body);
+    }
+
+    @Benchmark
+    public byte[] mapRoundTrip() throws IOException {
+        return mapper.writeValueAsBytes(LocalizationUtils.addKoreanLabels(mapper.readValue(json, MAP_TYPE)));
+    }
+
+    @Benchmark
+    public byte[] streaming() throws IOException {
+        return StreamingLocalizer.localize(json);
+    }
+}
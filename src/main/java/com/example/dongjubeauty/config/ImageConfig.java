@@ -0,0 +1,12 @@
+package com.example.dongjubeauty.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 업로드 이미지 처리 설정.
+ */
+@Configuration
+@EnableConfigurationProperties(ImageProperties.class)
+public class ImageConfig {
+}
@@ -0,0 +1,162 @@
+package com.example.dongjubeauty.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * 업로드 이미지 처리 설정 바인딩.
+ * application.properties 의 image.* 값을 주입받습니다.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "image")
+public class ImageProperties {
+
+    /** 업로드 전 축소/재인코딩 (image.preprocess.*) */
+    @Valid
+    private Preprocess preprocess = new Preprocess();
+
+    /** base64 JSON 요청 처리 (image.json.*) */
+    @Valid
+    private Json json = new Json();
+
+    /** 변환 전용 스레드 풀 (image.executor.*) */
+    @Valid
+    private Executor executor = new Executor();
+
+    /** 비슷한 이미지의 이전 분석 재사용 (image.near-duplicate.*) */
+    @Valid
+    private NearDuplicate nearDuplicate = new NearDuplicate();
+
+    /** FastAPI 호출 전 빠른 검사 (image.validation.*) */
+    @Valid
+    private Validation validation = new Validation();
+
+    @Data
+    public static class Preprocess {
+        /** false 면 HEIC 만 JPEG 로 변환하고 나머지는 원본 그대로 전송 */
+        private boolean enabled = true;
+
+        /** 긴 변 기준 최대 픽셀 수. 이보다 크면 비율을 유지해 축소 */
+        @Min(64)
+        private int maxDimension = 1600;
+
+        /** 재인코딩 JPEG 품질 (0.0 ~ 1.0) */
+        @DecimalMin("0.1")
+        @DecimalMax("1.0")
+        private float jpegQuality = 0.9f;
+
+        /** 변환 1건당 디코딩 래스터 메모리 상한. 넘으면 서브샘플링해서 읽음 */
+        @NotNull
+        private DataSize maxDecodeSize = DataSize.ofMegabytes(64);
+    }
+
+    @Data
+    public static class Executor {
+        /** 변환 스레드 수. 0 이면 CPU 코어 수 */
+        @Min(0)
+        private int threads = 0;
+
+        /** 대기열 크기. 가득 차면 503 BUSY 로 즉시 거절 */
+        @Min(0)
+        private int queueCapacity = 64;
+
+        /** 대기 시간을 포함한 작업 1건 제한 시간 */
+        @NotNull
+        private Duration taskTimeout = Duration.ofSeconds(15);
+
+        public int resolvedThreads() {
+            return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    @Data
+    public static class NearDuplicate {
+        /** 전처리 중 dHash(64비트)를 계산해 재압축·EXIF 제거·HEIC 변환본도 같은 사진으로 인식 */
+        private boolean enabled = true;
+
+        /** 같은 사진으로 볼 최대 해밍 거리 (0 이면 dHash 완전 일치만) */
+        @Min(0)
+        @Max(16)
+        private int threshold = 4;
+
+        /**
+         * 퍼스널 컬러 분석에서 같은 사진으로 볼 최대 평균 색차(Cb/Cr, 0~255) 차이.
+         * dHash 는 밝기만 보므로 화이트밸런스·필터만 바꾼 사진이 이전 계절·톤을 받지 않도록 색도 비교 (얼굴형은 비교하지 않음)
+         */
+        @Min(0)
+        @Max(255)
+        private int colorTolerance = 3;
+
+        /** 기억할 이미지 해시 수. 넘으면 오래된 것부터 제거 */
+        @Min(1)
+        private int capacity = 20_000;
+    }
+
+    @Data
+    public static class Validation {
+        /** false 면 검사 없이 기존처럼 FastAPI 판단에 맡김 */
+        private boolean enabled = true;
+
+        /** 짧은 변 최소 픽셀. 이보다 작으면 LOW_QUALITY */
+        @Min(1)
+        private int minDimension = 128;
+
+        /** 최대 픽셀 수 (가로 x 세로). 넘으면 디코딩 없이 IMAGE_TOO_LARGE */
+        @Min(1)
+        private long maxPixels = 100_000_000L;
+
+        /** 썸네일 밝기·선명도 검사 (Exif 썸네일이 없으면 전처리가 디코딩한 이미지로 측정) */
+        private boolean qualityCheck = true;
+
+        /** 평균 밝기(0~255)가 이보다 낮으면 LOW_QUALITY (너무 어두움) */
+        @Min(0)
+        @Max(255)
+        private int minLuminance = 20;
+
+        /** 평균 밝기(0~255)가 이보다 높으면 LOW_QUALITY (너무 밝음) */
+        @Min(0)
+        @Max(255)
+        private int maxLuminance = 240;
+
+        /** 128칸 밝기 격자 라플라시안 분산이 이보다 낮으면 LOW_QUALITY (심하게 흐리거나 단색) */
+        @DecimalMin("0.0")
+        private double minSharpness = 2.0;
+
+        /** 피부색 셀 비율이 이보다 낮으면 NO_FACE. 흑백 사진도 걸리므로 기본은 0(끔) */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double minSkinRatio = 0.0;
+    }
+
+    @Data
+    public static class Json {
+        /** image_base64 를 디코딩한 이미지 최대 크기 */
+        @NotNull
+        private DataSize maxImageSize = DataSize.ofMegabytes(20);
+
+        /**
+         * FastAPI 로 보내는 방식. 기본은 기존 계약대로 JSON.
+         * MULTIPART 는 파일 엔드포인트로 보내므로 debug/exif_correction/traceId 외 옵션은 전달되지 않음
+         */
+        @NotNull
+        private Transport upstream = Transport.JSON;
+    }
+
+    public enum Transport {
+        /** 디코딩한 바이너리를 /analyze/file, /face-shape/file 로 멀티파트 전송 */
+        MULTIPART,
+        /** 기존처럼 /analyze, /face-shape 로 base64 JSON 전송 (인코딩하며 스트리밍) */
+        JSON
+    }
+}
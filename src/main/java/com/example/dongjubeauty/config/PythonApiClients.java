@@ -0,0 +1,53 @@
+package com.example.dongjubeauty.config;
+
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * FastAPI 엔드포인트별 RestClient/WebClient 묶음.
+ * 모두 하나의 커넥션 풀(HttpClient)을 공유하고, 응답 타임아웃만 엔드포인트별로 다릅니다.
+ * 레플리카 분산을 위해 base URL 없이 만들고, 호출 시 레플리카 기준 절대 URI 를 지정합니다.
+ */
+public class PythonApiClients {
+
+    private final Map<AnalysisEndpoint, RestClient> restClients = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<AnalysisEndpoint, WebClient> webClients = new EnumMap<>(AnalysisEndpoint.class);
+
+    public PythonApiClients(HttpClient httpClient,
+                            RestClient.Builder restClientBuilder,
+                            WebClient.Builder webClientBuilder,
+                            PythonApiProperties props) {
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            HttpClient client = httpClient.responseTimeout(props.getTimeout().readFor(endpoint));
+
+            restClients.put(endpoint, restClientBuilder.clone()
+                    .requestFactory(new ReactorClientHttpRequestFactory(client))
+                    .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .build());
+
+            webClients.put(endpoint, webClientBuilder.clone()
+                    .clientConnector(new ReactorClientHttpConnector(client))
+                    .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .build());
+        }
+    }
+
+    /** 블로킹 호출용 */
+    public RestClient rest(AnalysisEndpoint endpoint) {
+        return restClients.get(endpoint);
+    }
+
+    /** 논블로킹 호출용 */
+    public WebClient web(AnalysisEndpoint endpoint) {
+        return webClients.get(endpoint);
+    }
+}
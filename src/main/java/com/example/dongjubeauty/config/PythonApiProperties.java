@@ -1,10 +1,27 @@
 package com.example.dongjubeauty.config;
 
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * FastAPI 연결 설정 바인딩.
  * application.yml 의 python.api.* 값을 주입받습니다.
@@ -17,4 +34,480 @@ public class PythonApiProperties {
     /** FastAPI 베이스 URL (예: http://localhost:7880) */
     @NotBlank
     private String baseUrl;
+
+    /**
+     * FastAPI 레플리카 목록 (예: python.api.base-urls=http://py-1:8000,http://py-2:8000).
+     * 지정하면 base-url 대신 이 목록에 요청을 분산합니다.
+     */
+    private List<String> baseUrls = new ArrayList<>();
+
+    /** 레플리카 간 부하 분산 (python.api.balancer.*) */
+    @Valid
+    private Balancer balancer = new Balancer();
+
+    /** 분석 결과 캐시 (python.api.cache.*) */
+    @Valid
+    private Cache cache = new Cache();
+
+    /** 동일 요청 병합 (python.api.coalescing.*) */
+    @Valid
+    private Coalescing coalescing = new Coalescing();
+
+    /** FastAPI 커넥션 풀 (python.api.pool.*) */
+    @Valid
+    private Pool pool = new Pool();
+
+    /** 연결/응답 타임아웃 (python.api.timeout.*) */
+    @Valid
+    private Timeout timeout = new Timeout();
+
+    /** 업스트림 HTTP 프로토콜 */
+    @NotNull
+    private Protocol protocol = Protocol.HTTP11;
+
+    /** 블로킹 경로 가상 스레드 실행 (python.api.virtual-threads.*) */
+    @Valid
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    /** 실제 요청을 보낼 업스트림 목록 */
+    public List<String> getUpstreams() {
+        return baseUrls.isEmpty() ? List.of(baseUrl) : List.copyOf(baseUrls);
+    }
+
+    /** 엔드포인트별 적응형 동시 처리 한도 (python.api.limiter.*) */
+    @Valid
+    private Limiter limiter = new Limiter();
+
+    /** 한도를 넘은 요청의 대기열: 클라이언트·우선순위별 가중 공정 큐 (python.api.scheduler.*) */
+    @Valid
+    private Scheduler scheduler = new Scheduler();
+
+    /** 일시적 실패 재시도 (python.api.retry.*) */
+    @Valid
+    private Retry retry = new Retry();
+
+    /** 느린 응답 대비 중복 요청 (python.api.hedge.*) */
+    @Valid
+    private Hedge hedge = new Hedge();
+
+    /** 엔드포인트별 서킷 브레이커 (python.api.circuit-breaker.*) */
+    @Valid
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /** 배치 분석 (python.api.batch.*) */
+    @Valid
+    private Batch batch = new Batch();
+
+    /** 비동기 분석 작업 (python.api.jobs.*) */
+    @Valid
+    private Jobs jobs = new Jobs();
+
+    @Data
+    public static class Cache {
+        /** false 면 매 요청을 FastAPI 로 그대로 전달 */
+        private boolean enabled = true;
+
+        /**
+         * 메모리 캐시 최대 크기 (결과 본문 길이 합, 초과 시 덜 쓰인 항목부터 제거).
+         * 개수가 아니라 크기로 제한해 수 MB 오버레이가 붙은 debug 응답이 몰려도 힙을 넘지 않도록 합니다.
+         */
+        @NotNull
+        private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+        /** 저장 후 만료 시간 */
+        @NotNull
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /** 메모리 캐시 아래 2차 디스크 캐시 (python.api.cache.disk.*) */
+        @Valid
+        private Disk disk = new Disk();
+    }
+
+    @Data
+    public static class Disk {
+        /** true 면 결과를 로컬 디스크에도 저장해 재시작 후에도 FastAPI 호출 없이 돌려줌 */
+        private boolean enabled = false;
+
+        /** 저장 디렉터리 (로그·인덱스 파일) */
+        @NotNull
+        private Path directory = Path.of("data/result-cache");
+
+        /** 디스크에 저장한 결과의 만료 시간 */
+        @NotNull
+        private Duration ttl = Duration.ofHours(24);
+
+        /** 보관할 최대 결과 수 (인덱스 크기). 넘으면 압축 때 오래된 결과부터 버림 */
+        @Min(16)
+        private int maxEntries = 100_000;
+
+        /** 로그 파일 최대 크기. 가까워지면 압축 */
+        @NotNull
+        private DataSize maxLogSize = DataSize.ofMegabytes(512);
+
+        /** 압축이 필요한지 확인하는 주기 (만료·덮어쓴 결과 정리) */
+        @NotNull
+        private Duration compactionInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Coalescing {
+        /** 같은 이미지·옵션으로 동시에 들어온 요청을 FastAPI 호출 1회로 병합 */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Pool {
+        /** 업스트림 최대 동시 커넥션 수 */
+        @Min(1)
+        private int maxConnections = 500;
+
+        /** 커넥션 획득 대기열 최대 길이 (-1 이면 제한 없음) */
+        @Min(-1)
+        private int pendingAcquireMaxCount = -1;
+
+        /** 커넥션 획득 대기 최대 시간 */
+        @NotNull
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+        /** 이 시간 이상 쓰이지 않은 커넥션은 닫음 (FastAPI/uvicorn keep-alive 보다 짧게) */
+        @NotNull
+        private Duration maxIdleTime = Duration.ofSeconds(4);
+
+        /** 커넥션 최대 수명 (재배포된 FastAPI 인스턴스로 점진적으로 옮겨가도록) */
+        @NotNull
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /** 백그라운드 유휴/만료 커넥션 정리 주기 */
+        @NotNull
+        private Duration evictionInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Timeout {
+        @NotNull
+        private Duration connect = Duration.ofSeconds(3);
+
+        /** 엔드포인트별 지정이 없을 때의 응답 타임아웃 */
+        @NotNull
+        private Duration read = Duration.ofSeconds(20);
+
+        /** 엔드포인트별 응답 타임아웃 (예: python.api.timeout.endpoints.analyze-file=60s) */
+        private Map<AnalysisEndpoint, Duration> endpoints = new EnumMap<>(Map.of(
+                AnalysisEndpoint.ANALYZE_FILE, Duration.ofSeconds(60)));
+
+        public Duration readFor(AnalysisEndpoint endpoint) {
+            return endpoints.getOrDefault(endpoint, read);
+        }
+    }
+
+    public enum Protocol {
+        /** HTTP/1.1 keep-alive */
+        HTTP11,
+        /** TLS 위 HTTP/2 (https base-url, HTTP/1.1 폴백) */
+        H2,
+        /** 평문 HTTP/2 (prior knowledge) */
+        H2C
+    }
+
+    @Data
+    public static class VirtualThreads {
+        /**
+         * true 면 Tomcat 요청을 가상 스레드에서 처리합니다.
+         * 업스트림 호출은 Reactor Netty 응답을 park 로 기다리므로 캐리어 스레드를 고정(pinning)하지 않습니다.
+         */
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class Balancer {
+        @NotNull
+        private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+
+        /** 연속 실패(연결 오류/타임아웃/5xx)가 이 횟수에 도달하면 레플리카를 격리 */
+        @Min(1)
+        private int failureThreshold = 3;
+
+        /** 첫 격리 시간 (반복 격리 시 두 배씩 늘어남) */
+        @NotNull
+        private Duration ejectionTime = Duration.ofSeconds(30);
+
+        /** 격리 시간 상한 */
+        @NotNull
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /** 격리 해제 후 요청 비중을 서서히 늘리는 기간 */
+        @NotNull
+        private Duration slowStart = Duration.ofSeconds(30);
+    }
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        /** 진행 중 요청 수가 가장 적은 레플리카 */
+        LEAST_OUTSTANDING,
+        /** 무작위 두 레플리카 중 진행 중 요청 수가 적은 쪽 */
+        POWER_OF_TWO_CHOICES
+    }
+
+    /**
+     * Gradient 방식 적응형 한도: 최근 응답 시간이 장기 평균보다 길어지면 한도를 줄이고,
+     * 비슷하면 sqrt(limit) 만큼 여유를 두고 늘립니다. 타임아웃/5xx 는 backoff 비율로 즉시 줄입니다.
+     */
+    @Data
+    public static class Limiter {
+        private boolean enabled = true;
+
+        @Min(1)
+        private int initialLimit = 20;
+
+        @Min(1)
+        private int minLimit = 2;
+
+        @Min(1)
+        private int maxLimit = 200;
+
+        /** 엔드포인트별 최대 한도 (예: python.api.limiter.max-limits.face-shape-file=50) */
+        private Map<AnalysisEndpoint, Integer> maxLimits = new EnumMap<>(AnalysisEndpoint.class);
+
+        /** 장기 평균 대비 허용하는 응답 시간 배수 */
+        @DecimalMin("1.0")
+        private double rttTolerance = 1.5;
+
+        /** 새 한도 반영 비율 (0~1) */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double smoothing = 0.2;
+
+        /** 타임아웃/5xx 발생 시 한도에 곱하는 비율 */
+        @DecimalMin("0.1")
+        @DecimalMax("1.0")
+        private double backoffRatio = 0.9;
+
+        /** 장기 평균 응답 시간을 계산하는 표본 수 */
+        @Min(1)
+        private int longWindow = 100;
+
+        public int maxLimitFor(AnalysisEndpoint endpoint) {
+            return maxLimits.getOrDefault(endpoint, maxLimit);
+        }
+    }
+
+    /**
+     * 동시 처리 한도가 차면 요청을 엔드포인트별 대기열에 넣고, 한도가 비는 대로 가중 공정 순서(start-time fair queueing)로 꺼냅니다.
+     * 흐름(우선순위 등급 + 클라이언트)마다 순번을 비용 / (등급 가중치 × 클라이언트 가중치) 만큼 늘려,
+     * 한 클라이언트가 대기열을 채워도 다른 클라이언트 요청이 그 사이사이 나가게 합니다.
+     * 최대 대기 시간이나 호출자 제한 시간을 넘긴 요청은 FastAPI 로 보내지 않고 QUEUE_TIMEOUT(503)으로 버립니다.
+     */
+    @Data
+    public static class Scheduler {
+        /** false 면 한도를 넘는 요청을 기다리지 않고 바로 OVERLOADED 로 거절 */
+        private boolean enabled = true;
+
+        /** 엔드포인트별 최대 대기 요청 수 (넘으면 OVERLOADED) */
+        @Min(1)
+        private int maxQueueDepth = 200;
+
+        /** 한 클라이언트가 엔드포인트별로 쌓을 수 있는 최대 대기 요청 수 */
+        @Min(1)
+        private int maxQueuedPerClient = 50;
+
+        /** 대화형 요청 가중치 */
+        @Min(1)
+        private int interactiveWeight = 8;
+
+        /** bulk(배치·작업·debug) 요청 가중치 */
+        @Min(1)
+        private int bulkWeight = 1;
+
+        /** debug=true 요청 한 건의 비용 (일반 요청 = 1) */
+        @Min(1)
+        private int debugCost = 4;
+
+        /** 대화형 요청 최대 대기 시간 */
+        @NotNull
+        private Duration interactiveMaxWait = Duration.ofSeconds(5);
+
+        /** bulk 요청 최대 대기 시간 */
+        @NotNull
+        private Duration bulkMaxWait = Duration.ofSeconds(30);
+
+        /**
+         * 클라이언트 식별 헤더. 검증되지 않은 값이므로 trust-client-header 이거나 알려진 클라이언트일 때만 쓰고,
+         * 나머지는 원격 주소로 구분합니다 (요청마다 새 키를 보내 공정 분배·클라이언트별 대기 한도를 피하지 못하도록).
+         */
+        @NotBlank
+        private String clientHeader = "X-Api-Key";
+
+        /** 헤더 값을 그대로 믿음. 앞단 게이트웨이가 인증 후 이 헤더를 직접 설정할 때만 켭니다 */
+        private boolean trustClientHeader = false;
+
+        /** 헤더 값으로 인정할 클라이언트 키 (client-weights 에 있는 키도 인정) */
+        private Set<String> knownClients = new HashSet<>();
+
+        /** 값이 bulk 이면 bulk 등급으로 처리 */
+        @NotBlank
+        private String priorityHeader = "X-Priority";
+
+        /** 호출자 제한 시간(ms). 대기 중 이 시간이 지나면 버림 */
+        @NotBlank
+        private String deadlineHeader = "X-Request-Timeout";
+
+        /** 클라이언트별 가중치 (예: python.api.scheduler.client-weights.partner-a=2, 기본 1) */
+        private Map<String, Integer> clientWeights = new HashMap<>();
+
+        public int weightOf(String clientKey) {
+            return Math.max(1, clientWeights.getOrDefault(clientKey, 1));
+        }
+
+        public boolean isKnownClient(String clientKey) {
+            return knownClients.contains(clientKey) || clientWeights.containsKey(clientKey);
+        }
+    }
+
+    /**
+     * 연결 오류와 502/503/504 만 재시도합니다 (분석은 부수 효과가 없어 같은 이미지를 다시 보내도 안전).
+     * 응답 타임아웃은 이미 제한 시간을 다 기다린 뒤이므로 재시도하지 않고 hedge 로 대응합니다.
+     * 재시도·hedge 는 같은 예산을 쓰며, 예산은 최근 budget-window 동안 요청 수 × budget-ratio + 초당 최소 허용량입니다.
+     */
+    @Data
+    public static class Retry {
+        private boolean enabled = true;
+
+        /** 요청 1건당 최대 재시도 횟수 */
+        @Min(0)
+        private int maxRetries = 2;
+
+        /** 첫 재시도 대기 상한 (재시도마다 두 배, 0 ~ 상한 사이 무작위) */
+        @NotNull
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        /** 재시도 대기 상한 */
+        @NotNull
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /** 요청 대비 허용하는 재시도·hedge 비율 */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double budgetRatio = 0.1;
+
+        /** 요청이 적을 때도 허용하는 초당 재시도·hedge 수 */
+        @Min(0)
+        private int minRetriesPerSecond = 5;
+
+        /** 예산 계산 구간 */
+        @NotNull
+        private Duration budgetWindow = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 첫 요청이 최근 응답 시간의 quantile(기본 p95) 안에 끝나지 않으면 다른 레플리카로 같은 요청을 한 번 더 보내고,
+     * 먼저 도착한 응답을 쓰며 나머지는 취소합니다. 파일 분석(reactive 경로와 /api/analyze/file, /api/face-shape/file)에 적용됩니다.
+     * 레플리카가 하나뿐이면 hedge 하지 않습니다.
+     */
+    @Data
+    public static class Hedge {
+        private boolean enabled = true;
+
+        /** hedge 지연으로 쓸 응답 시간 분위수 */
+        @DecimalMin("0.5")
+        @DecimalMax("0.999")
+        private double quantile = 0.95;
+
+        /** 엔드포인트별로 보관하는 최근 응답 시간 표본 수 */
+        @Min(16)
+        private int window = 512;
+
+        /** 표본이 이만큼 모이기 전에는 hedge 하지 않음 */
+        @Min(1)
+        private int minSamples = 50;
+
+        /** hedge 지연 하한 */
+        @NotNull
+        private Duration minDelay = Duration.ofMillis(50);
+
+        /** hedge 지연 상한 */
+        @NotNull
+        private Duration maxDelay = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 최근 window-size 건 중 실패(연결 오류/타임아웃/5xx) 비율이나 느린 응답 비율이 기준을 넘으면 열고,
+     * open-duration 동안 FastAPI 를 호출하지 않고 즉시 CIRCUIT_OPEN(503)으로 응답합니다.
+     * 그 뒤 half-open-calls 건만 시험 삼아 보내 결과가 기준 안이면 닫고, 아니면 다시 엽니다.
+     */
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+
+        /** 실패율을 계산하는 최근 호출 수 */
+        @Min(1)
+        private int windowSize = 50;
+
+        /** 이만큼 호출이 쌓이기 전에는 열지 않음 */
+        @Min(1)
+        private int minimumCalls = 20;
+
+        /** 이 비율 이상 실패하면 열림 */
+        @DecimalMin("0.01")
+        @DecimalMax("1.0")
+        private double failureRateThreshold = 0.5;
+
+        /** 이 비율 이상 느린 응답이면 열림 */
+        @DecimalMin("0.01")
+        @DecimalMax("1.0")
+        private double slowCallRateThreshold = 0.8;
+
+        /** 엔드포인트별 지정이 없을 때 느린 응답 기준 */
+        @NotNull
+        private Duration slowCallDuration = Duration.ofSeconds(15);
+
+        /** 엔드포인트별 느린 응답 기준 (예: python.api.circuit-breaker.slow-call-durations.analyze-file=40s) */
+        private Map<AnalysisEndpoint, Duration> slowCallDurations = new EnumMap<>(Map.of(
+                AnalysisEndpoint.ANALYZE_FILE, Duration.ofSeconds(40)));
+
+        /** 열린 뒤 시험 호출을 허용하기까지 기다리는 시간 */
+        @NotNull
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /** half-open 상태에서 허용하는 시험 호출 수 */
+        @Min(1)
+        private int halfOpenCalls = 5;
+
+        public Duration slowCallDurationFor(AnalysisEndpoint endpoint) {
+            return slowCallDurations.getOrDefault(endpoint, slowCallDuration);
+        }
+    }
+
+    @Data
+    public static class Batch {
+        /** 요청 1건에 담을 수 있는 최대 이미지 수 */
+        @Min(1)
+        private int maxItems = 50;
+
+        /** 배치 1건이 동시에 보내는 FastAPI 요청 수 */
+        @Min(1)
+        private int parallelism = 4;
+    }
+
+    @Data
+    public static class Jobs {
+        /** 실행을 기다릴 수 있는 최대 작업 수 (초과 시 JOB_QUEUE_FULL) */
+        @Min(1)
+        private int queueCapacity = 200;
+
+        /** 동시에 실행하는 작업 수 */
+        @Min(1)
+        private int parallelism = 8;
+
+        /** 보관할 최대 작업 수 (초과 시 오래된 작업부터 제거) */
+        @Min(1)
+        private long maxStored = 10_000;
+
+        /** 마지막 상태 변경 후 작업/결과 보관 시간 */
+        @NotNull
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /** SSE 연결 유지용 주석 이벤트 간격 (모바일 프록시의 유휴 연결 종료 방지) */
+        @NotNull
+        private Duration sseHeartbeat = Duration.ofSeconds(15);
+    }
 }
@@ -1,14 +1,22 @@
 package com.example.dongjubeauty.config;
 
+import io.netty.channel.ChannelOption;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+/**
+ * FastAPI 업스트림 클라이언트 설정.
+ * RestClient(블로킹)와 WebClient(논블로킹)가 같은 Reactor Netty 커넥션 풀을 공유합니다.
+ * 풀 사용량·커넥션 획득 대기 시간은 reactor.netty.connection.provider.*,
+ * 연결·요청 전송·응답 대기(추론) 구간은 reactor.netty.http.client.* 메트릭으로 노출됩니다.
+ */
 @Configuration
 @EnableConfigurationProperties(PythonApiProperties.class)
 @RequiredArgsConstructor
@@ -16,17 +24,45 @@ public class RestClientConfig {
 
     private final PythonApiProperties props;
 
-    @Bean
-    public RestClient pythonRestClient(RestClient.Builder builder) {
-        // 가벼운 JDK HttpURLConnection 기반 + 타임아웃 설정
-        SimpleClientHttpRequestFactory rf = new SimpleClientHttpRequestFactory();
-        rf.setConnectTimeout(3_000); // 3s
-        rf.setReadTimeout(20_000);   // 20s
-
-        return builder
-                .baseUrl(props.getBaseUrl())
-                .requestFactory(rf)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider pythonConnectionProvider() {
+        PythonApiProperties.Pool pool = props.getPool();
+        return ConnectionProvider.builder("python-api")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
                 .build();
     }
+
+    @Bean
+    public HttpClient pythonHttpClient(ConnectionProvider pythonConnectionProvider) {
+        HttpClient client = HttpClient.create(pythonConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) props.getTimeout().getConnect().toMillis())
+                .responseTimeout(props.getTimeout().getRead())
+                .compress(true)
+                // uri 태그는 쿼리를 뗀 FastAPI 경로만 (debug/exif_correction 조합으로 시계열이 늘지 않게)
+                .metrics(true, RestClientConfig::pathOnly);
+
+        return switch (props.getProtocol()) {
+            case HTTP11 -> client.protocol(HttpProtocol.HTTP11);
+            case H2 -> client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+            case H2C -> client.protocol(HttpProtocol.H2C);
+        };
+    }
+
+    @Bean
+    public PythonApiClients pythonApiClients(HttpClient pythonHttpClient,
+                                             RestClient.Builder restClientBuilder,
+                                             WebClient.Builder webClientBuilder) {
+        return new PythonApiClients(pythonHttpClient, restClientBuilder, webClientBuilder, props);
+    }
+
+    private static String pathOnly(String uri) {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.dongjubeauty.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 기동 워밍업 설정.
+ */
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfig {
+}
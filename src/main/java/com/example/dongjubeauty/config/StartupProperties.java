@@ -0,0 +1,49 @@
+package com.example.dongjubeauty.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * 기동 직후 지연을 줄이는 설정 바인딩.
+ * application.properties 의 startup.* 값을 주입받습니다.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "startup")
+public class StartupProperties {
+
+    /** readiness 전 워밍업 (startup.warmup.*) */
+    @Valid
+    private Warmup warmup = new Warmup();
+
+    /** 워밍업이 끝나면 바로 종료 (CDS 아카이브 학습 실행용, ./gradlew cdsArchive 가 켬) */
+    private boolean exitAfterWarmup = false;
+
+    @Data
+    public static class Warmup {
+        /** false 면 워밍업 없이 바로 요청을 받음 */
+        private boolean enabled = true;
+
+        /** 코덱·JSON 경로 반복 횟수 (JIT 가 자주 쓰는 메서드를 컴파일하도록) */
+        @Min(1)
+        private int iterations = 8;
+
+        /** 레플리카마다 미리 열어 둘 FastAPI 커넥션 수 (0 이면 커넥션 준비 생략) */
+        @Min(0)
+        private int upstreamConnections = 4;
+
+        /** 커넥션 준비용 GET 경로 (상태 코드는 보지 않음) */
+        @NotNull
+        private String upstreamPath = "/";
+
+        /** 커넥션 준비 제한 시간. FastAPI 가 아직 없으면 기다리지 않고 넘어감 */
+        @NotNull
+        private Duration upstreamTimeout = Duration.ofSeconds(3);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.dongjubeauty.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * python.api.virtual-threads.enabled=true 일 때 Tomcat 요청을 가상 스레드에서 처리합니다.
+ * FastAPI 응답을 기다리는 동안(최대 20초) 플랫폼 워커를 점유하지 않으므로
+ * 블로킹 RestClient 경로도 동시 요청 수가 server.tomcat.threads.max 에 묶이지 않습니다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "python.api.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
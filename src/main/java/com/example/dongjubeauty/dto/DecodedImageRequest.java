@@ -0,0 +1,78 @@
+package com.example.dongjubeauty.dto;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+
+/**
+ * 요청 본문을 읽으면서 base64 를 바로 디코딩한 {@link AnalyzeRequest}.
+ * image_base64 문자열은 만들지 않고 디코딩된 바이트(buffer 의 앞 length 바이트)와 그 SHA-256 만 보관합니다.
+ *
+ * @param imageHash 디코딩된 이미지 바이트의 SHA-256 (캐시 키)
+ * @param options   AnalyzeRequest 와 같은 옵션 (traceId/trace_id, exif_correction/exifCorrection, debug)
+ */
+public record DecodedImageRequest(byte[] buffer, int length, String imageHash, AnalyzeRequest.Options options) {
+
+    public InputStream openStream() {
+        return new ByteArrayInputStream(buffer, 0, length);
+    }
+
+    /** exif_correction (기본 true) */
+    public boolean exifCorrection() {
+        return options == null || !Boolean.FALSE.equals(options.getExifCorrection());
+    }
+
+    public boolean debug() {
+        return options != null && Boolean.TRUE.equals(options.getDebug());
+    }
+
+    public String traceId() {
+        return options != null ? options.getTraceId() : null;
+    }
+
+    /** 매직 바이트로 추정한 이미지 타입 (모르면 application/octet-stream) */
+    public MediaType mediaType() {
+        try {
+            String guessed = URLConnection.guessContentTypeFromStream(openStream());
+            return guessed != null ? MediaType.parseMediaType(guessed) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (IOException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    /** 멀티파트 파트용 리소스 (버퍼 복사 없음, 다시 읽기 가능) */
+    public Resource asResource() {
+        String filename = "upload." + switch (mediaType().getSubtype()) {
+            case "jpeg" -> "jpg";
+            case "png" -> "png";
+            case "gif" -> "gif";
+            default -> "bin";
+        };
+        return new AbstractResource() {
+            @Override
+            public InputStream getInputStream() {
+                return openStream();
+            }
+
+            @Override
+            public long contentLength() {
+                return length;
+            }
+
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+
+            @Override
+            public String getDescription() {
+                return "decoded image_base64 [" + length + " bytes]";
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.dongjubeauty.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * FastAPI 분석 엔드포인트 목록.
+ * 캐시 키·메트릭 태그에서 엔드포인트를 구분할 때 사용합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AnalysisEndpoint {
+
+    ANALYZE_JSON("/analyze", "analyze", true),
+    ANALYZE_FILE("/analyze/file", "analyze_file", true),
+    FACE_SHAPE_JSON("/face-shape", "face_shape", false),
+    FACE_SHAPE_FILE("/face-shape/file", "face_shape_file", false);
+
+    /** FastAPI 경로 */
+    private final String path;
+
+    /** 메트릭 태그 값 */
+    private final String tag;
+
+    /** 색(화이트밸런스·필터)이 결과를 바꾸는 분석인지 (퍼스널 컬러) */
+    private final boolean colorSensitive;
+}
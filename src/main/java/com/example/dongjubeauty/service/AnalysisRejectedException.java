@@ -0,0 +1,90 @@
+package com.example.dongjubeauty.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * FastAPI 를 호출하지 않고 즉시 거절한 요청.
+ * code 는 {@link com.example.dongjubeauty.util.LocalizationUtils#addKoreanLabels} 가 한국어 메시지로 변환합니다.
+ */
+@Getter
+public class AnalysisRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HttpStatus status;
+    private final String code;
+    /** 클라이언트에 알려줄 재시도 대기 시간 (없으면 null) */
+    private final Duration retryAfter;
+
+    public AnalysisRejectedException(HttpStatus status, String code, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.code = code;
+        this.retryAfter = retryAfter;
+    }
+
+    /** 동시 처리 한도 초과(부하 차단) */
+    public static AnalysisRejectedException overloaded(AnalysisEndpoint endpoint) {
+        return new AnalysisRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "OVERLOADED",
+                "분석 요청이 많아 처리할 수 없습니다: " + endpoint.getPath(), Duration.ofSeconds(1));
+    }
+
+    /** 업스트림 대기열에서 최대 대기 시간(또는 호출자 제한 시간)을 넘김 */
+    public static AnalysisRejectedException queueTimeout(AnalysisEndpoint endpoint) {
+        return new AnalysisRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "QUEUE_TIMEOUT",
+                "분석 대기 시간이 초과되었습니다: " + endpoint.getPath(), Duration.ofSeconds(2));
+    }
+
+    /** FastAPI 장애로 서킷 브레이커가 열려 있음 (retryAfter = 시험 호출까지 남은 시간) */
+    public static AnalysisRejectedException circuitOpen(AnalysisEndpoint endpoint, Duration retryAfter) {
+        return new AnalysisRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "CIRCUIT_OPEN",
+                "분석 서버 장애로 요청을 보내지 않았습니다: " + endpoint.getPath(), retryAfter);
+    }
+
+    /** 이미지 변환 작업 대기열이 가득 찼거나 제한 시간 안에 끝나지 않음 */
+    public static AnalysisRejectedException busy() {
+        return new AnalysisRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "BUSY",
+                "이미지 변환 작업이 많아 처리할 수 없습니다.", Duration.ofSeconds(2));
+    }
+
+    /** 이미지 데이터가 없거나 디코딩할 수 없음 */
+    public static AnalysisRejectedException invalidImage(String message) {
+        return new AnalysisRejectedException(HttpStatus.BAD_REQUEST, "INVALID_IMAGE", message, null);
+    }
+
+    /** 해상도·밝기·선명도가 분석하기에 부족함 */
+    public static AnalysisRejectedException lowQuality(String message) {
+        return new AnalysisRejectedException(HttpStatus.UNPROCESSABLE_ENTITY, "LOW_QUALITY", message, null);
+    }
+
+    /** 얼굴이 있을 수 없는 이미지 (피부색 영역 없음) */
+    public static AnalysisRejectedException noFace(String message) {
+        return new AnalysisRejectedException(HttpStatus.UNPROCESSABLE_ENTITY, "NO_FACE", message, null);
+    }
+
+    /** 이미지가 허용 크기를 넘음 */
+    public static AnalysisRejectedException imageTooLarge(String message) {
+        return new AnalysisRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "IMAGE_TOO_LARGE", message, null);
+    }
+
+    /** 배치 요청의 이미지 수 초과 */
+    public static AnalysisRejectedException batchTooLarge(int maxItems) {
+        return new AnalysisRejectedException(HttpStatus.PAYLOAD_TOO_LARGE, "BATCH_TOO_LARGE",
+                "배치 요청은 최대 " + maxItems + "개 이미지까지 가능합니다.", null);
+    }
+
+    /** 비동기 작업 대기열이 가득 참 */
+    public static AnalysisRejectedException jobQueueFull() {
+        return new AnalysisRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "JOB_QUEUE_FULL",
+                "대기 중인 분석 작업이 많아 접수할 수 없습니다.", Duration.ofSeconds(5));
+    }
+
+    /** 없는(또는 보관 기간이 지난) 비동기 작업 */
+    public static AnalysisRejectedException jobNotFound(String jobId) {
+        return new AnalysisRejectedException(HttpStatus.NOT_FOUND, "JOB_NOT_FOUND",
+                "분석 작업을 찾을 수 없습니다: " + jobId, null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.dongjubeauty.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 여러 분석 결과를 한 응답에 모을 때(배치·통합 분석) 쓰는 결과 변환기.
+ * 성공/실패를 모두 http_status 가 붙은 Map 으로 맞춰, 한 분석의 실패가 전체 응답을 깨지 않게 합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalysisResults {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    /** 퍼스널 컬러 파일 경로는 FastAPI 응답 상태/본문을 그대로 돌려주므로 Map 으로 풀어 줌 */
+    public Map<String, Object> toResult(ResponseEntity<String> res) {
+        Map<String, Object> body = parse(res.getBody());
+        if (body == null) {
+            body = error("UPSTREAM_ERROR", "분석 서버 응답을 해석할 수 없습니다.");
+        }
+        return withStatus(body, res.getStatusCode().value());
+    }
+
+    /** 예외를 오류 결과로 (거절/FastAPI 오류는 원래 상태와 코드를 유지) */
+    public Map<String, Object> errorResult(Throwable e) {
+        if (e instanceof AnalysisRejectedException r) {
+            return withStatus(error(r.getCode(), r.getMessage()), r.getStatus().value());
+        }
+        if (e instanceof WebClientResponseException w) {
+            Map<String, Object> body = parse(w.getResponseBodyAsString());
+            return withStatus(body != null ? body : error("UPSTREAM_ERROR", w.getMessage()), w.getStatusCode().value());
+        }
+        if (e instanceof RestClientResponseException r) {
+            Map<String, Object> body = parse(r.getResponseBodyAsString());
+            return withStatus(body != null ? body : error("UPSTREAM_ERROR", r.getMessage()), r.getStatusCode().value());
+        }
+        if (e instanceof IllegalArgumentException) {
+            return withStatus(error("INVALID_IMAGE", e.getMessage()), HttpStatus.BAD_REQUEST.value());
+        }
+        return withStatus(error("UPSTREAM_ERROR", e.getMessage()), HttpStatus.BAD_GATEWAY.value());
+    }
+
+    /** 응답이 비어 있을 때의 결과 */
+    public Map<String, Object> emptyResult() {
+        return withStatus(error("UPSTREAM_ERROR", "분석 서버 응답이 비어 있습니다."), HttpStatus.BAD_GATEWAY.value());
+    }
+
+    private Map<String, Object> parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    static Map<String, Object> error(String code, String message) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("status", "error");
+        out.put("code", code);
+        out.put("message", message);
+        return out;
+    }
+
+    /** http_status 를 맨 앞에 둔 사본 */
+    public static Map<String, Object> withStatus(Map<String, Object> result, int httpStatus) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("http_status", httpStatus);
+        out.putAll(result);
+        return out;
+    }
+
+    /** withStatus 로 붙인 상태 (없으면 200) */
+    public static int statusOf(Map<String, Object> result) {
+        return result.get("http_status") instanceof Number n ? n.intValue() : HttpStatus.OK.value();
+    }
+
+    /** 2xx 이고 status=error 가 아닌 결과 */
+    public static boolean isSuccess(Map<String, Object> result) {
+        return HttpStatusCode.valueOf(statusOf(result)).is2xxSuccessful() && !"error".equals(result.get("status"));
+    }
+}
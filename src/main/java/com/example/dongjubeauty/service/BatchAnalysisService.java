@@ -0,0 +1,130 @@
+package com.example.dongjubeauty.service;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static com.example.dongjubeauty.service.AnalysisResults.withStatus;
+import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
+
+/**
+ * 여러 이미지를 한 번에 분석합니다.
+ * 이미지×분석 종류마다 기존 논블로킹 경로를 호출하되 배치당 동시 요청은 python.api.batch.parallelism 으로 제한하고,
+ * 끝나는 순서대로 항목별 결과(index, type, http_status + 한국어 라벨)를 내보냅니다.
+ * 한 항목이 실패해도 나머지는 계속 진행하며, 실패 항목은 status=error 와 code 로 표시합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchAnalysisService {
+
+    private final PersonalColorService service;
+    private final PythonApiProperties props;
+    private final AnalysisResults results;
+
+    @Getter
+    public enum Kind {
+        PERSONAL_COLOR("personal_color"),
+        FACE_SHAPE("face_shape");
+
+        private final String value;
+
+        Kind(String value) {
+            this.value = value;
+        }
+
+        /** personal_color / personal-color / PERSONAL_COLOR 모두 허용 */
+        public static Kind from(String value) {
+            String normalized = value.strip().replace('-', '_').toLowerCase(Locale.ROOT);
+            return Arrays.stream(values())
+                    .filter(k -> k.value.equals(normalized))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("알 수 없는 분석 종류: " + value));
+        }
+    }
+
+    // ---------- 파일 배치 ----------
+    public Flux<Map<String, Object>> analyzeFiles(List<MultipartFile> files,
+                                                  Set<Kind> kinds,
+                                                  boolean debug,
+                                                  boolean exifCorrection,
+                                                  String traceId,
+                                                  String acceptLanguage) {
+        return fanOut(files.size(), kinds, (i, kind) -> {
+            MultipartFile file = files.get(i);
+            String itemTraceId = itemTraceId(traceId, i);
+            Mono<Map<String, Object>> result = switch (kind) {
+                case PERSONAL_COLOR -> service.analyzeFileReactive(file, debug, exifCorrection, itemTraceId, acceptLanguage)
+                        .map(results::toResult);
+                case FACE_SHAPE -> service.faceShapeFileReactive(file, debug, exifCorrection, itemTraceId, acceptLanguage)
+                        .map(res -> withStatus(res, HttpStatus.OK.value()));
+            };
+            return result.map(res -> {
+                res.put("filename", file.getOriginalFilename());
+                return res;
+            });
+        });
+    }
+
+    // ---------- JSON 배치 ----------
+    public Flux<Map<String, Object>> analyzeJson(List<AnalyzeRequest> bodies,
+                                                 Set<Kind> kinds,
+                                                 boolean debug,
+                                                 String traceId,
+                                                 String acceptLanguage) {
+        return fanOut(bodies.size(), kinds, (i, kind) -> {
+            AnalyzeRequest body = bodies.get(i);
+            if (body == null || body.getImageBase64() == null || body.getImageBase64().isBlank()) {
+                return Mono.error(AnalysisRejectedException.invalidImage("image_base64 가 비어 있습니다."));
+            }
+            String itemTraceId = itemTraceId(traceId, i);
+            Mono<Map<String, Object>> result = switch (kind) {
+                case PERSONAL_COLOR -> service.analyzeJsonReactive(body, debug, itemTraceId, acceptLanguage);
+                case FACE_SHAPE -> service.faceShapeJsonReactive(body, debug, itemTraceId, acceptLanguage);
+            };
+            return result.map(res -> withStatus(res, HttpStatus.OK.value()));
+        });
+    }
+
+    private Flux<Map<String, Object>> fanOut(int count,
+                                             Set<Kind> kinds,
+                                             BiFunction<Integer, Kind, Mono<Map<String, Object>>> call) {
+        PythonApiProperties.Batch conf = props.getBatch();
+        if (count > conf.getMaxItems()) {
+            return Flux.error(AnalysisRejectedException.batchTooLarge(conf.getMaxItems()));
+        }
+        return Flux.range(0, count)
+                .concatMap(i -> Flux.fromIterable(kinds).map(kind -> Map.entry(i, kind)))
+                .flatMap(item -> Mono.defer(() -> call.apply(item.getKey(), item.getValue()))
+                                .switchIfEmpty(Mono.fromSupplier(results::emptyResult))
+                                .onErrorResume(e -> Mono.just(results.errorResult(e)))
+                                .map(res -> item(item.getKey(), item.getValue(), res)),
+                        conf.getParallelism());
+    }
+
+    private static Map<String, Object> item(int index, Kind kind, Map<String, Object> result) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("index", index);
+        out.put("type", kind.getValue());
+        out.putAll(result);
+        return addKoreanLabels(out);
+    }
+
+    /** 항목별 traceId = 요청 traceId + "-" + index (없으면 FastAPI 가 생성) */
+    private static String itemTraceId(String traceId, int index) {
+        return traceId == null || traceId.isBlank() ? null : traceId + "-" + index;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dongjubeauty.service;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * 요청과 분리되어 실행되는 병합 호출이 쓰는 업로드 사본.
+ * 서블릿 멀티파트 파일은 먼저 온 요청이 끝나면 지워지므로, 그 뒤에도 읽을 수 있게 바이트를 복사해 둡니다.
+ */
+final class BufferedUpload implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final byte[] bytes;
+
+    private BufferedUpload(MultipartFile source, byte[] bytes) {
+        this.name = source.getName();
+        this.originalFilename = source.getOriginalFilename();
+        this.contentType = source.getContentType();
+        this.bytes = bytes;
+    }
+
+    static BufferedUpload copyOf(MultipartFile file) throws IOException {
+        return file instanceof BufferedUpload copy ? copy : new BufferedUpload(file, file.getBytes());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return bytes.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public Resource getResource() {
+        return new ByteArrayResource(bytes);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), bytes);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.dongjubeauty.service;
+
+import com.example.dongjubeauty.util.LocalizationUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.dongjubeauty.service.AnalysisResults.isSuccess;
+import static com.example.dongjubeauty.service.AnalysisResults.statusOf;
+import static com.example.dongjubeauty.service.AnalysisResults.withStatus;
+import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
+
+/**
+ * 한 장의 사진으로 퍼스널 컬러와 얼굴형을 함께 분석합니다.
+ * 업로드 해시·전처리는 한 번만 하고 두 FastAPI 호출을 동시에 보낸 뒤 하나의 응답으로 합칩니다.
+ * 한쪽만 실패하면 status=partial(code=PARTIAL_RESULT) 로 성공한 쪽 결과를 그대로 돌려줍니다.
+ * <pre>
+ * {"status":"ok","traceId":"...",
+ *  "personal_color":{"http_status":200,"season":"spring",...,"season_ko":"봄"},
+ *  "face_shape":{"http_status":200,"face_shape":"oval",...,"face_shape_ko":"계란형"},
+ *  "timing_ms":{"hash":3,"preprocess":41,"personal_color":812,"face_shape":640,"total":815}}
+ * </pre>
+ */
+@Service
+@RequiredArgsConstructor
+public class CombinedAnalysisService {
+
+    private final PersonalColorService service;
+    private final AnalysisResults results;
+
+    public Mono<Map<String, Object>> analyzeFile(MultipartFile file,
+                                                 boolean debug,
+                                                 boolean exifCorrection,
+                                                 String traceId,
+                                                 String acceptLanguage) {
+        if (file == null || file.isEmpty()) {
+            return Mono.error(AnalysisRejectedException.invalidImage("빈 파일입니다."));
+        }
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            PreparedUpload upload = service.prepareUpload(file, exifCorrection, "combined", traceId);
+
+            Mono<Map<String, Object>> personalColor = part(
+                    service.analyzeFileReactive(upload, debug, traceId, acceptLanguage).map(results::toResult));
+            Mono<Map<String, Object>> faceShape = part(
+                    service.faceShapeFileReactive(upload, debug, traceId, acceptLanguage)
+                            .map(res -> withStatus(res, HttpStatus.OK.value())));
+
+            return Mono.zip(personalColor.elapsed(), faceShape.elapsed())
+                    .map(t -> {
+                        Map<String, Long> timing = new LinkedHashMap<>();
+                        timing.put("hash", upload.hashMillis());
+                        timing.put("preprocess", upload.preprocessMillis());
+                        timing.put("personal_color", t.getT1().getT1());
+                        timing.put("face_shape", t.getT2().getT1());
+                        timing.put("total", (System.nanoTime() - startedAt) / 1_000_000);
+                        return merge(t.getT1().getT2(), t.getT2().getT2(), traceId, timing);
+                    });
+        });
+    }
+
+    /** 한 분석의 실패/빈 응답도 결과 Map 으로 바꿔 다른 분석을 막지 않게 함 */
+    private Mono<Map<String, Object>> part(Mono<Map<String, Object>> call) {
+        return call
+                .switchIfEmpty(Mono.fromSupplier(results::emptyResult))
+                .onErrorResume(e -> Mono.just(results.errorResult(e)))
+                .map(LocalizationUtils::addKoreanLabels);
+    }
+
+    /** 두 결과를 합침 (둘 다 실패하면 퍼스널 컬러 쪽 상태·코드를 씀) */
+    static Map<String, Object> merge(Map<String, Object> personalColor,
+                                             Map<String, Object> faceShape,
+                                             String traceId,
+                                             Map<String, Long> timing) {
+        boolean pcOk = isSuccess(personalColor);
+        boolean fsOk = isSuccess(faceShape);
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        if (pcOk && fsOk) {
+            out.put("status", "ok");
+        } else if (pcOk || fsOk) {
+            out.put("status", "partial");
+            out.put("code", "PARTIAL_RESULT");
+        } else {
+            out.put("status", "error");
+            out.put("code", personalColor.getOrDefault("code", "UPSTREAM_ERROR"));
+            out.put("http_status", statusOf(personalColor));
+        }
+        Object resolvedTraceId = traceId != null ? traceId
+                : personalColor.getOrDefault("traceId", faceShape.get("traceId"));
+        if (resolvedTraceId != null) {
+            out.put("traceId", resolvedTraceId);
+        }
+        out.put("personal_color", personalColor);
+        out.put("face_shape", faceShape);
+        out.put("timing_ms", timing);
+        return addKoreanLabels(out);
+    }
+}
@@ -1,28 +1,45 @@
 package com.example.dongjubeauty.service;
 
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.config.PythonApiClients;
 import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.cache.AnalysisKey;
+import com.example.dongjubeauty.service.cache.AnalysisResultCache;
+import com.example.dongjubeauty.service.cache.NearDuplicateIndex;
+import com.example.dongjubeauty.service.cache.SingleFlight;
+import com.example.dongjubeauty.service.image.ImagePreprocessor;
+import com.example.dongjubeauty.service.image.PreparedImage;
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import com.example.dongjubeauty.service.upstream.UpstreamInvoker;
+import com.example.dongjubeauty.service.upstream.UpstreamReplica;
+import com.example.dongjubeauty.util.Base64ImageReader;
 import com.example.dongjubeauty.util.ImageConversionUtils;
+import com.example.dongjubeauty.util.ImageHashUtils.PerceptualHash;
+import com.example.dongjubeauty.util.StreamingLocalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.MultipartBodyBuilder;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -31,17 +48,15 @@ public class PersonalColorService {
     private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE =
             new ParameterizedTypeReference<>() {};
 
-    private final RestClient pythonRestClient;
-
-    @Value("${python.api.base-url}")
-    private String pyBaseUrl;
-
-    private final WebClient webClient = WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(
-                    HttpClient.create()
-                            .responseTimeout(Duration.ofSeconds(60))
-                            .compress(true)))
-            .build();
+    private final PythonApiClients clients;
+    private final UpstreamInvoker invoker;
+    private final AnalysisResultCache resultCache;
+    private final NearDuplicateIndex nearDuplicates;
+    private final SingleFlight singleFlight;
+    private final ImagePreprocessor imagePreprocessor;
+    private final ImageProperties imageProps;
+    private final ObjectMapper objectMapper;
+    private final AnalysisMetrics metrics;
 
     // ----- 공통 헤더/Accept 적용 -----
     private RestClient.RequestBodySpec withCommonHeaders(RestClient.RequestBodySpec spec,
@@ -56,19 +71,271 @@ public class PersonalColorService {
         return spec.accept(MediaType.APPLICATION_JSON);
     }
 
+    /** 선택된 레플리카 기준 요청 URI (exifCorrection 이 null 이면 쿼리 생략) */
+    private static URI uri(UpstreamReplica replica, AnalysisEndpoint endpoint, boolean debug, Boolean exifCorrection) {
+        UriComponentsBuilder b = UriComponentsBuilder.fromUriString(replica.baseUrl())
+                .path(endpoint.getPath())
+                .queryParam("debug", debug);
+        if (exifCorrection != null) {
+            b.queryParam("exif_correction", exifCorrection);
+        }
+        return b.build().toUri();
+    }
+
+    private static void applyCommonHeaders(HttpHeaders headers, String traceId, String acceptLanguage) {
+        // 프론트가 보낸 헤더를 파이썬으로 전달
+        if (traceId != null && !traceId.isBlank()) {
+            headers.set("X-Trace-Id", traceId);
+        }
+        if (acceptLanguage != null && !acceptLanguage.isBlank()) {
+            headers.set(HttpHeaders.ACCEPT_LANGUAGE, acceptLanguage);
+        }
+    }
+
+    /**
+     * 업로드 파일을 멀티파트 본문으로 구성합니다.
+     * 전처리(축소·방향 보정·재인코딩)는 변환 전용 풀에서 실행하고,
+     * 전처리가 필요 없으면 업로드 리소스를 그대로 스트리밍합니다(byte[] 복사 없음).
+     */
+    private PreparedUpload.Body streamingFileBody(AnalysisEndpoint endpoint,
+                                                  MultipartFile file,
+                                                  boolean exifCorrection,
+                                                  String traceId) throws IOException {
+        long t0 = System.nanoTime();
+        PreparedImage prepared = imagePreprocessor.prepare(file, exifCorrection);
+        metrics.record(endpoint, AnalysisMetrics.Phase.PREPROCESS, traceId, System.nanoTime() - t0);
+        return fileBody(endpoint.getTag(), file, prepared);
+    }
+
+    /** {@link #streamingFileBody} 의 논블로킹 버전 (전처리 시간은 {@link PreparedUpload} 가 기록) */
+    private Mono<PreparedUpload.Body> streamingFileBodyMono(String endpoint, MultipartFile file, boolean exifCorrection) {
+        return imagePreprocessor.prepareMono(file, exifCorrection).map(prepared -> fileBody(endpoint, file, prepared));
+    }
+
+    private PreparedUpload.Body fileBody(String endpoint, MultipartFile file, PreparedImage prepared) {
+        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        ImageConversionUtils.ConvertedImage converted = prepared.converted();
+        metrics.payload(endpoint, AnalysisMetrics.Direction.UPSTREAM, converted != null ? converted.length() : file.getSize());
+        if (converted != null) {
+            mb.part("file", converted.asResource())
+                    .filename(converted.filename())
+                    .contentType(converted.mediaType());
+        } else {
+            mb.part("file", file.getResource())
+                    .filename(Optional.ofNullable(file.getOriginalFilename()).orElse("upload.bin"))
+                    .contentType(MediaType.parseMediaType(
+                            Optional.ofNullable(file.getContentType()).orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE)));
+        }
+        return new PreparedUpload.Body(mb, prepared.perceptualHash());
+    }
+
+    /** 업로드 내용 해시로 캐시 키 생성 (해시 시간 기록) */
+    private AnalysisKey fileKey(AnalysisEndpoint endpoint,
+                                MultipartFile file,
+                                boolean debug,
+                                boolean exifCorrection,
+                                String traceId,
+                                String acceptLanguage) throws IOException {
+        long t0 = System.nanoTime();
+        AnalysisKey key = AnalysisKey.of(endpoint, file, debug, exifCorrection, acceptLanguage);
+        metrics.record(endpoint, AnalysisMetrics.Phase.HASH, traceId, System.nanoTime() - t0);
+        return key;
+    }
+
+    // ----- 결과 캐시 + 동일 요청 병합 -----
+    private Map<String, Object> cached(AnalysisKey key,
+                                       String traceId,
+                                       Supplier<Map<String, Object>> loader) {
+        Map<String, Object> hit = resultCache.getIfPresent(key);
+        if (hit != null) {
+            return retrace(hit, traceId);
+        }
+        return singleFlight.execute(key, () -> {
+            Map<String, Object> res = loader.get();
+            if (res != null) {
+                resultCache.put(key, Collections.unmodifiableMap(new LinkedHashMap<>(res)));
+            }
+            return res;
+        }, shared -> retrace(shared, traceId));
+    }
+
+    private Mono<Map<String, Object>> cachedMono(AnalysisKey key,
+                                                 String traceId,
+                                                 Supplier<Mono<Map<String, Object>>> loader) {
+        Map<String, Object> hit = resultCache.getIfPresent(key);
+        if (hit != null) {
+            return Mono.just(retrace(hit, traceId));
+        }
+        return singleFlight.executeMono(key, () -> loader.get()
+                        .doOnNext(res -> resultCache.put(key, Collections.unmodifiableMap(new LinkedHashMap<>(res)))),
+                shared -> retrace(shared, traceId));
+    }
+
+    /** 캐시 적중·병합 시 이전 요청의 traceId 대신 현재 요청의 traceId 를 싣습니다. */
+    private static Map<String, Object> retrace(Map<String, Object> cached, String traceId) {
+        Map<String, Object> out = new LinkedHashMap<>(cached);
+        if (traceId != null && !traceId.isBlank()) {
+            out.put("traceId", traceId);
+        } else {
+            out.remove("traceId");
+        }
+        return out;
+    }
+
+    private static ResponseEntity<String> retrace(ResponseEntity<String> cached, String traceId) {
+        return retrace(cached, traceId, false);
+    }
+
+    private static ResponseEntity<String> retrace(ResponseEntity<String> cached, String traceId, boolean reused) {
+        if (cached.getBody() == null || cached.getBody().isEmpty()) {
+            return cached;
+        }
+        try {
+            // 트리를 만들지 않고 traceId 만 바꿔 씀 (디버그 오버레이가 커도 한 번 복사)
+            return ResponseEntity.status(cached.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(StreamingLocalizer.retrace(cached.getBody(), traceId, reused));
+        } catch (IOException e) {
+            return cached;
+        }
+    }
+
+    // ----- 비슷한 이미지 재사용 (dHash 인덱스) -----
+
+    /** 비슷한 이미지의 이전 결과를 현재 traceId 와 reused=true 로 (없으면 null) */
+    private ResponseEntity<String> reusedResponse(AnalysisKey key, PerceptualHash perceptualHash, String traceId) {
+        ResponseEntity<String> prior = nearDuplicates.find(key, perceptualHash);
+        if (prior == null) {
+            return null;
+        }
+        ResponseEntity<String> res = retrace(prior, traceId, true);
+        resultCache.put(key, res);
+        return res;
+    }
+
+    /** Map 결과 버전 (캐시 저장은 cached/cachedMono 가 함) */
+    private Map<String, Object> reusedResult(AnalysisKey key, PerceptualHash perceptualHash, String traceId) {
+        Map<String, Object> prior = nearDuplicates.find(key, perceptualHash);
+        if (prior == null) {
+            return null;
+        }
+        Map<String, Object> res = retrace(prior, traceId);
+        res.put("reused", true);
+        return res;
+    }
+
+    /** FastAPI 성공 결과만 캐시하고 dHash 를 인덱스에 추가 */
+    private void remember(AnalysisKey key, PreparedUpload.Body body, ResponseEntity<String> res) {
+        if (res != null && res.getStatusCode().is2xxSuccessful()) {
+            resultCache.put(key, res);
+            nearDuplicates.add(key, body.perceptualHash());
+        }
+    }
+
+    private static String traceIdOf(AnalyzeRequest body, String traceId) {
+        if (traceId != null && !traceId.isBlank()) {
+            return traceId;
+        }
+        return body.getOptions() != null ? body.getOptions().getTraceId() : null;
+    }
+
+    private static String traceIdOf(DecodedImageRequest body, String traceId) {
+        return traceId != null && !traceId.isBlank() ? traceId : body.traceId();
+    }
+
+    // =====================================================================
+    // base64 JSON 요청 (본문에서 바로 디코딩한 이미지)
+    // image.json.upstream=MULTIPART 면 바이너리를 파일 엔드포인트로, JSON 이면 base64 로 다시 인코딩하며 전송합니다.
+    // =====================================================================
+
+    public Map<String, Object> analyzeJson(DecodedImageRequest body,
+                                           boolean debug,
+                                           String traceId,
+                                           String acceptLanguage) {
+        AnalysisKey key = AnalysisKey.of(
+                decodedEndpoint(AnalysisEndpoint.ANALYZE_JSON, AnalysisEndpoint.ANALYZE_FILE),
+                body, debug, acceptLanguage);
+        return cached(key, traceIdOf(body, traceId),
+                () -> callDecoded(AnalysisEndpoint.ANALYZE_JSON, AnalysisEndpoint.ANALYZE_FILE,
+                        body, debug, traceId, acceptLanguage));
+    }
+
+    public Map<String, Object> faceShapeJson(DecodedImageRequest body,
+                                             boolean debug,
+                                             String traceId,
+                                             String acceptLanguage) {
+        AnalysisKey key = AnalysisKey.of(
+                decodedEndpoint(AnalysisEndpoint.FACE_SHAPE_JSON, AnalysisEndpoint.FACE_SHAPE_FILE),
+                body, debug, acceptLanguage);
+        return cached(key, traceIdOf(body, traceId),
+                () -> callDecoded(AnalysisEndpoint.FACE_SHAPE_JSON, AnalysisEndpoint.FACE_SHAPE_FILE,
+                        body, debug, traceId, acceptLanguage));
+    }
+
+    /** 실제로 호출하는 FastAPI 엔드포인트 (캐시 키도 이것으로 구분) */
+    private AnalysisEndpoint decodedEndpoint(AnalysisEndpoint jsonEndpoint, AnalysisEndpoint fileEndpoint) {
+        return imageProps.getJson().getUpstream() == ImageProperties.Transport.JSON ? jsonEndpoint : fileEndpoint;
+    }
+
+    private Map<String, Object> callDecoded(AnalysisEndpoint jsonEndpoint,
+                                            AnalysisEndpoint fileEndpoint,
+                                            DecodedImageRequest body,
+                                            boolean debug,
+                                            String traceId,
+                                            String acceptLanguage) {
+        metrics.payload(jsonEndpoint, AnalysisMetrics.Direction.UPSTREAM, body.length());
+        if (imageProps.getJson().getUpstream() == ImageProperties.Transport.JSON) {
+            return invoker.call(jsonEndpoint, replica -> {
+                RestClient.RequestBodySpec spec = clients.rest(jsonEndpoint).post()
+                        .uri(uri(replica, jsonEndpoint, debug, null))
+                        .contentType(MediaType.APPLICATION_JSON);
+
+                return withCommonHeaders(spec, traceId, acceptLanguage)
+                        .body(out -> Base64ImageReader.write(body, objectMapper, out))
+                        .retrieve()
+                        .body(MAP_TYPE);
+            });
+        }
+
+        // 본문 options 는 파일 엔드포인트의 쿼리/헤더로 옮김
+        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        mb.part("file", body.asResource()).contentType(body.mediaType());
+        return invoker.call(fileEndpoint, replica -> {
+            RestClient.RequestBodySpec spec = clients.rest(fileEndpoint).post()
+                    .uri(uri(replica, fileEndpoint, debug || body.debug(), body.exifCorrection()))
+                    .contentType(MediaType.MULTIPART_FORM_DATA);
+
+            return withCommonHeaders(spec, traceIdOf(body, traceId), acceptLanguage)
+                    .body(mb.build())
+                    .retrieve()
+                    .body(MAP_TYPE);
+        });
+    }
+
     // ---------- 퍼스널 컬러: JSON ----------
     public Map<String, Object> analyzeJson(AnalyzeRequest body,
                                            boolean debug,
                                            String traceId,
                                            String acceptLanguage) {
-        RestClient.RequestBodySpec spec = pythonRestClient.post()
-                .uri(uri -> uri.path("/analyze").queryParam("debug", debug).build())
-                .contentType(MediaType.APPLICATION_JSON);
+        AnalysisKey key = AnalysisKey.of(AnalysisEndpoint.ANALYZE_JSON, body, debug, acceptLanguage);
+        return cached(key, traceIdOf(body, traceId),
+                () -> callAnalyzeJson(body, debug, traceId, acceptLanguage));
+    }
 
-        return withCommonHeaders(spec, traceId, acceptLanguage)
-                .body(body)
-                .retrieve()
-                .body(MAP_TYPE);
+    private Map<String, Object> callAnalyzeJson(AnalyzeRequest body,
+                                                boolean debug,
+                                                String traceId,
+                                                String acceptLanguage) {
+        return invoker.call(AnalysisEndpoint.ANALYZE_JSON, replica -> {
+            RestClient.RequestBodySpec spec = clients.rest(AnalysisEndpoint.ANALYZE_JSON).post()
+                    .uri(uri(replica, AnalysisEndpoint.ANALYZE_JSON, debug, null))
+                    .contentType(MediaType.APPLICATION_JSON);
+
+            return withCommonHeaders(spec, traceId, acceptLanguage)
+                    .body(body)
+                    .retrieve()
+                    .body(MAP_TYPE);
+        });
     }
 
     // ---------- 퍼스널 컬러: 파일 ----------
@@ -83,53 +350,60 @@ public class PersonalColorService {
                     .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"빈 파일입니다.\"}");
         }
 
-        String url = UriComponentsBuilder.fromHttpUrl(pyBaseUrl)
-                .path("/analyze/file")
-                .queryParam("debug", debug)
-                .queryParam("exif_correction", exifCorrection)
-                .toUriString();
-
-        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        AnalysisKey key;
         try {
-            ImageConversionUtils.ConvertedImage converted = ImageConversionUtils.convertToJpegIfHeic(file).orElse(null);
-            if (converted != null) {
-                mb.part("file", converted.asResource())
-                        .filename(converted.filename())
-                        .contentType(converted.mediaType());
-            } else {
-                mb.part("file", file.getResource())
-                        .filename(Optional.ofNullable(file.getOriginalFilename()).orElse("upload.bin"))
-                        .contentType(MediaType.parseMediaType(
-                                Optional.ofNullable(file.getContentType()).orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE)));
-            }
+            key = fileKey(AnalysisEndpoint.ANALYZE_FILE, file, debug, exifCorrection, traceId, acceptLanguage);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"이미지를 변환할 수 없습니다.\"}");
-        }
-
-        WebClient.RequestHeadersSpec<?> req = webClient.post()
-                .uri(url)
-                .contentType(MediaType.MULTIPART_FORM_DATA)
-                .accept(MediaType.APPLICATION_JSON)
-                .body(BodyInserters.fromMultipartData(mb.build()));
-
-        // 프론트가 보낸 헤더를 파이썬으로 전달
-        if (acceptLanguage != null && !acceptLanguage.isBlank()) {
-            req = req.header(HttpHeaders.ACCEPT_LANGUAGE, acceptLanguage);
+                    .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"파일을 읽을 수 없습니다.\"}");
         }
-        if (traceId != null && !traceId.isBlank()) {
-            req = req.header("X-Trace-Id", traceId);
+        ResponseEntity<String> hit = resultCache.getIfPresent(key);
+        if (hit != null) {
+            return retrace(hit, traceId);
         }
 
+        return singleFlight.execute(key, () -> {
+            PreparedUpload.Body body;
+            try {
+                body = streamingFileBody(AnalysisEndpoint.ANALYZE_FILE, file, exifCorrection, traceId);
+            } catch (IOException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"이미지를 변환할 수 없습니다.\"}");
+            }
+            ResponseEntity<String> reused = reusedResponse(key, body.perceptualHash(), traceId);
+            if (reused != null) {
+                return reused;
+            }
+            // 응답을 Mono 로 받으므로 hedge 가 적용되는 callMono 를 쓰고 여기서 기다림
+            ResponseEntity<String> res = invoker.callMono(AnalysisEndpoint.ANALYZE_FILE, replica ->
+                    exchangeAnalyzeFile(replica, body.multipart(), debug, exifCorrection, traceId, acceptLanguage)).block();
+            // FastAPI 오류 응답은 그대로 통과시키고 성공 결과만 캐시
+            remember(key, body, res);
+            return res;
+        }, shared -> retrace(shared, traceId));
+    }
+
+    private Mono<ResponseEntity<String>> exchangeAnalyzeFile(UpstreamReplica replica,
+                                                             MultipartBodyBuilder mb,
+                                                             boolean debug,
+                                                             boolean exifCorrection,
+                                                             String traceId,
+                                                             String acceptLanguage) {
         // ⬇️ retrieve/onStatus 로 예외 던지지 말고, 상태/본문 그대로 전달
-        return req.exchangeToMono(resp ->
+        return clients.web(AnalysisEndpoint.ANALYZE_FILE).post()
+                .uri(uri(replica, AnalysisEndpoint.ANALYZE_FILE, debug, exifCorrection))
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(h -> applyCommonHeaders(h, traceId, acceptLanguage))
+                .body(BodyInserters.fromMultipartData(mb.build()))
+                .exchangeToMono(resp ->
                         resp.bodyToMono(String.class).defaultIfEmpty("")
                             .map(body -> ResponseEntity.status(resp.statusCode())
                                     .contentType(MediaType.APPLICATION_JSON)
                                     .body(body))
-                )
-                .block();
+                );
     }
 
     // ---------- 얼굴형: JSON ----------
@@ -137,14 +411,25 @@ public class PersonalColorService {
                                              boolean debug,
                                              String traceId,
                                              String acceptLanguage) {
-        RestClient.RequestBodySpec spec = pythonRestClient.post()
-                .uri(uri -> uri.path("/face-shape").queryParam("debug", debug).build())
-                .contentType(MediaType.APPLICATION_JSON);
+        AnalysisKey key = AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_JSON, body, debug, acceptLanguage);
+        return cached(key, traceIdOf(body, traceId),
+                () -> callFaceShapeJson(body, debug, traceId, acceptLanguage));
+    }
 
-        return withCommonHeaders(spec, traceId, acceptLanguage)
-                .body(body)
-                .retrieve()
-                .body(MAP_TYPE);
+    private Map<String, Object> callFaceShapeJson(AnalyzeRequest body,
+                                                  boolean debug,
+                                                  String traceId,
+                                                  String acceptLanguage) {
+        return invoker.call(AnalysisEndpoint.FACE_SHAPE_JSON, replica -> {
+            RestClient.RequestBodySpec spec = clients.rest(AnalysisEndpoint.FACE_SHAPE_JSON).post()
+                    .uri(uri(replica, AnalysisEndpoint.FACE_SHAPE_JSON, debug, null))
+                    .contentType(MediaType.APPLICATION_JSON);
+
+            return withCommonHeaders(spec, traceId, acceptLanguage)
+                    .body(body)
+                    .retrieve()
+                    .body(MAP_TYPE);
+        });
     }
 
     // ---------- 얼굴형: 파일 ----------
@@ -157,43 +442,184 @@ public class PersonalColorService {
             throw new IllegalArgumentException("파일이 비어 있습니다.");
         }
 
-        MultipartBodyBuilder mb = new MultipartBodyBuilder();
+        AnalysisKey key;
         try {
-            ImageConversionUtils.ConvertedImage converted = ImageConversionUtils.convertToJpegIfHeic(file).orElse(null);
-
-            byte[] payload;
-            String filename;
-            MediaType mediaType;
-
-            if (converted != null) {
-                payload = converted.bytes();
-                filename = converted.filename();
-                mediaType = converted.mediaType();
-            } else {
-                payload = file.getBytes();
-                filename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.jpg";
-                mediaType = file.getContentType() != null
-                        ? MediaType.parseMediaType(file.getContentType())
-                        : MediaType.IMAGE_JPEG;
-            }
+            key = fileKey(AnalysisEndpoint.FACE_SHAPE_FILE, file, debug, exifCorrection, traceId, acceptLanguage);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("파일을 읽을 수 없습니다.", e);
+        }
+        return cached(key, traceId,
+                () -> callFaceShapeFile(key, file, debug, exifCorrection, traceId, acceptLanguage));
+    }
 
-            mb.part("file", payload)
-                    .filename(filename)
-                    .contentType(mediaType);
+    private Map<String, Object> callFaceShapeFile(AnalysisKey key,
+                                                  MultipartFile file,
+                                                  boolean debug,
+                                                  boolean exifCorrection,
+                                                  String traceId,
+                                                  String acceptLanguage) {
+        PreparedUpload.Body body;
+        try {
+            body = streamingFileBody(AnalysisEndpoint.FACE_SHAPE_FILE, file, exifCorrection, traceId);
         } catch (IOException e) {
             throw new IllegalArgumentException("파일을 읽을 수 없습니다.", e);
         }
+        Map<String, Object> reused = reusedResult(key, body.perceptualHash(), traceId);
+        if (reused != null) {
+            return reused;
+        }
+
+        // analyzeFile 과 같이 hedge 가 적용되는 callMono 를 쓰고 여기서 기다림
+        Map<String, Object> res = invoker.callMono(AnalysisEndpoint.FACE_SHAPE_FILE, replica ->
+                exchangeFaceShapeFile(replica, body.multipart(), debug, exifCorrection, traceId, acceptLanguage)).block();
+        if (res != null) {
+            nearDuplicates.add(key, body.perceptualHash());
+        }
+        return res;
+    }
+
+    private Mono<Map<String, Object>> exchangeFaceShapeFile(UpstreamReplica replica,
+                                                            MultipartBodyBuilder mb,
+                                                            boolean debug,
+                                                            boolean exifCorrection,
+                                                            String traceId,
+                                                            String acceptLanguage) {
+        return clients.web(AnalysisEndpoint.FACE_SHAPE_FILE).post()
+                .uri(uri(replica, AnalysisEndpoint.FACE_SHAPE_FILE, debug, exifCorrection))
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .headers(h -> applyCommonHeaders(h, traceId, acceptLanguage))
+                .body(BodyInserters.fromMultipartData(mb.build()))
+                .retrieve()
+                .bodyToMono(MAP_TYPE);
+    }
 
-        RestClient.RequestBodySpec spec = pythonRestClient.post()
-                .uri(uri -> uri.path("/face-shape/file")
-                        .queryParam("debug", debug)
-                        .queryParam("exif_correction", exifCorrection)
-                        .build())
-                .contentType(MediaType.MULTIPART_FORM_DATA);
+    // =====================================================================
+    // 논블로킹 경로: 업스트림 응답을 기다리는 동안 요청 스레드를 점유하지 않습니다.
+    // 파일 해시는 boundedElastic 스케줄러, 이미지 변환은 변환 전용 풀에서 수행합니다.
+    // =====================================================================
+
+    // ---------- 퍼스널 컬러: JSON ----------
+    public Mono<Map<String, Object>> analyzeJsonReactive(AnalyzeRequest body,
+                                                         boolean debug,
+                                                         String traceId,
+                                                         String acceptLanguage) {
+        AnalysisKey key = AnalysisKey.of(AnalysisEndpoint.ANALYZE_JSON, body, debug, acceptLanguage);
+        return cachedMono(key, traceIdOf(body, traceId),
+                () -> postJson(AnalysisEndpoint.ANALYZE_JSON, body, debug, traceId, acceptLanguage));
+    }
+
+    // ---------- 퍼스널 컬러: 파일 ----------
+    public Mono<ResponseEntity<String>> analyzeFileReactive(MultipartFile file,
+                                                            boolean debug,
+                                                            boolean exifCorrection,
+                                                            String traceId,
+                                                            String acceptLanguage) {
+        if (file == null || file.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"빈 파일입니다.\"}"));
+        }
+        return analyzeFileReactive(prepareUpload(file, exifCorrection, AnalysisEndpoint.ANALYZE_FILE.getTag(), traceId),
+                debug, traceId, acceptLanguage);
+    }
+
+    /** 이미 준비된 업로드로 분석 (해시·전처리 결과를 다른 분석과 공유) */
+    public Mono<ResponseEntity<String>> analyzeFileReactive(PreparedUpload upload,
+                                                            boolean debug,
+                                                            String traceId,
+                                                            String acceptLanguage) {
+        boolean exifCorrection = upload.exifCorrection();
+        return upload.imageHash()
+                .map(hash -> AnalysisKey.of(AnalysisEndpoint.ANALYZE_FILE, hash, debug, exifCorrection, acceptLanguage))
+                .flatMap(key -> {
+                    ResponseEntity<String> hit = resultCache.getIfPresent(key);
+                    if (hit != null) {
+                        return Mono.just(retrace(hit, traceId));
+                    }
+                    return singleFlight.executeMono(key, () ->
+                            upload.body().flatMap(body -> {
+                                ResponseEntity<String> reused = reusedResponse(key, body.perceptualHash(), traceId);
+                                if (reused != null) {
+                                    return Mono.just(reused);
+                                }
+                                return invoker.callMono(AnalysisEndpoint.ANALYZE_FILE, replica ->
+                                                exchangeAnalyzeFile(replica, body.multipart(), debug, exifCorrection, traceId, acceptLanguage))
+                                        // FastAPI 오류 응답은 그대로 통과시키고 성공 결과만 캐시
+                                        .doOnNext(res -> remember(key, body, res));
+                            }),
+                            shared -> retrace(shared, traceId));
+                })
+                .onErrorResume(IOException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"status\":\"error\",\"code\":\"INVALID_IMAGE\",\"message\":\"이미지를 변환할 수 없습니다.\"}")));
+    }
+
+    /**
+     * 업로드를 여러 분석이 공유하도록 준비합니다 (해시·전처리는 필요할 때 한 번만).
+     * endpoint 는 해시/전처리 메트릭의 endpoint 태그입니다.
+     */
+    public PreparedUpload prepareUpload(MultipartFile file, boolean exifCorrection, String endpoint, String traceId) {
+        return new PreparedUpload(file, exifCorrection,
+                f -> streamingFileBodyMono(endpoint, f, exifCorrection),
+                (phase, nanos) -> metrics.record(endpoint, phase, traceId, nanos));
+    }
+
+    // ---------- 얼굴형: JSON ----------
+    public Mono<Map<String, Object>> faceShapeJsonReactive(AnalyzeRequest body,
+                                                           boolean debug,
+                                                           String traceId,
+                                                           String acceptLanguage) {
+        AnalysisKey key = AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_JSON, body, debug, acceptLanguage);
+        return cachedMono(key, traceIdOf(body, traceId),
+                () -> postJson(AnalysisEndpoint.FACE_SHAPE_JSON, body, debug, traceId, acceptLanguage));
+    }
+
+    // ---------- 얼굴형: 파일 ----------
+    public Mono<Map<String, Object>> faceShapeFileReactive(MultipartFile file,
+                                                           boolean debug,
+                                                           boolean exifCorrection,
+                                                           String traceId,
+                                                           String acceptLanguage) {
+        if (file == null || file.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("파일이 비어 있습니다."));
+        }
+
+        return faceShapeFileReactive(prepareUpload(file, exifCorrection, AnalysisEndpoint.FACE_SHAPE_FILE.getTag(), traceId),
+                debug, traceId, acceptLanguage);
+    }
+
+    /** 이미 준비된 업로드로 분석 (해시·전처리 결과를 다른 분석과 공유) */
+    public Mono<Map<String, Object>> faceShapeFileReactive(PreparedUpload upload,
+                                                           boolean debug,
+                                                           String traceId,
+                                                           String acceptLanguage) {
+        boolean exifCorrection = upload.exifCorrection();
+        return upload.imageHash()
+                .map(hash -> AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_FILE, hash, debug, exifCorrection, acceptLanguage))
+                .flatMap(key -> cachedMono(key, traceId, () ->
+                        upload.body().flatMap(body -> {
+                            Map<String, Object> reused = reusedResult(key, body.perceptualHash(), traceId);
+                            if (reused != null) {
+                                return Mono.just(reused);
+                            }
+                            return invoker.callMono(AnalysisEndpoint.FACE_SHAPE_FILE, replica ->
+                                            exchangeFaceShapeFile(replica, body.multipart(), debug, exifCorrection, traceId, acceptLanguage))
+                                    .doOnNext(res -> nearDuplicates.add(key, body.perceptualHash()));
+                        })))
+                .onErrorMap(IOException.class, e -> new IllegalArgumentException("파일을 읽을 수 없습니다.", e));
+    }
 
-        return withCommonHeaders(spec, traceId, acceptLanguage)
-                .body(mb.build())
+    private Mono<Map<String, Object>> postJson(AnalysisEndpoint endpoint,
+                                               AnalyzeRequest body,
+                                               boolean debug,
+                                               String traceId,
+                                               String acceptLanguage) {
+        return invoker.callMono(endpoint, replica -> clients.web(endpoint).post()
+                .uri(uri(replica, endpoint, debug, null))
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(h -> applyCommonHeaders(h, traceId, acceptLanguage))
+                .bodyValue(body)
                 .retrieve()
-                .body(MAP_TYPE);
+                .bodyToMono(MAP_TYPE));
     }
 }
@@ -0,0 +1,105 @@
+package com.example.dongjubeauty.service;
+
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import com.example.dongjubeauty.util.ImageHashUtils;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 한 번 받은 업로드를 여러 분석이 나눠 쓰도록 준비한 상태.
+ * 내용 해시와 전처리된 멀티파트 본문은 처음 필요할 때 한 번만 계산해 재사용합니다
+ * (모든 분석이 캐시 적중이면 전처리는 하지 않습니다).
+ * 전처리는 요청과 분리된 병합 호출 안에서 실행되므로, 시작할 때 업로드를 {@link BufferedUpload} 로 복사해
+ * 먼저 온 요청이 끝나 서블릿 임시 파일이 지워져도 계속 읽을 수 있게 합니다.
+ */
+public final class PreparedUpload {
+
+    private final MultipartFile file;
+    private final boolean exifCorrection;
+    private final Mono<String> imageHash;
+    private final Mono<Body> body;
+
+    private volatile long hashNanos = -1;
+    private volatile long preprocessNanos = -1;
+
+    PreparedUpload(MultipartFile file,
+                   boolean exifCorrection,
+                   Function<MultipartFile, Mono<Body>> bodyFactory,
+                   ObjLongConsumer<AnalysisMetrics.Phase> phaseRecorder) {
+        this.file = file;
+        this.exifCorrection = exifCorrection;
+        this.imageHash = Mono.fromCallable(() -> {
+                    long t0 = System.nanoTime();
+                    String hash = ImageHashUtils.sha256(file);
+                    hashNanos = System.nanoTime() - t0;
+                    phaseRecorder.accept(AnalysisMetrics.Phase.HASH, hashNanos);
+                    return hash;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .cache();
+        this.body = Mono.defer(() -> {
+                    long t0 = System.nanoTime();
+                    MultipartFile copy;
+                    try {
+                        // 구독 시점에는 아직 요청이 살아 있으므로 여기서 복사
+                        copy = BufferedUpload.copyOf(file);
+                    } catch (IOException e) {
+                        return Mono.error(e);
+                    }
+                    return bodyFactory.apply(copy)
+                            .doOnNext(mb -> {
+                                preprocessNanos = System.nanoTime() - t0;
+                                phaseRecorder.accept(AnalysisMetrics.Phase.PREPROCESS, preprocessNanos);
+                            });
+                })
+                .cache();
+    }
+
+    public MultipartFile file() {
+        return file;
+    }
+
+    public boolean exifCorrection() {
+        return exifCorrection;
+    }
+
+    /** 업로드 내용 SHA-256 (캐시 키) */
+    Mono<String> imageHash() {
+        return imageHash;
+    }
+
+    /** FastAPI 로 보낼 멀티파트 본문 (전처리 포함) */
+    Mono<Body> body() {
+        return body;
+    }
+
+    /** 해시 계산 시간 (ms, 계산 전이면 0) */
+    public long hashMillis() {
+        return toMillis(hashNanos);
+    }
+
+    /** 전처리(변환 풀 대기 포함) 시간 (ms, 전처리하지 않았으면 0) */
+    public long preprocessMillis() {
+        return toMillis(preprocessNanos);
+    }
+
+    /**
+     * 전처리한 업로드.
+     *
+     * @param multipart      FastAPI 로 보낼 멀티파트 본문
+     * @param perceptualHash 비슷한 이미지 검색용 dHash·평균 색차 (없으면 null)
+     */
+    record Body(MultipartBodyBuilder multipart, ImageHashUtils.PerceptualHash perceptualHash) {
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos < 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.util.ImageHashUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * 분석 결과 식별 키.
+ * 이미지 내용 해시 + 엔드포인트 + 분석 옵션이 같으면 FastAPI 결과도 같다고 봅니다.
+ * Accept-Language 는 FastAPI 메시지 언어에 영향을 주므로 키에 포함합니다.
+ * debug 는 쿼리 debug 와 본문 options.debug 중 하나라도 켜져 있으면 true 입니다 (둘 다 FastAPI 로 전달됨).
+ */
+public record AnalysisKey(AnalysisEndpoint endpoint,
+                          String imageHash,
+                          boolean debug,
+                          boolean exifCorrection,
+                          String language) {
+
+    public static AnalysisKey of(AnalysisEndpoint endpoint,
+                                 AnalyzeRequest body,
+                                 boolean debug,
+                                 String acceptLanguage) {
+        AnalyzeRequest.Options options = body.getOptions();
+        boolean exif = options == null || !Boolean.FALSE.equals(options.getExifCorrection());
+        boolean bodyDebug = options != null && Boolean.TRUE.equals(options.getDebug());
+        return new AnalysisKey(endpoint,
+                ImageHashUtils.sha256OfBase64(body.getImageBase64()),
+                debug || bodyDebug,
+                exif,
+                normalizeLanguage(acceptLanguage));
+    }
+
+    /** 스트리밍 디코딩한 요청. 같은 이미지의 AnalyzeRequest 와 같은 키가 됩니다. */
+    public static AnalysisKey of(AnalysisEndpoint endpoint,
+                                 DecodedImageRequest body,
+                                 boolean debug,
+                                 String acceptLanguage) {
+        return new AnalysisKey(endpoint,
+                body.imageHash(),
+                debug || body.debug(),
+                body.exifCorrection(),
+                normalizeLanguage(acceptLanguage));
+    }
+
+    public static AnalysisKey of(AnalysisEndpoint endpoint,
+                                 MultipartFile file,
+                                 boolean debug,
+                                 boolean exifCorrection,
+                                 String acceptLanguage) throws IOException {
+        return new AnalysisKey(endpoint,
+                ImageHashUtils.sha256(file),
+                debug,
+                exifCorrection,
+                normalizeLanguage(acceptLanguage));
+    }
+
+    /** 이미 계산한 이미지 해시로 키 생성 (한 업로드를 여러 엔드포인트에 보낼 때) */
+    public static AnalysisKey of(AnalysisEndpoint endpoint,
+                                 String imageHash,
+                                 boolean debug,
+                                 boolean exifCorrection,
+                                 String acceptLanguage) {
+        return new AnalysisKey(endpoint, imageHash, debug, exifCorrection, normalizeLanguage(acceptLanguage));
+    }
+
+    /** 이미지만 다르고 엔드포인트·분석 옵션이 같은지 (비슷한 이미지 재사용 조건) */
+    public boolean sameOptions(AnalysisKey other) {
+        return endpoint == other.endpoint
+                && debug == other.debug
+                && exifCorrection == other.exifCorrection
+                && language.equals(other.language);
+    }
+
+    private static String normalizeLanguage(String acceptLanguage) {
+        return acceptLanguage == null ? "" : acceptLanguage.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * FastAPI 분석 결과 캐시 (크기/TTL 제한).
+ * 크기는 항목 수가 아니라 결과 본문 길이의 합(max-memory)으로 제한합니다 ({@link #weigh}).
+ * 적중/미스/제거 횟수는 cache.gets, cache.evictions 메트릭(cache=analysis.result)으로 노출됩니다.
+ * 디스크 캐시가 켜져 있으면 메모리 미스 때 디스크에서 찾아 메모리로 올리고, 저장은 둘 다에 합니다.
+ */
+@Component
+public class AnalysisResultCache {
+
+    static final String CACHE_NAME = "analysis.result";
+
+    /** 키·캐시 항목 자체의 대략적인 크기 */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    /** 비활성화 시 null */
+    private final Cache<AnalysisKey, Object> cache;
+    /** 2차 디스크 캐시 (없으면 null) */
+    private final DiskResultCache disk;
+
+    /** 메모리 캐시만 (테스트용) */
+    public AnalysisResultCache(PythonApiProperties props, MeterRegistry registry) {
+        this(props, null, registry);
+    }
+
+    @Autowired
+    public AnalysisResultCache(PythonApiProperties props, DiskResultCache disk, MeterRegistry registry) {
+        PythonApiProperties.Cache conf = props.getCache();
+        this.disk = disk != null && disk.isEnabled() ? disk : null;
+        if (!conf.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(conf.getMaxMemory().toBytes())
+                .weigher((AnalysisKey key, Object value) -> weigh(value))
+                .expireAfterWrite(conf.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /** 캐시된 결과(없거나 비활성화면 null) */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(AnalysisKey key) {
+        if (cache == null) {
+            return null;
+        }
+        Object value = cache.getIfPresent(key);
+        if (value == null && disk != null) {
+            value = disk.get(key);
+            if (value != null) {
+                cache.put(key, value);
+            }
+        }
+        return (T) value;
+    }
+
+    public void put(AnalysisKey key, Object value) {
+        if (cache != null && value != null) {
+            cache.put(key, value);
+            if (disk != null) {
+                disk.put(key, value);
+            }
+        }
+    }
+
+    /** 결과의 대략적인 메모리 크기 (바이트). 문자열은 길이, 맵·리스트는 안의 값 합 */
+    static int weigh(Object value) {
+        long bytes = ENTRY_OVERHEAD + (value instanceof ResponseEntity<?> response ? size(response.getBody()) : size(value));
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long size(Object value) {
+        if (value instanceof CharSequence s) {
+            return s.length();
+        }
+        if (value instanceof byte[] b) {
+            return b.length;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long sum = 0;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                sum += 32 + size(e.getKey()) + size(e.getValue());
+            }
+            return sum;
+        }
+        if (value instanceof Collection<?> list) {
+            long sum = 0;
+            for (Object item : list) {
+                sum += 16 + size(item);
+            }
+            return sum;
+        }
+        return 16; // 숫자·불리언
+    }
+}
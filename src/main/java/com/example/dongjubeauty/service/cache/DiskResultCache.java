@@ -0,0 +1,219 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link AnalysisResultCache} 아래의 2차 디스크 캐시 ({@link DiskResultStore} 위에 값 직렬화·압축 일정·메트릭).
+ * 재시작하면 인덱스를 매핑만 하고 바로 이전 결과를 돌려줍니다.
+ * Map 결과는 JSON 으로, ResponseEntity&lt;String&gt; 결과는 상태 코드 + 본문으로 저장합니다.
+ * 디렉터리를 열 수 없으면 경고만 남기고 꺼집니다.
+ * 메트릭: analysis.result.disk.gets{result=hit|miss}, analysis.result.disk.puts{result=stored|skipped},
+ * analysis.result.disk.compactions, analysis.result.disk.entries, analysis.result.disk.log.bytes
+ */
+@Slf4j
+@Component
+public class DiskResultCache {
+
+    private static final byte TYPE_MAP = 1;
+    private static final byte TYPE_RESPONSE = 2;
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    /** 비활성화(또는 열기 실패) 시 null */
+    private final DiskResultStore store;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+
+    private final Scheduler compactor;
+    private final Disposable schedule;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter stored;
+    private final Counter skipped;
+    private final Timer compactions;
+
+    public DiskResultCache(PythonApiProperties props, ObjectMapper objectMapper, MeterRegistry registry) {
+        PythonApiProperties.Cache cache = props.getCache();
+        PythonApiProperties.Disk conf = cache.getDisk();
+        this.objectMapper = objectMapper;
+        this.ttlMillis = conf.getTtl().toMillis();
+        this.store = cache.isEnabled() && conf.isEnabled() ? open(conf) : null;
+
+        this.hits = gets(registry, "hit");
+        this.misses = gets(registry, "miss");
+        this.stored = puts(registry, "stored");
+        this.skipped = puts(registry, "skipped");
+        this.compactions = Timer.builder("analysis.result.disk.compactions")
+                .description("디스크 캐시 압축 시간")
+                .register(registry);
+
+        if (store == null) {
+            this.compactor = null;
+            this.schedule = null;
+            return;
+        }
+        Gauge.builder("analysis.result.disk.entries", store, DiskResultStore::size)
+                .description("디스크 캐시 인덱스의 결과 수 (만료·덮어쓴 항목 포함)")
+                .register(registry);
+        Gauge.builder("analysis.result.disk.log.bytes", store, DiskResultStore::logBytes)
+                .description("디스크 캐시 로그에 쓴 바이트")
+                .register(registry);
+        this.compactor = Schedulers.newSingle("result-compaction", true);
+        long interval = conf.getCompactionInterval().toMillis();
+        this.schedule = compactor.schedulePeriodically(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /** 디스크에 저장된 결과 (없거나 만료·비활성화면 null) */
+    public Object get(AnalysisKey key) {
+        if (store == null) {
+            return null;
+        }
+        DiskResultStore.Entry entry = store.get(keyBytes(key));
+        Object value = entry != null ? decode(entry) : null;
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /** 결과를 덧붙입니다. 압축 중이거나 가득 차면 건너뛰고 압축을 예약합니다. */
+    public void put(AnalysisKey key, Object value) {
+        if (store == null || value == null) {
+            return;
+        }
+        try {
+            byte[] bytes;
+            byte type;
+            if (value instanceof Map<?, ?> map) {
+                type = TYPE_MAP;
+                bytes = objectMapper.writeValueAsBytes(map);
+            } else if (value instanceof ResponseEntity<?> response && response.getBody() instanceof String body) {
+                type = TYPE_RESPONSE;
+                bytes = encodeResponse(response.getStatusCode().value(), body);
+            } else {
+                return;
+            }
+            boolean ok = store.put(keyBytes(key), type, bytes, System.currentTimeMillis() + ttlMillis);
+            (ok ? stored : skipped).increment();
+        } catch (IOException e) {
+            skipped.increment();
+            log.warn("disk result cache write failed: {}", e.toString());
+        }
+        if (store.needsCompaction() && !compacting.get()) {
+            compactor.schedule(this::compactIfNeeded);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store == null) {
+            return;
+        }
+        schedule.dispose();
+        compactor.dispose();
+        try {
+            store.close();
+        } catch (IOException e) {
+            log.warn("disk result cache close failed: {}", e.toString());
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (!store.needsCompaction() || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int kept = compactions.recordCallable(store::compact);
+            log.info("disk result cache compacted: {} entries kept", kept);
+        } catch (Exception e) {
+            log.warn("disk result cache compaction failed: {}", e.toString());
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private static DiskResultStore open(PythonApiProperties.Disk conf) {
+        long started = System.nanoTime();
+        try {
+            DiskResultStore store = DiskResultStore.open(conf.getDirectory(), conf.getMaxEntries(),
+                    conf.getMaxLogSize().toBytes(), System::currentTimeMillis);
+            log.info("disk result cache opened: {} ({} entries, {} ms)", conf.getDirectory().toAbsolutePath(),
+                    store.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return store;
+        } catch (IOException | RuntimeException e) {
+            log.warn("disk result cache disabled ({}): {}", conf.getDirectory().toAbsolutePath(), e.toString());
+            return null;
+        }
+    }
+
+    private Object decode(DiskResultStore.Entry entry) {
+        try {
+            return switch (entry.type()) {
+                case TYPE_MAP -> Collections.unmodifiableMap(objectMapper.readValue(entry.value(), MAP_TYPE));
+                case TYPE_RESPONSE -> decodeResponse(entry.value());
+                default -> null;
+            };
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] encodeResponse(int status, String body) {
+        byte[] text = body.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + text.length).putInt(status).put(text).array();
+    }
+
+    private static ResponseEntity<String> decodeResponse(byte[] bytes) {
+        int status = ByteBuffer.wrap(bytes).getInt();
+        return ResponseEntity.status(HttpStatusCode.valueOf(status))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new String(bytes, 4, bytes.length - 4, StandardCharsets.UTF_8));
+    }
+
+    /** 엔드포인트|이미지 해시|debug|exif|언어 */
+    static byte[] keyBytes(AnalysisKey key) {
+        return (key.endpoint().name() + '|' + key.imageHash() + '|' + key.debug() + '|'
+                + key.exifCorrection() + '|' + key.language()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Counter gets(MeterRegistry registry, String result) {
+        return Counter.builder("analysis.result.disk.gets")
+                .description("디스크 캐시 조회 결과 (메모리 캐시 미스 후)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter puts(MeterRegistry registry, String result) {
+        return Counter.builder("analysis.result.disk.puts")
+                .description("디스크 캐시 저장 (skipped: 압축 중·가득 참·너무 큼)")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,534 @@
+package com.example.dongjubeauty.service.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+
+/**
+ * 분석 결과 디스크 저장소: 추가 전용 로그 + 메모리 매핑한 해시 인덱스.
+ * <ul>
+ *   <li>로그(results-N.log): 64MB 영역 단위로 매핑해 레코드를 이어 씁니다. 레코드는 영역 경계를 넘지 않습니다.</li>
+ *   <li>인덱스(results-N.idx): 키 해시 → 로그 위치의 오픈 어드레싱 테이블 (슬롯 16바이트, 매핑).</li>
+ *   <li>CURRENT: 지금 쓰는 세대 번호. 재시작 시 로그를 훑지 않고 인덱스를 매핑만 하므로 바로 사용할 수 있습니다.</li>
+ * </ul>
+ * 읽기는 잠금 없이 매핑된 메모리만 읽고(슬롯 키를 acquire 로 읽어 위치·레코드가 보이게 함),
+ * 쓰기·압축만 writeLock 으로 직렬화합니다. 압축 중에는 쓰기를 건너뜁니다(캐시이므로).
+ * 레코드는 CRC32C 와 원래 키로 검증하므로 비정상 종료로 어긋난 슬롯은 미스가 될 뿐입니다.
+ * 압축은 살아 있는(만료 전, 최신) 레코드만 새 세대로 옮기고 CURRENT 를 바꾼 뒤 이전 파일을 지웁니다.
+ */
+final class DiskResultStore implements Closeable {
+
+    /** 저장된 결과 (type 은 호출하는 쪽이 정한 값 종류) */
+    record Entry(byte type, byte[] value, long expiresAtMillis) {
+    }
+
+    static final int REGION_SHIFT = 26;
+    static final int REGION_BYTES = 1 << REGION_SHIFT;
+    private static final long REGION_MASK = REGION_BYTES - 1;
+
+    private static final String CURRENT = "CURRENT";
+    private static final int MAGIC = 0x44524931; // "DRI1"
+    private static final int VERSION = 1;
+
+    // 인덱스 헤더: magic(4) version(4) slots(8) generation(8) appendAt(8)
+    private static final int HEADER_BYTES = 64;
+    private static final int HEADER_SLOTS = 8;
+    private static final int HEADER_APPEND_AT = 24;
+    private static final int SLOT_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+
+    // 레코드: length(4) crc(4) expiresAt(8) keyLength(2) key type(1) value — crc 는 expiresAt 부터 끝까지
+    private static final int RECORD_HEADER = 18;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path dir;
+    private final int slots;
+    private final int maxEntries;
+    private final long maxLogBytes;
+    private final LongSupplier clock;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Generation current;
+
+    private DiskResultStore(Path dir, int maxEntries, long maxLogBytes, LongSupplier clock, Generation current) {
+        this.dir = dir;
+        this.slots = current.slots;
+        this.maxEntries = maxEntries;
+        this.maxLogBytes = maxLogBytes;
+        this.clock = clock;
+        this.current = current;
+    }
+
+    /**
+     * 디렉터리의 현재 세대를 엽니다 (없거나 읽을 수 없으면 새로 만듦).
+     *
+     * @param maxEntries  보관할 최대 결과 수 (인덱스 크기 결정)
+     * @param maxLogBytes 로그 최대 크기. 이 근처에 오면 압축이 필요하다고 알림
+     * @param clock       현재 시각 (epoch ms)
+     */
+    static DiskResultStore open(Path dir, int maxEntries, long maxLogBytes, LongSupplier clock) throws IOException {
+        Files.createDirectories(dir);
+        int slots = tableSize(maxEntries);
+        Long id = readCurrent(dir);
+        Generation g = null;
+        if (id != null) {
+            g = Generation.open(dir, id, slots);
+        }
+        if (g == null) {
+            g = Generation.create(dir, id == null ? 1 : id + 1, slots);
+            writeCurrent(dir, g.id);
+        }
+        deleteOtherGenerations(dir, g.id);
+        return new DiskResultStore(dir, maxEntries, maxLogBytes, clock, g);
+    }
+
+    /** 만료되지 않은 최신 결과 (없으면 null). 잠금 없음. */
+    Entry get(byte[] key) {
+        Generation g = current;
+        long h = hash(key);
+        int mask = g.slots - 1;
+        int i = (int) h & mask;
+        for (int probes = 0; probes < g.slots; probes++, i = (i + 1) & mask) {
+            int slot = HEADER_BYTES + i * SLOT_BYTES;
+            long k = (long) LONGS.getAcquire(g.index, slot);
+            if (k == 0) {
+                return null;
+            }
+            if (k == h) {
+                return g.read((long) LONGS.getAcquire(g.index, slot + 8), key, clock.getAsLong());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 결과를 덧붙이고 인덱스를 갱신합니다.
+     *
+     * @return 저장했으면 true. 압축 중이거나 인덱스·로그가 가득 찼거나 레코드가 너무 크면 false
+     */
+    boolean put(byte[] key, byte type, byte[] value, long expiresAtMillis) throws IOException {
+        int size = RECORD_HEADER + key.length + 1 + value.length;
+        if (size > REGION_BYTES || key.length > Short.MAX_VALUE || !writeLock.tryLock()) {
+            return false;
+        }
+        try {
+            Generation g = current;
+            if (g.entries >= maxEntries) {
+                return false;
+            }
+            long at = g.reserve(size);
+            if (at + size > maxLogBytes) {
+                return false;
+            }
+            g.write(at, encode(key, type, value, expiresAtMillis, size));
+            g.publish(hash(key), at);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** 인덱스나 로그가 한도의 90% 를 넘었으면 true */
+    boolean needsCompaction() {
+        Generation g = current;
+        return g.entries >= maxEntries * 0.9 || g.appendAt >= maxLogBytes * 0.9;
+    }
+
+    int size() {
+        return current.entries;
+    }
+
+    long logBytes() {
+        return current.appendAt;
+    }
+
+    /**
+     * 만료·덮어쓴 레코드를 버리고 새 세대로 옮깁니다. 그래도 한도를 넘으면 만료가 먼 것(최근 저장)부터 남깁니다.
+     * 진행 중에도 읽기는 이전 세대로 계속됩니다.
+     *
+     * @return 옮긴 레코드 수
+     */
+    int compact() throws IOException {
+        writeLock.lock();
+        try {
+            Generation old = current;
+            long now = clock.getAsLong();
+            List<long[]> live = new ArrayList<>(old.entries); // {hash, offset, length, expiresAt}
+            for (int i = 0; i < old.slots; i++) {
+                int slot = HEADER_BYTES + i * SLOT_BYTES;
+                long k = (long) LONGS.getAcquire(old.index, slot);
+                if (k == 0) {
+                    continue;
+                }
+                long at = (long) LONGS.getAcquire(old.index, slot + 8);
+                long[] meta = old.meta(at, now);
+                if (meta != null) {
+                    live.add(new long[]{k, at, meta[0], meta[1]});
+                }
+            }
+            live.sort(Comparator.comparingLong((long[] r) -> r[3]).reversed());
+            int keep = 0;
+            long bytes = 0;
+            int entryLimit = (int) (maxEntries * 0.75);
+            long byteLimit = (long) (maxLogBytes * 0.75);
+            while (keep < live.size() && keep < entryLimit && bytes + live.get(keep)[2] <= byteLimit) {
+                bytes += live.get(keep)[2];
+                keep++;
+            }
+            List<long[]> kept = new ArrayList<>(live.subList(0, keep));
+            kept.sort(Comparator.comparingLong(r -> r[1])); // 원래 순서대로
+
+            Generation next = Generation.create(dir, old.id + 1, slots);
+            try {
+                for (long[] r : kept) {
+                    byte[] record = old.copy(r[1], (int) r[2]);
+                    long at = next.reserve(record.length);
+                    next.write(at, record);
+                    next.publish(r[0], at);
+                }
+                next.force();
+                writeCurrent(dir, next.id);
+            } catch (IOException | RuntimeException e) {
+                next.close();
+                next.delete();
+                throw e;
+            }
+            current = next;
+            old.close();
+            old.delete();
+            return kept.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            current.force();
+            current.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ---------- 내부 ----------
+
+    private static byte[] encode(byte[] key, byte type, byte[] value, long expiresAtMillis, int size) {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(size).putInt(0).putLong(expiresAtMillis).putShort((short) key.length).put(key).put(type).put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(buf.array(), 8, size - 8);
+        buf.putInt(4, (int) crc.getValue());
+        return buf.array();
+    }
+
+    /** 64비트 FNV-1a + 섞기 (0 은 빈 슬롯 표시라 쓰지 않음) */
+    static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    static int tableSize(int maxEntries) {
+        long wanted = (long) Math.ceil(maxEntries / MAX_LOAD);
+        return (int) Math.max(16, Long.highestOneBit(wanted - 1) << 1);
+    }
+
+    private static Long readCurrent(Path dir) throws IOException {
+        try {
+            return Long.parseLong(Files.readString(dir.resolve(CURRENT), StandardCharsets.US_ASCII).strip());
+        } catch (NoSuchFileException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeCurrent(Path dir, long id) throws IOException {
+        Path tmp = dir.resolve(CURRENT + ".tmp");
+        Files.writeString(tmp, Long.toString(id), StandardCharsets.US_ASCII);
+        Files.move(tmp, dir.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void deleteOtherGenerations(Path dir, long keep) throws IOException {
+        String log = Generation.logName(keep);
+        String idx = Generation.indexName(keep);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "results-*")) {
+            for (Path f : files) {
+                String name = f.getFileName().toString();
+                if (!name.equals(log) && !name.equals(idx)) {
+                    Files.deleteIfExists(f);
+                }
+            }
+        }
+    }
+
+    /** 한 세대의 로그 + 인덱스 파일 */
+    private static final class Generation {
+        final long id;
+        final Path logPath;
+        final Path indexPath;
+        final int slots;
+        final MappedByteBuffer index;
+        FileChannel log;
+        volatile MappedByteBuffer[] regions;
+        volatile long appendAt;
+        volatile int entries;
+
+        private Generation(long id, Path dir, int slots, FileChannel log, MappedByteBuffer index) {
+            this.id = id;
+            this.logPath = dir.resolve(logName(id));
+            this.indexPath = dir.resolve(indexName(id));
+            this.slots = slots;
+            this.log = log;
+            this.index = index;
+            this.regions = new MappedByteBuffer[0];
+        }
+
+        static String logName(long id) {
+            return "results-%06d.log".formatted(id);
+        }
+
+        static String indexName(long id) {
+            return "results-%06d.idx".formatted(id);
+        }
+
+        static Generation create(Path dir, long id, int slots) throws IOException {
+            MappedByteBuffer index = mapIndex(dir.resolve(indexName(id)), slots, true);
+            index.putInt(0, MAGIC).putInt(4, VERSION).putLong(HEADER_SLOTS, slots).putLong(16, id).putLong(HEADER_APPEND_AT, 0);
+            FileChannel log = openLog(dir.resolve(logName(id)), true);
+            return new Generation(id, dir, slots, log, index);
+        }
+
+        /** 헤더가 맞지 않거나 파일이 없으면 null */
+        static Generation open(Path dir, long id, int slots) throws IOException {
+            Path indexPath = dir.resolve(indexName(id));
+            Path logPath = dir.resolve(logName(id));
+            if (!Files.exists(indexPath) || !Files.exists(logPath)
+                    || Files.size(indexPath) != HEADER_BYTES + (long) slots * SLOT_BYTES) {
+                return null;
+            }
+            MappedByteBuffer index = mapIndex(indexPath, slots, false);
+            if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION || index.getLong(HEADER_SLOTS) != slots) {
+                return null;
+            }
+            Generation g = new Generation(id, dir, slots, openLog(logPath, false), index);
+            g.recover();
+            return g;
+        }
+
+        private static MappedByteBuffer mapIndex(Path path, int slots, boolean create) throws IOException {
+            long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+            try (FileChannel ch = FileChannel.open(path, create
+                    ? new StandardOpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE}
+                    : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE})) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buf.order(ByteOrder.nativeOrder());
+                return buf;
+            }
+        }
+
+        private static FileChannel openLog(Path path, boolean create) throws IOException {
+            return create
+                    ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * 재시작 시: 항목 수를 세고 이어 쓸 위치를 정합니다.
+         * 헤더의 appendAt 이 늦게 기록됐을 수 있으므로 슬롯이 가리키는 레코드 끝과 비교해 큰 쪽을 씁니다.
+         */
+        private void recover() throws IOException {
+            long end = index.getLong(HEADER_APPEND_AT);
+            int count = 0;
+            long fileSize = log.size();
+            for (int i = 0; i < slots; i++) {
+                int slot = HEADER_BYTES + i * SLOT_BYTES;
+                if (index.getLong(slot) == 0) {
+                    continue;
+                }
+                count++;
+                long at = index.getLong(slot + 8);
+                if (at >= 0 && at + RECORD_HEADER <= fileSize) {
+                    ByteBuffer region = region(at);
+                    int length = region.getInt((int) (at & REGION_MASK));
+                    if (length > 0 && (at & REGION_MASK) + length <= REGION_BYTES) {
+                        end = Math.max(end, at + length);
+                    }
+                }
+            }
+            this.entries = count;
+            this.appendAt = end;
+        }
+
+        /** size 바이트를 쓸 위치 (영역 끝에 걸치면 다음 영역 시작) */
+        long reserve(int size) {
+            long at = appendAt;
+            if ((at & REGION_MASK) + size > REGION_BYTES) {
+                at = (at | REGION_MASK) + 1;
+            }
+            return at;
+        }
+
+        void write(long at, byte[] record) throws IOException {
+            region(at).put((int) (at & REGION_MASK), record);
+            appendAt = at + record.length;
+            index.putLong(HEADER_APPEND_AT, appendAt);
+        }
+
+        /** 위치를 먼저 쓰고 키를 release 로 써서, 키가 보이면 레코드도 보이게 함 */
+        void publish(long h, long at) {
+            int mask = slots - 1;
+            int i = (int) h & mask;
+            for (int probes = 0; probes < slots; probes++, i = (i + 1) & mask) {
+                int slot = HEADER_BYTES + i * SLOT_BYTES;
+                long k = (long) LONGS.getAcquire(index, slot);
+                if (k == h) {
+                    LONGS.setRelease(index, slot + 8, at);
+                    return;
+                }
+                if (k == 0) {
+                    LONGS.setRelease(index, slot + 8, at);
+                    LONGS.setRelease(index, slot, h);
+                    entries++;
+                    return;
+                }
+            }
+            throw new IllegalStateException("인덱스가 가득 찼습니다.");
+        }
+
+        /** 레코드를 검증하고 값을 꺼냄 (키가 다르거나 만료·손상이면 null) */
+        Entry read(long at, byte[] key, long now) {
+            MappedByteBuffer[] mapped = regions;
+            int r = (int) (at >>> REGION_SHIFT);
+            if (at < 0 || r >= mapped.length) {
+                return null;
+            }
+            ByteBuffer region = mapped[r];
+            int pos = (int) (at & REGION_MASK);
+            if (pos + RECORD_HEADER > REGION_BYTES) {
+                return null;
+            }
+            int length = region.getInt(pos);
+            int keyLength = region.getShort(pos + 16);
+            if (length < RECORD_HEADER + 1 || pos + length > REGION_BYTES || keyLength != key.length
+                    || length < RECORD_HEADER + keyLength + 1) {
+                return null;
+            }
+            long expiresAt = region.getLong(pos + 8);
+            if (expiresAt <= now) {
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(region.slice(pos + 8, length - 8));
+            if ((int) crc.getValue() != region.getInt(pos + 4)) {
+                return null;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (region.get(pos + RECORD_HEADER + i) != key[i]) {
+                    return null;
+                }
+            }
+            int valueAt = pos + RECORD_HEADER + key.length + 1;
+            byte[] value = new byte[pos + length - valueAt];
+            region.get(valueAt, value);
+            return new Entry(region.get(valueAt - 1), value, expiresAt);
+        }
+
+        /** 압축용: 유효하고 만료되지 않은 레코드의 {length, expiresAt} (아니면 null) */
+        long[] meta(long at, long now) throws IOException {
+            if (at < 0 || at + RECORD_HEADER > appendAt) {
+                return null;
+            }
+            ByteBuffer region = region(at);
+            int pos = (int) (at & REGION_MASK);
+            int length = region.getInt(pos);
+            if (length < RECORD_HEADER + 1 || pos + length > REGION_BYTES) {
+                return null;
+            }
+            long expiresAt = region.getLong(pos + 8);
+            CRC32C crc = new CRC32C();
+            crc.update(region.slice(pos + 8, length - 8));
+            if (expiresAt <= now || (int) crc.getValue() != region.getInt(pos + 4)) {
+                return null;
+            }
+            return new long[]{length, expiresAt};
+        }
+
+        byte[] copy(long at, int length) throws IOException {
+            byte[] record = new byte[length];
+            region(at).get((int) (at & REGION_MASK), record);
+            return record;
+        }
+
+        /** at 이 속한 영역 (필요하면 매핑, 쓰기 쪽에서만 새로 매핑됨) */
+        private ByteBuffer region(long at) throws IOException {
+            int r = (int) (at >>> REGION_SHIFT);
+            MappedByteBuffer[] mapped = regions;
+            if (r < mapped.length && mapped[r] != null) {
+                return mapped[r];
+            }
+            MappedByteBuffer[] grown = Arrays.copyOf(mapped, Math.max(mapped.length, r + 1));
+            for (int i = mapped.length; i <= r; i++) {
+                grown[i] = map(i);
+            }
+            regions = grown;
+            return grown[r];
+        }
+
+        private MappedByteBuffer map(int r) throws IOException {
+            try {
+                return log.map(FileChannel.MapMode.READ_WRITE, (long) r << REGION_SHIFT, REGION_BYTES);
+            } catch (ClosedChannelException e) {
+                // 매핑 중 인터럽트되면 채널이 닫힘 → 다시 열어서 한 번 더
+                log = openLog(logPath, false);
+                return log.map(FileChannel.MapMode.READ_WRITE, (long) r << REGION_SHIFT, REGION_BYTES);
+            }
+        }
+
+        void force() {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+            index.force();
+        }
+
+        void close() throws IOException {
+            log.close();
+        }
+
+        void delete() throws IOException {
+            Files.deleteIfExists(logPath);
+            Files.deleteIfExists(indexPath);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.util.ImageHashUtils;
+import com.example.dongjubeauty.util.ImageHashUtils.PerceptualHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 비슷한 이미지(dHash 해밍 거리 threshold 이하)의 이전 분석을 찾는 인메모리 인덱스.
+ * 바이트가 달라 내용 해시 캐시는 놓치는 재압축·EXIF 제거·HEIC 변환본을 같은 사진으로 봅니다.
+ * dHash 는 밝기만 보므로 퍼스널 컬러처럼 색이 결과를 바꾸는 엔드포인트는 평균 색차 차이도
+ * color-tolerance 이하여야 재사용합니다 (화이트밸런스·필터만 다른 사진은 다시 분석).
+ * debug 결과(오버레이·랜드마크)는 그 사진에만 맞으므로 인덱스에 넣지도, 찾지도 않습니다.
+ * <p>
+ * 다중 인덱스 해싱: 64비트를 threshold+1 조각으로 나누면 거리가 threshold 이하인 두 해시는
+ * 적어도 한 조각이 똑같으므로(비둘기집 원리), 조각별 해시 테이블에서 후보만 꺼내 거리를 잽니다.
+ * BK-tree 와 달리 제거가 간단해 capacity 를 넘으면 가장 오래 쓰이지 않은 항목부터 지웁니다.
+ * <p>
+ * 인덱스에는 해시와 캐시 키만 두고 결과 본문은 {@link AnalysisResultCache} 에서 꺼냅니다
+ * (캐시에서 만료된 결과는 재사용하지 않음).
+ * 메트릭: analysis.reuse.lookups{endpoint,outcome=hit|miss|expired}, analysis.reuse.distance, analysis.reuse.index.size
+ */
+@Component
+public class NearDuplicateIndex {
+
+    private final boolean enabled;
+    private final int threshold;
+    private final int colorTolerance;
+    private final int capacity;
+    private final AnalysisResultCache cache;
+
+    /** 조각 i 는 해시의 [shifts[i], shifts[i+1]) 비트 */
+    private final int[] shifts;
+    private final List<Map<Long, List<AnalysisKey>>> tables = new ArrayList<>();
+    /** 캐시 키 → 지문 (접근 순서, 맨 앞이 가장 오래 쓰이지 않은 항목) */
+    private final LinkedHashMap<AnalysisKey, PerceptualHash> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<AnalysisEndpoint, Counter> hits = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<AnalysisEndpoint, Counter> misses = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<AnalysisEndpoint, Counter> expired = new EnumMap<>(AnalysisEndpoint.class);
+    private final DistributionSummary distance;
+
+    public NearDuplicateIndex(ImageProperties props, AnalysisResultCache cache, MeterRegistry registry) {
+        ImageProperties.NearDuplicate conf = props.getNearDuplicate();
+        this.enabled = conf.isEnabled() && cache.isEnabled();
+        this.threshold = conf.getThreshold();
+        this.colorTolerance = conf.getColorTolerance();
+        this.capacity = conf.getCapacity();
+        this.cache = cache;
+
+        int chunks = threshold + 1;
+        this.shifts = new int[chunks + 1];
+        for (int i = 0; i <= chunks; i++) {
+            shifts[i] = i * Long.SIZE / chunks;
+        }
+        for (int i = 0; i < chunks; i++) {
+            tables.add(new HashMap<>());
+        }
+
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            hits.put(endpoint, lookups(registry, endpoint, "hit"));
+            misses.put(endpoint, lookups(registry, endpoint, "miss"));
+            expired.put(endpoint, lookups(registry, endpoint, "expired"));
+        }
+        this.distance = DistributionSummary.builder("analysis.reuse.distance")
+                .description("재사용한 이전 분석과의 dHash 해밍 거리")
+                .register(registry);
+        // 생성 중인 this 대신 필드를 넘김 (size 는 int 필드 읽기라 잠그지 않아도 됨)
+        Gauge.builder("analysis.reuse.index.size", entries, Map::size)
+                .description("비슷한 이미지 인덱스에 있는 해시 수")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 같은 옵션으로 분석한 비슷한 이미지의 캐시된 결과 (없으면 null).
+     *
+     * @param key            현재 요청의 캐시 키 (엔드포인트·옵션이 같은 항목만 찾음, debug 면 찾지 않음)
+     * @param perceptualHash 현재 이미지의 지문 (null 이면 찾지 않음)
+     */
+    public <T> T find(AnalysisKey key, PerceptualHash perceptualHash) {
+        if (!enabled || perceptualHash == null || key.debug()) {
+            return null;
+        }
+        AnalysisKey match = nearest(key, perceptualHash);
+        if (match == null) {
+            misses.get(key.endpoint()).increment();
+            return null;
+        }
+        T result = cache.getIfPresent(match);
+        if (result == null) {
+            // 인덱스 항목은 그대로 두고 capacity 에 밀려 지워지게 함 (캐시 저장 직전의 항목일 수 있음)
+            expired.get(key.endpoint()).increment();
+            return null;
+        }
+        hits.get(key.endpoint()).increment();
+        return result;
+    }
+
+    /** 분석이 끝난 이미지의 지문을 기억합니다 (debug 결과는 제외). */
+    public synchronized void add(AnalysisKey key, PerceptualHash perceptualHash) {
+        if (!enabled || perceptualHash == null || key.debug()) {
+            return;
+        }
+        PerceptualHash previous = entries.put(key, perceptualHash);
+        if (previous != null) {
+            unindex(key, previous.dHash());
+        }
+        for (int i = 0; i < tables.size(); i++) {
+            tables.get(i).computeIfAbsent(chunk(perceptualHash.dHash(), i), c -> new ArrayList<>(1)).add(key);
+        }
+        Iterator<Map.Entry<AnalysisKey, PerceptualHash>> eldest = entries.entrySet().iterator();
+        while (entries.size() > capacity) {
+            Map.Entry<AnalysisKey, PerceptualHash> e = eldest.next();
+            eldest.remove();
+            unindex(e.getKey(), e.getValue().dHash());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized AnalysisKey nearest(AnalysisKey key, PerceptualHash target) {
+        long hash = target.dHash();
+        boolean checkColor = key.endpoint().isColorSensitive();
+        AnalysisKey best = null;
+        int bestDistance = threshold + 1;
+        for (int i = 0; i < tables.size(); i++) {
+            List<AnalysisKey> candidates = tables.get(i).get(chunk(hash, i));
+            if (candidates == null) {
+                continue;
+            }
+            for (AnalysisKey candidate : candidates) {
+                if (!candidate.sameOptions(key) || candidate.imageHash().equals(key.imageHash())) {
+                    continue;
+                }
+                PerceptualHash seen = entries.get(candidate);
+                if (checkColor && target.colorDistance(seen) > colorTolerance) {
+                    continue;
+                }
+                int d = ImageHashUtils.hammingDistance(hash, seen.dHash());
+                if (d < bestDistance) {
+                    best = candidate;
+                    bestDistance = d;
+                }
+            }
+        }
+        if (best != null) {
+            entries.get(best); // 최근 사용으로 갱신
+            distance.record(bestDistance);
+        }
+        return best;
+    }
+
+    private void unindex(AnalysisKey key, long hash) {
+        for (int i = 0; i < tables.size(); i++) {
+            Map<Long, List<AnalysisKey>> table = tables.get(i);
+            long c = chunk(hash, i);
+            List<AnalysisKey> bucket = table.get(c);
+            if (bucket != null && bucket.remove(key) && bucket.isEmpty()) {
+                table.remove(c);
+            }
+        }
+    }
+
+    private long chunk(long hash, int i) {
+        int bits = shifts[i + 1] - shifts[i];
+        long mask = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+        return (hash >>> shifts[i]) & mask;
+    }
+
+    private static Counter lookups(MeterRegistry registry, AnalysisEndpoint endpoint, String outcome) {
+        return Counter.builder("analysis.reuse.lookups")
+                .description("비슷한 이미지 인덱스 조회 결과 (hit 이면 FastAPI 호출 생략)")
+                .tag("endpoint", endpoint.getTag())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 동일 키의 동시 요청 병합(single-flight).
+ * 같은 이미지·옵션으로 이미 FastAPI 호출이 진행 중이면 새로 호출하지 않고
+ * 그 결과(또는 예외)를 함께 받습니다. 합류한 요청 수는 analysis.coalesced 메트릭으로 집계합니다.
+ * <p>
+ * 논블로킹 호출은 어느 요청의 구독에도 묶이지 않고 따로 구독해 두므로, 먼저 온 요청이 끊겨도(더블 탭·게이트웨이 재시도)
+ * 남은 요청은 결과를 받습니다. 기다리는 요청이 모두 떠났을 때만 FastAPI 호출을 취소합니다.
+ */
+@Component
+public class SingleFlight {
+
+    private final boolean enabled;
+    private final Map<AnalysisKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public SingleFlight(PythonApiProperties props, MeterRegistry registry) {
+        this.enabled = props.getCoalescing().isEnabled();
+        this.registry = registry;
+        registry.gauge("analysis.inflight", inFlight, Map::size);
+    }
+
+    /**
+     * 진행 중인 동일 호출이 있으면 합류하고, 없으면 call 을 직접 실행합니다.
+     *
+     * @param onShared 합류한 요청에 돌려주기 전 결과를 보정(traceId 교체 등)하는 함수
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(AnalysisKey key, Supplier<T> call, UnaryOperator<T> onShared) {
+        if (!enabled) {
+            return call.get();
+        }
+        Flight mine = new Flight();
+        Flight existing;
+        while ((existing = inFlight.putIfAbsent(key, mine)) != null) {
+            if (existing.join()) {
+                coalescedCounter(key).increment();
+                try {
+                    T shared = (T) await(existing.result);
+                    return shared != null ? onShared.apply(shared) : null;
+                } finally {
+                    leave(key, existing);
+                }
+            }
+            inFlight.remove(key, existing); // 모두 떠나 취소되는 중
+        }
+
+        try {
+            T result = call.get();
+            mine.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** {@link #execute} 의 논블로킹 버전. 블로킹 경로와 같은 진행 중 목록을 공유합니다. */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> executeMono(AnalysisKey key, Supplier<Mono<T>> call, UnaryOperator<T> onShared) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.deferContextual(ctx -> {
+            Flight mine = new Flight();
+            Flight existing;
+            while ((existing = inFlight.putIfAbsent(key, mine)) != null) {
+                if (existing.join()) {
+                    coalescedCounter(key).increment();
+                    return waitFor(key, existing).map(shared -> onShared.apply((T) shared));
+                }
+                inFlight.remove(key, existing);
+            }
+            // 선행 요청의 컨텍스트(호출자 정보)로 구독하되 그 요청의 취소와는 분리
+            mine.upstream = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, mine))
+                    .subscribe(mine.result::complete, mine.result::completeExceptionally,
+                            () -> mine.result.complete(null), Context.of(ctx));
+            return waitFor(key, mine).map(value -> (T) value);
+        });
+    }
+
+    /** 취소해도 공유 결과는 그대로 두고 기다리는 요청 수만 줄임 */
+    private Mono<Object> waitFor(AnalysisKey key, Flight flight) {
+        return Mono.fromFuture(flight.result, true)
+                .doOnCancel(() -> leave(key, flight));
+    }
+
+    /**
+     * 마지막으로 기다리던 요청이 떠나면 FastAPI 호출을 취소합니다.
+     * 받을 요청이 없으므로 결과는 완료시키지 않습니다 (예외로 완료하면 이미 취소된 구독의 오류가 onErrorDropped 로 남음).
+     */
+    private void leave(AnalysisKey key, Flight flight) {
+        if (flight.waiters.decrementAndGet() == 0 && !flight.result.isDone()) {
+            inFlight.remove(key, flight);
+            Disposable upstream = flight.upstream;
+            if (upstream != null) {
+                upstream.dispose();
+            }
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 선행 호출이 던진 예외를 그대로 전파
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    /** 진행 중인 호출 하나 (waiters 는 선행 요청 포함, 0 이 되면 다시 합류할 수 없음) */
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger(1);
+        volatile Disposable upstream;
+
+        boolean join() {
+            for (int n = waiters.get(); n > 0; n = waiters.get()) {
+                if (waiters.compareAndSet(n, n + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private Counter coalescedCounter(AnalysisKey key) {
+        return Counter.builder("analysis.coalesced")
+                .description("진행 중인 동일 요청에 합류한 횟수")
+                .tag("endpoint", key.endpoint().getTag())
+                .register(registry);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 이미지 디코딩/재인코딩 전용 스레드 풀 (코어 수 크기, 대기열 제한).
+ * 대기열이 가득 차거나 제한 시간을 넘기면 {@link AnalysisRejectedException#busy()} 로 거절합니다.
+ * 대기열 길이·활성 스레드는 executor.*{name=image.convert},
+ * 대기/변환 시간은 image.convert.wait / image.convert.time 메트릭으로 노출됩니다.
+ */
+@Component
+public class ImageConversionExecutor {
+
+    static final String NAME = "image.convert";
+
+    private final ThreadPoolExecutor executor;
+    private final Duration taskTimeout;
+
+    private final Timer waitTime;
+    private final Timer runTime;
+    private final Counter rejected;
+    private final Counter timeouts;
+
+    public ImageConversionExecutor(ImageProperties props, MeterRegistry registry) {
+        ImageProperties.Executor conf = props.getExecutor();
+        int threads = conf.resolvedThreads();
+        BlockingQueue<Runnable> queue = conf.getQueueCapacity() > 0
+                ? new ArrayBlockingQueue<>(conf.getQueueCapacity())
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                Thread.ofPlatform().name("image-convert-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.taskTimeout = conf.getTaskTimeout();
+
+        ExecutorServiceMetrics.monitor(registry, executor, NAME);
+        this.waitTime = Timer.builder("image.convert.wait")
+                .description("변환 작업이 대기열에서 기다린 시간")
+                .register(registry);
+        this.runTime = Timer.builder("image.convert.time")
+                .description("변환 작업 실행 시간")
+                .register(registry);
+        this.rejected = Counter.builder("image.convert.rejected")
+                .description("대기열이 가득 차 거절한 변환 작업 수")
+                .register(registry);
+        this.timeouts = Counter.builder("image.convert.timeouts")
+                .description("제한 시간을 넘겨 취소한 변환 작업 수")
+                .register(registry);
+    }
+
+    /**
+     * 풀에서 실행하고 결과를 기다립니다 (블로킹 경로).
+     *
+     * @throws IOException                작업이 던진 IOException
+     * @throws AnalysisRejectedException  대기열 포화 또는 제한 시간 초과
+     */
+    public <T> T call(Callable<T> task) throws IOException {
+        try {
+            return submit(task).join();
+        } catch (CompletionException | CancellationException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /** 풀에서 실행하는 Mono (논블로킹 경로). 구독 취소 시 실행 중인 작업도 중단합니다. */
+    public <T> Mono<T> mono(Callable<T> task) {
+        return Mono.defer(() -> Mono.fromFuture(submit(task), true))
+                .onErrorMap(TimeoutException.class, e -> AnalysisRejectedException.busy());
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTime.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                if (result.isDone()) {
+                    return; // 대기 중에 제한 시간 초과/취소됨
+                }
+                try {
+                    result.complete(task.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    runTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw AnalysisRejectedException.busy();
+        }
+
+        result.orTimeout(taskTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((v, e) -> {
+                    if (e instanceof TimeoutException || e instanceof CancellationException) {
+                        if (e instanceof TimeoutException) {
+                            timeouts.increment();
+                        }
+                        running.cancel(true);
+                    }
+                });
+        return result;
+    }
+
+    /** 작업 예외를 원래 타입으로 되돌립니다 (IOException 만 반환, 나머지는 그대로 던짐). */
+    private static IOException rethrow(RuntimeException e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof TimeoutException) {
+            throw AnalysisRejectedException.busy();
+        }
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException re) {
+            throw re;
+        }
+        if (cause instanceof Error err) {
+            throw err;
+        }
+        return new IOException(new ExecutionException(cause));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
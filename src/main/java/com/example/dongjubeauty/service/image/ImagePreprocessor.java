@@ -0,0 +1,132 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.util.ImageConversionUtils;
+import com.example.dongjubeauty.util.ImageConversionUtils.ConvertedImage;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessOptions;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 이미지를 FastAPI 로 보내기 전에 검사({@link ImageValidator})하고 축소·방향 보정·재인코딩합니다.
+ * 입출력 크기는 image.preprocess.bytes(direction=in|out),
+ * 단계별 시간은 image.preprocess.time(phase=probe|decode|transform|encode|heic) 메트릭으로 노출됩니다.
+ */
+@Component
+public class ImagePreprocessor {
+
+    private final ImageProperties.Preprocess conf;
+    private final boolean perceptualHash;
+    private final ImageConversionExecutor executor;
+    private final ImageValidator validator;
+
+    private final DistributionSummary bytesIn;
+    private final DistributionSummary bytesOut;
+    private final Timer probeTime;
+    private final Timer decodeTime;
+    private final Timer transformTime;
+    private final Timer encodeTime;
+    private final Timer heicTime;
+    private final Counter passThrough;
+
+    public ImagePreprocessor(ImageProperties props, ImageConversionExecutor executor, ImageValidator validator,
+                             MeterRegistry registry) {
+        this.conf = props.getPreprocess();
+        this.perceptualHash = props.getNearDuplicate().isEnabled();
+        this.executor = executor;
+        this.validator = validator;
+        this.bytesIn = bytes(registry, "in");
+        this.bytesOut = bytes(registry, "out");
+        this.probeTime = phase(registry, "probe");
+        this.decodeTime = phase(registry, "decode");
+        this.transformTime = phase(registry, "transform");
+        this.encodeTime = phase(registry, "encode");
+        this.heicTime = phase(registry, "heic");
+        this.passThrough = Counter.builder("image.preprocess.passthrough")
+                .description("재인코딩 없이 원본을 그대로 전송한 업로드 수")
+                .register(registry);
+    }
+
+    /**
+     * 전송할 이미지. 변환은 {@link ImageConversionExecutor} 풀에서 실행합니다. converted 가 null 이면 업로드 원본을 그대로 보냅니다.
+     * 전처리가 꺼져 있으면 기존처럼 HEIC 만 JPEG 로 변환하고, dHash 는 전처리할 때만 계산합니다.
+     *
+     * @throws IOException                HEIC 를 디코딩할 수 없을 때
+     * @throws com.example.dongjubeauty.service.AnalysisRejectedException 변환 풀 포화(BUSY) 또는 검사 탈락
+     */
+    public PreparedImage prepare(MultipartFile file, boolean exifCorrection) throws IOException {
+        if (!needsConversion(file)) {
+            return PreparedImage.ORIGINAL;
+        }
+        return executor.call(() -> convert(file, exifCorrection));
+    }
+
+    /** {@link #prepare} 의 논블로킹 버전 */
+    public Mono<PreparedImage> prepareMono(MultipartFile file, boolean exifCorrection) {
+        if (!needsConversion(file)) {
+            return Mono.just(PreparedImage.ORIGINAL);
+        }
+        return executor.mono(() -> convert(file, exifCorrection));
+    }
+
+    /** 검사·전처리가 모두 꺼져 있고 HEIC 도 아니면 변환 풀을 거치지 않음 */
+    private boolean needsConversion(MultipartFile file) {
+        return conf.isEnabled() || validator.isEnabled() || ImageConversionUtils.isHeic(file);
+    }
+
+    private PreparedImage convert(MultipartFile file, boolean exifCorrection) throws IOException {
+        ImageValidator.Inspection inspection = validator.inspect(file);
+        if (!conf.isEnabled()) {
+            validator.finish(inspection, null);
+            long t0 = System.nanoTime();
+            try {
+                Optional<ConvertedImage> heic = ImageConversionUtils.convertToJpegIfHeic(file, conf.getMaxDecodeSize().toBytes());
+                return new PreparedImage(heic.orElse(null), null);
+            } finally {
+                heicTime.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        PreprocessResult r = ImageConversionUtils.preprocess(file,
+                new PreprocessOptions(conf.getMaxDimension(), conf.getJpegQuality(), exifCorrection,
+                        conf.getMaxDecodeSize().toBytes(), perceptualHash, validator.needsQuality(inspection)));
+        validator.finish(inspection, r.quality());
+
+        bytesIn.record(r.bytesIn());
+        bytesOut.record(r.bytesOut());
+        probeTime.record(r.probeNanos(), TimeUnit.NANOSECONDS);
+        if (r.passedThrough()) {
+            passThrough.increment();
+            return new PreparedImage(null, r.perceptualHash());
+        }
+        decodeTime.record(r.decodeNanos(), TimeUnit.NANOSECONDS);
+        transformTime.record(r.transformNanos(), TimeUnit.NANOSECONDS);
+        encodeTime.record(r.encodeNanos(), TimeUnit.NANOSECONDS);
+        return new PreparedImage(r.image(), r.perceptualHash());
+    }
+
+    private static DistributionSummary bytes(MeterRegistry registry, String direction) {
+        return DistributionSummary.builder("image.preprocess.bytes")
+                .description("전처리 전후 이미지 크기")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(registry);
+    }
+
+    private static Timer phase(MeterRegistry registry, String phase) {
+        return Timer.builder("image.preprocess.time")
+                .description("이미지 전처리 단계별 소요 시간")
+                .tag("phase", phase)
+                .register(registry);
+    }
+}
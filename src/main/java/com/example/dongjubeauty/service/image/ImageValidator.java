@@ -0,0 +1,189 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.util.ImageValidationUtils;
+import com.example.dongjubeauty.util.ImageValidationUtils.Header;
+import com.example.dongjubeauty.util.ImageValidationUtils.Quality;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FastAPI 로 보내기 전에 명백히 분석할 수 없는 업로드를 거절합니다 (변환 풀에서 전처리 직전에 실행).
+ * <ol>
+ *   <li>header: 앞부분 바이트로 포맷 판별·해상도 확인 (디코딩 없음) → INVALID_IMAGE / LOW_QUALITY / IMAGE_TOO_LARGE</li>
+ *   <li>thumbnail: JPEG 의 Exif 썸네일로 밝기·선명도(·피부색) 검사 → LOW_QUALITY / NO_FACE</li>
+ *   <li>Exif 썸네일이 없으면 전처리가 디코딩한 이미지의 지표로 {@link #finish} 에서 같은 검사</li>
+ * </ol>
+ * 메트릭: image.validation.checks{result=pass|reject, code, reason} (거절률), image.validation.time{stage},
+ * image.validation.saved.time (거절 시점의 FastAPI 평균 성공 응답 시간 합, 아낀 시간 추정), image.validation.saved.bytes (보내지 않은 업로드 크기).
+ */
+@Component
+public class ImageValidator {
+
+    /** 검사 중인 업로드 (quality 가 null 이 아니면 Exif 썸네일로 이미 검사함) */
+    public record Inspection(long bytes, Quality quality) {
+    }
+
+    private final ImageProperties.Validation conf;
+    private final MeterRegistry registry;
+    private final Counter passed;
+    private final Timer headerTime;
+    private final Timer thumbnailTime;
+    private final Counter savedTime;
+    private final Counter savedBytes;
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+
+    public ImageValidator(ImageProperties props, MeterRegistry registry) {
+        this.conf = props.getValidation();
+        this.registry = registry;
+        this.passed = checks(registry, "pass", "none", "none");
+        this.headerTime = stage(registry, "header");
+        this.thumbnailTime = stage(registry, "thumbnail");
+        this.savedTime = Counter.builder("image.validation.saved.time")
+                .description("검사로 거절해 FastAPI 를 호출하지 않은 시간 추정 (거절 시점의 평균 성공 응답 시간 합)")
+                .baseUnit("seconds")
+                .register(registry);
+        this.savedBytes = Counter.builder("image.validation.saved.bytes")
+                .description("검사로 거절해 FastAPI 로 보내지 않은 업로드 크기")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return conf.isEnabled();
+    }
+
+    /** 품질 지표를 전처리 결과에서 받아야 하는지 */
+    public boolean needsQuality(Inspection inspection) {
+        return inspection != null && conf.isQualityCheck() && inspection.quality() == null;
+    }
+
+    /**
+     * 헤더 단계와 Exif 썸네일 검사. 검사가 꺼져 있으면 null.
+     *
+     * @throws AnalysisRejectedException 분석할 수 없는 이미지
+     * @throws IOException               업로드를 읽을 수 없을 때
+     */
+    public Inspection inspect(MultipartFile file) throws IOException {
+        if (!conf.isEnabled()) {
+            return null;
+        }
+        long t0 = System.nanoTime();
+        byte[] head;
+        try (InputStream in = file.getInputStream()) {
+            head = in.readNBytes(ImageValidationUtils.HEADER_SCAN_LIMIT);
+        }
+        Header header;
+        try {
+            header = ImageValidationUtils.readHeader(head, head.length >= file.getSize());
+        } catch (IOException e) {
+            throw reject(file.getSize(), AnalysisRejectedException.invalidImage(e.getMessage()), "corrupt");
+        } finally {
+            headerTime.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+        checkHeader(header, file.getSize());
+
+        Quality quality = null;
+        if (conf.isQualityCheck() && header.exifThumbnail() != null) {
+            long t1 = System.nanoTime();
+            quality = ImageValidationUtils.measureThumbnail(header.exifThumbnail());
+            thumbnailTime.record(System.nanoTime() - t1, TimeUnit.NANOSECONDS);
+            if (quality != null) {
+                checkQuality(quality, file.getSize());
+            }
+        }
+        return new Inspection(file.getSize(), quality);
+    }
+
+    /**
+     * 전처리 뒤 마무리. 아직 품질을 보지 않았으면 전처리가 잰 지표로 검사하고 통과로 기록합니다.
+     *
+     * @param quality 전처리가 잰 지표 (없으면 null, 그러면 품질 검사 없이 통과)
+     */
+    public void finish(Inspection inspection, Quality quality) {
+        if (inspection == null) {
+            return;
+        }
+        if (needsQuality(inspection) && quality != null) {
+            checkQuality(quality, inspection.bytes());
+        }
+        passed.increment();
+    }
+
+    private void checkHeader(Header header, long bytes) {
+        if (header.format() == ImageValidationUtils.Format.UNKNOWN) {
+            throw reject(bytes, AnalysisRejectedException.invalidImage("지원하지 않는 이미지 형식입니다."), "unsupported");
+        }
+        if (!header.hasDimensions()) {
+            return; // 앞부분에서 찾지 못함 → 디코더 판단에 맡김
+        }
+        if (Math.min(header.width(), header.height()) < conf.getMinDimension()) {
+            throw reject(bytes, AnalysisRejectedException.lowQuality(
+                    "이미지 해상도가 너무 낮습니다: " + header.width() + "x" + header.height()), "too_small");
+        }
+        if ((long) header.width() * header.height() > conf.getMaxPixels()) {
+            throw reject(bytes, AnalysisRejectedException.imageTooLarge(
+                    "이미지 해상도가 너무 큽니다: " + header.width() + "x" + header.height()), "too_large");
+        }
+    }
+
+    private void checkQuality(Quality q, long bytes) {
+        if (q.meanLuminance() < conf.getMinLuminance()) {
+            throw reject(bytes, AnalysisRejectedException.lowQuality("이미지가 너무 어둡습니다."), "dark");
+        }
+        if (q.meanLuminance() > conf.getMaxLuminance()) {
+            throw reject(bytes, AnalysisRejectedException.lowQuality("이미지가 너무 밝습니다."), "bright");
+        }
+        if (q.sharpness() < conf.getMinSharpness()) {
+            throw reject(bytes, AnalysisRejectedException.lowQuality("이미지가 너무 흐립니다."), "blurry");
+        }
+        if (q.skinRatio() < conf.getMinSkinRatio()) {
+            throw reject(bytes, AnalysisRejectedException.noFace("얼굴로 보이는 영역이 없습니다."), "no_skin");
+        }
+    }
+
+    private AnalysisRejectedException reject(long bytes, AnalysisRejectedException e, String reason) {
+        rejected.computeIfAbsent(e.getCode() + '.' + reason, k -> checks(registry, "reject", e.getCode(), reason))
+                .increment();
+        savedTime.increment(upstreamMeanSeconds());
+        savedBytes.increment(bytes);
+        return e;
+    }
+
+    /** 지금까지 성공한 FastAPI 호출의 평균 시간 (analysis.upstream{status=200} 전체) */
+    private double upstreamMeanSeconds() {
+        double total = 0;
+        long count = 0;
+        for (Timer t : registry.find("analysis.upstream").tag("status", "200").timers()) {
+            total += t.totalTime(TimeUnit.SECONDS);
+            count += t.count();
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    private static Counter checks(MeterRegistry registry, String result, String code, String reason) {
+        return Counter.builder("image.validation.checks")
+                .description("FastAPI 호출 전 이미지 검사 결과")
+                .tag("result", result)
+                .tag("code", code)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static Timer stage(MeterRegistry registry, String stage) {
+        return Timer.builder("image.validation.time")
+                .description("이미지 검사 단계별 소요 시간")
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.util.ImageConversionUtils.ConvertedImage;
+import com.example.dongjubeauty.util.ImageHashUtils.PerceptualHash;
+
+/**
+ * 전처리 결과.
+ *
+ * @param converted      전송할 변환 이미지 (null 이면 업로드 원본을 그대로 전송)
+ * @param perceptualHash 비슷한 이미지 검색용 dHash·평균 색차 (계산하지 않았으면 null)
+ */
+public record PreparedImage(ConvertedImage converted, PerceptualHash perceptualHash) {
+
+    static final PreparedImage ORIGINAL = new PreparedImage(null, null);
+}
@@ -0,0 +1,125 @@
+package com.example.dongjubeauty.service.job;
+
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 비동기 분석 작업 하나의 상태.
+ * 상태가 바뀔 때마다 스냅샷을 {@link #events()} 로 내보내며, 늦게 구독해도 마지막 상태부터 받습니다.
+ */
+public final class AnalysisJob {
+
+    @Getter
+    public enum Type {
+        PERSONAL_COLOR("personal_color"),
+        FACE_SHAPE("face_shape"),
+        /** 퍼스널 컬러 + 얼굴형 (파일 업로드만) */
+        COMBINED("combined");
+
+        private final String value;
+
+        Type(String value) {
+            this.value = value;
+        }
+
+        /** personal_color / personal-color / PERSONAL_COLOR 모두 허용 */
+        public static Type from(String value) {
+            String normalized = value.strip().replace('-', '_').toLowerCase(Locale.ROOT);
+            return Arrays.stream(values())
+                    .filter(t -> t.value.equals(normalized))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("알 수 없는 분석 종류: " + value));
+        }
+    }
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED;
+
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public boolean isFinished() {
+            return this == DONE || this == FAILED;
+        }
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final Type type;
+    /** FastAPI 로 보내는 X-Trace-Id (요청에 없으면 작업 id) */
+    @Getter
+    private final String traceId;
+    private final Instant createdAt = Instant.now();
+
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Map<String, Object> result;
+
+    private final Sinks.Many<Map<String, Object>> events = Sinks.many().replay().latest();
+
+    AnalysisJob(String id, Type type, String traceId) {
+        this.id = id;
+        this.type = type;
+        this.traceId = traceId;
+        events.tryEmitNext(snapshot());
+    }
+
+    long createdAtMillis() {
+        return createdAt.toEpochMilli();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    synchronized void started() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        events.tryEmitNext(snapshot());
+    }
+
+    synchronized void finished(Map<String, Object> result, boolean success) {
+        this.result = result;
+        finishedAt = Instant.now();
+        state = success ? State.DONE : State.FAILED;
+        events.tryEmitNext(snapshot());
+        events.tryEmitComplete();
+    }
+
+    /** 상태 변경 스트림 (완료/실패 스냅샷 뒤 종료) */
+    public Flux<Map<String, Object>> events() {
+        return events.asFlux();
+    }
+
+    /** {job_id, state, type, traceId, created_at, started_at, finished_at, elapsed_ms, result} */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("job_id", id);
+        out.put("state", state.value());
+        out.put("type", type.getValue());
+        out.put("traceId", traceId);
+        out.put("created_at", createdAt.toString());
+        if (startedAt != null) {
+            out.put("started_at", startedAt.toString());
+        }
+        if (finishedAt != null) {
+            out.put("finished_at", finishedAt.toString());
+            out.put("elapsed_ms", Duration.between(createdAt, finishedAt).toMillis());
+        }
+        if (result != null) {
+            out.put("result", result);
+        }
+        return out;
+    }
+}
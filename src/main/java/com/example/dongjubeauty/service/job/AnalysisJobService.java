@@ -0,0 +1,251 @@
+package com.example.dongjubeauty.service.job;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.service.AnalysisResults;
+import com.example.dongjubeauty.service.CombinedAnalysisService;
+import com.example.dongjubeauty.service.PersonalColorService;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import com.example.dongjubeauty.util.ImageHashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.example.dongjubeauty.service.AnalysisResults.isSuccess;
+import static com.example.dongjubeauty.service.AnalysisResults.withStatus;
+import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
+
+/**
+ * 비동기 분석 작업 접수/실행/보관.
+ * 접수는 제한된 대기열(python.api.jobs.queue-capacity)에 넣고 바로 반환하며, 작업은 parallelism 개씩 기존 논블로킹 경로로 실행합니다.
+ * 결과는 ttl 동안 메모리에 보관합니다 (최대 max-stored 개).
+ * 작업 id 는 서버가 만든 UUID 이고 X-Trace-Id 는 FastAPI 호출과 로그를 잇는 상관 id 로만 씁니다.
+ * 같은 클라이언트가 같은 traceId·작업 종류·이미지로 다시 보낸 요청은 새로 분석하지 않고 기존 작업을 돌려줍니다.
+ */
+@Service
+public class AnalysisJobService {
+
+    /** 재전송 판별 키 (traceId 만 같고 종류나 이미지가 다르면 다른 작업) */
+    private record Resubmit(String clientKey, String traceId, AnalysisJob.Type type, String imageHash) {}
+
+    private record Queued(AnalysisJob job, Resubmit resubmit, Mono<Map<String, Object>> task, Runnable discard) {}
+
+    private final PersonalColorService service;
+    private final CombinedAnalysisService combined;
+    private final AnalysisResults results;
+
+    private final Cache<String, AnalysisJob> store;
+    private final Cache<Resubmit, AnalysisJob> resubmits;
+    private final Sinks.Many<Queued> queue;
+    private final Disposable worker;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer waitTime;
+
+    public AnalysisJobService(PersonalColorService service,
+                              CombinedAnalysisService combined,
+                              AnalysisResults results,
+                              PythonApiProperties props,
+                              MeterRegistry registry) {
+        this.service = service;
+        this.combined = combined;
+        this.results = results;
+
+        PythonApiProperties.Jobs conf = props.getJobs();
+        this.store = Caffeine.newBuilder()
+                .maximumSize(conf.getMaxStored())
+                .expireAfterWrite(conf.getTtl())
+                .build();
+        this.resubmits = Caffeine.newBuilder()
+                .maximumSize(conf.getMaxStored())
+                .expireAfterWrite(conf.getTtl())
+                .build();
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(conf.getQueueCapacity()));
+        this.worker = queue.asFlux()
+                .doOnDiscard(Queued.class, q -> q.discard().run())
+                .flatMap(this::run, conf.getParallelism())
+                .subscribe();
+
+        Gauge.builder("analysis.jobs.queued", queued, AtomicInteger::get)
+                .description("실행을 기다리는 비동기 작업 수")
+                .register(registry);
+        Gauge.builder("analysis.jobs.running", running, AtomicInteger::get)
+                .description("실행 중인 비동기 작업 수")
+                .register(registry);
+        this.rejected = Counter.builder("analysis.jobs.rejected")
+                .description("대기열이 가득 차 거절한 작업 수")
+                .register(registry);
+        this.waitTime = Timer.builder("analysis.jobs.wait")
+                .description("작업이 대기열에서 기다린 시간")
+                .register(registry);
+    }
+
+    // ---------- 접수 ----------
+    public AnalysisJob submitFile(AnalysisJob.Type type,
+                                  MultipartFile file,
+                                  boolean debug,
+                                  boolean exifCorrection,
+                                  String traceId,
+                                  String acceptLanguage) {
+        if (file == null || file.isEmpty()) {
+            throw AnalysisRejectedException.invalidImage("빈 파일입니다.");
+        }
+        SpooledUpload upload;
+        Resubmit resubmit;
+        try {
+            upload = SpooledUpload.copyOf(file);
+            resubmit = hasText(traceId) ? resubmit(traceId, type, ImageHashUtils.sha256(upload)) : null;
+        } catch (IOException e) {
+            throw AnalysisRejectedException.invalidImage("업로드 파일을 읽을 수 없습니다.");
+        }
+        AnalysisJob existing = existing(resubmit);
+        if (existing != null) {
+            upload.delete();
+            return existing;
+        }
+        return enqueue(type, traceId, resubmit, jobTraceId -> switch (type) {
+            case PERSONAL_COLOR -> service.analyzeFileReactive(upload, debug, exifCorrection, jobTraceId, acceptLanguage)
+                    .map(results::toResult);
+            case FACE_SHAPE -> service.faceShapeFileReactive(upload, debug, exifCorrection, jobTraceId, acceptLanguage)
+                    .map(res -> withStatus(res, HttpStatus.OK.value()));
+            case COMBINED -> combined.analyzeFile(upload, debug, exifCorrection, jobTraceId, acceptLanguage);
+        }, upload::delete);
+    }
+
+    public AnalysisJob submitJson(AnalysisJob.Type type,
+                                  DecodedImageRequest body,
+                                  boolean debug,
+                                  String traceId,
+                                  String acceptLanguage) {
+        if (type == AnalysisJob.Type.COMBINED) {
+            throw new AnalysisRejectedException(HttpStatus.BAD_REQUEST, "INVALID_REQUEST",
+                    "combined 작업은 파일 업로드로만 접수할 수 있습니다.", null);
+        }
+        String requestTraceId = hasText(traceId) ? traceId : body.traceId();
+        Resubmit resubmit = hasText(requestTraceId) ? resubmit(requestTraceId, type, body.imageHash()) : null;
+        AnalysisJob existing = existing(resubmit);
+        if (existing != null) {
+            return existing;
+        }
+        // 본문 디코딩 경로는 블로킹(RestClient)이므로 boundedElastic 에서 실행
+        return enqueue(type, requestTraceId, resubmit, jobTraceId -> Mono.fromCallable(() -> switch (type) {
+                    case PERSONAL_COLOR -> service.analyzeJson(body, debug, jobTraceId, acceptLanguage);
+                    case FACE_SHAPE, COMBINED -> service.faceShapeJson(body, debug, jobTraceId, acceptLanguage);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(res -> withStatus(res, HttpStatus.OK.value())), () -> {});
+    }
+
+    // ---------- 조회 ----------
+    public AnalysisJob get(String jobId) {
+        AnalysisJob job = store.getIfPresent(jobId);
+        if (job == null) {
+            throw AnalysisRejectedException.jobNotFound(jobId);
+        }
+        return job;
+    }
+
+    /** 재전송 키는 traceId 가 있을 때만 만듦 (접수한 클라이언트 범위) */
+    private static Resubmit resubmit(String traceId, AnalysisJob.Type type, String imageHash) {
+        return new Resubmit(ClientContext.current().clientKey(), traceId, type, imageHash);
+    }
+
+    private static boolean hasText(String traceId) {
+        return traceId != null && !traceId.isBlank();
+    }
+
+    private AnalysisJob existing(Resubmit resubmit) {
+        return resubmit != null ? resubmits.getIfPresent(resubmit) : null;
+    }
+
+    private AnalysisJob enqueue(AnalysisJob.Type type,
+                                String traceId,
+                                Resubmit resubmit,
+                                Function<String, Mono<Map<String, Object>>> call,
+                                Runnable discard) {
+        String id = UUID.randomUUID().toString();
+        AnalysisJob job = new AnalysisJob(id, type, hasText(traceId) ? traceId : id);
+
+        if (resubmit != null) {
+            AnalysisJob raced = resubmits.asMap().putIfAbsent(resubmit, job);
+            if (raced != null) {
+                discard.run();
+                return raced;
+            }
+        }
+        store.put(id, job);
+
+        // 워커 스레드에서 실행되므로 접수한 클라이언트(bulk 등급)를 Context 로 넘김
+        Queued item = new Queued(job, resubmit, Mono.defer(() -> call.apply(job.getTraceId()))
+                .contextWrite(ClientContext.capture()), discard);
+        queued.incrementAndGet();
+        Sinks.EmitResult emitted;
+        synchronized (queue) {
+            emitted = queue.tryEmitNext(item);
+        }
+        if (emitted.isFailure()) {
+            queued.decrementAndGet();
+            store.invalidate(id);
+            if (resubmit != null) {
+                resubmits.invalidate(resubmit);
+            }
+            discard.run();
+            rejected.increment();
+            throw AnalysisRejectedException.jobQueueFull();
+        }
+        return job;
+    }
+
+    // ---------- 실행 ----------
+    private Mono<Void> run(Queued item) {
+        AnalysisJob job = item.job();
+        return Mono.defer(() -> {
+                    queued.decrementAndGet();
+                    running.incrementAndGet();
+                    job.started();
+                    waitTime.record(System.currentTimeMillis() - job.createdAtMillis(), TimeUnit.MILLISECONDS);
+                    return item.task();
+                })
+                .switchIfEmpty(Mono.fromSupplier(results::emptyResult))
+                .onErrorResume(e -> Mono.just(results.errorResult(e)))
+                .doOnNext(res -> {
+                    job.finished(addKoreanLabels(res), isSuccess(res));
+                    store.put(job.getId(), job); // 완료 시점부터 ttl 동안 보관
+                    if (item.resubmit() != null) {
+                        resubmits.put(item.resubmit(), job);
+                    }
+                })
+                .doFinally(s -> {
+                    running.decrementAndGet();
+                    item.discard().run();
+                })
+                .then();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.dispose();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.dongjubeauty.service.job;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 요청이 끝난 뒤에도 쓸 수 있도록 임시 파일로 옮겨 둔 업로드.
+ * 서블릿 멀티파트 파일은 응답과 함께 지워지므로 비동기 작업은 이 사본으로 분석하고 끝나면 {@link #delete()} 합니다.
+ */
+final class SpooledUpload implements MultipartFile {
+
+    private final Path path;
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+
+    private SpooledUpload(Path path, MultipartFile source) {
+        this.path = path;
+        this.name = source.getName();
+        this.originalFilename = source.getOriginalFilename();
+        this.contentType = source.getContentType();
+        this.size = source.getSize();
+    }
+
+    /** 업로드를 임시 파일로 옮김 (디스크에 있는 파트는 복사 없이 이름만 바뀝니다) */
+    static SpooledUpload copyOf(MultipartFile file) throws IOException {
+        Path path = Files.createTempFile("analysis-job-", ".upload");
+        try {
+            file.transferTo(path.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new SpooledUpload(path, file);
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 임시 디렉터리 정리에 맡김
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public Resource getResource() {
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
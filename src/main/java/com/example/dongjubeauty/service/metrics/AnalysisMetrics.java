@@ -0,0 +1,148 @@
+package com.example.dongjubeauty.service.metrics;
+
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 분석 요청 단계별 메트릭.
+ * <ul>
+ *   <li>analysis.phase{endpoint, phase} — parse(멀티파트/본문 해석), hash, preprocess(변환 풀 대기 포함), localize</li>
+ *   <li>analysis.upstream{endpoint, status} — FastAPI 호출 시간과 상태 코드별 건수 (TIMEOUT / CONNECT_ERROR / CANCELLED 포함)</li>
+ *   <li>analysis.payload{endpoint, direction=request|upstream} — 요청/전송 이미지 크기</li>
+ * </ul>
+ * 히스토그램 버킷은 management.metrics.distribution.* 설정으로 켜고, 기록 시점의 traceId 는 exemplar 로 붙습니다.
+ * 미터는 처음 한 번만 등록하고 이후에는 캐시에서 꺼내 씁니다.
+ */
+@Component
+public class AnalysisMetrics {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Phase {
+        PARSE("parse"),
+        HASH("hash"),
+        PREPROCESS("preprocess"),
+        LOCALIZE("localize");
+
+        private final String tag;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Direction {
+        /** 클라이언트가 보낸 이미지 */
+        REQUEST("request"),
+        /** FastAPI 로 보낸 이미지 (전처리 후) */
+        UPSTREAM("upstream");
+
+        private final String tag;
+    }
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> phases = new ConcurrentHashMap<>();
+    private final Map<String, Timer> upstream = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> payloads = new ConcurrentHashMap<>();
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(AnalysisEndpoint endpoint, Phase phase, String traceId, long nanos) {
+        record(endpoint.getTag(), phase, traceId, nanos);
+    }
+
+    /** endpoint 는 AnalysisEndpoint 태그 또는 통합 분석처럼 그 밖의 진입점 이름 */
+    public void record(String endpoint, Phase phase, String traceId, long nanos) {
+        String key = endpoint + '.' + phase.getTag();
+        Timer timer = phases.computeIfAbsent(key, k -> Timer.builder("analysis.phase")
+                .description("분석 요청 단계별 소요 시간")
+                .tag("endpoint", endpoint)
+                .tag("phase", phase.getTag())
+                .register(registry));
+        TraceExemplars.record(traceId, key, () -> timer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /** 블로킹 구간 측정 */
+    public <T> T time(AnalysisEndpoint endpoint, Phase phase, String traceId, Supplier<T> work) {
+        long t0 = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(endpoint, phase, traceId, System.nanoTime() - t0);
+        }
+    }
+
+    /** FastAPI 호출 1건 (status 는 {@link #statusOf} 값) */
+    public void upstream(AnalysisEndpoint endpoint, String status, String traceId, long nanos) {
+        String key = endpoint.getTag() + '.' + status;
+        Timer timer = upstream.computeIfAbsent(key, k -> Timer.builder("analysis.upstream")
+                .description("FastAPI 호출 시간 (상태 코드별)")
+                .tag("endpoint", endpoint.getTag())
+                .tag("status", status)
+                .register(registry));
+        TraceExemplars.record(traceId, endpoint.getTag() + ".upstream", () -> timer.record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    public void payload(AnalysisEndpoint endpoint, Direction direction, long bytes) {
+        payload(endpoint.getTag(), direction, bytes);
+    }
+
+    public void payload(String endpoint, Direction direction, long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        String key = endpoint + '.' + direction.getTag();
+        payloads.computeIfAbsent(key, k -> DistributionSummary.builder("analysis.payload")
+                        .description("분석 이미지 크기")
+                        .baseUnit("bytes")
+                        .tag("endpoint", endpoint)
+                        .tag("direction", direction.getTag())
+                        .register(registry))
+                .record(bytes);
+    }
+
+    /** 업스트림 예외를 status 태그 값으로 (응답이 있으면 상태 코드) */
+    public static String statusOf(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException e) {
+                return String.valueOf(e.getStatusCode().value());
+            }
+            if (t instanceof RestClientResponseException e) {
+                return String.valueOf(e.getStatusCode().value());
+            }
+            if (t instanceof TimeoutException) {
+                return "TIMEOUT";
+            }
+            if (t instanceof WebClientRequestException || t instanceof ResourceAccessException || t instanceof IOException) {
+                // 응답 타임아웃은 ReadTimeoutException(IOException 아님) 이 원인으로 붙어 옴
+                return hasTimeoutCause(t) ? "TIMEOUT" : "CONNECT_ERROR";
+            }
+        }
+        return "ERROR";
+    }
+
+    private static boolean hasTimeoutCause(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t.getClass().getSimpleName().contains("Timeout")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
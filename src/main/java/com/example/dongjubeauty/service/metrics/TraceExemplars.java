@@ -0,0 +1,87 @@
+package com.example.dongjubeauty.service.metrics;
+
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청의 X-Trace-Id 를 Prometheus exemplar(trace_id, span_id)로 붙입니다.
+ * traceId 를 메트릭 태그로 쓰면 시계열이 요청 수만큼 늘어나므로, 히스토그램 버킷마다 표본 하나에만 연결합니다.
+ * 기록하는 스레드에 {@link #bind} 된 값이 있을 때만 exemplar 를 남깁니다 (트레이싱 라이브러리 없이 동작).
+ */
+@Component
+public class TraceExemplars implements SpanContext {
+
+    private record Current(String traceId, String spanId) {}
+
+    /** {@link #bind} 해제 */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<Current> CURRENT = new ThreadLocal<>();
+
+    /** 현재 스레드에 묶인 traceId (없으면 null) */
+    public static String currentTraceId() {
+        Current c = CURRENT.get();
+        return c != null ? c.traceId() : null;
+    }
+
+    /**
+     * traceId 를 묶은 채로 기록합니다. traceId 가 없으면 스레드에 이미 묶인 값을 그대로 씁니다.
+     * span_id 에는 기록 지점(엔드포인트.단계)을 넣어 exemplar 가 어느 구간 표본인지 보이게 합니다.
+     */
+    public static void record(String traceId, String spanId, Runnable recording) {
+        String id = traceId != null && !traceId.isBlank() ? traceId : currentTraceId();
+        if (id == null) {
+            recording.run();
+            return;
+        }
+        Current previous = CURRENT.get();
+        CURRENT.set(new Current(id, spanId));
+        try {
+            recording.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /** 요청 처리 동안 traceId 를 스레드에 묶음 (반환값으로 원래 상태 복원) */
+    public static Scope bind(String traceId) {
+        if (traceId == null || traceId.isBlank()) {
+            return () -> {};
+        }
+        Current previous = CURRENT.get();
+        CURRENT.set(new Current(traceId, "request"));
+        return () -> restore(previous);
+    }
+
+    private static void restore(Current previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public String getCurrentTraceId() {
+        return currentTraceId();
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        Current c = CURRENT.get();
+        return c != null ? c.spanId() : null;
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return CURRENT.get() != null;
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        // 샘플링 결정을 전달할 트레이서가 없음
+    }
+}
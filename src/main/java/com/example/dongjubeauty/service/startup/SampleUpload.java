@@ -0,0 +1,70 @@
+package com.example.dongjubeauty.service.startup;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/** 워밍업에서 전처리 경로로 흘려보내는 메모리 업로드 */
+final class SampleUpload implements MultipartFile {
+
+    private final String filename;
+    private final String contentType;
+    private final byte[] bytes;
+
+    SampleUpload(String filename, String contentType, byte[] bytes) {
+        this.filename = filename;
+        this.contentType = contentType;
+        this.bytes = bytes;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return bytes.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public Resource getResource() {
+        return new ByteArrayResource(bytes);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.write(dest.toPath(), bytes);
+    }
+}
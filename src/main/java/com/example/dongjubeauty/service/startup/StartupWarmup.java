@@ -0,0 +1,201 @@
+package com.example.dongjubeauty.service.startup;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.config.StartupProperties;
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.upstream.UpstreamBalancer;
+import com.example.dongjubeauty.service.upstream.UpstreamReplica;
+import com.example.dongjubeauty.util.Base64ImageReader;
+import com.example.dongjubeauty.util.ImageConversionUtils;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessOptions;
+import com.example.dongjubeauty.util.ImageValidationUtils;
+import com.example.dongjubeauty.util.LocalizationUtils;
+import com.example.dongjubeauty.util.StreamingLocalizer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 새 인스턴스의 첫 요청들이 치르던 초기화 비용을 readiness 전에 미리 치릅니다.
+ * ApplicationRunner 는 ApplicationReadyEvent 전에 실행되므로 워밍업이 끝나야 /actuator/health/readiness 가 UP 이 됩니다.
+ * <ul>
+ *   <li>codec: ImageIO 플러그인 탐색, JPEG/PNG 디코딩·축소·인코딩, 헤더 검사·dHash·품질 측정 (전처리 경로 그대로)</li>
+ *   <li>json: AnalyzeRequest 직렬화/역직렬화, image_base64 스트리밍 읽기/쓰기, FastAPI 응답 변환·한국어 라벨</li>
+ *   <li>upstream: Reactor Netty 이벤트 루프·DNS 준비 후 레플리카마다 커넥션을 열어 풀에 넣어 둠</li>
+ * </ul>
+ * 단계 실패는 경고만 남기고 기동을 막지 않습니다. 단계별 시간은 startup.warmup.time{step} 메트릭으로 노출됩니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final List<String> SAMPLE_RESPONSES = List.of(
+            "{\"status\":\"ok\",\"season\":\"spring\",\"tone\":\"warm\",\"traceId\":\"warmup\"}",
+            "{\"status\":\"ok\",\"face_shape\":\"oval\",\"traceId\":\"warmup\"}",
+            "{\"status\":\"error\",\"code\":\"NO_FACE\",\"message\":\"warmup\"}");
+
+    private final StartupProperties props;
+    private final ImageProperties imageProps;
+    private final ObjectMapper objectMapper;
+    private final HttpClient pythonHttpClient;
+    private final UpstreamBalancer balancer;
+    private final ConfigurableApplicationContext context;
+    private final MeterRegistry registry;
+
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        StartupProperties.Warmup conf = props.getWarmup();
+        if (conf.isEnabled()) {
+            long t0 = System.nanoTime();
+            step("codec", () -> codecs(conf.getIterations()));
+            step("json", () -> json(conf.getIterations()));
+            step("upstream", () -> upstream(conf));
+            log.info("워밍업 완료: {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        }
+        if (props.isExitAfterWarmup()) {
+            log.info("startup.exit-after-warmup=true 이므로 종료합니다.");
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private void step(String name, Step step) {
+        long t0 = System.nanoTime();
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.warn("워밍업 단계 실패 (무시하고 계속): {}", name, e);
+        } finally {
+            long nanos = System.nanoTime() - t0;
+            Timer.builder("startup.warmup.time")
+                    .description("기동 워밍업 단계별 소요 시간")
+                    .tag("step", name)
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            log.info("워밍업 {}: {}ms", name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /** 축소(320)·통과(원래 크기) 두 경로를 JPEG/PNG 로 반복하고, HEIF/WebP 리더도 한 번 만들어 둠 */
+    private void codecs(int iterations) throws IOException {
+        ImageProperties.Preprocess pre = imageProps.getPreprocess();
+        long maxDecode = pre.getMaxDecodeSize().toBytes();
+        List<PreprocessOptions> options = List.of(
+                new PreprocessOptions(320, pre.getJpegQuality(), true, maxDecode, true, true),
+                new PreprocessOptions(pre.getMaxDimension(), pre.getJpegQuality(), true, maxDecode, true, true));
+        BufferedImage sample = sample();
+        byte[] jpeg = encode(sample, "jpeg");
+        byte[] png = encode(sample, "png");
+        for (int i = 0; i < iterations; i++) {
+            for (PreprocessOptions o : options) {
+                ImageValidationUtils.readHeader(jpeg, true);
+                ImageConversionUtils.preprocess(new SampleUpload("warmup.jpg", "image/jpeg", jpeg), o);
+                ImageValidationUtils.readHeader(png, true);
+                ImageConversionUtils.preprocess(new SampleUpload("warmup.png", "image/png", png), o);
+            }
+        }
+        for (String suffix : List.of("heic", "webp")) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersBySuffix(suffix);
+            if (readers.hasNext()) {
+                readers.next().dispose();
+            }
+        }
+    }
+
+    /** image_base64 는 디코딩만 하므로 이미지가 아닌 임의 바이트로 충분 */
+    private void json(int iterations) throws IOException {
+        byte[] image = new byte[64 * 1024];
+        new Random(42).nextBytes(image);
+        AnalyzeRequest request = new AnalyzeRequest();
+        request.setImageBase64(Base64.getEncoder().encodeToString(image));
+        request.setOptions(new AnalyzeRequest.Options());
+        for (int i = 0; i < iterations; i++) {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            objectMapper.readValue(body, AnalyzeRequest.class);
+            DecodedImageRequest decoded = Base64ImageReader.read(new ByteArrayInputStream(body), objectMapper,
+                    imageProps.getJson().getMaxImageSize().toBytes(), body.length);
+            Base64ImageReader.write(decoded, objectMapper, new ByteArrayOutputStream(body.length));
+            for (String response : SAMPLE_RESPONSES) {
+                Map<String, Object> map = objectMapper.readValue(response, MAP_TYPE);
+                objectMapper.writeValueAsBytes(LocalizationUtils.addKoreanLabels(map));
+                StreamingLocalizer.localize(response);
+                StreamingLocalizer.retrace(response, "warmup-" + i);
+            }
+        }
+    }
+
+    /** 이벤트 루프·DNS 를 준비하고, 레플리카마다 동시에 GET 을 보내 커넥션을 풀에 남겨 둠 (상태 코드는 무시) */
+    private void upstream(StartupProperties.Warmup conf) {
+        pythonHttpClient.warmup().block(conf.getUpstreamTimeout());
+        if (conf.getUpstreamConnections() == 0) {
+            return;
+        }
+        List<Mono<Integer>> calls = new ArrayList<>();
+        for (UpstreamReplica replica : balancer.replicas()) {
+            for (int i = 0; i < conf.getUpstreamConnections(); i++) {
+                calls.add(pythonHttpClient.get()
+                        .uri(replica.baseUrl() + conf.getUpstreamPath())
+                        .responseSingle((res, body) -> body.then(Mono.just(res.status().code())))
+                        .onErrorResume(e -> Mono.empty()));
+            }
+        }
+        List<Integer> answered = Flux.merge(calls)
+                .take(conf.getUpstreamTimeout())
+                .collectList()
+                .block();
+        log.info("FastAPI 커넥션 준비: {}/{}", answered == null ? 0 : answered.size(), calls.size());
+    }
+
+    /** 압축이 잘 되지 않는 그라데이션 + 잡음 (실제 사진과 비슷한 디코딩 경로) */
+    private static BufferedImage sample() {
+        int w = 640;
+        int h = 480;
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int r = (x * 255 / w) ^ random.nextInt(32);
+                int g = (y * 255 / h) ^ random.nextInt(32);
+                img.setRGB(x, y, (r << 16) | (g << 8) | 160);
+            }
+        }
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 엔드포인트 하나의 적응형 동시 처리 한도 (Gradient 방식).
+ *
+ * <pre>
+ * gradient = clamp(tolerance × longRtt / rtt, 0.5, 1.0)
+ * newLimit = limit × gradient + sqrt(limit)
+ * limit    = limit × (1 - smoothing) + newLimit × smoothing
+ * </pre>
+ * 진행 중 요청이 한도의 절반도 안 되면(여유 있음) 한도를 올리지 않고,
+ * 타임아웃/5xx 가 나면 backoff 비율로 즉시 줄입니다.
+ */
+class AdaptiveLimit {
+
+    private final PythonApiProperties.Limiter conf;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    AdaptiveLimit(PythonApiProperties.Limiter conf, int maxLimit) {
+        this.conf = conf;
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(maxLimit, Math.max(conf.getMinLimit(), conf.getInitialLimit()));
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    /** 한도 안이면 진행 중 요청 수를 올리고 true */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** 응답 시간을 반영하지 않고 반납(취소 등) */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped) {
+            limit = Math.max(conf.getMinLimit(), limit * conf.getBackoffRatio());
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            double w = 1.0 / conf.getLongWindow();
+            longRttNanos = longRttNanos * (1 - w) + rttNanos * w;
+            // 부하가 풀려 응답이 크게 빨라지면 장기 평균도 빠르게 따라 내려가도록
+            if (longRttNanos / rttNanos > 2.0) {
+                longRttNanos *= 0.95;
+            }
+        }
+
+        // 한도에 한참 못 미치게 쓰는 중이면 늘릴 근거가 없음
+        if (inFlightAtStart * 2 < limit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, conf.getRttTolerance() * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - conf.getSmoothing()) + newLimit * conf.getSmoothing();
+        limit = Math.max(conf.getMinLimit(), Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 엔드포인트 하나의 서킷 브레이커 상태.
+ * 최근 window-size 건의 결과(성공/실패, 느림 여부)를 링 버퍼로 유지하고,
+ * 상태가 바뀔 때마다 epoch 를 올려 이전 상태에서 시작한 호출의 결과는 버립니다.
+ * 전이 알림은 잠금 안에서 쌓아 두었다가 잠금을 푼 뒤 전달하므로, 리스너가 느리거나 브레이커를 다시 불러도
+ * 같은 엔드포인트의 다른 호출을 막지 않습니다.
+ */
+class CircuitBreaker {
+
+    /** 상태 전이 알림 (잠금 밖에서, 브레이커마다 한 스레드씩 전이 순서대로 호출) */
+    interface Listener {
+        void onTransition(UpstreamCircuitBreakers.State from, UpstreamCircuitBreakers.State to,
+                          double failureRate, double slowCallRate);
+    }
+
+    private static final byte EMPTY = 0;
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+    private static final byte OK = 4;
+
+    private final PythonApiProperties.CircuitBreaker conf;
+    private final long slowCallNanos;
+    private final LongSupplier clock;
+    private final Listener listener;
+    private final Queue<Transition> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifying = new AtomicBoolean();
+
+    private final byte[] window;
+    private int next;
+    private int count;
+    private int failures;
+    private int slows;
+
+    private UpstreamCircuitBreakers.State state = UpstreamCircuitBreakers.State.CLOSED;
+    private long epoch;
+    private long openedAt;
+    private int probesIssued;
+    private int probesDone;
+    private int probeFailures;
+    private int probeSlows;
+
+    CircuitBreaker(PythonApiProperties.CircuitBreaker conf, long slowCallNanos, LongSupplier clock, Listener listener) {
+        this.conf = conf;
+        this.slowCallNanos = slowCallNanos;
+        this.clock = clock;
+        this.listener = listener;
+        this.window = new byte[conf.getWindowSize()];
+    }
+
+    /** 호출을 허용하면 그 시점의 epoch, 열려 있으면 -1 */
+    long tryAcquire() {
+        long acquired;
+        synchronized (this) {
+            acquired = tryAcquireLocked();
+        }
+        notifyListener();
+        return acquired;
+    }
+
+    void onResult(long callEpoch, boolean failed, long elapsedNanos) {
+        synchronized (this) {
+            onResultLocked(callEpoch, failed, elapsedNanos);
+        }
+        notifyListener();
+    }
+
+    private long tryAcquireLocked() {
+        if (state == UpstreamCircuitBreakers.State.OPEN
+                && clock.getAsLong() - openedAt >= conf.getOpenDuration().toNanos()) {
+            transition(UpstreamCircuitBreakers.State.HALF_OPEN, failureRate(), slowCallRate());
+        }
+        return switch (state) {
+            case CLOSED -> epoch;
+            case OPEN -> -1;
+            case HALF_OPEN -> {
+                if (probesIssued >= conf.getHalfOpenCalls()) {
+                    yield -1;
+                }
+                probesIssued++;
+                yield epoch;
+            }
+        };
+    }
+
+    private void onResultLocked(long callEpoch, boolean failed, long elapsedNanos) {
+        if (callEpoch != epoch) {
+            return;
+        }
+        boolean slow = elapsedNanos >= slowCallNanos;
+        if (state == UpstreamCircuitBreakers.State.CLOSED) {
+            add((byte) ((failed ? FAILED : OK) | (slow ? SLOW : 0)));
+            if (count >= conf.getMinimumCalls() && tripped(failures, slows, count)) {
+                transition(UpstreamCircuitBreakers.State.OPEN, failureRate(), slowCallRate());
+            }
+        } else if (state == UpstreamCircuitBreakers.State.HALF_OPEN) {
+            probesDone++;
+            probeFailures += failed ? 1 : 0;
+            probeSlows += slow ? 1 : 0;
+            if (probesDone >= conf.getHalfOpenCalls()) {
+                transition(tripped(probeFailures, probeSlows, probesDone)
+                                ? UpstreamCircuitBreakers.State.OPEN
+                                : UpstreamCircuitBreakers.State.CLOSED,
+                        (double) probeFailures / probesDone, (double) probeSlows / probesDone);
+            }
+        }
+    }
+
+    /** 취소된 호출: 결과에 넣지 않고 half-open 시험 자리만 돌려줌 */
+    synchronized void onIgnored(long callEpoch) {
+        if (callEpoch == epoch && state == UpstreamCircuitBreakers.State.HALF_OPEN && probesIssued > probesDone) {
+            probesIssued--;
+        }
+    }
+
+    synchronized UpstreamCircuitBreakers.State state() {
+        return state;
+    }
+
+    /** 다음 시험 호출까지 남은 시간 (열려 있지 않으면 0) */
+    synchronized long remainingOpenNanos() {
+        if (state != UpstreamCircuitBreakers.State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, conf.getOpenDuration().toNanos() - (clock.getAsLong() - openedAt));
+    }
+
+    synchronized double failureRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+
+    synchronized double slowCallRate() {
+        return count == 0 ? 0 : (double) slows / count;
+    }
+
+    private boolean tripped(int failed, int slow, int total) {
+        return failed >= conf.getFailureRateThreshold() * total || slow >= conf.getSlowCallRateThreshold() * total;
+    }
+
+    private void add(byte outcome) {
+        byte evicted = window[next];
+        if (evicted != EMPTY) {
+            failures -= (evicted & FAILED) != 0 ? 1 : 0;
+            slows -= (evicted & SLOW) != 0 ? 1 : 0;
+        } else {
+            count++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += (outcome & FAILED) != 0 ? 1 : 0;
+        slows += (outcome & SLOW) != 0 ? 1 : 0;
+    }
+
+    /** failureRate / slowCallRate 는 전이를 결정한 구간(닫힘 상태 창 또는 시험 호출)의 비율 */
+    private void transition(UpstreamCircuitBreakers.State to, double failureRate, double slowCallRate) {
+        UpstreamCircuitBreakers.State from = state;
+        state = to;
+        epoch++;
+        probesIssued = probesDone = probeFailures = probeSlows = 0;
+        if (to == UpstreamCircuitBreakers.State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (to == UpstreamCircuitBreakers.State.CLOSED) {
+            Arrays.fill(window, EMPTY);
+            next = count = failures = slows = 0;
+        }
+        pending.add(new Transition(from, to, failureRate, slowCallRate));
+    }
+
+    /** 쌓인 전이를 순서대로 전달 (다른 스레드가 전달 중이면 그쪽이 마저 보냄) */
+    private void notifyListener() {
+        while (!pending.isEmpty() && notifying.compareAndSet(false, true)) {
+            try {
+                Transition t;
+                while ((t = pending.poll()) != null) {
+                    listener.onTransition(t.from(), t.to(), t.failureRate(), t.slowCallRate());
+                }
+            } finally {
+                notifying.set(false);
+            }
+        }
+    }
+
+    private record Transition(UpstreamCircuitBreakers.State from, UpstreamCircuitBreakers.State to,
+                              double failureRate, double slowCallRate) {
+    }
+}
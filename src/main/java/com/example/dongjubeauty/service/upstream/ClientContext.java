@@ -0,0 +1,65 @@
+package com.example.dongjubeauty.service.upstream;
+
+import reactor.util.context.Context;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * {@link UpstreamScheduler} 가 대기열을 고를 때 쓰는 호출자 정보.
+ * 요청 필터가 요청 스레드에 {@link #bind} 하고, 논블로킹 경로는 {@link #capture()} 로 Reactor Context 에 옮깁니다.
+ * 묶인 값이 없는 호출(비동기 작업 워커 등)은 {@link #BACKGROUND} 로 봅니다.
+ *
+ * @param clientKey     공정 분배 단위 (API 키 헤더 또는 원격 주소)
+ * @param priority      우선순위 등급
+ * @param debug         debug=true 요청 (대기열에서 비용을 더 크게 셈)
+ * @param deadlineNanos 호출자가 기다리는 한계 시각 (System.nanoTime 기준, 0 이면 없음)
+ */
+public record ClientContext(String clientKey, Priority priority, boolean debug, long deadlineNanos) {
+
+    public enum Priority {
+        /** 사용자가 화면에서 기다리는 요청 */
+        INTERACTIVE,
+        /** 배치·비동기 작업·debug 요청 */
+        BULK;
+
+        public String getTag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** {@link #bind} 해제 */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final ClientContext BACKGROUND = new ClientContext("background", Priority.BULK, false, 0);
+
+    private static final ThreadLocal<ClientContext> CURRENT = new ThreadLocal<>();
+
+    /** 현재 스레드에 묶인 값 (없으면 {@link #BACKGROUND}) */
+    public static ClientContext current() {
+        ClientContext c = CURRENT.get();
+        return c != null ? c : BACKGROUND;
+    }
+
+    /** 요청 처리 동안 스레드에 묶음 (반환값으로 원래 상태 복원) */
+    public static Scope bind(ClientContext context) {
+        ClientContext previous = CURRENT.get();
+        CURRENT.set(context);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /** 지금 스레드의 값을 Reactor Context 에 넣는 함수 (컨트롤러의 Mono 에 contextWrite 로 붙임) */
+    public static Function<Context, Context> capture() {
+        ClientContext c = CURRENT.get();
+        return ctx -> c != null ? ctx.put(ClientContext.class, c) : ctx;
+    }
+}
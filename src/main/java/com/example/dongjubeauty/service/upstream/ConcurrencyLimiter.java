@@ -0,0 +1,126 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 엔드포인트별 적응형 동시 처리 한도.
+ * 한도를 넘는 요청은 타임아웃까지 기다리게 하지 않고 즉시 OVERLOADED(503)로 거절합니다
+ * ({@link UpstreamScheduler} 를 거치면 거절 대신 대기열에서 기다림).
+ * 상태는 upstream.limiter.limit / upstream.limiter.inflight / upstream.limiter.rejected 메트릭으로 노출됩니다.
+ */
+@Component
+public class ConcurrencyLimiter {
+
+    private static final Permit NOOP = new Permit(null, null, 0, null) {
+        @Override
+        public void release(boolean dropped) {
+        }
+
+        @Override
+        public void ignore() {
+        }
+    };
+
+    private final boolean enabled;
+    private final Map<AnalysisEndpoint, AdaptiveLimit> limits = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<AnalysisEndpoint, Counter> rejected = new EnumMap<>(AnalysisEndpoint.class);
+    /** permit 반납 시 호출 (대기열 깨우기) */
+    private volatile Consumer<AnalysisEndpoint> releaseListener = endpoint -> { };
+
+    public ConcurrencyLimiter(PythonApiProperties props, MeterRegistry registry) {
+        PythonApiProperties.Limiter conf = props.getLimiter();
+        this.enabled = conf.isEnabled();
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            AdaptiveLimit limit = new AdaptiveLimit(conf, conf.maxLimitFor(endpoint));
+            limits.put(endpoint, limit);
+
+            Gauge.builder("upstream.limiter.limit", limit, AdaptiveLimit::limit)
+                    .description("현재 동시 처리 한도")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+            Gauge.builder("upstream.limiter.inflight", limit, AdaptiveLimit::inFlight)
+                    .description("한도에 포함된 진행 중 요청 수")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+            rejected.put(endpoint, Counter.builder("upstream.limiter.rejected")
+                    .description("한도 초과로 즉시 거절한 요청 수")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 한도 안이면 permit 을 발급하고, 넘으면 {@link AnalysisRejectedException} 을 던집니다.
+     * 호출이 끝나면 반드시 permit 을 반납해야 합니다.
+     */
+    public Permit acquire(AnalysisEndpoint endpoint) {
+        Permit permit = tryAcquire(endpoint);
+        if (permit == null) {
+            rejected.get(endpoint).increment();
+            throw AnalysisRejectedException.overloaded(endpoint);
+        }
+        return permit;
+    }
+
+    /** 한도 안이면 permit, 넘으면 null (거절 메트릭에 넣지 않음) */
+    public Permit tryAcquire(AnalysisEndpoint endpoint) {
+        if (!enabled) {
+            return NOOP;
+        }
+        AdaptiveLimit limit = limits.get(endpoint);
+        return limit.tryAcquire() ? new Permit(endpoint, limit, limit.inFlight(), this) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** permit 이 반납될 때마다 호출할 콜백 (하나만) */
+    void onRelease(Consumer<AnalysisEndpoint> listener) {
+        this.releaseListener = listener;
+    }
+
+    public static class Permit {
+
+        private final AnalysisEndpoint endpoint;
+        private final AdaptiveLimit limit;
+        private final int inFlightAtStart;
+        private final ConcurrencyLimiter owner;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AnalysisEndpoint endpoint, AdaptiveLimit limit, int inFlightAtStart, ConcurrencyLimiter owner) {
+            this.endpoint = endpoint;
+            this.limit = limit;
+            this.inFlightAtStart = inFlightAtStart;
+            this.owner = owner;
+        }
+
+        /** 응답 시간을 한도 계산에 반영하며 반납합니다. dropped 는 타임아웃/5xx 여부. */
+        public void release(boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+                owner.releaseListener.accept(endpoint);
+            }
+        }
+
+        /** 취소 등으로 표본에 넣지 않고 반납합니다. */
+        public void ignore() {
+            if (released.compareAndSet(false, true)) {
+                limit.release();
+                owner.releaseListener.accept(endpoint);
+            }
+        }
+    }
+}
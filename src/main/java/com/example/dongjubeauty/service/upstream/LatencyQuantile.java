@@ -0,0 +1,43 @@
+package com.example.dongjubeauty.service.upstream;
+
+import java.util.Arrays;
+
+/**
+ * 최근 응답 시간 분위수 (hedge 지연 계산용).
+ * 고정 크기 링 버퍼에 표본을 쌓고, 분위수는 표본 32개마다 정렬해서 다시 계산합니다.
+ */
+class LatencyQuantile {
+
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final double quantile;
+    private final int minSamples;
+    private final long[] samples;
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private volatile long valueNanos = -1;
+
+    LatencyQuantile(double quantile, int window, int minSamples) {
+        this.quantile = quantile;
+        this.minSamples = Math.min(minSamples, window);
+        this.samples = new long[window];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (++sinceRecompute >= RECOMPUTE_EVERY && count >= minSamples || count == minSamples) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            valueNanos = sorted[Math.max(0, (int) Math.ceil(quantile * count) - 1)];
+        }
+    }
+
+    /** 표본이 부족하면 -1 */
+    long valueNanos() {
+        return valueNanos;
+    }
+}
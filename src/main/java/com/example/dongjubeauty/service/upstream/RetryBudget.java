@@ -0,0 +1,83 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 재시도·hedge 예산.
+ * 최근 budget-window 동안 (원래 요청 수 × budget-ratio + 초당 min-retries-per-second) 만큼만 추가 요청을 허용합니다.
+ * FastAPI 가 과부하로 실패하기 시작해도 추가 요청은 원래 요청의 일정 비율을 넘지 못합니다.
+ * 1초 단위 버킷을 돌려 씁니다.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final int minPerSecond;
+    private final LongSupplier clock;
+
+    private final long[] seconds;
+    private final long[] requests;
+    private final long[] retries;
+
+    RetryBudget(PythonApiProperties.Retry conf) {
+        this(conf, System::nanoTime);
+    }
+
+    RetryBudget(PythonApiProperties.Retry conf, LongSupplier clock) {
+        this.ratio = conf.getBudgetRatio();
+        this.minPerSecond = conf.getMinRetriesPerSecond();
+        this.clock = clock;
+        int window = (int) Math.max(1, conf.getBudgetWindow().toSeconds());
+        this.seconds = new long[window];
+        this.requests = new long[window];
+        this.retries = new long[window];
+        Arrays.fill(seconds, Long.MIN_VALUE);
+    }
+
+    /** 원래 요청 1건 (재시도·hedge 제외) */
+    synchronized void onRequest() {
+        requests[bucket()]++;
+    }
+
+    /** 예산이 남아 있으면 1건을 쓰고 true */
+    synchronized boolean tryAcquire() {
+        int idx = bucket();
+        if (available() < 1) {
+            return false;
+        }
+        retries[idx]++;
+        return true;
+    }
+
+    /** 지금 허용되는 추가 요청 수 */
+    synchronized double available() {
+        long now = now();
+        long totalRequests = 0;
+        long totalRetries = 0;
+        for (int i = 0; i < seconds.length; i++) {
+            if (now - seconds[i] < seconds.length) {
+                totalRequests += requests[i];
+                totalRetries += retries[i];
+            }
+        }
+        return totalRequests * ratio + (double) minPerSecond * seconds.length - totalRetries;
+    }
+
+    private int bucket() {
+        long now = now();
+        int idx = (int) Math.floorMod(now, (long) seconds.length);
+        if (seconds[idx] != now) {
+            seconds[idx] = now;
+            requests[idx] = 0;
+            retries[idx] = 0;
+        }
+        return idx;
+    }
+
+    private long now() {
+        return TimeUnit.NANOSECONDS.toSeconds(clock.getAsLong());
+    }
+}
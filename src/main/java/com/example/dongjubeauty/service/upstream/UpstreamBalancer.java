@@ -0,0 +1,127 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * FastAPI 레플리카 간 클라이언트 측 부하 분산.
+ * 진행 중 요청 수(추론 대기열 깊이의 근사치) 기준으로 레플리카를 고르고,
+ * 연속 실패한 레플리카는 일정 시간 격리한 뒤 slow-start 로 다시 편입합니다.
+ */
+@Component
+public class UpstreamBalancer {
+
+    private final List<UpstreamReplica> replicas;
+    private final PythonApiProperties.Strategy strategy;
+    private final LongSupplier clock;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final Counter ejections;
+
+    @Autowired
+    public UpstreamBalancer(PythonApiProperties props, MeterRegistry registry) {
+        this(props, registry, System::nanoTime);
+    }
+
+    UpstreamBalancer(PythonApiProperties props, MeterRegistry registry, LongSupplier clock) {
+        this.strategy = props.getBalancer().getStrategy();
+        this.clock = clock;
+        this.replicas = props.getUpstreams().stream()
+                .map(url -> new UpstreamReplica(url, props.getBalancer()))
+                .toList();
+        this.ejections = Counter.builder("upstream.replica.ejections")
+                .description("연속 실패로 레플리카를 격리한 횟수")
+                .register(registry);
+
+        for (UpstreamReplica replica : replicas) {
+            Gauge.builder("upstream.replica.outstanding", replica, UpstreamReplica::outstanding)
+                    .description("레플리카별 진행 중 요청 수")
+                    .tag("replica", replica.baseUrl())
+                    .register(registry);
+            Gauge.builder("upstream.replica.available", replica, r -> r.isAvailable(clock.getAsLong()) ? 1 : 0)
+                    .description("레플리카 사용 가능 여부 (격리 중이면 0)")
+                    .tag("replica", replica.baseUrl())
+                    .register(registry);
+        }
+    }
+
+    public List<UpstreamReplica> replicas() {
+        return replicas;
+    }
+
+    /** 요청을 보낼 레플리카를 고르고 진행 중 요청 수를 올립니다. 끝나면 {@link #release} 를 호출해야 합니다. */
+    public UpstreamReplica acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * {@link #acquire()} 와 같지만 exclude 는 고르지 않습니다 (hedge 가 느린 첫 시도와 같은 워커로 가지 않도록).
+     * 레플리카가 하나뿐이면 exclude 를 무시합니다.
+     */
+    public UpstreamReplica acquire(UpstreamReplica exclude) {
+        UpstreamReplica replica = select(clock.getAsLong(), exclude);
+        replica.begin();
+        return replica;
+    }
+
+    public void release(UpstreamReplica replica, boolean failed) {
+        long now = clock.getAsLong();
+        boolean wasAvailable = replica.isAvailable(now);
+        replica.end(failed, now);
+        if (wasAvailable && replica.isEjected(now)) {
+            ejections.increment();
+        }
+    }
+
+    private UpstreamReplica select(long now, UpstreamReplica exclude) {
+        if (replicas.size() == 1) {
+            return replicas.get(0);
+        }
+        List<UpstreamReplica> eligible = replicas;
+        if (exclude != null) {
+            eligible = new ArrayList<>(replicas);
+            eligible.remove(exclude);
+        }
+        List<UpstreamReplica> candidates = new ArrayList<>(eligible.size());
+        for (UpstreamReplica r : eligible) {
+            if (r.isAvailable(now)) {
+                candidates.add(r);
+            }
+        }
+        // 전부 격리된 경우에는 격리를 무시하고 전체에서 선택(panic mode)
+        if (candidates.isEmpty()) {
+            candidates = eligible;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        return switch (strategy) {
+            case ROUND_ROBIN -> candidates.get(Math.floorMod(roundRobin.getAndIncrement(), candidates.size()));
+            case LEAST_OUTSTANDING -> candidates.stream()
+                    .min(Comparator.comparingDouble(r -> r.load(now)))
+                    .orElseThrow();
+            case POWER_OF_TWO_CHOICES -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int i = random.nextInt(candidates.size());
+                int j = random.nextInt(candidates.size() - 1);
+                if (j >= i) {
+                    j++;
+                }
+                UpstreamReplica a = candidates.get(i);
+                UpstreamReplica b = candidates.get(j);
+                yield a.load(now) <= b.load(now) ? a : b;
+            }
+        };
+    }
+}
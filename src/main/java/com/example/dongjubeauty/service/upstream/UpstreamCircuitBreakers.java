@@ -0,0 +1,165 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * 엔드포인트별 서킷 브레이커.
+ * FastAPI 가 죽었을 때 요청마다 연결/응답 타임아웃을 기다리지 않고 즉시 CIRCUIT_OPEN(503)으로 거절합니다.
+ * 상태 전이는 브레이커 잠금을 푼 뒤 {@link StateChanged} 애플리케이션 이벤트로 발행하고,
+ * upstream.circuit.state / upstream.circuit.transitions / upstream.circuit.rejected /
+ * upstream.circuit.failure.rate / upstream.circuit.slow.rate 메트릭으로 노출됩니다.
+ */
+@Slf4j
+@Component
+public class UpstreamCircuitBreakers {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum State {
+        CLOSED("closed", 0),
+        HALF_OPEN("half_open", 1),
+        OPEN("open", 2);
+
+        private final String tag;
+        /** upstream.circuit.state 게이지 값 */
+        private final int level;
+    }
+
+    /** 상태 전이 이벤트 (@EventListener 로 구독) */
+    public record StateChanged(AnalysisEndpoint endpoint, State from, State to, double failureRate, double slowCallRate) {
+    }
+
+    private static final Permit NOOP = new Permit(null, 0) {
+        @Override
+        public void release(boolean failed, long elapsedNanos) {
+        }
+
+        @Override
+        public void ignore() {
+        }
+    };
+
+    private final boolean enabled;
+    private final Map<AnalysisEndpoint, CircuitBreaker> breakers = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<AnalysisEndpoint, Counter> rejected = new EnumMap<>(AnalysisEndpoint.class);
+
+    @Autowired
+    public UpstreamCircuitBreakers(PythonApiProperties props, MeterRegistry registry, ApplicationEventPublisher events) {
+        this(props, registry, events, System::nanoTime);
+    }
+
+    UpstreamCircuitBreakers(PythonApiProperties props, MeterRegistry registry, ApplicationEventPublisher events,
+                            LongSupplier clock) {
+        PythonApiProperties.CircuitBreaker conf = props.getCircuitBreaker();
+        this.enabled = conf.isEnabled();
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            // 전이 콜백은 브레이커마다 한 스레드씩 차례로 불리므로 엔드포인트별 HashMap 으로 충분
+            Map<String, Counter> transitions = new HashMap<>();
+            CircuitBreaker breaker = new CircuitBreaker(conf, conf.slowCallDurationFor(endpoint).toNanos(), clock,
+                    (from, to, failureRate, slowCallRate) -> {
+                        transitions.computeIfAbsent(from.getTag() + '>' + to.getTag(), k ->
+                                Counter.builder("upstream.circuit.transitions")
+                                        .description("서킷 브레이커 상태 전이 수")
+                                        .tag("endpoint", endpoint.getTag())
+                                        .tag("from", from.getTag())
+                                        .tag("to", to.getTag())
+                                        .register(registry)).increment();
+                        StateChanged event = new StateChanged(endpoint, from, to, failureRate, slowCallRate);
+                        if (to == State.OPEN) {
+                            log.warn("upstream circuit opened: {}", event);
+                        } else {
+                            log.info("upstream circuit {}: {}", to.getTag(), event);
+                        }
+                        try {
+                            events.publishEvent(event);
+                        } catch (RuntimeException e) {
+                            log.warn("circuit state listener failed: {}", event, e);
+                        }
+                    });
+            breakers.put(endpoint, breaker);
+
+            Gauge.builder("upstream.circuit.state", breaker, b -> b.state().getLevel())
+                    .description("서킷 브레이커 상태 (0=closed, 1=half_open, 2=open)")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+            Gauge.builder("upstream.circuit.failure.rate", breaker, CircuitBreaker::failureRate)
+                    .description("최근 호출 중 실패 비율")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+            Gauge.builder("upstream.circuit.slow.rate", breaker, CircuitBreaker::slowCallRate)
+                    .description("최근 호출 중 느린 응답 비율")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+            rejected.put(endpoint, Counter.builder("upstream.circuit.rejected")
+                    .description("서킷이 열려 즉시 거절한 요청 수")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * 닫혀 있거나 시험 호출 자리가 있으면 permit 을 발급하고, 아니면 {@link AnalysisRejectedException} 을 던집니다.
+     * 호출이 끝나면 반드시 permit 을 반납해야 합니다.
+     */
+    public Permit acquire(AnalysisEndpoint endpoint) {
+        if (!enabled) {
+            return NOOP;
+        }
+        CircuitBreaker breaker = breakers.get(endpoint);
+        long epoch = breaker.tryAcquire();
+        if (epoch < 0) {
+            rejected.get(endpoint).increment();
+            long remaining = breaker.remainingOpenNanos();
+            throw AnalysisRejectedException.circuitOpen(endpoint, remaining > 0 ? Duration.ofNanos(remaining) : Duration.ofSeconds(1));
+        }
+        return new Permit(breaker, epoch);
+    }
+
+    public State state(AnalysisEndpoint endpoint) {
+        return breakers.get(endpoint).state();
+    }
+
+    public static class Permit {
+
+        private final CircuitBreaker breaker;
+        private final long epoch;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(CircuitBreaker breaker, long epoch) {
+            this.breaker = breaker;
+            this.epoch = epoch;
+        }
+
+        /** 결과를 반영하며 반납합니다. failed 는 연결 오류/타임아웃/5xx 여부. */
+        public void release(boolean failed, long elapsedNanos) {
+            if (released.compareAndSet(false, true)) {
+                breaker.onResult(epoch, failed, elapsedNanos);
+            }
+        }
+
+        /** 취소 등으로 결과에 넣지 않고 반납합니다. */
+        public void ignore() {
+            if (released.compareAndSet(false, true)) {
+                breaker.onIgnored(epoch);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.dongjubeauty.service.upstream;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 업스트림 호출 결과가 "레플리카 장애"인지 판별합니다.
+ * 연결 오류·타임아웃·5xx 만 장애로 보고, 4xx(잘못된 입력 등)는 정상 응답으로 취급합니다.
+ */
+public final class UpstreamErrors {
+
+    private UpstreamErrors() {
+    }
+
+    public static boolean isFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof RestClientResponseException e) {
+                return e.getStatusCode().is5xxServerError();
+            }
+            if (t instanceof WebClientResponseException e) {
+                return e.getStatusCode().is5xxServerError();
+            }
+            if (t instanceof ResourceAccessException
+                    || t instanceof WebClientRequestException
+                    || t instanceof TimeoutException
+                    || t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 예외 없이 상태 코드를 그대로 돌려받는 호출(analyze/file)의 5xx 판별 */
+    public static boolean isFailure(Object result) {
+        return result instanceof ResponseEntity<?> res && res.getStatusCode().is5xxServerError();
+    }
+}
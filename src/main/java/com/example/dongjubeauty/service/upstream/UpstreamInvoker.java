@@ -0,0 +1,387 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import com.example.dongjubeauty.service.metrics.TraceExemplars;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * FastAPI 호출 실행기.
+ * 엔드포인트별 서킷 브레이커를 확인하고 동시 처리 한도를 {@link UpstreamScheduler} 대기열에서 받은 뒤 레플리카를 골라 넘겨주고,
+ * 결과(성공/장애)와 응답 시간을 서킷 브레이커·한도 계산기·부하 분산기에 반영합니다.
+ * 호출 시간과 상태 코드는 analysis.upstream 메트릭으로 기록합니다.
+ * <p>
+ * 연결 오류·502/503/504 는 지터 백오프로 재시도하고 (python.api.retry.*),
+ * callMono 는 첫 응답이 최근 p95 를 넘기면 다른 레플리카로 한 번 더 보내 먼저 온 응답을 씁니다 (python.api.hedge.*).
+ * 레플리카가 하나뿐이면 hedge 는 같은 워커에 부하만 더하므로 보내지 않습니다.
+ * 재시도와 hedge 는 {@link RetryBudget} 을 함께 써서 과부하를 키우지 않습니다.
+ * 메트릭: upstream.retries{endpoint, reason}, upstream.hedges{endpoint, outcome=fired|won},
+ * upstream.retry.budget.exhausted{endpoint, kind=retry|hedge}, upstream.retry.budget.available, upstream.hedge.delay{endpoint}
+ */
+@Component
+public class UpstreamInvoker {
+
+    private final UpstreamBalancer balancer;
+    private final UpstreamScheduler scheduler;
+    private final UpstreamCircuitBreakers breakers;
+    private final AnalysisMetrics metrics;
+    private final MeterRegistry registry;
+
+    private final PythonApiProperties.Retry retry;
+    private final PythonApiProperties.Hedge hedge;
+    private final RetryBudget budget;
+    private final Map<AnalysisEndpoint, LatencyQuantile> latencies = new EnumMap<>(AnalysisEndpoint.class);
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public UpstreamInvoker(UpstreamBalancer balancer,
+                           UpstreamScheduler scheduler,
+                           UpstreamCircuitBreakers breakers,
+                           AnalysisMetrics metrics,
+                           PythonApiProperties props,
+                           MeterRegistry registry) {
+        this.balancer = balancer;
+        this.scheduler = scheduler;
+        this.breakers = breakers;
+        this.metrics = metrics;
+        this.registry = registry;
+        this.retry = props.getRetry();
+        this.hedge = props.getHedge();
+        this.budget = new RetryBudget(retry);
+
+        Gauge.builder("upstream.retry.budget.available", budget, RetryBudget::available)
+                .description("지금 허용되는 재시도·hedge 수")
+                .register(registry);
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            LatencyQuantile latency = new LatencyQuantile(hedge.getQuantile(), hedge.getWindow(), hedge.getMinSamples());
+            latencies.put(endpoint, latency);
+            TimeGauge.builder("upstream.hedge.delay", latency, TimeUnit.NANOSECONDS, l -> Math.max(0, l.valueNanos()))
+                    .description("hedge 지연으로 쓰는 최근 응답 시간 분위수 (표본 부족 시 0)")
+                    .tag("endpoint", endpoint.getTag())
+                    .register(registry);
+        }
+    }
+
+    public <T> T call(AnalysisEndpoint endpoint, Function<UpstreamReplica, T> call) {
+        budget.onRequest();
+        ClientContext client = ClientContext.current();
+        for (int attempt = 0; ; attempt++) {
+            String reason;
+            T result = null;
+            RuntimeException error = null;
+            try {
+                result = attempt(endpoint, call, client);
+                reason = retryReason(result);
+            } catch (RuntimeException e) {
+                error = e;
+                reason = retryReason(e);
+            }
+            if (reason == null || !allowRetry(endpoint, attempt, reason)) {
+                if (error != null) {
+                    throw error;
+                }
+                return result;
+            }
+            try {
+                Thread.sleep(backoff(attempt));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                if (error != null) {
+                    throw error;
+                }
+                return result;
+            }
+        }
+    }
+
+    public <T> Mono<T> callMono(AnalysisEndpoint endpoint, Function<UpstreamReplica, Mono<T>> call) {
+        return Mono.deferContextual(ctx -> {
+            budget.onRequest();
+            // 완료 콜백·hedge 타이머는 다른 스레드에서 실행되므로 구독 시점의 traceId·호출자를 잡아 둠
+            ClientContext client = ctx.getOrDefault(ClientContext.class, ClientContext.current());
+            return withRetry(endpoint, call, TraceExemplars.currentTraceId(), client, 0);
+        });
+    }
+
+    private <T> Mono<T> withRetry(AnalysisEndpoint endpoint,
+                                  Function<UpstreamReplica, Mono<T>> call,
+                                  String traceId,
+                                  ClientContext client,
+                                  int attempt) {
+        return hedged(endpoint, call, traceId, client)
+                .map(Outcome::ofValue)
+                .onErrorResume(e -> Mono.just(Outcome.ofError(e)))
+                .flatMap(outcome -> {
+                    String reason = outcome.error() != null ? retryReason(outcome.error()) : retryReason(outcome.value());
+                    if (reason != null && allowRetry(endpoint, attempt, reason)) {
+                        return Mono.delay(Duration.ofMillis(backoff(attempt)))
+                                .then(withRetry(endpoint, call, traceId, client, attempt + 1));
+                    }
+                    return outcome.error() != null ? Mono.error(outcome.error()) : Mono.just(outcome.value());
+                });
+    }
+
+    /**
+     * hedge 지연 안에 첫 시도가 끝나지 않으면 첫 시도와 다른 레플리카로 두 번째 시도를 보내고 먼저 도착한 응답을 씁니다 (나머지는 취소).
+     * 첫 시도가 아직 대기열에 있어 레플리카를 고르지 않았으면 hedge 하지 않습니다.
+     * 한쪽이 실패하면 다른 쪽을 기다리고, hedge 를 보내기 전에 실패하면 바로 실패를 넘깁니다 (재시도는 바깥에서).
+     */
+    private <T> Mono<T> hedged(AnalysisEndpoint endpoint,
+                               Function<UpstreamReplica, Mono<T>> call,
+                               String traceId,
+                               ClientContext client) {
+        long delayNanos = hedge.isEnabled() && balancer.replicas().size() > 1 ? hedgeDelayNanos(endpoint) : -1;
+        if (delayNanos < 0) {
+            return attempt(endpoint, call, traceId, client, null, null);
+        }
+        return Mono.create(sink -> {
+            Disposable.Composite running = Disposables.composite();
+            AtomicInteger pending = new AtomicInteger(1);
+            AtomicReference<Throwable> firstError = new AtomicReference<>();
+            AtomicBoolean finished = new AtomicBoolean();
+            AtomicReference<UpstreamReplica> primary = new AtomicReference<>();
+            sink.onDispose(running);
+
+            Disposable timer = Mono.delay(Duration.ofNanos(delayNanos)).subscribe(tick -> {
+                UpstreamReplica slow = primary.get();
+                if (finished.get() || slow == null) {
+                    return;
+                }
+                if (!budget.tryAcquire()) {
+                    counter("upstream.retry.budget.exhausted", endpoint, "kind", "hedge").increment();
+                    return;
+                }
+                counter("upstream.hedges", endpoint, "outcome", "fired").increment();
+                pending.incrementAndGet();
+                running.add(subscribeAttempt(attempt(endpoint, call, traceId, client, null, slow),
+                        endpoint, sink, running, pending, firstError, finished, true));
+            });
+            running.add(timer);
+            running.add(subscribeAttempt(attempt(endpoint, call, traceId, client, primary::set, null),
+                    endpoint, sink, running, pending, firstError, finished, false));
+        });
+    }
+
+    private <T> Disposable subscribeAttempt(Mono<T> attempt,
+                                            AnalysisEndpoint endpoint,
+                                            MonoSink<T> sink,
+                                            Disposable.Composite running,
+                                            AtomicInteger pending,
+                                            AtomicReference<Throwable> firstError,
+                                            AtomicBoolean finished,
+                                            boolean isHedge) {
+        return attempt.subscribe(
+                value -> {
+                    if (finished.compareAndSet(false, true)) {
+                        if (isHedge) {
+                            counter("upstream.hedges", endpoint, "outcome", "won").increment();
+                        }
+                        running.dispose(); // 진 쪽 취소 후 응답
+                        sink.success(value);
+                    }
+                },
+                error -> {
+                    firstError.compareAndSet(null, error);
+                    // 아직 hedge 를 보내지 않았거나 다른 시도도 끝났으면 실패 확정
+                    if (pending.decrementAndGet() == 0 && finished.compareAndSet(false, true)) {
+                        running.dispose();
+                        sink.error(firstError.get());
+                    }
+                },
+                () -> {
+                    if (finished.compareAndSet(false, true)) {
+                        running.dispose();
+                        sink.success();
+                    }
+                });
+    }
+
+    private <T> T attempt(AnalysisEndpoint endpoint, Function<UpstreamReplica, T> call, ClientContext client) {
+        UpstreamCircuitBreakers.Permit circuit = breakers.acquire(endpoint);
+        ConcurrencyLimiter.Permit permit = acquireLimit(endpoint, client, circuit);
+        UpstreamReplica replica = balancer.acquire();
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        String status = "ERROR";
+        try {
+            T result = call.apply(replica);
+            failed = UpstreamErrors.isFailure(result);
+            status = statusOf(result);
+            return result;
+        } catch (RuntimeException e) {
+            failed = UpstreamErrors.isFailure(e);
+            status = AnalysisMetrics.statusOf(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - startedAt;
+            balancer.release(replica, failed);
+            permit.release(failed);
+            circuit.release(failed, elapsed);
+            if (!failed) {
+                latencies.get(endpoint).record(elapsed);
+            }
+            metrics.upstream(endpoint, status, null, elapsed);
+        }
+    }
+
+    /**
+     * @param onReplica 고른 레플리카를 받을 콜백 (없으면 null)
+     * @param exclude   고르지 않을 레플리카 (없으면 null)
+     */
+    private <T> Mono<T> attempt(AnalysisEndpoint endpoint,
+                                Function<UpstreamReplica, Mono<T>> call,
+                                String traceId,
+                                ClientContext client,
+                                Consumer<UpstreamReplica> onReplica,
+                                UpstreamReplica exclude) {
+        return Mono.defer(() -> {
+            UpstreamCircuitBreakers.Permit circuit = breakers.acquire(endpoint);
+            // 대기 중 실패·취소되면 서킷 permit 은 결과 없이 반납
+            return scheduler.acquireMono(endpoint, client)
+                    .doOnError(e -> circuit.ignore())
+                    .flatMap(permit -> send(endpoint, call, traceId, circuit, permit, onReplica, exclude))
+                    .doOnCancel(circuit::ignore);
+        });
+    }
+
+    private <T> Mono<T> send(AnalysisEndpoint endpoint,
+                             Function<UpstreamReplica, Mono<T>> call,
+                             String traceId,
+                             UpstreamCircuitBreakers.Permit circuit,
+                             ConcurrencyLimiter.Permit permit,
+                             Consumer<UpstreamReplica> onReplica,
+                             UpstreamReplica exclude) {
+        return Mono.defer(() -> {
+            UpstreamReplica replica = balancer.acquire(exclude);
+            if (onReplica != null) {
+                onReplica.accept(replica);
+            }
+            long startedAt = System.nanoTime();
+            return Mono.defer(() -> call.apply(replica))
+                    .doOnSuccess(result -> {
+                        long elapsed = System.nanoTime() - startedAt;
+                        boolean failed = UpstreamErrors.isFailure(result);
+                        balancer.release(replica, failed);
+                        permit.release(failed);
+                        circuit.release(failed, elapsed);
+                        if (!failed) {
+                            latencies.get(endpoint).record(elapsed);
+                        }
+                        metrics.upstream(endpoint, statusOf(result), traceId, elapsed);
+                    })
+                    .doOnError(e -> {
+                        long elapsed = System.nanoTime() - startedAt;
+                        boolean failed = UpstreamErrors.isFailure(e);
+                        balancer.release(replica, failed);
+                        permit.release(failed);
+                        circuit.release(failed, elapsed);
+                        metrics.upstream(endpoint, AnalysisMetrics.statusOf(e), traceId, elapsed);
+                    })
+                    .doOnCancel(() -> {
+                        balancer.release(replica, false);
+                        permit.ignore();
+                        circuit.ignore();
+                        metrics.upstream(endpoint, "CANCELLED", traceId, System.nanoTime() - startedAt);
+                    });
+        });
+    }
+
+    /** 대기열에서 거절되면 서킷 permit 은 결과 없이 반납 */
+    private ConcurrencyLimiter.Permit acquireLimit(AnalysisEndpoint endpoint,
+                                                   ClientContext client,
+                                                   UpstreamCircuitBreakers.Permit circuit) {
+        try {
+            return scheduler.acquire(endpoint, client);
+        } catch (RuntimeException e) {
+            circuit.ignore();
+            throw e;
+        }
+    }
+
+    private long hedgeDelayNanos(AnalysisEndpoint endpoint) {
+        long quantile = latencies.get(endpoint).valueNanos();
+        if (quantile < 0) {
+            return -1;
+        }
+        return Math.min(Math.max(quantile, hedge.getMinDelay().toNanos()), hedge.getMaxDelay().toNanos());
+    }
+
+    private boolean allowRetry(AnalysisEndpoint endpoint, int attempt, String reason) {
+        if (!retry.isEnabled() || attempt >= retry.getMaxRetries()) {
+            return false;
+        }
+        if (!budget.tryAcquire()) {
+            counter("upstream.retry.budget.exhausted", endpoint, "kind", "retry").increment();
+            return false;
+        }
+        counter("upstream.retries", endpoint, "reason", reason).increment();
+        return true;
+    }
+
+    /** 0 ~ min(max-backoff, initial-backoff × 2^attempt) 사이 무작위 (full jitter), 밀리초 */
+    private long backoff(int attempt) {
+        long cap = Math.min(retry.getMaxBackoff().toMillis(), retry.getInitialBackoff().toMillis() << Math.min(attempt, 20));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /** 재시도할 실패면 메트릭 reason 값(CONNECT_ERROR / 502 / 503 / 504), 아니면 null */
+    static String retryReason(Throwable error) {
+        return retryable(AnalysisMetrics.statusOf(error));
+    }
+
+    static String retryReason(Object result) {
+        return result instanceof ResponseEntity<?> ? retryable(statusOf(result)) : null;
+    }
+
+    private static String retryable(String status) {
+        return switch (status) {
+            case "CONNECT_ERROR", "502", "503", "504" -> status;
+            default -> null;
+        };
+    }
+
+    private Counter counter(String name, AnalysisEndpoint endpoint, String tag, String value) {
+        return counters.computeIfAbsent(name + '.' + endpoint.getTag() + '.' + value, k -> Counter.builder(name)
+                .tag("endpoint", endpoint.getTag())
+                .tag(tag, value)
+                .register(registry));
+    }
+
+    /** 상태 코드를 그대로 돌려받는 호출(analyze/file)은 그 코드, 나머지는 본문을 받았으므로 200 */
+    private static String statusOf(Object result) {
+        return result instanceof ResponseEntity<?> res ? String.valueOf(res.getStatusCode().value()) : "200";
+    }
+
+    /** 재시도 판단용 한 번의 결과 (값 또는 예외) */
+    private record Outcome<T>(T value, Throwable error) {
+
+        static <T> Outcome<T> ofValue(T value) {
+            return new Outcome<>(value, null);
+        }
+
+        static <T> Outcome<T> ofError(Throwable error) {
+            return new Outcome<>(null, error);
+        }
+    }
+}
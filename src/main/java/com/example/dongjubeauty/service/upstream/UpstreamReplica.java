@@ -0,0 +1,102 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FastAPI 레플리카 한 대의 상태.
+ * 진행 중 요청 수, 연속 실패 횟수, 격리(ejection) 기간, 격리 해제 후 slow-start 구간을 추적합니다.
+ */
+public class UpstreamReplica {
+
+    /** slow-start 시작 시 최소 가중치 */
+    private static final double MIN_WEIGHT = 0.1;
+
+    private final String baseUrl;
+    private final PythonApiProperties.Balancer conf;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+    private volatile long warmingSince;
+    private volatile boolean warming;
+
+    UpstreamReplica(String baseUrl, PythonApiProperties.Balancer conf) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.conf = conf;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    boolean isAvailable(long now) {
+        return !ejected || now - ejectedUntil >= 0;
+    }
+
+    boolean isEjected(long now) {
+        return !isAvailable(now);
+    }
+
+    /** 진행 중 요청 수를 가중치로 나눈 부하. 작을수록 우선 선택됩니다. */
+    double load(long now) {
+        return (outstanding.get() + 1) / weight(now);
+    }
+
+    private double weight(long now) {
+        if (!warming) {
+            return 1.0;
+        }
+        long elapsed = now - warmingSince;
+        long window = conf.getSlowStart().toNanos();
+        if (elapsed < 0) {
+            return MIN_WEIGHT;
+        }
+        if (window <= 0 || elapsed >= window) {
+            warming = false;
+            return 1.0;
+        }
+        return Math.max(MIN_WEIGHT, (double) elapsed / window);
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * 요청 종료를 기록합니다.
+     *
+     * @param failed 레플리카 장애로 볼 실패(연결 오류/타임아웃/5xx)인지 여부
+     */
+    synchronized void end(boolean failed, long now) {
+        outstanding.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures = 0;
+            if (isAvailable(now)) {
+                ejections = 0;
+            }
+            return;
+        }
+        if (isEjected(now) || ++consecutiveFailures < conf.getFailureThreshold()) {
+            return;
+        }
+        // 격리: 반복될수록 두 배씩, 상한까지
+        long base = conf.getEjectionTime().toNanos();
+        long max = conf.getMaxEjectionTime().toNanos();
+        long duration = Math.min(max, base << Math.min(ejections, 20));
+        ejections++;
+        consecutiveFailures = 0;
+        ejectedUntil = now + duration;
+        ejected = true;
+        // 격리가 끝나는 시점부터 slow-start
+        warmingSince = ejectedUntil;
+        warming = true;
+    }
+}
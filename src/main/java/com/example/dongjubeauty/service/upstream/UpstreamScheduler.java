@@ -0,0 +1,333 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업스트림 동시 처리 한도 앞의 대기열.
+ * 한도가 남아 있고 기다리는 요청이 없으면 바로 permit 을 주고, 아니면 엔드포인트별 대기열에 넣었다가
+ * permit 이 반납될 때마다 가중 공정 순서로 꺼냅니다 (start-time fair queueing).
+ * <p>
+ * 흐름 = 우선순위 등급 + 클라이언트 키. 요청마다 start = max(가상 시간, 흐름의 직전 finish),
+ * finish = start + 비용 / (등급 가중치 × 클라이언트 가중치) 를 매기고 finish 가 작은 요청부터 꺼냅니다.
+ * 한 파트너가 debug 요청을 쏟아내도 대화형 요청은 가중치만큼 먼저 나가고, 같은 등급 안에서는 클라이언트끼리 나눠 씁니다.
+ * <p>
+ * 대기 시한(등급별 최대 대기 시간과 호출자 제한 시간 중 이른 쪽)이 지난 요청은 QUEUE_TIMEOUT 으로 버리고,
+ * 호출자가 취소한(구독 해제) 요청은 대기열에서 바로 뺍니다.
+ * 메트릭: upstream.scheduler.queue.depth{endpoint,priority}, upstream.scheduler.wait{endpoint,priority},
+ * upstream.scheduler.dropped{endpoint,priority,reason=queue_full|deadline|cancelled}
+ */
+@Component
+public class UpstreamScheduler {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int DROPPED = 2;
+
+    private final ConcurrencyLimiter limiter;
+    private final PythonApiProperties.Scheduler conf;
+    private final boolean enabled;
+    private final Map<AnalysisEndpoint, Lane> lanes = new EnumMap<>(AnalysisEndpoint.class);
+
+    public UpstreamScheduler(ConcurrencyLimiter limiter, PythonApiProperties props, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.conf = props.getScheduler();
+        this.enabled = conf.isEnabled() && limiter.isEnabled();
+        for (AnalysisEndpoint endpoint : AnalysisEndpoint.values()) {
+            lanes.put(endpoint, new Lane(endpoint, registry));
+        }
+        if (enabled) {
+            limiter.onRelease(endpoint -> lanes.get(endpoint).dispatch());
+        }
+    }
+
+    /**
+     * permit 을 받을 때까지 기다립니다 (블로킹 경로).
+     *
+     * @throws AnalysisRejectedException 대기열이 가득 찼거나(OVERLOADED) 대기 시한을 넘김(QUEUE_TIMEOUT)
+     */
+    public ConcurrencyLimiter.Permit acquire(AnalysisEndpoint endpoint, ClientContext client) {
+        if (!enabled) {
+            return limiter.acquire(endpoint);
+        }
+        Lane lane = lanes.get(endpoint);
+        Waiter waiter = lane.enqueue(client);
+        if (waiter.result.isDone()) {
+            return join(waiter);
+        }
+        try {
+            return waiter.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (lane.cancel(waiter)) {
+                throw AnalysisRejectedException.queueTimeout(endpoint);
+            }
+            return join(waiter); // 이미 permit 을 받음
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /** permit 을 받으면 값을 내보냅니다. 구독을 취소하면 대기열에서 빠집니다. */
+    public Mono<ConcurrencyLimiter.Permit> acquireMono(AnalysisEndpoint endpoint, ClientContext client) {
+        if (!enabled) {
+            return Mono.fromSupplier(() -> limiter.acquire(endpoint));
+        }
+        return Mono.defer(() -> {
+                    Lane lane = lanes.get(endpoint);
+                    Waiter waiter = lane.enqueue(client);
+                    return Mono.fromFuture(waiter.result)
+                            .doOnCancel(() -> lane.cancel(waiter));
+                })
+                // 취소와 permit 발급이 겹쳐 전달되지 못한 permit 은 반납
+                .doOnDiscard(ConcurrencyLimiter.Permit.class, ConcurrencyLimiter.Permit::ignore);
+    }
+
+    private static ConcurrencyLimiter.Permit join(Waiter waiter) {
+        try {
+            return waiter.result.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /** 대기 중인 요청 하나 */
+    private static final class Waiter {
+        final ClientContext.Priority priority;
+        final Flow flow;
+        final double start;
+        final double finish;
+        final long seq;
+        final long enqueuedAt;
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final CompletableFuture<ConcurrencyLimiter.Permit> result = new CompletableFuture<>();
+        /** 대기 시한 타이머 (대기열에 넣기 전에 만들어 두므로 permit 을 받는 쪽이 항상 볼 수 있음) */
+        final Disposable timer;
+
+        Waiter(ClientContext.Priority priority, Flow flow, double start, double finish, long seq, long enqueuedAt, long deadline,
+               Disposable timer) {
+            this.priority = priority;
+            this.flow = flow;
+            this.start = start;
+            this.finish = finish;
+            this.seq = seq;
+            this.enqueuedAt = enqueuedAt;
+            this.deadline = deadline;
+            this.timer = timer;
+        }
+    }
+
+    /** 등급 + 클라이언트 하나의 대기 상태 */
+    private static final class Flow {
+        final String key;
+        double lastFinish;
+        int queued;
+
+        Flow(String key) {
+            this.key = key;
+        }
+    }
+
+    /** 엔드포인트 하나의 대기열 */
+    private final class Lane {
+        final AnalysisEndpoint endpoint;
+        final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                Comparator.comparingDouble((Waiter w) -> w.finish).thenComparingLong(w -> w.seq));
+        final Map<String, Flow> flows = new HashMap<>();
+        final Map<ClientContext.Priority, AtomicInteger> depth = new EnumMap<>(ClientContext.Priority.class);
+        final Map<ClientContext.Priority, Timer> waits = new EnumMap<>(ClientContext.Priority.class);
+        final Map<ClientContext.Priority, Map<String, Counter>> dropped = new EnumMap<>(ClientContext.Priority.class);
+        double virtualTime;
+        long seq;
+
+        Lane(AnalysisEndpoint endpoint, MeterRegistry registry) {
+            this.endpoint = endpoint;
+            for (ClientContext.Priority priority : ClientContext.Priority.values()) {
+                AtomicInteger d = new AtomicInteger();
+                depth.put(priority, d);
+                Gauge.builder("upstream.scheduler.queue.depth", d, AtomicInteger::get)
+                        .description("업스트림 한도를 기다리는 요청 수")
+                        .tag("endpoint", endpoint.getTag())
+                        .tag("priority", priority.getTag())
+                        .register(registry);
+                waits.put(priority, Timer.builder("upstream.scheduler.wait")
+                        .description("업스트림 한도를 받기까지 기다린 시간")
+                        .tag("endpoint", endpoint.getTag())
+                        .tag("priority", priority.getTag())
+                        .publishPercentileHistogram()
+                        .register(registry));
+                Map<String, Counter> reasons = new HashMap<>();
+                for (String reason : List.of("queue_full", "deadline", "cancelled")) {
+                    reasons.put(reason, Counter.builder("upstream.scheduler.dropped")
+                            .description("FastAPI 로 보내지 않고 대기열에서 버린 요청 수")
+                            .tag("endpoint", endpoint.getTag())
+                            .tag("priority", priority.getTag())
+                            .tag("reason", reason)
+                            .register(registry));
+                }
+                dropped.put(priority, reasons);
+            }
+        }
+
+        /** 바로 받을 수 있으면 완료된 Waiter, 아니면 대기열에 넣은 Waiter */
+        Waiter enqueue(ClientContext client) {
+            ClientContext.Priority priority = client.priority();
+            long now = System.nanoTime();
+            long maxWait = (priority == ClientContext.Priority.INTERACTIVE
+                    ? conf.getInteractiveMaxWait() : conf.getBulkMaxWait()).toNanos();
+            long deadline = now + maxWait;
+            if (client.deadlineNanos() != 0 && client.deadlineNanos() - deadline < 0) {
+                deadline = client.deadlineNanos();
+            }
+            Waiter waiter;
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    ConcurrencyLimiter.Permit permit = limiter.tryAcquire(endpoint);
+                    if (permit != null) {
+                        waits.get(priority).record(0, TimeUnit.NANOSECONDS);
+                        Waiter done = new Waiter(priority, null, 0, 0, 0, now, deadline, null);
+                        done.state.set(GRANTED);
+                        done.result.complete(permit);
+                        return done;
+                    }
+                }
+                String key = priority.name() + '|' + client.clientKey();
+                Flow flow = flows.get(key);
+                if (queue.size() >= conf.getMaxQueueDepth() || (flow != null && flow.queued >= conf.getMaxQueuedPerClient())) {
+                    dropped.get(priority).get("queue_full").increment();
+                    throw AnalysisRejectedException.overloaded(endpoint);
+                }
+                if (deadline - now <= 0) {
+                    dropped.get(priority).get("deadline").increment();
+                    throw AnalysisRejectedException.queueTimeout(endpoint);
+                }
+                if (flow == null) {
+                    if (flows.size() > 2 * conf.getMaxQueueDepth()) {
+                        flows.values().removeIf(f -> f.queued == 0 && f.lastFinish <= virtualTime);
+                    }
+                    flow = new Flow(key);
+                    flows.put(key, flow);
+                }
+                int weight = (priority == ClientContext.Priority.INTERACTIVE
+                        ? conf.getInteractiveWeight() : conf.getBulkWeight()) * conf.weightOf(client.clientKey());
+                double start = Math.max(virtualTime, flow.lastFinish);
+                double finish = start + (double) (client.debug() ? conf.getDebugCost() : 1) / weight;
+                flow.lastFinish = finish;
+                flow.queued++;
+                Disposable timer = Schedulers.parallel().schedule(this::dispatch, deadline - now, TimeUnit.NANOSECONDS);
+                waiter = new Waiter(priority, flow, start, finish, seq++, now, deadline, timer);
+                queue.add(waiter);
+                depth.get(priority).incrementAndGet();
+            }
+            // 넣는 사이에 반납된 permit 이 있으면 바로 꺼냄
+            dispatch();
+            return waiter;
+        }
+
+        /** 대기 시한이 지난 요청을 버리고, 한도가 비는 만큼 finish 순서로 permit 을 줍니다. */
+        void dispatch() {
+            List<Waiter> granted = new ArrayList<>();
+            List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            List<Waiter> expired = new ArrayList<>();
+            ConcurrencyLimiter.Permit spare = null;
+            synchronized (this) {
+                long now = System.nanoTime();
+                queue.removeIf(w -> {
+                    if (w.deadline - now <= 0 && w.state.compareAndSet(WAITING, DROPPED)) {
+                        leave(w);
+                        expired.add(w);
+                        return true;
+                    }
+                    return w.state.get() != WAITING;
+                });
+                while (!queue.isEmpty()) {
+                    ConcurrencyLimiter.Permit permit = limiter.tryAcquire(endpoint);
+                    if (permit == null) {
+                        break;
+                    }
+                    Waiter w = queue.poll();
+                    while (w != null && !w.state.compareAndSet(WAITING, GRANTED)) {
+                        w = queue.poll(); // 방금 취소됨
+                    }
+                    if (w == null) {
+                        spare = permit;
+                        break;
+                    }
+                    virtualTime = Math.max(virtualTime, w.start);
+                    leave(w);
+                    granted.add(w);
+                    permits.add(permit);
+                }
+            }
+            if (spare != null) {
+                spare.ignore();
+            }
+            for (Waiter w : expired) {
+                dropped.get(w.priority).get("deadline").increment();
+                finish(w);
+                w.result.completeExceptionally(AnalysisRejectedException.queueTimeout(endpoint));
+            }
+            for (int i = 0; i < granted.size(); i++) {
+                Waiter w = granted.get(i);
+                waits.get(w.priority).record(System.nanoTime() - w.enqueuedAt, TimeUnit.NANOSECONDS);
+                finish(w);
+                if (!w.result.complete(permits.get(i))) {
+                    permits.get(i).ignore();
+                }
+            }
+        }
+
+        /** 호출자가 떠남. 아직 기다리는 중이었으면 대기열에서 빼고 true (이미 permit 을 받았으면 false) */
+        boolean cancel(Waiter w) {
+            if (!w.state.compareAndSet(WAITING, DROPPED)) {
+                return w.state.get() == DROPPED;
+            }
+            synchronized (this) {
+                queue.remove(w);
+                leave(w);
+            }
+            dropped.get(w.priority).get("cancelled").increment();
+            finish(w);
+            return true;
+        }
+
+        /** 대기열을 떠난 요청의 흐름·깊이 정리 (synchronized 안에서) */
+        private void leave(Waiter w) {
+            depth.get(w.priority).decrementAndGet();
+            Flow flow = w.flow;
+            flow.queued--;
+            if (flow.queued == 0 && flow.lastFinish <= virtualTime) {
+                flows.remove(flow.key);
+            }
+        }
+
+        private void finish(Waiter w) {
+            if (w.timer != null) {
+                w.timer.dispose();
+            }
+        }
+    }
+}
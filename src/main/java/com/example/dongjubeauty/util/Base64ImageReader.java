@@ -0,0 +1,174 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link AnalyzeRequest} 형태의 JSON 을 스트리밍으로 읽고 씁니다.
+ * image_base64(레거시 imageBase64) 값은 Jackson 이 입력 버퍼에서 바로 디코딩하므로
+ * base64 String 을 힙에 만들지 않습니다. 공백/줄바꿈이 섞인 MIME base64 와 패딩 생략도 허용합니다.
+ * data URL 접두어(data:image/jpeg;base64,)는 {@link ImageHashUtils#sha256OfBase64} 처럼 떼고 디코딩합니다.
+ */
+public final class Base64ImageReader {
+
+    /** 표준 알파벳, 패딩 선택 */
+    private static final Base64Variant VARIANT =
+            Base64Variants.MIME_NO_LINEFEEDS.withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+    /** data URL 접두어를 찾는 앞부분 크기 (이미지 필드가 이보다 뒤에 있으면 접두어를 떼지 않음) */
+    private static final int PREFIX_SCAN_BYTES = 8 * 1024;
+
+    /** group(1) 이 image_base64 값 앞의 data URL 접두어 */
+    private static final Pattern DATA_URL_PREFIX =
+            Pattern.compile("\"(?:image_base64|imageBase64)\"\\s*:\\s*\"(data:[^\",]{0,200};base64,)");
+
+    private Base64ImageReader() {
+    }
+
+    /**
+     * @param maxImageBytes 디코딩된 이미지 최대 크기
+     * @throws IOException              JSON 형식 오류
+     * @throws IllegalArgumentException 이미지가 없거나 base64 가 깨짐
+     * @throws TooLargeException        디코딩 크기가 maxImageBytes 초과
+     */
+    public static DecodedImageRequest read(InputStream json, ObjectMapper mapper, long maxImageBytes, int expectedBytes)
+            throws IOException {
+        try (JsonParser p = mapper.getFactory().createParser(stripDataUrlPrefix(json))) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("JSON 객체가 아닙니다.");
+            }
+            ImageSink image = null;
+            AnalyzeRequest.Options options = null;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "image_base64", "imageBase64" -> {
+                        if (value == JsonToken.VALUE_STRING) {
+                            image = new ImageSink(maxImageBytes, expectedBytes);
+                            p.readBinaryValue(VARIANT, image.out);
+                        }
+                    }
+                    case "options" -> options = value == JsonToken.VALUE_NULL
+                            ? null
+                            : mapper.readValue(p, AnalyzeRequest.Options.class);
+                    default -> p.skipChildren();
+                }
+            }
+            if (image == null || image.bytes.size() == 0) {
+                throw new IllegalArgumentException("image_base64 가 비어 있습니다.");
+            }
+            return new DecodedImageRequest(image.bytes.buffer(), image.bytes.size(),
+                    HexFormat.of().formatHex(image.digest.digest()), options);
+        }
+    }
+
+    /** 본문 앞부분에서 image_base64 값의 data URL 접두어를 찾아 뺀 스트림 (base64 본문은 그대로 흘려보냄) */
+    private static InputStream stripDataUrlPrefix(InputStream json) throws IOException {
+        byte[] head = json.readNBytes(PREFIX_SCAN_BYTES);
+        // ISO-8859-1 은 바이트와 문자가 1:1 이라 위치를 그대로 씀
+        Matcher m = DATA_URL_PREFIX.matcher(new String(head, StandardCharsets.ISO_8859_1));
+        if (!m.find()) {
+            return new SequenceInputStream(new ByteArrayInputStream(head), json);
+        }
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(head, 0, m.start(1)),
+                new ByteArrayInputStream(head, m.end(1), head.length - m.end(1)),
+                json)));
+    }
+
+    /**
+     * FastAPI 의 JSON 엔드포인트로 보낼 본문을 씁니다. 이미지를 base64 로 인코딩하면서 바로 출력합니다.
+     * out 은 닫지 않습니다.
+     */
+    public static void write(DecodedImageRequest request, ObjectMapper mapper, OutputStream out) throws IOException {
+        JsonGenerator g = mapper.getFactory().createGenerator(out);
+        g.writeStartObject();
+        g.writeFieldName("image_base64");
+        g.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, request.openStream(), request.length());
+        if (request.options() != null) {
+            g.writeFieldName("options");
+            mapper.writeValue(g, request.options());
+        }
+        g.writeEndObject();
+        g.flush();
+    }
+
+    /** 디코딩 바이트를 모으면서 SHA-256 을 함께 계산 */
+    private static final class ImageSink {
+        final BoundedBuffer bytes;
+        final MessageDigest digest;
+        final OutputStream out;
+
+        ImageSink(long max, int expected) {
+            this.bytes = new BoundedBuffer(max, expected);
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+            }
+            this.out = new DigestOutputStream(bytes, digest);
+        }
+    }
+
+    private static final class BoundedBuffer extends ByteArrayOutputStream {
+        private final long max;
+
+        BoundedBuffer(long max, int expected) {
+            super(Math.max(1024, expected));
+            this.max = max;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensure(len);
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void write(int b) {
+            ensure(1);
+            super.write(b);
+        }
+
+        private void ensure(int len) {
+            if (count + (long) len > max) {
+                throw new TooLargeException(max);
+            }
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    public static final class TooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        TooLargeException(long max) {
+            super("이미지가 너무 큽니다 (최대 " + max + " bytes).");
+        }
+    }
+}
@@ -1,27 +1,53 @@
 package com.example.dongjubeauty.util;
 
-import org.springframework.core.io.ByteArrayResource;
+import com.example.dongjubeauty.util.ImageHashUtils.PerceptualHash;
+import com.example.dongjubeauty.util.ImageValidationUtils.Quality;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * 이미지 포맷 변환 유틸리티.
- * 현재는 HEIC/HEIF 이미지를 JPEG로 변환하는 역할만 담당합니다.
+ * HEIC/HEIF → JPEG 변환과, 업로드 전 축소·방향 보정·재인코딩(preprocess)을 담당합니다.
+ * 디코딩은 목표 해상도에 맞춰 서브샘플링하므로 원본 전체 래스터를 힙에 올리지 않습니다.
  */
 public final class ImageConversionUtils {
 
+    /** 변환 1건당 디코딩 래스터 기본 상한 (ARGB 기준 약 16MP) */
+    public static final long DEFAULT_MAX_DECODE_BYTES = 64L * 1024 * 1024;
+
+    /** 래스터 크기 추정용 픽셀당 바이트 (TYPE_INT_ARGB/RGB) */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /** Exif APP1 세그먼트는 최대 64KB 이므로 앞부분만 읽어 방향 태그를 찾습니다. */
+    private static final int EXIF_SCAN_LIMIT = 128 * 1024;
+    /** 통과 이미지 dHash 용 축소 디코딩 크기 (긴 변) */
+    private static final int HASH_THUMBNAIL = 128;
+
     private static final Set<String> HEIC_EXT = Set.of("heic", "heif", "heics");
     private static final Set<String> HEIC_MEDIA_TYPES = Set.of(
             "image/heic",
@@ -39,22 +65,104 @@ public final class ImageConversionUtils {
     }
 
     public static Optional<ConvertedImage> convertToJpegIfHeic(MultipartFile file) throws IOException {
+        return convertToJpegIfHeic(file, DEFAULT_MAX_DECODE_BYTES);
+    }
+
+    /**
+     * HEIC/HEIF 를 JPEG 로 변환합니다.
+     *
+     * @param maxDecodeBytes 디코딩 래스터 메모리 상한. 넘으면 서브샘플링해서 읽습니다.
+     */
+    public static Optional<ConvertedImage> convertToJpegIfHeic(MultipartFile file, long maxDecodeBytes) throws IOException {
         if (file == null || !isHeic(file)) {
             return Optional.empty();
         }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            BufferedImage image = ImageIO.read(inputStream);
-            if (image == null) {
+        try (InputStream inputStream = file.getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
                 throw new IOException("HEIC 이미지를 디코딩할 수 없습니다.");
             }
+            BufferedImage image;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                // 해상도는 유지하되 래스터가 메모리 상한을 넘으면 서브샘플링
+                image = read(reader, Integer.MAX_VALUE, maxDecodeBytes);
+            } finally {
+                reader.dispose();
+            }
 
-            byte[] jpegBytes = writeJpeg(image);
-            String targetFilename = buildTargetFilename(file.getOriginalFilename());
-            return Optional.of(new ConvertedImage(jpegBytes, targetFilename, MediaType.IMAGE_JPEG));
+            return Optional.of(writeJpeg(image, null, buildTargetFilename(file.getOriginalFilename())));
         }
     }
 
+    /**
+     * 업로드 전 전처리: 디코딩 → (EXIF 방향 보정) → 긴 변 maxDimension 이하로 축소 → JPEG 재인코딩.
+     * 이미 작고 방향 보정이 필요 없는 JPEG 는 디코딩 없이 원본을 그대로 쓰도록 image=null 로 돌려줍니다.
+     * ImageIO 가 읽지 못하는 포맷도 원본 전송(image=null)이며, HEIC 디코딩 실패만 IOException 입니다.
+     */
+    public static PreprocessResult preprocess(MultipartFile file, PreprocessOptions options) throws IOException {
+        long bytesIn = file.getSize();
+        boolean heic = isHeic(file);
+
+        long t0 = System.nanoTime();
+        int orientation = 1;
+        if (options.applyExifOrientation() && !heic) {
+            try (InputStream in = file.getInputStream()) {
+                orientation = readExifOrientation(in.readNBytes(EXIF_SCAN_LIMIT));
+            }
+        }
+
+        BufferedImage image;
+        long probed;
+        try (InputStream in = file.getInputStream();
+             ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = iis == null ? null : ImageIO.getImageReaders(iis);
+            if (readers == null || !readers.hasNext()) {
+                if (heic) {
+                    throw new IOException("HEIC 이미지를 디코딩할 수 없습니다.");
+                }
+                return PreprocessResult.passThrough(bytesIn, System.nanoTime() - t0);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                // 헤더만 읽은 단계에서 재인코딩이 필요 없는 JPEG 는 바로 통과
+                boolean jpeg = "jpeg".equalsIgnoreCase(reader.getFormatName());
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                if (jpeg && orientation == 1 && longest <= options.maxDimension()) {
+                    BufferedImage thumbnail = options.perceptualHash() || options.measureQuality() ? thumbnail(reader, longest) : null;
+                    PerceptualHash hash = options.perceptualHash() && thumbnail != null ? ImageHashUtils.perceptualHash(thumbnail) : null;
+                    Quality quality = options.measureQuality() && thumbnail != null ? ImageValidationUtils.measure(thumbnail) : null;
+                    return PreprocessResult.passThrough(bytesIn, System.nanoTime() - t0, hash, quality);
+                }
+                probed = System.nanoTime();
+                image = read(reader, options.maxDimension(), options.maxDecodeBytes());
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (heic) {
+                throw e instanceof IOException io ? io : new IOException("HEIC 이미지를 디코딩할 수 없습니다.", e);
+            }
+            // 원본을 그대로 보내 FastAPI 쪽 판단에 맡김
+            return PreprocessResult.passThrough(bytesIn, System.nanoTime() - t0);
+        }
+        long t1 = System.nanoTime();
+
+        BufferedImage transformed = orientAndScale(image, orientation, options.maxDimension());
+        PerceptualHash hash = options.perceptualHash() ? ImageHashUtils.perceptualHash(transformed) : null;
+        Quality quality = options.measureQuality() ? ImageValidationUtils.measure(transformed) : null;
+        long t2 = System.nanoTime();
+
+        ConvertedImage converted = writeJpeg(transformed, options.jpegQuality(), buildTargetFilename(file.getOriginalFilename()));
+        long t3 = System.nanoTime();
+
+        return new PreprocessResult(converted, bytesIn, converted.length(), probed - t0, t1 - probed, t2 - t1, t3 - t2, hash, quality);
+    }
+
     public static boolean isHeic(MultipartFile file) {
         if (file == null) {
             return false;
@@ -92,29 +200,295 @@ public final class ImageConversionUtils {
         return originalFilename.substring(0, dot) + ".jpg";
     }
 
-    private static byte[] writeJpeg(BufferedImage image) throws IOException {
-        java.util.Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+    /**
+     * 전체 해상도 래스터를 만들지 않고 필요한 해상도로만 읽습니다.
+     * 긴 변이 maxDimension 의 n 배 이상이면 n 픽셀마다 하나씩 읽고(setSourceSubsampling),
+     * 그래도 래스터가 maxDecodeBytes 를 넘으면 간격을 더 늘립니다. 남은 축소는 orientAndScale 이 보간합니다.
+     */
+    private static BufferedImage read(ImageReader reader, int maxDimension, long maxDecodeBytes) throws IOException {
+        int step = subsampling(reader.getWidth(0), reader.getHeight(0), maxDimension, maxDecodeBytes);
+        ImageReadParam param = reader.getDefaultReadParam();
+        if (step > 1) {
+            param.setSourceSubsampling(step, step, 0, 0);
+        }
+        return reader.read(0, param);
+    }
+
+    /**
+     * 재인코딩 없이 통과시키는 JPEG 의 dHash·품질 측정용 축소 이미지.
+     * 긴 변이 약 {@value #HASH_THUMBNAIL} 픽셀이 되도록 서브샘플링해서 읽습니다. 읽지 못하면 null (해시·측정 없이 진행).
+     */
+    private static BufferedImage thumbnail(ImageReader reader, int longest) {
+        ImageReadParam param = reader.getDefaultReadParam();
+        int step = Math.max(1, longest / HASH_THUMBNAIL);
+        if (step > 1) {
+            param.setSourceSubsampling(step, step, 0, 0);
+        }
+        try {
+            return reader.read(0, param);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    static int subsampling(int width, int height, int maxDimension, long maxDecodeBytes) {
+        int step = Math.max(1, Math.max(width, height) / maxDimension);
+        while ((long) Math.ceilDiv(width, step) * Math.ceilDiv(height, step) * BYTES_PER_PIXEL > maxDecodeBytes) {
+            step++;
+        }
+        return step;
+    }
+
+    /**
+     * JPEG 로 인코딩합니다. 인코더가 쓰는 버퍼를 그대로 결과로 넘겨 toByteArray() 복사를 하지 않습니다.
+     *
+     * @param quality null 이면 인코더 기본 품질
+     */
+    private static ConvertedImage writeJpeg(BufferedImage image, Float quality, String filename) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
         if (!writers.hasNext()) {
             throw new IOException("JPEG 인코더를 찾을 수 없습니다.");
         }
         ImageWriter writer = writers.next();
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ImageOutputStream ios = ImageIO.createImageOutputStream(baos)) {
+        // 픽셀당 약 0.25바이트로 잡아 버퍼 확장(배열 복사) 횟수를 줄임
+        long estimate = (long) image.getWidth() * image.getHeight() / 4;
+        ExposedByteArrayOutputStream out = new ExposedByteArrayOutputStream(Math.clamp(estimate, 64 * 1024, 16 * 1024 * 1024));
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
             writer.setOutput(ios);
-            writer.write(image);
+            if (quality == null) {
+                writer.write(image);
+            } else {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            ios.flush();
+        } finally {
             writer.dispose();
-            return baos.toByteArray();
         }
+        return new ConvertedImage(out.buffer(), out.size(), filename, MediaType.IMAGE_JPEG);
+    }
+
+    /** 내부 버퍼를 복사 없이 꺼낼 수 있는 ByteArrayOutputStream */
+    private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    /**
+     * EXIF 방향 보정과 축소를 한 번의 그리기로 처리하고, JPEG 로 쓸 수 있도록 알파 없는 RGB 로 만듭니다.
+     * 2배 이상 줄여야 하면 먼저 절반씩 줄여 한 번에 크게 축소할 때의 계단 현상을 줄입니다.
+     */
+    private static BufferedImage orientAndScale(BufferedImage src, int orientation, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(src.getWidth(), src.getHeight()));
+        int targetW = Math.max(1, (int) Math.round(src.getWidth() * scale));
+        int targetH = Math.max(1, (int) Math.round(src.getHeight() * scale));
+
+        while (src.getWidth() >= targetW * 2 && src.getHeight() >= targetH * 2) {
+            src = draw(src, src.getWidth() / 2, src.getHeight() / 2, new AffineTransform(0.5, 0, 0, 0.5, 0, 0));
+        }
+
+        double sx = (double) targetW / src.getWidth();
+        double sy = (double) targetH / src.getHeight();
+        boolean swap = orientation >= 5 && orientation <= 8;
+        int outW = swap ? targetH : targetW;
+        int outH = swap ? targetW : targetH;
+
+        AffineTransform t = orientationTransform(orientation, targetW, targetH);
+        t.concatenate(AffineTransform.getScaleInstance(sx, sy));
+        return draw(src, outW, outH, t);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h, AffineTransform transform) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // 투명 영역은 흰 배경으로
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(src, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
     }
 
-    public record ConvertedImage(byte[] bytes, String filename, MediaType mediaType) {
+    /** EXIF Orientation(1~8) 값에 맞는 변환 (w, h 는 보정 전 크기) */
+    private static AffineTransform orientationTransform(int orientation, int w, int h) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // 좌우 반전
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // 상하 반전
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // 전치
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // 시계 방향 90°
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // 역전치
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // 반시계 방향 90°
+            default -> new AffineTransform();
+        };
+    }
+
+    /**
+     * JPEG 헤더의 APP1(Exif) 에서 IFD0 Orientation 태그를 찾습니다. 없거나 읽을 수 없으면 1.
+     */
+    static int readExifOrientation(byte[] b) {
+        if (b.length < 4 || (b[0] & 0xFF) != 0xFF || (b[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= b.length) {
+            if ((b[pos] & 0xFF) != 0xFF) {
+                return 1;
+            }
+            int marker = b[pos + 1] & 0xFF;
+            if (marker == 0xDA || marker == 0xD9) {
+                return 1; // 스캔 데이터 시작 전까지 Exif 없음
+            }
+            int len = ((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF);
+            int seg = pos + 4;
+            if (marker == 0xE1 && seg + 6 <= b.length
+                    && b[seg] == 'E' && b[seg + 1] == 'x' && b[seg + 2] == 'i' && b[seg + 3] == 'f') {
+                return tiffOrientation(b, seg + 6, Math.min(b.length, pos + 2 + len));
+            }
+            pos += 2 + len;
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(byte[] b, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        boolean le = b[tiff] == 'I' && b[tiff + 1] == 'I';
+        int ifd = tiff + (int) readUnsigned(b, tiff + 4, 4, le);
+        if (ifd < tiff || ifd + 2 > end) {
+            return 1;
+        }
+        int count = (int) readUnsigned(b, ifd, 2, le);
+        for (int i = 0; i < count; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readUnsigned(b, entry, 2, le) == 0x0112) {
+                int value = (int) readUnsigned(b, entry + 8, 2, le);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    static long readUnsigned(byte[] b, int off, int len, boolean littleEndian) {
+        long v = 0;
+        for (int i = 0; i < len; i++) {
+            int idx = littleEndian ? off + len - 1 - i : off + i;
+            v = (v << 8) | (b[idx] & 0xFF);
+        }
+        return v;
+    }
+
+    /**
+     * @param maxDimension         긴 변 최대 픽셀
+     * @param jpegQuality          재인코딩 품질 (0.0 ~ 1.0)
+     * @param applyExifOrientation true 면 EXIF Orientation 대로 픽셀을 회전/반전
+     * @param maxDecodeBytes       디코딩 래스터 메모리 상한
+     * @param perceptualHash       true 면 결과에 dHash·평균 색차 포함 (통과 JPEG 는 축소 디코딩 한 번 추가)
+     * @param measureQuality       true 면 결과에 밝기·선명도 지표 포함 (디코딩한 이미지로 측정, 통과 JPEG 는 dHash 와 같은 축소 디코딩 사용)
+     */
+    public record PreprocessOptions(int maxDimension,
+                                    float jpegQuality,
+                                    boolean applyExifOrientation,
+                                    long maxDecodeBytes,
+                                    boolean perceptualHash,
+                                    boolean measureQuality) {
+
+        public PreprocessOptions(int maxDimension, float jpegQuality, boolean applyExifOrientation, long maxDecodeBytes,
+                                 boolean perceptualHash) {
+            this(maxDimension, jpegQuality, applyExifOrientation, maxDecodeBytes, perceptualHash, false);
+        }
+
+        public PreprocessOptions(int maxDimension, float jpegQuality, boolean applyExifOrientation, long maxDecodeBytes) {
+            this(maxDimension, jpegQuality, applyExifOrientation, maxDecodeBytes, false);
+        }
+
+        public PreprocessOptions(int maxDimension, float jpegQuality, boolean applyExifOrientation) {
+            this(maxDimension, jpegQuality, applyExifOrientation, DEFAULT_MAX_DECODE_BYTES);
+        }
+    }
+
+    /**
+     * 전처리 결과. image 가 null 이면 원본을 그대로 전송합니다.
+     * perceptualHash 는 방향 보정 후 픽셀의 dHash·평균 색차, quality 는 품질 지표 (요청하지 않았거나 읽지 못한 이미지는 null).
+     * 단계별 소요 시간은 나노초 (probe = EXIF/헤더 읽기, 원본 통과 시에는 probe 만 기록).
+     */
+    public record PreprocessResult(ConvertedImage image,
+                                   long bytesIn,
+                                   long bytesOut,
+                                   long probeNanos,
+                                   long decodeNanos,
+                                   long transformNanos,
+                                   long encodeNanos,
+                                   PerceptualHash perceptualHash,
+                                   Quality quality) {
+
+        static PreprocessResult passThrough(long bytes, long probeNanos) {
+            return passThrough(bytes, probeNanos, null, null);
+        }
+
+        static PreprocessResult passThrough(long bytes, long probeNanos, PerceptualHash perceptualHash, Quality quality) {
+            return new PreprocessResult(null, bytes, bytes, probeNanos, 0, 0, 0, perceptualHash, quality);
+        }
+
+        public boolean passedThrough() {
+            return image == null;
+        }
+    }
+
+    /**
+     * 변환된 이미지. buffer 의 앞 length 바이트가 내용이며, 업로드 본문으로는 {@link #asResource()} 로 스트리밍합니다.
+     */
+    public record ConvertedImage(byte[] buffer, int length, String filename, MediaType mediaType) {
+
+        public ConvertedImage(byte[] bytes, String filename, MediaType mediaType) {
+            this(bytes, bytes.length, filename, mediaType);
+        }
+
+        /** 내용의 복사본 (본문 전송에는 asResource 사용) */
+        public byte[] bytes() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        /** 재시도 시 다시 읽을 수 있는, 버퍼를 복사하지 않는 리소스 */
         public Resource asResource() {
-            return new ByteArrayResource(bytes) {
+            return new AbstractResource() {
+                @Override
+                public InputStream getInputStream() {
+                    return new ByteArrayInputStream(buffer, 0, length);
+                }
+
+                @Override
+                public long contentLength() {
+                    return length;
+                }
+
                 @Override
                 public String getFilename() {
                     return filename;
                 }
+
+                @Override
+                public String getDescription() {
+                    return "converted image [" + filename + "]";
+                }
             };
         }
     }
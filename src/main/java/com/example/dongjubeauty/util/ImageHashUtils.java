@@ -0,0 +1,153 @@
+package com.example.dongjubeauty.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * 이미지 바이트의 내용 해시(SHA-256) 계산 유틸리티.
+ * 같은 사진이 다시 올라왔는지 판별하는 캐시 키로 사용합니다.
+ * 바이트가 달라도(재압축·EXIF 제거·포맷 변환) 같은 사진을 찾을 때는 픽셀 기반 {@link #perceptualHash} 를 씁니다.
+ */
+public final class ImageHashUtils {
+
+    /**
+     * 비슷한 이미지 검색용 지문.
+     * dHash 는 밝기 변화만 보므로 화이트밸런스·필터·색 보정만 다른 사진도 같은 값이 나옵니다.
+     * 색이 결과를 바꾸는 분석(퍼스널 컬러)은 평균 색차(Cb/Cr, 0~255)도 비교합니다.
+     */
+    public record PerceptualHash(long dHash, int meanCb, int meanCr) {
+
+        /** 평균 색차 차이 (Cb·Cr 중 큰 쪽) */
+        public int colorDistance(PerceptualHash other) {
+            return Math.max(Math.abs(meanCb - other.meanCb), Math.abs(meanCr - other.meanCr));
+        }
+    }
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final int DHASH_COLS = 9;
+    private static final int DHASH_ROWS = 8;
+    /** dHash 칸 하나에서 가로/세로로 읽는 최대 점 수 */
+    private static final int DHASH_SAMPLES = 16;
+
+    private ImageHashUtils() {
+    }
+
+    /** 업로드 파일을 스트리밍으로 해시합니다(전체를 byte[] 로 올리지 않음). */
+    public static String sha256(MultipartFile file) throws IOException {
+        MessageDigest md = newDigest();
+        try (InputStream in = file.getInputStream()) {
+            byte[] buf = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                md.update(buf, 0, n);
+            }
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    public static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * base64 이미지 문자열을 정규화(data URL 접두어·공백 제거)한 뒤
+     * 디코딩된 원본 바이트 기준으로 해시합니다.
+     */
+    public static String sha256OfBase64(String imageBase64) {
+        if (imageBase64 == null) {
+            return sha256(new byte[0]);
+        }
+        String data = imageBase64;
+        int comma = data.indexOf(',');
+        if (data.startsWith("data:") && comma > 0) {
+            data = data.substring(comma + 1);
+        }
+        try {
+            return sha256(Base64.getMimeDecoder().decode(data));
+        } catch (IllegalArgumentException e) {
+            // 잘못된 base64 는 FastAPI 가 INVALID_IMAGE 로 판정하도록 문자열 그대로 해시
+            return sha256(data.strip().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * 64비트 difference hash. 이미지를 9x8 칸으로 나눠 칸별 평균 밝기를 구하고,
+     * 각 행에서 왼쪽 칸이 오른쪽 칸보다 밝으면 1 입니다. 크기·압축률이 달라도 거의 같은 값이 나옵니다.
+     * 칸마다 최대 16x16 점만 읽으므로 이미지 크기와 관계없이 수천 픽셀만 봅니다.
+     */
+    public static long dHash(BufferedImage image) {
+        return perceptualHash(image).dHash();
+    }
+
+    /** {@link #dHash} 와 같은 점들에서 평균 색차도 함께 구합니다. */
+    public static PerceptualHash perceptualHash(BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        double[] luma = new double[DHASH_COLS * DHASH_ROWS];
+        double[] chroma = new double[3]; // Cb 합, Cr 합, 점 수
+        for (int cy = 0; cy < DHASH_ROWS; cy++) {
+            int y0 = cy * h / DHASH_ROWS;
+            int y1 = Math.max(y0 + 1, (cy + 1) * h / DHASH_ROWS);
+            for (int cx = 0; cx < DHASH_COLS; cx++) {
+                int x0 = cx * w / DHASH_COLS;
+                int x1 = Math.max(x0 + 1, (cx + 1) * w / DHASH_COLS);
+                luma[cy * DHASH_COLS + cx] = meanLuma(image, x0, Math.min(x1, w), y0, Math.min(y1, h), chroma);
+            }
+        }
+        long hash = 0;
+        for (int y = 0; y < DHASH_ROWS; y++) {
+            for (int x = 0; x < DHASH_COLS - 1; x++) {
+                hash <<= 1;
+                if (luma[y * DHASH_COLS + x] > luma[y * DHASH_COLS + x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        double n = Math.max(1, chroma[2]);
+        return new PerceptualHash(hash, (int) Math.round(chroma[0] / n), (int) Math.round(chroma[1] / n));
+    }
+
+    /** 두 dHash 의 다른 비트 수 */
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /** 칸의 평균 밝기. 읽은 점의 Cb·Cr 합과 점 수는 chroma 에 더함 */
+    private static double meanLuma(BufferedImage image, int x0, int x1, int y0, int y1, double[] chroma) {
+        int stepX = Math.max(1, (x1 - x0) / DHASH_SAMPLES);
+        int stepY = Math.max(1, (y1 - y0) / DHASH_SAMPLES);
+        double sum = 0;
+        int n = 0;
+        for (int y = y0 + stepY / 2; y < y1; y += stepY) {
+            for (int x = x0 + stepX / 2; x < x1; x += stepX) {
+                int rgb = image.getRGB(x, y);
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                sum += 0.299 * r + 0.587 * g + 0.114 * b;
+                chroma[0] += 128 - 0.168736 * r - 0.331264 * g + 0.5 * b;
+                chroma[1] += 128 + 0.5 * r - 0.418688 * g - 0.081312 * b;
+                n++;
+            }
+        }
+        chroma[2] += n;
+        return n == 0 ? 0 : sum / n;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
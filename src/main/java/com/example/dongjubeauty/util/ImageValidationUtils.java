@@ -0,0 +1,408 @@
+package com.example.dongjubeauty.util;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * 업로드 이미지를 FastAPI 로 보내기 전에 싸게 걸러내는 검사 유틸리티.
+ * 파일 이름·Content-Type 대신 앞부분 바이트(매직 넘버)로 포맷을 판별하고, 헤더에서 해상도를 읽으며(디코딩 없음),
+ * 작은 썸네일(JPEG 의 EXIF 썸네일 또는 전처리가 이미 디코딩한 이미지)로 밝기·선명도를 봅니다.
+ */
+public final class ImageValidationUtils {
+
+    /** 포맷·해상도 판별에 읽는 앞부분 크기 (Exif APP1 최대 64KB + 여유) */
+    public static final int HEADER_SCAN_LIMIT = 128 * 1024;
+
+    /** 품질 측정용 격자 크기 (긴 변 셀 수) */
+    private static final int GRID = 128;
+    /** 셀 하나에서 한 축으로 보는 최대 샘플 수 */
+    private static final int SAMPLES_PER_CELL = 4;
+
+    private static final Set<String> HEIF_BRANDS = Set.of(
+            "heic", "heix", "hevc", "hevx", "heim", "heis", "mif1", "msf1", "avif", "avis");
+
+    private ImageValidationUtils() {
+    }
+
+    public enum Format {
+        JPEG, PNG, GIF, WEBP, BMP, TIFF, HEIF, UNKNOWN
+    }
+
+    /**
+     * 헤더에서 읽은 정보.
+     *
+     * @param width         가로 픽셀 (헤더에서 찾지 못했으면 0)
+     * @param height        세로 픽셀 (헤더에서 찾지 못했으면 0)
+     * @param exifThumbnail JPEG 의 Exif 썸네일 (JPEG 바이트, 없으면 null)
+     */
+    public record Header(Format format, int width, int height, byte[] exifThumbnail) {
+
+        public boolean hasDimensions() {
+            return width > 0 && height > 0;
+        }
+    }
+
+    /**
+     * 썸네일 품질 지표.
+     *
+     * @param meanLuminance 평균 밝기 (0 ~ 255)
+     * @param sharpness     밝기 격자 라플라시안의 분산 (작을수록 흐림, 단색 이미지는 0)
+     * @param skinRatio     YCbCr 피부색 범위에 드는 셀 비율 (0 ~ 1)
+     */
+    public record Quality(double meanLuminance, double sharpness, double skinRatio) {
+    }
+
+    /** 매직 넘버로 포맷 판별 */
+    public static Format sniff(byte[] b) {
+        if (b.length >= 3 && u8(b, 0) == 0xFF && u8(b, 1) == 0xD8 && u8(b, 2) == 0xFF) {
+            return Format.JPEG;
+        }
+        if (b.length >= 8 && u8(b, 0) == 0x89 && ascii(b, 1, "PNG") && u8(b, 4) == 0x0D && u8(b, 5) == 0x0A
+                && u8(b, 6) == 0x1A && u8(b, 7) == 0x0A) {
+            return Format.PNG;
+        }
+        if (b.length >= 6 && (ascii(b, 0, "GIF87a") || ascii(b, 0, "GIF89a"))) {
+            return Format.GIF;
+        }
+        if (b.length >= 12 && ascii(b, 0, "RIFF") && ascii(b, 8, "WEBP")) {
+            return Format.WEBP;
+        }
+        if (b.length >= 2 && ascii(b, 0, "BM")) {
+            return Format.BMP;
+        }
+        if (b.length >= 4 && (ascii(b, 0, "II") && u8(b, 2) == 42 && u8(b, 3) == 0
+                || ascii(b, 0, "MM") && u8(b, 2) == 0 && u8(b, 3) == 42)) {
+            return Format.TIFF;
+        }
+        if (b.length >= 12 && ascii(b, 4, "ftyp")
+                && HEIF_BRANDS.contains(new String(b, 8, 4, StandardCharsets.US_ASCII))) {
+            return Format.HEIF;
+        }
+        return Format.UNKNOWN;
+    }
+
+    /**
+     * 포맷과 해상도를 헤더에서 읽습니다. 픽셀은 디코딩하지 않습니다.
+     *
+     * @param head     파일 앞부분 ({@link #HEADER_SCAN_LIMIT} 정도)
+     * @param complete head 가 파일 전체인지. 전체인데 해상도 정보가 없으면 손상된 파일로 봅니다.
+     * @throws IOException 헤더 구조가 깨졌을 때
+     */
+    public static Header readHeader(byte[] head, boolean complete) throws IOException {
+        Format format = sniff(head);
+        Header header = switch (format) {
+            case JPEG -> jpeg(head);
+            case PNG -> png(head);
+            case GIF -> dimensions(format, head, 6, 8, 2, true);
+            case WEBP -> webp(head);
+            case BMP -> bmp(head);
+            case HEIF -> heif(head);
+            case TIFF, UNKNOWN -> new Header(format, 0, 0, null);
+        };
+        if (complete && !header.hasDimensions() && format != Format.TIFF && format != Format.UNKNOWN) {
+            throw new IOException(format + " 헤더에 해상도 정보가 없습니다.");
+        }
+        return header;
+    }
+
+    /** Exif 썸네일을 디코딩해 품질을 잽니다. 읽지 못하면 null. */
+    public static Quality measureThumbnail(byte[] jpeg) {
+        try {
+            BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(jpeg));
+            return thumbnail == null ? null : measure(thumbnail);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 긴 변 {@value #GRID} 칸 격자로 줄여(셀마다 최대 {@value #SAMPLES_PER_CELL}x{@value #SAMPLES_PER_CELL} 샘플 평균)
+     * 밝기·선명도·피부색 비율을 구합니다. 샘플 위치만 읽으므로 전처리 크기(1600px) 이미지도 1ms 안팎입니다.
+     */
+    public static Quality measure(BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int cell = Math.max(1, Math.ceilDiv(Math.max(w, h), GRID));
+        int step = Math.max(1, cell / SAMPLES_PER_CELL);
+        int gw = Math.ceilDiv(w, cell);
+        int gh = Math.ceilDiv(h, cell);
+        Pixels pixels = Pixels.of(image);
+
+        double[] luma = new double[gw * gh];
+        double lumaSum = 0;
+        int skin = 0;
+        for (int gy = 0; gy < gh; gy++) {
+            int yEnd = Math.min(h, (gy + 1) * cell);
+            for (int gx = 0; gx < gw; gx++) {
+                int xEnd = Math.min(w, (gx + 1) * cell);
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                int n = 0;
+                for (int y = gy * cell; y < yEnd; y += step) {
+                    for (int x = gx * cell; x < xEnd; x += step) {
+                        int rgb = pixels.rgb(x, y);
+                        r += (rgb >> 16) & 0xFF;
+                        g += (rgb >> 8) & 0xFF;
+                        b += rgb & 0xFF;
+                        n++;
+                    }
+                }
+                double cr = (double) r / n;
+                double cg = (double) g / n;
+                double cb = (double) b / n;
+                double y = 0.299 * cr + 0.587 * cg + 0.114 * cb;
+                luma[gy * gw + gx] = y;
+                lumaSum += y;
+                if (isSkin(cr, cg, cb)) {
+                    skin++;
+                }
+            }
+        }
+        int cells = gw * gh;
+        return new Quality(lumaSum / cells, laplacianVariance(luma, gw, gh), (double) skin / cells);
+    }
+
+    /** 디코더가 주로 만드는 INT_RGB/ARGB·3BYTE_BGR 은 버퍼를 직접 읽고, 나머지는 getRGB */
+    private interface Pixels {
+
+        int rgb(int x, int y);
+
+        static Pixels of(BufferedImage image) {
+            WritableRaster raster = image.getRaster();
+            boolean untranslated = raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+            int type = image.getType();
+            if (untranslated && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm
+                    && raster.getDataBuffer() instanceof DataBufferInt db) {
+                int[] data = db.getData();
+                int stride = sm.getScanlineStride();
+                return (x, y) -> data[y * stride + x];
+            }
+            if (untranslated && type == BufferedImage.TYPE_3BYTE_BGR
+                    && raster.getSampleModel() instanceof ComponentSampleModel sm
+                    && raster.getDataBuffer() instanceof DataBufferByte db) {
+                byte[] data = db.getData();
+                int stride = sm.getScanlineStride();
+                int pixel = sm.getPixelStride();
+                return (x, y) -> {
+                    int i = y * stride + x * pixel;
+                    return (data[i + 2] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8 | data[i] & 0xFF;
+                };
+            }
+            return image::getRGB;
+        }
+    }
+
+    /** 4-이웃 라플라시안 응답의 분산 (가장자리 셀 제외) */
+    private static double laplacianVariance(double[] luma, int w, int h) {
+        if (w < 3 || h < 3) {
+            return 0;
+        }
+        double sum = 0;
+        double sumSq = 0;
+        for (int y = 1; y < h - 1; y++) {
+            for (int x = 1; x < w - 1; x++) {
+                int i = y * w + x;
+                double lap = 4 * luma[i] - luma[i - 1] - luma[i + 1] - luma[i - w] - luma[i + w];
+                sum += lap;
+                sumSq += lap * lap;
+            }
+        }
+        int count = (w - 2) * (h - 2);
+        double mean = sum / count;
+        return sumSq / count - mean * mean;
+    }
+
+    /** 널리 쓰이는 YCbCr 피부색 범위 (Cb 77~127, Cr 133~173) */
+    private static boolean isSkin(double r, double g, double b) {
+        double cb = 128 - 0.168736 * r - 0.331264 * g + 0.5 * b;
+        double cr = 128 + 0.5 * r - 0.418688 * g - 0.081312 * b;
+        return cb >= 77 && cb <= 127 && cr >= 133 && cr <= 173;
+    }
+
+    /** 마커를 따라가며 SOF 의 해상도와 APP1(Exif) 의 썸네일을 찾습니다. SOF 는 첫 SOS 보다 앞에 있어야 합니다. */
+    private static Header jpeg(byte[] b) throws IOException {
+        byte[] thumbnail = null;
+        int pos = 2;
+        while (pos + 4 <= b.length) {
+            if (u8(b, pos) != 0xFF) {
+                throw new IOException("JPEG 마커가 올바르지 않습니다.");
+            }
+            int marker = u8(b, pos + 1);
+            if (marker == 0xFF) {
+                pos++; // 채움 바이트
+                continue;
+            }
+            if (marker == 0xD8 || marker == 0x01 || marker >= 0xD0 && marker <= 0xD7) {
+                pos += 2;
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                throw new IOException("JPEG 프레임 헤더(SOF)가 없습니다.");
+            }
+            int len = (int) ImageConversionUtils.readUnsigned(b, pos + 2, 2, false);
+            if (len < 2) {
+                throw new IOException("JPEG 세그먼트 길이가 올바르지 않습니다.");
+            }
+            if (isStartOfFrame(marker)) {
+                if (pos + 9 > b.length) {
+                    break;
+                }
+                int height = (int) ImageConversionUtils.readUnsigned(b, pos + 5, 2, false);
+                int width = (int) ImageConversionUtils.readUnsigned(b, pos + 7, 2, false);
+                return new Header(Format.JPEG, width, height, thumbnail);
+            }
+            int seg = pos + 4;
+            int end = Math.min(b.length, pos + 2 + len);
+            if (marker == 0xE1 && thumbnail == null && seg + 6 <= end && ascii(b, seg, "Exif")) {
+                thumbnail = exifThumbnail(b, seg + 6, end);
+            }
+            pos += 2 + len;
+        }
+        return new Header(Format.JPEG, 0, 0, thumbnail);
+    }
+
+    /** SOF0~SOF15 중 DHT(C4)·JPG(C8)·DAC(CC) 를 뺀 것 */
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    /** IFD0 다음의 IFD1 에서 JPEGInterchangeFormat(0x0201)/Length(0x0202) 로 가리키는 JPEG 썸네일 */
+    private static byte[] exifThumbnail(byte[] b, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return null;
+        }
+        boolean le = ascii(b, tiff, "II");
+        long ifd0 = tiff + ImageConversionUtils.readUnsigned(b, tiff + 4, 4, le);
+        if (ifd0 + 2 > end) {
+            return null;
+        }
+        int count0 = (int) ImageConversionUtils.readUnsigned(b, (int) ifd0, 2, le);
+        long next = ifd0 + 2 + count0 * 12L;
+        if (next + 4 > end) {
+            return null;
+        }
+        long ifd1 = ImageConversionUtils.readUnsigned(b, (int) next, 4, le);
+        if (ifd1 == 0 || tiff + ifd1 + 2 > end) {
+            return null;
+        }
+        int at = (int) (tiff + ifd1);
+        int count1 = (int) ImageConversionUtils.readUnsigned(b, at, 2, le);
+        long offset = -1;
+        long length = -1;
+        for (int i = 0; i < count1; i++) {
+            int entry = at + 2 + i * 12;
+            if (entry + 12 > end) {
+                return null;
+            }
+            int tag = (int) ImageConversionUtils.readUnsigned(b, entry, 2, le);
+            if (tag == 0x0201) {
+                offset = ImageConversionUtils.readUnsigned(b, entry + 8, 4, le);
+            } else if (tag == 0x0202) {
+                length = ImageConversionUtils.readUnsigned(b, entry + 8, 4, le);
+            }
+        }
+        if (offset <= 0 || length <= 0 || tiff + offset + length > end) {
+            return null;
+        }
+        int from = (int) (tiff + offset);
+        return Arrays.copyOfRange(b, from, from + (int) length);
+    }
+
+    private static Header png(byte[] b) throws IOException {
+        if (b.length < 24) {
+            return new Header(Format.PNG, 0, 0, null);
+        }
+        if (!ascii(b, 12, "IHDR")) {
+            throw new IOException("PNG 첫 청크가 IHDR 이 아닙니다.");
+        }
+        return dimensions(Format.PNG, b, 16, 20, 4, false);
+    }
+
+    private static Header webp(byte[] b) {
+        if (b.length >= 30 && ascii(b, 12, "VP8 ") && u8(b, 23) == 0x9D && u8(b, 24) == 0x01 && u8(b, 25) == 0x2A) {
+            int width = (int) ImageConversionUtils.readUnsigned(b, 26, 2, true) & 0x3FFF;
+            int height = (int) ImageConversionUtils.readUnsigned(b, 28, 2, true) & 0x3FFF;
+            return new Header(Format.WEBP, width, height, null);
+        }
+        if (b.length >= 25 && ascii(b, 12, "VP8L") && u8(b, 20) == 0x2F) {
+            long bits = ImageConversionUtils.readUnsigned(b, 21, 4, true);
+            return new Header(Format.WEBP, (int) (bits & 0x3FFF) + 1, (int) ((bits >> 14) & 0x3FFF) + 1, null);
+        }
+        if (b.length >= 30 && ascii(b, 12, "VP8X")) {
+            int width = (int) ImageConversionUtils.readUnsigned(b, 24, 3, true) + 1;
+            int height = (int) ImageConversionUtils.readUnsigned(b, 27, 3, true) + 1;
+            return new Header(Format.WEBP, width, height, null);
+        }
+        return new Header(Format.WEBP, 0, 0, null);
+    }
+
+    private static Header bmp(byte[] b) {
+        if (b.length < 26) {
+            return new Header(Format.BMP, 0, 0, null);
+        }
+        long dib = ImageConversionUtils.readUnsigned(b, 14, 4, true);
+        if (dib == 12) { // OS/2 BITMAPCOREHEADER
+            return dimensions(Format.BMP, b, 18, 20, 2, true);
+        }
+        int width = (int) ImageConversionUtils.readUnsigned(b, 18, 4, true);
+        int height = (int) ImageConversionUtils.readUnsigned(b, 22, 4, true);
+        return new Header(Format.BMP, width, Math.abs(height), null); // 음수 높이 = 위에서 아래로 저장
+    }
+
+    /**
+     * HEIF 는 meta 상자의 ispe(이미지 공간 크기) 속성에서 읽습니다.
+     * 그리드 이미지는 타일·썸네일마다 ispe 가 있으므로 가장 큰 값을 씁니다.
+     */
+    private static Header heif(byte[] b) {
+        int width = 0;
+        int height = 0;
+        for (int i = 4; i + 16 <= b.length; i++) {
+            if (b[i] == 'i' && ascii(b, i, "ispe") && ImageConversionUtils.readUnsigned(b, i - 4, 4, false) == 20) {
+                int w = (int) ImageConversionUtils.readUnsigned(b, i + 8, 4, false);
+                int h = (int) ImageConversionUtils.readUnsigned(b, i + 12, 4, false);
+                if ((long) w * h > (long) width * height) {
+                    width = w;
+                    height = h;
+                }
+            }
+        }
+        return new Header(Format.HEIF, width, height, null);
+    }
+
+    private static Header dimensions(Format format, byte[] b, int widthAt, int heightAt, int len, boolean littleEndian) {
+        if (heightAt + len > b.length) {
+            return new Header(format, 0, 0, null);
+        }
+        int width = (int) ImageConversionUtils.readUnsigned(b, widthAt, len, littleEndian);
+        int height = (int) ImageConversionUtils.readUnsigned(b, heightAt, len, littleEndian);
+        return new Header(format, width, height, null);
+    }
+
+    private static int u8(byte[] b, int i) {
+        return b[i] & 0xFF;
+    }
+
+    private static boolean ascii(byte[] b, int off, String s) {
+        if (off + s.length() > b.length) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (b[off + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
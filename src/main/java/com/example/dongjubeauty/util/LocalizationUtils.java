@@ -1,14 +1,21 @@
 package com.example.dongjubeauty.util;
 
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * FastAPI 응답에 한국어 라벨(*_ko, message_ko)을 붙입니다.
+ * 라벨 테이블은 클래스 로딩 시 대소문자 변형까지 미리 펼쳐 두어 보통은 해시 조회 한 번으로 끝나고,
+ * 그 밖의 표기만 공백/대소문자를 정규화해서 다시 찾습니다 (정규식 없음).
+ * 맵을 거치지 않고 JSON 토큰을 그대로 옮기며 라벨을 붙이는 버전은 {@link StreamingLocalizer} 입니다.
+ */
 public final class LocalizationUtils {
     private LocalizationUtils() {}
 
-    // 소문자 키로 정규화한 테이블(케이스 인센서티브 매핑)
-    private static final Map<String, String> SHAPE_KO = Map.ofEntries(
+    // 소문자 키로 정규화한 테이블(케이스 인센서티브 매핑) → precomputed() 로 변형 포함 테이블 생성
+    private static final Map<String, String> SHAPE_KO = precomputed(Map.ofEntries(
             Map.entry("oval", "계란형"),
             Map.entry("oblong", "긴형"),             // long face
             Map.entry("long", "긴형"),
@@ -19,19 +26,38 @@ public final class LocalizationUtils {
             Map.entry("triangle", "삼각형"),
             Map.entry("inverted triangle", "역삼각형"),
             Map.entry("inverted_triangle", "역삼각형")
-    );
+    ));
 
-    private static final Map<String, String> SEASON_KO = Map.of(
+    private static final Map<String, String> SEASON_KO = precomputed(Map.of(
             "spring", "봄 웜",
             "summer", "여름 쿨",
             "autumn", "가을 웜",
             "fall",   "가을 웜",    // 호환
             "winter", "겨울 쿨"
-    );
+    ));
 
-    private static final Map<String, String> TONE_KO = Map.of(
+    private static final Map<String, String> TONE_KO = precomputed(Map.of(
             "warm", "웜",
             "cool", "쿨"
+    ));
+
+    static final String OK_MESSAGE = "분석이 완료되었습니다.";
+    static final String DEFAULT_ERROR_MESSAGE = "분석 중 오류가 발생했습니다.";
+
+    /** 오류 code → message_ko */
+    private static final Map<String, String> MESSAGE_KO = Map.ofEntries(
+            Map.entry("NO_FACE",         "얼굴을 찾지 못했습니다. 정면 사진으로 다시 시도해 주세요."),
+            Map.entry("LOW_QUALITY",     "이미지 품질이 낮아 분석할 수 없습니다."),
+            Map.entry("INVALID_IMAGE",   "이미지 데이터가 올바르지 않습니다."),
+            Map.entry("OVERLOADED",      "요청이 많아 지금은 분석할 수 없습니다. 잠시 후 다시 시도해 주세요."),
+            Map.entry("QUEUE_TIMEOUT",   "대기 중인 요청이 많아 분석하지 못했습니다. 잠시 후 다시 시도해 주세요."),
+            Map.entry("CIRCUIT_OPEN",    "분석 서버에 일시적으로 연결할 수 없습니다. 잠시 후 다시 시도해 주세요."),
+            Map.entry("BUSY",            "이미지를 처리하는 요청이 많습니다. 잠시 후 다시 시도해 주세요."),
+            Map.entry("IMAGE_TOO_LARGE", "이미지 용량이 너무 큽니다. 더 작은 사진으로 다시 시도해 주세요."),
+            Map.entry("BATCH_TOO_LARGE", "한 번에 보낼 수 있는 사진 수를 넘었습니다."),
+            Map.entry("PARTIAL_RESULT",  "일부 분석만 완료되었습니다. 실패한 항목은 다시 시도해 주세요."),
+            Map.entry("JOB_QUEUE_FULL",  "대기 중인 분석이 많습니다. 잠시 후 다시 시도해 주세요."),
+            Map.entry("JOB_NOT_FOUND",   "분석 작업을 찾을 수 없습니다. 보관 기간이 지났을 수 있습니다.")
     );
 
     /** 한국어 라벨을 추가합니다(무조건 추가). null 입력 시 빈 결과를 반환합니다. */
@@ -66,14 +92,9 @@ public final class LocalizationUtils {
 
         Object status = out.get("status");
         if ("ok".equals(status)) {
-            out.putIfAbsent("message_ko", "분석이 완료되었습니다.");
+            out.putIfAbsent("message_ko", OK_MESSAGE);
         } else if (out.get("code") instanceof String code) {
-            out.put("message_ko", switch (code) {
-                case "NO_FACE"      -> "얼굴을 찾지 못했습니다. 정면 사진으로 다시 시도해 주세요.";
-                case "LOW_QUALITY"  -> "이미지 품질이 낮아 분석할 수 없습니다.";
-                case "INVALID_IMAGE"-> "이미지 데이터가 올바르지 않습니다.";
-                default             -> "분석 중 오류가 발생했습니다.";
-            });
+            out.put("message_ko", messageKo(code));
         }
         return out;
     }
@@ -83,20 +104,82 @@ public final class LocalizationUtils {
      * e.g. Accept-Language 헤더를 그대로 넘겨 사용하세요.
      */
     public static Map<String, Object> addKoreanLabels(Map<String, Object> payload, String acceptLanguage) {
-        if (acceptLanguage == null) return addKoreanLabels(payload); // 기본 한국어 추가
-        String lang = acceptLanguage.toLowerCase(Locale.ROOT);
-        // "ko", "ko-KR", "ko_KR" 등 처리
-        if (lang.startsWith("ko")) {
+        if (wantsKorean(acceptLanguage)) {
             return addKoreanLabels(payload);
         }
         // 한국어가 아니면 라벨 추가 없이 원본(또는 null 방어) 그대로 반환
         return payload != null ? payload : Map.of("status", "error", "code", "EMPTY_RESPONSE");
     }
 
+    /** Accept-Language 가 없거나 "ko", "ko-KR", "ko_KR" 등으로 시작하면 한국어 (기본 한국어) */
+    public static boolean wantsKorean(String acceptLanguage) {
+        return acceptLanguage == null || acceptLanguage.regionMatches(true, 0, "ko", 0, 2);
+    }
+
+    static String faceShapeKo(String shape) {
+        return lookupInsensitive(SHAPE_KO, shape);
+    }
+
+    static String seasonKo(String season) {
+        return lookupInsensitive(SEASON_KO, season);
+    }
+
+    static String toneKo(String tone) {
+        return lookupInsensitive(TONE_KO, tone);
+    }
+
+    static String messageKo(String code) {
+        return MESSAGE_KO.getOrDefault(code, DEFAULT_ERROR_MESSAGE);
+    }
+
     // -------- helpers --------
     private static String lookupInsensitive(Map<String, String> table, String key) {
         if (key == null) return null;
-        String k = key.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
-        return table.getOrDefault(k, key); // 없으면 원문 유지
+        String ko = table.get(key);               // 대부분 여기서 끝남 (oval, Oval, OVAL ...)
+        if (ko == null) {
+            ko = table.get(normalize(key));
+        }
+        return ko != null ? ko : key;             // 없으면 원문 유지
+    }
+
+    /** trim + 소문자 + 연속 공백(\s)을 공백 하나로 */
+    static String normalize(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        boolean space = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B') {
+                space = sb.length() > 0;
+            } else {
+                if (space) {
+                    sb.append(' ');
+                    space = false;
+                }
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** 소문자 키 테이블에 대문자·첫 글자 대문자·단어별 대문자 표기를 더한 조회 테이블 */
+    private static Map<String, String> precomputed(Map<String, String> lowerCase) {
+        Map<String, String> out = new HashMap<>();
+        lowerCase.forEach((key, ko) -> {
+            out.put(key, ko);
+            out.put(key.toUpperCase(Locale.ROOT), ko);
+            out.put(Character.toUpperCase(key.charAt(0)) + key.substring(1), ko);
+            out.put(titleCase(key), ko);
+        });
+        return Map.copyOf(out);
+    }
+
+    private static String titleCase(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        boolean upper = true;
+        for (char c : key.toCharArray()) {
+            sb.append(upper ? Character.toUpperCase(c) : c);
+            upper = c == ' ' || c == '_';
+        }
+        return sb.toString();
     }
 }
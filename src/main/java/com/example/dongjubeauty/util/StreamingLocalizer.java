@@ -0,0 +1,245 @@
+package com.example.dongjubeauty.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FastAPI 응답 JSON 을 토큰 단위로 그대로 옮기면서 한국어 라벨을 붙입니다.
+ * {@link LocalizationUtils#addKoreanLabels(java.util.Map)} 와 결과는 같지만(키 순서 제외)
+ * 중간 Map 을 만들지 않고, 라벨과 무관한 값(디버그 오버레이 등)은 디코딩 없이 원문 문자 그대로 옮깁니다.
+ * 최상위 객체의 라벨 재료(face_shape, season, tone, status, code)만 기억해 두었다가
+ * 객체가 닫힐 때 *_ko / message_ko 필드를 덧붙입니다.
+ */
+public final class StreamingLocalizer {
+    private StreamingLocalizer() {}
+
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private static final String EMPTY_RESPONSE =
+            "{\"status\":\"error\",\"code\":\"EMPTY_RESPONSE\",\"message_ko\":\"서버 응답이 비어 있습니다.\"}";
+
+    /**
+     * 라벨을 붙여 out 에 씁니다. 본문이 비어 있으면 EMPTY_RESPONSE 오류를, 객체가 아니면 원문을 그대로 씁니다.
+     *
+     * @return 최상위 traceId (없으면 null)
+     */
+    public static String localize(String json, OutputStream out) throws IOException {
+        if (json == null || json.isBlank()) {
+            out.write(EMPTY_RESPONSE.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+        return rewrite(json, out, true, false, null, false);
+    }
+
+    /** 라벨을 붙인 JSON 바이트 (UTF-8) */
+    public static byte[] localize(String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint(json));
+        localize(json, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * traceId 만 바꿔 씁니다 (없거나 비어 있으면 traceId 필드를 제거). 라벨은 붙이지 않습니다.
+     * 캐시 적중·병합 응답을 현재 요청의 traceId 로 돌려줄 때 씁니다.
+     */
+    public static String retrace(String json, String traceId) throws IOException {
+        return retrace(json, traceId, false);
+    }
+
+    /** {@link #retrace(String, String)} + reused=true (비슷한 이미지의 이전 분석을 돌려줄 때) */
+    public static String retrace(String json, String traceId, boolean reused) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sizeHint(json));
+        rewrite(json, out, false, true, traceId != null && !traceId.isBlank() ? traceId : null, reused);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int sizeHint(String json) {
+        return json == null ? 128 : json.length() + 256;
+    }
+
+    private static String rewrite(String json,
+                                  OutputStream out,
+                                  boolean labels,
+                                  boolean replaceTraceId,
+                                  String traceId,
+                                  boolean reused) throws IOException {
+        try (JsonParser p = FACTORY.createParser(json);
+             JsonGenerator g = FACTORY.createGenerator(out)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                g.copyCurrentStructure(p); // 배열/스칼라는 그대로
+                return null;
+            }
+            Labels state = new Labels();
+            g.writeStartObject();
+            int pending = -1; // 아직 끝을 모르는 문자열 값의 시작 위치
+            JsonToken token;
+            while ((token = p.nextToken()) != null) {
+                if (pending >= 0) {
+                    writeRawValue(g, json, pending, offset(p));
+                    pending = -1;
+                }
+                if (token != JsonToken.FIELD_NAME) {
+                    break;
+                }
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                if (replaceTraceId && "traceId".equals(name)) {
+                    p.skipChildren();
+                    if (traceId != null && !state.traceIdWritten) {
+                        g.writeStringField(name, traceId); // 원래 자리 유지
+                        state.traceIdWritten = true;
+                    }
+                    continue;
+                }
+                if (reused && "reused".equals(name)) {
+                    p.skipChildren(); // 아래에서 true 로 다시 씀
+                    continue;
+                }
+                if (labels && state.buffer(name, p)) {
+                    continue;
+                }
+                g.writeFieldName(name);
+                if (state.remember(name, value, p)) {
+                    g.copyCurrentStructure(p);
+                } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    // 디코딩 없이 원문 그대로 (디버그 오버레이·랜드마크)
+                    int start = offset(p);
+                    p.skipChildren();
+                    writeRawValue(g, json, start, (int) p.currentLocation().getCharOffset());
+                } else if (value == JsonToken.VALUE_STRING) {
+                    pending = offset(p); // 다음 토큰 위치에서 끝을 찾음 (문자열은 읽지 않고 건너뜀)
+                } else {
+                    g.copyCurrentEvent(p);
+                }
+            }
+            if (replaceTraceId && traceId != null && !state.traceIdWritten) {
+                g.writeStringField("traceId", traceId);
+            }
+            if (reused) {
+                g.writeBooleanField("reused", true);
+            }
+            if (labels) {
+                state.writeLabels(g);
+            }
+            g.writeEndObject();
+            return replaceTraceId ? traceId : state.traceId;
+        }
+    }
+
+    private static int offset(JsonParser p) {
+        return (int) p.currentTokenLocation().getCharOffset();
+    }
+
+    /** json[start, end) 에서 뒤쪽 공백과 구분자 ',' 를 뺀 부분을 값으로 그대로 씀 */
+    private static void writeRawValue(JsonGenerator g, String json, int start, int end) throws IOException {
+        while (end > start && isSeparator(json.charAt(end - 1))) {
+            end--;
+        }
+        g.writeRawValue(json, start, end - start);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /** 최상위 객체에서 라벨 계산에 필요한 값들 */
+    private static final class Labels {
+        boolean faceShapeSeen;
+        String faceShape;
+        String shape;
+        String season;
+        String tone;
+        String status;
+        String code;
+        String traceId;
+        boolean traceIdWritten;
+
+        // 업스트림이 이미 보낸 라벨 (새 라벨을 계산하지 못하면 그대로 유지)
+        TokenBuffer faceShapeKo;
+        TokenBuffer seasonKo;
+        TokenBuffer toneKo;
+        TokenBuffer messageKo;
+
+        /** 라벨 재료이면 값을 기억하고 true */
+        boolean remember(String name, JsonToken value, JsonParser p) throws IOException {
+            if (!isSource(name)) {
+                return false;
+            }
+            String text = value == JsonToken.VALUE_STRING ? p.getText() : null;
+            switch (name) {
+                case "face_shape" -> {
+                    faceShapeSeen = true;
+                    faceShape = text;
+                }
+                case "shape" -> shape = text;
+                case "season" -> season = text;
+                case "tone" -> tone = text;
+                case "status" -> status = text;
+                case "code" -> code = text;
+                case "traceId" -> traceId = text;
+                default -> { }
+            }
+            return true;
+        }
+
+        private static boolean isSource(String name) {
+            return switch (name) {
+                case "face_shape", "shape", "season", "tone", "status", "code", "traceId" -> true;
+                default -> false;
+            };
+        }
+
+        /** *_ko 필드는 바로 쓰지 않고 보관 (라벨이 덮어쓸 수 있으므로) */
+        boolean buffer(String name, JsonParser p) throws IOException {
+            switch (name) {
+                case "face_shape_ko" -> faceShapeKo = copy(p);
+                case "season_ko" -> seasonKo = copy(p);
+                case "tone_ko" -> toneKo = copy(p);
+                case "message_ko" -> messageKo = copy(p);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static TokenBuffer copy(JsonParser p) throws IOException {
+            TokenBuffer buf = new TokenBuffer(p);
+            buf.copyCurrentStructure(p);
+            return buf;
+        }
+
+        void writeLabels(JsonGenerator g) throws IOException {
+            // face_shape 키가 있으면 shape 는 보지 않음 (addKoreanLabels 의 getOrDefault 와 동일)
+            String shapeValue = faceShapeSeen ? faceShape : shape;
+            writeLabel(g, "face_shape_ko", shapeValue != null ? LocalizationUtils.faceShapeKo(shapeValue) : null, faceShapeKo);
+            writeLabel(g, "season_ko", season != null ? LocalizationUtils.seasonKo(season) : null, seasonKo);
+            writeLabel(g, "tone_ko", tone != null ? LocalizationUtils.toneKo(tone) : null, toneKo);
+
+            String message = null;
+            if ("ok".equals(status)) {
+                message = messageKo == null ? LocalizationUtils.OK_MESSAGE : null; // 업스트림 문구 우선
+            } else if (code != null) {
+                message = LocalizationUtils.messageKo(code);
+            }
+            writeLabel(g, "message_ko", message, messageKo);
+        }
+
+        private static void writeLabel(JsonGenerator g, String name, String ko, TokenBuffer upstream) throws IOException {
+            if (ko != null) {
+                g.writeStringField(name, ko);
+            } else if (upstream != null) {
+                g.writeFieldName(name);
+                upstream.serialize(g);
+            }
+        }
+    }
+}
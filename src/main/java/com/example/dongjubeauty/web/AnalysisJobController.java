@@ -0,0 +1,116 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.service.job.AnalysisJob;
+import com.example.dongjubeauty.service.job.AnalysisJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 비동기 분석 API.
+ * 접수하면 202 + job_id 를 바로 돌려주고, 결과는 GET /api/jobs/{id} 폴링 또는 GET /api/jobs/{id}/events (SSE) 로 받습니다.
+ * 추론이 오래 걸려도 HTTP 연결을 붙잡고 있지 않으므로 모바일 프록시의 연결 끊김/재시도를 피할 수 있습니다.
+ * <pre>
+ * POST /api/jobs?type=personal_color  (multipart file 또는 {"image_base64": ...})
+ * → 202 {"job_id":"...","state":"queued","type":"personal_color",...,"poll_url":"/api/jobs/...","events_url":"/api/jobs/.../events"}
+ * GET /api/jobs/{id}
+ * → 200 {"job_id":"...","state":"done",...,"result":{"http_status":200,"status":"ok","season":"spring",...}}
+ * </pre>
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class AnalysisJobController {
+
+    private final AnalysisJobService service;
+    private final PythonApiProperties props;
+
+    private static AnalysisJob.Type type(String type) {
+        try {
+            return AnalysisJob.Type.from(type);
+        } catch (IllegalArgumentException e) {
+            throw new AnalysisRejectedException(HttpStatus.BAD_REQUEST, "INVALID_REQUEST", e.getMessage(), null);
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(AnalysisJob job) {
+        String poll = "/api/jobs/" + job.getId();
+        Map<String, Object> body = new LinkedHashMap<>(job.snapshot());
+        body.put("poll_url", poll);
+        body.put("events_url", poll + "/events");
+        return ResponseEntity.accepted()
+                .location(URI.create(poll))
+                .header("X-Trace-Id", job.getTraceId())
+                .body(body);
+    }
+
+    // ----- 접수: 파일 -----
+    @PostMapping(
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<Map<String, Object>> submitFile(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "personal_color") String type,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return accepted(service.submitFile(type(type), file, debug, exifCorrection, traceId, acceptLanguage));
+    }
+
+    // ----- 접수: JSON (image_base64) -----
+    @PostMapping(
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<Map<String, Object>> submitJson(
+            DecodedImageRequest body,
+            @RequestParam(defaultValue = "personal_color") String type,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return accepted(service.submitJson(type(type), body, debug, traceId, acceptLanguage));
+    }
+
+    // ----- 폴링 -----
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
+        AnalysisJob job = service.get(id);
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok().header("X-Trace-Id", job.getTraceId());
+        if (!job.getState().isFinished()) {
+            res.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return res.body(job.snapshot());
+    }
+
+    // ----- SSE: 상태가 바뀔 때마다 event: queued|running|done|failed, 완료 후 종료 -----
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> events(@PathVariable String id) {
+        AnalysisJob job = service.get(id);
+        Flux<ServerSentEvent<Map<String, Object>>> states = job.events()
+                .map(snapshot -> ServerSentEvent.<Map<String, Object>>builder(snapshot)
+                        .id(job.getId())
+                        .event(String.valueOf(snapshot.get("state")))
+                        .build());
+        Flux<ServerSentEvent<Map<String, Object>>> heartbeat = Flux.interval(props.getJobs().getSseHeartbeat())
+                .map(i -> ServerSentEvent.<Map<String, Object>>builder().comment("keep-alive").build())
+                .takeUntilOther(job.events().then());
+        return Flux.merge(states, heartbeat);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
+
+/** FastAPI 호출 전 거절된 요청을 {status, code, message, message_ko} 형태로 응답합니다. */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(AnalysisRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(AnalysisRejectedException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "error");
+        body.put("code", e.getCode());
+        body.put("message", e.getMessage());
+
+        HttpHeaders headers = new HttpHeaders();
+        if (e.getRetryAfter() != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+        }
+        return ResponseEntity.status(e.getStatus()).headers(headers).body(addKoreanLabels(body));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.service.BatchAnalysisService;
+import com.example.dongjubeauty.service.BatchAnalysisService.Kind;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 배치 분석 API.
+ * 응답은 application/x-ndjson 으로, 항목이 끝나는 순서대로 한 줄씩 내려갑니다.
+ * 각 줄: {"index":0,"type":"personal_color","http_status":200,"status":"ok",...,"message_ko":"..."}
+ * types 로 분석 종류(personal_color, face_shape)를 하나 이상 지정합니다.
+ */
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchAnalysisController {
+
+    private static final String NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final BatchAnalysisService service;
+
+    private static Set<Kind> kinds(List<String> types) {
+        Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+        try {
+            types.forEach(t -> kinds.add(Kind.from(t)));
+        } catch (IllegalArgumentException e) {
+            throw new AnalysisRejectedException(HttpStatus.BAD_REQUEST, "INVALID_REQUEST", e.getMessage(), null);
+        }
+        return kinds;
+    }
+
+    // ----- 파일 배치 (files 파트 여러 개) -----
+    @PostMapping(
+            value = "/analyze",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = NDJSON
+    )
+    public Flux<Map<String, Object>> analyzeFiles(
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam(defaultValue = "personal_color") List<String> types,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return service.analyzeFiles(files, kinds(types), debug, exifCorrection, traceId, acceptLanguage)
+                .contextWrite(ClientContext.capture());
+    }
+
+    // ----- JSON 배치 (AnalyzeRequest 배열) -----
+    @PostMapping(
+            value = "/analyze",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = NDJSON
+    )
+    public Flux<Map<String, Object>> analyzeJson(
+            @RequestBody List<AnalyzeRequest> bodies,
+            @RequestParam(defaultValue = "personal_color") List<String> types,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return service.analyzeJson(bodies, kinds(types), debug, traceId, acceptLanguage)
+                .contextWrite(ClientContext.capture());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /api 요청의 호출자 정보({@link ClientContext})를 요청 스레드에 묶습니다.
+ * <ul>
+ *   <li>클라이언트: python.api.scheduler.client-header 값. 검증되지 않은 헤더이므로 trust-client-header(앞단 게이트웨이가 설정)이거나
+ *       known-clients·client-weights 에 있는 값일 때만 쓰고, 나머지는 원격 주소</li>
+ *   <li>우선순위: /api/batch·/api/jobs, 쿼리의 debug=true, X-Priority: bulk 이면 BULK, 나머지는 INTERACTIVE</li>
+ *   <li>제한 시간: X-Request-Timeout(ms) 이 있으면 지금부터 그 시간까지만 대기열에서 기다림 (비동기 작업 제외)</li>
+ * </ul>
+ * 멀티파트 본문을 미리 해석하지 않도록 debug 는 쿼리 문자열에서만 봅니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final PythonApiProperties props;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        ClientContext.Scope scope = ClientContext.bind(resolve(request, props.getScheduler()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+
+    static ClientContext resolve(HttpServletRequest request, PythonApiProperties.Scheduler conf) {
+        String client = request.getHeader(conf.getClientHeader());
+        client = client == null ? "" : client.strip();
+        if (client.isEmpty() || !(conf.isTrustClientHeader() || conf.isKnownClient(client))) {
+            client = "ip:" + request.getRemoteAddr();
+        }
+        boolean debug = debugRequested(request.getQueryString());
+        String uri = request.getRequestURI();
+        boolean job = uri.startsWith("/api/jobs");
+        boolean bulk = debug
+                || job
+                || uri.startsWith("/api/batch/")
+                || "bulk".equalsIgnoreCase(request.getHeader(conf.getPriorityHeader()));
+        return new ClientContext(client,
+                bulk ? ClientContext.Priority.BULK : ClientContext.Priority.INTERACTIVE,
+                debug,
+                job ? 0 : deadline(request.getHeader(conf.getDeadlineHeader()))); // 작업은 접수 후 호출자가 기다리지 않음
+    }
+
+    private static boolean debugRequested(String query) {
+        if (query == null) {
+            return false;
+        }
+        for (String param : query.split("&")) {
+            if (param.equalsIgnoreCase("debug=true")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 제한 시간(ms) → System.nanoTime 기준 시각 (없거나 잘못된 값이면 0) */
+    private static long deadline(String timeoutMillis) {
+        if (timeoutMillis == null || timeoutMillis.isBlank()) {
+            return 0;
+        }
+        try {
+            long millis = Long.parseLong(timeoutMillis.strip());
+            if (millis <= 0) {
+                return 0;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            return deadline == 0 ? 1 : deadline;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.service.CombinedAnalysisService;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.example.dongjubeauty.service.AnalysisResults.statusOf;
+import static com.example.dongjubeauty.web.PersonalColorController.withTraceHeader;
+
+/**
+ * 퍼스널 컬러 + 얼굴형 통합 분석 API.
+ * 한쪽만 성공해도 200(status=partial), 둘 다 실패하면 퍼스널 컬러 쪽 오류 상태로 응답합니다.
+ */
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class CombinedAnalysisController {
+
+    private final CombinedAnalysisService service;
+
+    @PostMapping(
+            value = "/analyze/combined",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Map<String, Object>>> analyzeFile(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return service.analyzeFile(file, debug, exifCorrection, traceId, acceptLanguage)
+                .map(res -> {
+                    ResponseEntity<Map<String, Object>> ok = withTraceHeader(res);
+                    return ResponseEntity.status(statusOf(res)).headers(ok.getHeaders()).body(res);
+                })
+                .contextWrite(ClientContext.capture());
+    }
+}
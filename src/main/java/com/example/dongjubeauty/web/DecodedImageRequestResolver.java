@@ -0,0 +1,56 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.util.Base64ImageReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link DecodedImageRequest} 파라미터를 요청 본문에서 스트리밍으로 읽어 채웁니다.
+ * image_base64 가 없거나 깨졌으면 400 INVALID_IMAGE, 너무 크면 413 IMAGE_TOO_LARGE 입니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DecodedImageRequestResolver implements HandlerMethodArgumentResolver {
+
+    private final ObjectMapper objectMapper;
+    private final ImageProperties props;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return DecodedImageRequest.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public DecodedImageRequest resolveArgument(MethodParameter parameter,
+                                               ModelAndViewContainer mavContainer,
+                                               NativeWebRequest webRequest,
+                                               WebDataBinderFactory binderFactory) throws IOException {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        long max = props.getJson().getMaxImageSize().toBytes();
+        // base64 4글자 → 3바이트
+        long expected = Math.min(max, Math.max(0, request.getContentLengthLong()) / 4 * 3);
+
+        try (InputStream body = request.getInputStream()) {
+            return Base64ImageReader.read(body, objectMapper, max, (int) expected);
+        } catch (Base64ImageReader.TooLargeException e) {
+            throw AnalysisRejectedException.imageTooLarge(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            throw AnalysisRejectedException.invalidImage(e.getMessage());
+        } catch (IOException e) {
+            throw AnalysisRejectedException.invalidImage("이미지 데이터를 읽을 수 없습니다: " + e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.dongjubeauty.web;
 
-import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
 import com.example.dongjubeauty.service.PersonalColorService;
-import jakarta.validation.Valid;
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import com.example.dongjubeauty.util.StreamingLocalizer;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 
@@ -23,9 +30,10 @@ import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
 public class PersonalColorController {
 
     private final PersonalColorService service;
+    private final AnalysisMetrics metrics;
 
     /** 응답 바디의 traceId를 헤더(X-Trace-Id)로도 실어 반환 */
-    private ResponseEntity<Map<String, Object>> withTraceHeader(Map<String, Object> res) {
+    static ResponseEntity<Map<String, Object>> withTraceHeader(Map<String, Object> res) {
         String traceId = res != null ? Objects.toString(res.get("traceId"), null) : null;
         HttpHeaders headers = new HttpHeaders();
         if (traceId != null && !traceId.isBlank()) {
@@ -34,19 +42,64 @@ public class PersonalColorController {
         return ResponseEntity.ok().headers(headers).body(res);
     }
 
-    // ----- 퍼스널 컬러: JSON -----
+    /**
+     * FastAPI 응답 문자열에 Map 으로 풀지 않고 바로 한국어 라벨을 붙여 반환 (상태 코드 유지).
+     * JSON 이 깨져 있으면 원문을 그대로 돌려주고, 응답이나 본문이 없으면 빈 본문을 돌려줍니다 (응답이 없으면 502).
+     */
+    static ResponseEntity<byte[]> localizedJson(ResponseEntity<String> res) {
+        if (res == null || res.getBody() == null) {
+            return ResponseEntity.status(res != null ? res.getStatusCode() : HttpStatus.BAD_GATEWAY)
+                    .body(new byte[0]);
+        }
+        String body = res.getBody();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length() + 256);
+        String traceId;
+        try {
+            traceId = StreamingLocalizer.localize(body, out);
+        } catch (IOException e) {
+            return ResponseEntity.status(res.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (traceId != null && !traceId.isBlank()) {
+            headers.add("X-Trace-Id", traceId);
+        }
+        return ResponseEntity.status(res.getStatusCode())
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out.toByteArray());
+    }
+
+    /** 컨트롤러 진입까지 걸린 시간(멀티파트/본문 해석)과 요청 이미지 크기 */
+    private void received(AnalysisEndpoint endpoint, HttpServletRequest request, long bytes) {
+        long parseNanos = RequestMetricsFilter.elapsedNanos(request);
+        if (parseNanos >= 0) {
+            metrics.record(endpoint, AnalysisMetrics.Phase.PARSE, null, parseNanos);
+        }
+        metrics.payload(endpoint, AnalysisMetrics.Direction.REQUEST, bytes);
+    }
+
+    private Map<String, Object> localized(AnalysisEndpoint endpoint, Map<String, Object> res) {
+        return metrics.time(endpoint, AnalysisMetrics.Phase.LOCALIZE, null, () -> addKoreanLabels(res));
+    }
+
+    // ----- 퍼스널 컬러: JSON (image_base64 는 본문을 읽으면서 바로 디코딩) -----
     @PostMapping(
             value = "/analyze",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     public ResponseEntity<Map<String, Object>> analyzeJson(
-            @Valid @RequestBody AnalyzeRequest body,
+            DecodedImageRequest body,
             @RequestParam(defaultValue = "false") boolean debug,
             @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
-            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            HttpServletRequest request
     ) {
-        Map<String, Object> res = addKoreanLabels(service.analyzeJson(body, debug, traceId, acceptLanguage));
+        received(AnalysisEndpoint.ANALYZE_JSON, request, body.length());
+        Map<String, Object> res = localized(AnalysisEndpoint.ANALYZE_JSON,
+                service.analyzeJson(body, debug, traceId, acceptLanguage));
         return withTraceHeader(res);
     }
 
@@ -56,14 +109,17 @@ public class PersonalColorController {
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<String> analyzeFile(
+    public ResponseEntity<byte[]> analyzeFile(
             @RequestPart("file") MultipartFile file,
             @RequestParam(defaultValue = "false") boolean debug,
             @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
             @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
-            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            HttpServletRequest request
     ) {
-        return service.analyzeFile(file, debug, exifCorrection, traceId, acceptLanguage);
+        received(AnalysisEndpoint.ANALYZE_FILE, request, file.getSize());
+        ResponseEntity<String> res = service.analyzeFile(file, debug, exifCorrection, traceId, acceptLanguage);
+        return metrics.time(AnalysisEndpoint.ANALYZE_FILE, AnalysisMetrics.Phase.LOCALIZE, null, () -> localizedJson(res));
     }
 
     // ----- 얼굴형: JSON -----
@@ -73,12 +129,15 @@ public class PersonalColorController {
             produces = MediaType.APPLICATION_JSON_VALUE
     )
     public ResponseEntity<Map<String, Object>> faceShapeJson(
-            @Valid @RequestBody AnalyzeRequest body,
+            DecodedImageRequest body,
             @RequestParam(defaultValue = "false") boolean debug,
             @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
-            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            HttpServletRequest request
     ) {
-        Map<String, Object> res = addKoreanLabels(service.faceShapeJson(body, debug, traceId, acceptLanguage));
+        received(AnalysisEndpoint.FACE_SHAPE_JSON, request, body.length());
+        Map<String, Object> res = localized(AnalysisEndpoint.FACE_SHAPE_JSON,
+                service.faceShapeJson(body, debug, traceId, acceptLanguage));
         return withTraceHeader(res);
     }
 
@@ -93,12 +152,15 @@ public class PersonalColorController {
             @RequestParam(defaultValue = "false") boolean debug,
             @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
             @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
-            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage,
+            HttpServletRequest request
     ) {
         if (file == null || file.isEmpty()) {
             return withTraceHeader(Map.of("status", "error", "code", "INVALID_IMAGE", "message", "빈 파일입니다."));
         }
-        Map<String, Object> res = addKoreanLabels(service.faceShapeFile(file, debug, exifCorrection, traceId, acceptLanguage));
+        received(AnalysisEndpoint.FACE_SHAPE_FILE, request, file.getSize());
+        Map<String, Object> res = localized(AnalysisEndpoint.FACE_SHAPE_FILE,
+                service.faceShapeFile(file, debug, exifCorrection, traceId, acceptLanguage));
         return withTraceHeader(res);
     }
 }
@@ -0,0 +1,107 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.service.PersonalColorService;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static com.example.dongjubeauty.util.LocalizationUtils.addKoreanLabels;
+import static com.example.dongjubeauty.web.PersonalColorController.localizedJson;
+import static com.example.dongjubeauty.web.PersonalColorController.withTraceHeader;
+
+/**
+ * {@link PersonalColorController} 의 논블로킹 버전.
+ * Mono 를 반환하므로 FastAPI 추론을 기다리는 동안 Tomcat 워커를 점유하지 않습니다.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@RequiredArgsConstructor
+@Validated
+public class ReactivePersonalColorController {
+
+    private final PersonalColorService service;
+
+    private static Mono<ResponseEntity<Map<String, Object>>> localized(Mono<Map<String, Object>> result) {
+        return result
+                .map(res -> withTraceHeader(addKoreanLabels(res)))
+                .switchIfEmpty(Mono.fromSupplier(() -> withTraceHeader(addKoreanLabels(null))))
+                .contextWrite(ClientContext.capture());
+    }
+
+    // ----- 퍼스널 컬러: JSON -----
+    @PostMapping(
+            value = "/analyze",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Map<String, Object>>> analyzeJson(
+            @Valid @RequestBody AnalyzeRequest body,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return localized(service.analyzeJsonReactive(body, debug, traceId, acceptLanguage));
+    }
+
+    // ----- 퍼스널 컬러: 파일 -----
+    @PostMapping(
+            value = "/analyze/file",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<byte[]>> analyzeFile(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return service.analyzeFileReactive(file, debug, exifCorrection, traceId, acceptLanguage)
+                .map(PersonalColorController::localizedJson)
+                .switchIfEmpty(Mono.fromSupplier(() -> localizedJson(null)))
+                .contextWrite(ClientContext.capture());
+    }
+
+    // ----- 얼굴형: JSON -----
+    @PostMapping(
+            value = "/face-shape",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Map<String, Object>>> faceShapeJson(
+            @Valid @RequestBody AnalyzeRequest body,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        return localized(service.faceShapeJsonReactive(body, debug, traceId, acceptLanguage));
+    }
+
+    // ----- 얼굴형: 파일 -----
+    @PostMapping(
+            value = "/face-shape/file",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Mono<ResponseEntity<Map<String, Object>>> faceShapeFile(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean debug,
+            @RequestParam(name = "exif_correction", defaultValue = "true") boolean exifCorrection,
+            @RequestHeader(value = "X-Trace-Id", required = false) String traceId,
+            @RequestHeader(value = "Accept-Language", required = false) String acceptLanguage
+    ) {
+        if (file == null || file.isEmpty()) {
+            return Mono.just(withTraceHeader(Map.of("status", "error", "code", "INVALID_IMAGE", "message", "빈 파일입니다.")));
+        }
+        return localized(service.faceShapeFileReactive(file, debug, exifCorrection, traceId, acceptLanguage));
+    }
+}
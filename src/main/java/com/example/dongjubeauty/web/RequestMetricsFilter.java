@@ -0,0 +1,47 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.service.metrics.TraceExemplars;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * /api 요청의 시작 시각을 남기고(컨트롤러 진입까지 = 멀티파트/본문 해석 시간),
+ * 요청 스레드에 X-Trace-Id 를 묶어 이 스레드에서 기록되는 메트릭에 exemplar 로 붙게 합니다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String STARTED_AT = RequestMetricsFilter.class.getName() + ".startedAt";
+
+    /** 필터 통과 후 경과 시간 (필터를 거치지 않았으면 -1) */
+    static long elapsedNanos(HttpServletRequest request) {
+        return request.getAttribute(STARTED_AT) instanceof Long startedAt ? System.nanoTime() - startedAt : -1;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        TraceExemplars.Scope scope = TraceExemplars.bind(request.getHeader("X-Trace-Id"));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+        }
+    }
+}
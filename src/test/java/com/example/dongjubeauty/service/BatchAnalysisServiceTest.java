@@ -0,0 +1,115 @@
+package com.example.dongjubeauty.service;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.BatchAnalysisService.Kind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchAnalysisServiceTest {
+
+    private final PersonalColorService service = mock(PersonalColorService.class);
+    private final PythonApiProperties props = new PythonApiProperties();
+    private final BatchAnalysisService batch =
+            new BatchAnalysisService(service, props, new AnalysisResults(new ObjectMapper()));
+
+    private static List<MultipartFile> files(int count) {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(new MockMultipartFile("files", "img-" + i + ".jpg", "image/jpeg", new byte[]{(byte) i}));
+        }
+        return files;
+    }
+
+    private void faceShape(String traceId, Mono<Map<String, Object>> result) {
+        when(service.faceShapeFileReactive(any(MultipartFile.class), anyBoolean(), anyBoolean(), eq(traceId), isNull()))
+                .thenReturn(result);
+    }
+
+    @Test
+    void emitsItemsInCompletionOrderWithIndexTypeAndStatus() {
+        Sinks.One<Map<String, Object>> first = Sinks.one();
+        Sinks.One<Map<String, Object>> second = Sinks.one();
+        faceShape("t-0", first.asMono());
+        faceShape("t-1", second.asMono());
+
+        List<Map<String, Object>> lines = new CopyOnWriteArrayList<>();
+        batch.analyzeFiles(files(2), EnumSet.of(Kind.FACE_SHAPE), false, true, "t", null).subscribe(lines::add);
+
+        second.tryEmitValue(Map.of("status", "ok", "face_shape", "oval"));
+        first.tryEmitValue(Map.of("status", "ok", "face_shape", "round"));
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).containsEntry("index", 1).containsEntry("type", "face_shape")
+                .containsEntry("http_status", 200).containsEntry("filename", "img-1.jpg")
+                .containsEntry("face_shape_ko", "계란형");
+        assertThat(lines.get(1)).containsEntry("index", 0).containsEntry("filename", "img-0.jpg");
+    }
+
+    @Test
+    void failedItemIsLocalizedErrorAndOthersContinue() {
+        faceShape("t-0", Mono.error(AnalysisRejectedException.invalidImage("깨진 이미지")));
+        faceShape("t-1", Mono.just(Map.of("status", "ok", "face_shape", "oval")));
+
+        List<Map<String, Object>> lines = batch.analyzeFiles(files(2), EnumSet.of(Kind.FACE_SHAPE), false, true, "t", null)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertThat(lines).hasSize(2);
+        Map<String, Object> failed = lines.stream().filter(l -> l.get("index").equals(0)).findFirst().orElseThrow();
+        assertThat(failed).containsEntry("http_status", 400).containsEntry("status", "error")
+                .containsEntry("code", "INVALID_IMAGE")
+                .containsEntry("message_ko", "이미지 데이터가 올바르지 않습니다.");
+        assertThat(lines).anySatisfy(l -> assertThat(l).containsEntry("index", 1).containsEntry("http_status", 200));
+    }
+
+    @Test
+    void rejectsBatchesOverMaxItems() {
+        props.getBatch().setMaxItems(2);
+
+        assertThatThrownBy(() -> batch.analyzeFiles(files(3), Set.of(Kind.FACE_SHAPE), false, true, null, null)
+                .blockLast(Duration.ofSeconds(5)))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("BATCH_TOO_LARGE"));
+    }
+
+    @Test
+    void keepsAtMostParallelismCallsInFlight() {
+        props.getBatch().setParallelism(2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(service.faceShapeFileReactive(any(MultipartFile.class), anyBoolean(), anyBoolean(), anyString(), isNull()))
+                .thenAnswer(inv -> Mono.delay(Duration.ofMillis(20))
+                        .thenReturn(Map.<String, Object>of("status", "ok"))
+                        .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        // 결과를 내보내기 전에 줄여야 다음 항목 구독과 겹쳐 세지 않음
+                        .doOnTerminate(inFlight::decrementAndGet));
+
+        List<Map<String, Object>> lines = batch.analyzeFiles(files(6), EnumSet.of(Kind.FACE_SHAPE), false, true, "t", null)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertThat(lines).hasSize(6);
+        assertThat(maxInFlight).hasValue(2);
+    }
+}
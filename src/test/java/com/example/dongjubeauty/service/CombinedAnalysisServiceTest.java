@@ -0,0 +1,52 @@
+package com.example.dongjubeauty.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.InstanceOfAssertFactories.map;
+
+class CombinedAnalysisServiceTest {
+
+    private static final Map<String, Long> TIMING = Map.of("total", 10L);
+
+    private static Map<String, Object> ok(String field, String value) {
+        return AnalysisResults.withStatus(Map.of("status", "ok", field, value), 200);
+    }
+
+    private static Map<String, Object> failed(String code, int status) {
+        return AnalysisResults.withStatus(AnalysisResults.error(code, "실패"), status);
+    }
+
+    @Test
+    void bothSucceededIsOk() {
+        Map<String, Object> out = CombinedAnalysisService.merge(
+                ok("season", "spring"), ok("face_shape", "oval"), "t-1", TIMING);
+
+        assertThat(out).containsEntry("status", "ok").containsEntry("traceId", "t-1").doesNotContainKey("code");
+        assertThat(out.get("personal_color")).asInstanceOf(map(String.class, Object.class))
+                .containsEntry("season", "spring");
+        assertThat(out.get("timing_ms")).isEqualTo(TIMING);
+    }
+
+    @Test
+    void oneFailedIsPartialWithSucceededResultKept() {
+        Map<String, Object> out = CombinedAnalysisService.merge(
+                failed("NO_FACE", 422), ok("face_shape", "oval"), null, TIMING);
+
+        assertThat(out).containsEntry("status", "partial").containsEntry("code", "PARTIAL_RESULT")
+                .doesNotContainKey("http_status");
+        assertThat(out.get("face_shape")).asInstanceOf(map(String.class, Object.class))
+                .containsEntry("face_shape", "oval");
+    }
+
+    @Test
+    void bothFailedUsesPersonalColorStatusAndCode() {
+        Map<String, Object> out = CombinedAnalysisService.merge(
+                failed("NO_FACE", 422), failed("UPSTREAM_ERROR", 502), null, TIMING);
+
+        assertThat(out).containsEntry("status", "error").containsEntry("code", "NO_FACE")
+                .containsEntry("http_status", 422).containsKey("message_ko");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.dongjubeauty.service;
+
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import com.example.dongjubeauty.util.ImageHashUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreparedUploadTest {
+
+    private static final byte[] IMAGE = {1, 2, 3, 4};
+
+    /** 요청이 끝나면 임시 파일이 지워지는 서블릿 업로드 흉내 */
+    private static final class RequestScopedUpload extends MockMultipartFile {
+        final AtomicBoolean requestEnded = new AtomicBoolean();
+
+        RequestScopedUpload() {
+            super("file", "a.jpg", "image/jpeg", IMAGE);
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            check();
+            return super.getBytes();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            check();
+            return super.getInputStream();
+        }
+
+        private void check() throws IOException {
+            if (requestEnded.get()) {
+                throw new NoSuchFileException("upload.tmp");
+            }
+        }
+    }
+
+    @Test
+    void hashAndPreprocessRunOnceForAllAnalyses() {
+        AtomicInteger preprocessed = new AtomicInteger();
+        List<AnalysisMetrics.Phase> phases = new CopyOnWriteArrayList<>();
+        PreparedUpload upload = new PreparedUpload(new MockMultipartFile("file", "a.jpg", "image/jpeg", IMAGE), true,
+                f -> Mono.fromSupplier(() -> {
+                    preprocessed.incrementAndGet();
+                    return new PreparedUpload.Body(new MultipartBodyBuilder(), null);
+                }),
+                (phase, nanos) -> phases.add(phase));
+
+        // 퍼스널 컬러·얼굴형 두 분석이 같은 업로드를 씀
+        String hash = upload.imageHash().block();
+        assertThat(upload.imageHash().block()).isEqualTo(hash).isEqualTo(ImageHashUtils.sha256(IMAGE));
+        assertThat(upload.body().block()).isSameAs(upload.body().block());
+
+        assertThat(preprocessed).hasValue(1);
+        assertThat(phases).containsExactly(AnalysisMetrics.Phase.HASH, AnalysisMetrics.Phase.PREPROCESS);
+    }
+
+    @Test
+    void preprocessingStillReadsUploadAfterRequestEnds() {
+        RequestScopedUpload source = new RequestScopedUpload();
+        AtomicReference<byte[]> sent = new AtomicReference<>();
+        PreparedUpload upload = new PreparedUpload(source, true,
+                f -> Mono.delay(Duration.ofMillis(50)).map(tick -> {
+                    try {
+                        sent.set(f.getBytes());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new PreparedUpload.Body(new MultipartBodyBuilder(), null);
+                }),
+                (phase, nanos) -> { });
+
+        Mono<PreparedUpload.Body> body = upload.body();
+        var pending = body.toFuture();
+        source.requestEnded.set(true); // 선행 요청이 끝나 임시 파일이 지워짐
+
+        assertThat(pending.join()).isNotNull();
+        assertThat(sent.get()).containsExactly(IMAGE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.dto.AnalyzeRequest;
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisKeyTest {
+
+    private static AnalyzeRequest.Options options(Boolean debug) {
+        AnalyzeRequest.Options options = new AnalyzeRequest.Options();
+        options.setDebug(debug);
+        return options;
+    }
+
+    private static AnalyzeRequest request(Boolean debug) {
+        AnalyzeRequest body = new AnalyzeRequest();
+        body.setImageBase64("aGVsbG8=");
+        body.setOptions(options(debug));
+        return body;
+    }
+
+    @Test
+    void bodyDebugOptionIsPartOfTheKey() {
+        AnalysisKey plain = AnalysisKey.of(AnalysisEndpoint.ANALYZE_JSON, request(null), false, "ko");
+        AnalysisKey bodyDebug = AnalysisKey.of(AnalysisEndpoint.ANALYZE_JSON, request(true), false, "ko");
+        AnalysisKey queryDebug = AnalysisKey.of(AnalysisEndpoint.ANALYZE_JSON, request(false), true, "ko");
+
+        assertThat(plain.debug()).isFalse();
+        assertThat(bodyDebug.debug()).isTrue();
+        assertThat(bodyDebug).isNotEqualTo(plain).isEqualTo(queryDebug);
+    }
+
+    @Test
+    void decodedRequestUsesTheSameEffectiveDebugFlag() {
+        byte[] image = {1, 2, 3};
+        DecodedImageRequest bodyDebug = new DecodedImageRequest(image, image.length, "h", options(true));
+        DecodedImageRequest plain = new DecodedImageRequest(image, image.length, "h", options(null));
+
+        assertThat(AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_JSON, bodyDebug, false, "").debug()).isTrue();
+        assertThat(AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_JSON, plain, false, "").debug()).isFalse();
+        assertThat(AnalysisKey.of(AnalysisEndpoint.FACE_SHAPE_JSON, plain, true, "").debug()).isTrue();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisResultCacheTest {
+
+    private static AnalysisKey key(int i, boolean debug) {
+        return new AnalysisKey(AnalysisEndpoint.ANALYZE_FILE, "img-" + i, debug, true, "");
+    }
+
+    @Test
+    void weighsResultsByBodyLength() {
+        String overlay = "x".repeat(2_000_000);
+        assertThat(AnalysisResultCache.weigh(ResponseEntity.ok(overlay))).isGreaterThan(2_000_000);
+        assertThat(AnalysisResultCache.weigh(Map.of("season", "spring", "overlays", List.of(overlay))))
+                .isGreaterThan(2_000_000);
+        assertThat(AnalysisResultCache.weigh(Map.of("season", "spring", "tone", "warm"))).isLessThan(1_000);
+    }
+
+    @Test
+    void largeDebugResponsesAreEvictedToStayWithinMaxMemory() throws InterruptedException {
+        PythonApiProperties props = new PythonApiProperties();
+        props.getCache().setMaxMemory(DataSize.ofMegabytes(1));
+        AnalysisResultCache cache = new AnalysisResultCache(props, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 20; i++) {
+            cache.put(key(i, true), ResponseEntity.ok("x".repeat(300_000)));
+        }
+        // 제거는 Caffeine 정리 작업에서 비동기로 일어남
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (retained(cache) > 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(retained(cache)).isLessThanOrEqualTo(3);
+    }
+
+    private static int retained(AnalysisResultCache cache) {
+        int n = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.getIfPresent(key(i, true)) != null) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
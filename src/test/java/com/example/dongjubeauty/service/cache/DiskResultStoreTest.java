@@ -0,0 +1,143 @@
+package com.example.dongjubeauty.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskResultStoreTest {
+
+    private static final long TTL = 60_000;
+
+    @TempDir
+    Path dir;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private DiskResultStore open() throws IOException {
+        return DiskResultStore.open(dir, 1_000, 256L << 20, now::get);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(DiskResultStore.Entry e) {
+        return e == null ? null : new String(e.value(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void latestValueWinsAndSurvivesReopen() throws IOException {
+        try (DiskResultStore store = open()) {
+            assertThat(store.put(bytes("a"), (byte) 1, bytes("{\"v\":1}"), now.get() + TTL)).isTrue();
+            assertThat(store.put(bytes("a"), (byte) 1, bytes("{\"v\":2}"), now.get() + TTL)).isTrue();
+            store.put(bytes("b"), (byte) 2, bytes("body"), now.get() + TTL);
+
+            assertThat(text(store.get(bytes("a")))).isEqualTo("{\"v\":2}");
+            assertThat(store.get(bytes("c"))).isNull();
+        }
+        try (DiskResultStore store = open()) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(text(store.get(bytes("a")))).isEqualTo("{\"v\":2}");
+            assertThat(store.get(bytes("b")).type()).isEqualTo((byte) 2);
+
+            // 재시작 뒤 이어 쓴 레코드가 기존 레코드를 덮지 않음
+            store.put(bytes("c"), (byte) 1, bytes("new"), now.get() + TTL);
+            assertThat(text(store.get(bytes("b")))).isEqualTo("body");
+            assertThat(text(store.get(bytes("c")))).isEqualTo("new");
+        }
+    }
+
+    @Test
+    void expiredEntriesMissAndCompactionDropsThem() throws IOException {
+        try (DiskResultStore store = open()) {
+            store.put(bytes("short"), (byte) 1, bytes("x"), now.get() + 10);
+            store.put(bytes("long"), (byte) 1, bytes("y"), now.get() + TTL);
+            store.put(bytes("long"), (byte) 1, bytes("z"), now.get() + TTL);
+            now.addAndGet(100);
+
+            assertThat(store.get(bytes("short"))).isNull();
+            long before = store.logBytes();
+
+            assertThat(store.compact()).isEqualTo(1);
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.logBytes()).isLessThan(before);
+            assertThat(text(store.get(bytes("long")))).isEqualTo("z");
+        }
+        try (DiskResultStore store = open(); var files = Files.list(dir)) {
+            assertThat(text(store.get(bytes("long")))).isEqualTo("z");
+            assertThat(files.map(f -> f.getFileName().toString()))
+                    .containsExactlyInAnyOrder("CURRENT", "results-000002.log", "results-000002.idx");
+        }
+    }
+
+    @Test
+    void corruptedRecordIsAMiss() throws IOException {
+        try (DiskResultStore store = open()) {
+            store.put(bytes("k"), (byte) 1, bytes("value"), now.get() + TTL);
+        }
+        Path log = dir.resolve("results-000001.log");
+        ByteBuffer last = ByteBuffer.allocate(1);
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long at = 18 + 1 + 1 + 4; // 값 "value" 의 마지막 바이트
+            ch.read(last, at);
+            last.put(0, (byte) (last.get(0) ^ 0x7F));
+            ch.write(last.rewind(), at);
+        }
+        try (DiskResultStore store = open()) {
+            assertThat(store.get(bytes("k"))).isNull();
+        }
+    }
+
+    @Test
+    void readersSeeCompleteRecordsWhileWriting() throws Exception {
+        try (DiskResultStore store = open()) {
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                Future<?> writer = pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        store.put(bytes("k" + (i % 50)), (byte) 1, bytes("v" + i), now.get() + TTL);
+                    }
+                    return null;
+                });
+                List<Future<Integer>> readers = new ArrayList<>();
+                for (int r = 0; r < 3; r++) {
+                    readers.add(pool.submit(() -> {
+                        int seen = 0;
+                        while (!writer.isDone()) {
+                            for (int i = 0; i < 50; i++) {
+                                String v = text(store.get(bytes("k" + i)));
+                                if (v != null) {
+                                    assertThat(Integer.parseInt(v.substring(1)) % 50).isEqualTo(i);
+                                    seen++;
+                                }
+                            }
+                        }
+                        return seen;
+                    }));
+                }
+                writer.get();
+                for (Future<Integer> reader : readers) {
+                    reader.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            assertThat(text(store.get(bytes("k49")))).isEqualTo("v499");
+        }
+    }
+}
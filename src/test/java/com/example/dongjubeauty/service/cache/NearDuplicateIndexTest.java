@@ -0,0 +1,120 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.util.ImageHashUtils.PerceptualHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearDuplicateIndexTest {
+
+    private static final long HASH = 0x5A5A_F00F_1234_9876L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageProperties props = new ImageProperties();
+    private final AnalysisResultCache cache = new AnalysisResultCache(new PythonApiProperties(), registry);
+
+    private static AnalysisKey key(String imageHash, boolean debug) {
+        return key(AnalysisEndpoint.ANALYZE_FILE, imageHash, debug);
+    }
+
+    private static AnalysisKey key(AnalysisEndpoint endpoint, String imageHash, boolean debug) {
+        return new AnalysisKey(endpoint, imageHash, debug, true, "");
+    }
+
+    /** 무채색 평균 (Cb=Cr=128) */
+    private static PerceptualHash ph(long dHash) {
+        return new PerceptualHash(dHash, 128, 128);
+    }
+
+    private NearDuplicateIndex index() {
+        return new NearDuplicateIndex(props, cache, registry);
+    }
+
+    private double lookups(String outcome) {
+        return registry.get("analysis.reuse.lookups").tag("endpoint", "analyze_file").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void findsClosestCachedResultWithinThresholdForSameOptions() {
+        NearDuplicateIndex index = index();
+        cache.put(key("a", false), "result-a");
+        cache.put(key("b", false), "result-b");
+        cache.put(key("c", true), "result-c");
+        index.add(key("a", false), ph(HASH ^ 0b1111));   // 거리 4
+        index.add(key("b", false), ph(HASH ^ 0b1));      // 거리 1
+        index.add(key("c", true), ph(HASH));             // debug 결과는 인덱스에 넣지 않음
+
+        assertThat(index.<String>find(key("new", false), ph(HASH))).isEqualTo("result-b");
+        assertThat(index.<String>find(key("new", false), ph(HASH ^ 0xFF00_0000_0000L))).isNull(); // 거리 8 > 4
+        assertThat(index.<String>find(key("b", false), ph(HASH ^ 0b1))).isEqualTo("result-a");     // 자기 자신은 제외
+        assertThat(lookups("hit")).isEqualTo(2);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void debugResultsAreNeverIndexedOrReused() {
+        NearDuplicateIndex index = index();
+        cache.put(key("a", true), "debug-a");
+        cache.put(key("b", false), "result-b");
+        index.add(key("a", true), ph(HASH));
+        index.add(key("b", false), ph(HASH ^ 0b1));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.<String>find(key("new", true), ph(HASH))).isNull();
+        assertThat(index.<String>find(key("new", false), ph(HASH))).isEqualTo("result-b");
+        assertThat(lookups("miss")).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondCapacityAndSkipsExpiredResults() {
+        props.getNearDuplicate().setCapacity(2);
+        NearDuplicateIndex index = index();
+        cache.put(key("a", false), "result-a");
+        cache.put(key("b", false), "result-b");
+        index.add(key("a", false), ph(HASH));
+        index.add(key("b", false), ph(~HASH));
+        assertThat(index.<String>find(key("x", false), ph(HASH))).isEqualTo("result-a"); // a 가 최근 사용
+
+        index.add(key("c", false), ph(HASH >>> 32)); // 캐시에 없는 결과, b 를 밀어냄
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.<String>find(key("x", false), ph(~HASH))).isNull();
+        assertThat(index.<String>find(key("x", false), ph(HASH >>> 32))).isNull();
+        assertThat(lookups("expired")).isEqualTo(1);
+        assertThat(index.<String>find(key("x", false), ph(HASH))).isEqualTo("result-a");
+    }
+
+    @Test
+    void exactMatchOnlyWhenThresholdIsZero() {
+        props.getNearDuplicate().setThreshold(0);
+        NearDuplicateIndex index = index();
+        cache.put(key("a", false), "result-a");
+        index.add(key("a", false), ph(HASH));
+
+        assertThat(index.<String>find(key("x", false), ph(HASH))).isEqualTo("result-a");
+        assertThat(index.<String>find(key("x", false), ph(HASH ^ 1))).isNull();
+    }
+
+    @Test
+    void colorShiftedCopyIsNotReusedForPersonalColorButIsForFaceShape() {
+        NearDuplicateIndex index = index();
+        AnalysisKey color = key("a", false);
+        AnalysisKey shape = key(AnalysisEndpoint.FACE_SHAPE_FILE, "a", false);
+        cache.put(color, "season-a");
+        cache.put(shape, "shape-a");
+        index.add(color, ph(HASH));
+        index.add(shape, ph(HASH));
+
+        // 같은 사진을 따뜻한 톤으로 보정: 밝기 구조(dHash)는 같고 Cb 는 4 낮고 Cr 은 8 높음
+        PerceptualHash warm = new PerceptualHash(HASH ^ 0b1, 124, 136);
+        assertThat(index.<String>find(key("warm", false), warm)).isNull();
+        assertThat(index.<String>find(key(AnalysisEndpoint.FACE_SHAPE_FILE, "warm", false), warm)).isEqualTo("shape-a");
+
+        // 재압축 정도의 색 차이는 재사용
+        assertThat(index.<String>find(key("resent", false), new PerceptualHash(HASH ^ 0b1, 127, 130))).isEqualTo("season-a");
+    }
+}
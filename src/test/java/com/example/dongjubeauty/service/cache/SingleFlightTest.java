@@ -0,0 +1,133 @@
+package com.example.dongjubeauty.service.cache;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final AnalysisKey KEY =
+            new AnalysisKey(AnalysisEndpoint.ANALYZE_FILE, "abc", false, true, "");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(new PythonApiProperties(), registry);
+
+    @Test
+    void concurrentCallsShareOneUpstreamCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.execute(KEY, () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "result";
+                }, shared -> shared + "-shared")));
+            }
+            // 모든 호출이 합류할 때까지 선행 호출을 붙잡아 둔다
+            while (registry.counter("analysis.coalesced", "endpoint", "analyze_file").count() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).startsWith("result");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void errorIsPropagatedAndKeyIsReleased() {
+        assertThatThrownBy(() -> singleFlight.execute(KEY, () -> {
+            throw new IllegalStateException("boom");
+        }, s -> s)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute(KEY, () -> "next", s -> s)).isEqualTo("next");
+    }
+
+    @Test
+    void waiterStillGetsResultWhenLeaderCancels() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        Disposable leader = singleFlight.executeMono(KEY, () -> {
+            calls.incrementAndGet();
+            return upstream.asMono().doOnCancel(() -> cancelled.set(true));
+        }, s -> s).subscribe();
+        AtomicReference<String> shared = new AtomicReference<>();
+        singleFlight.<String>executeMono(KEY, Mono::never, s -> s + "-shared").subscribe(shared::set);
+
+        leader.dispose(); // 첫 요청의 클라이언트가 끊김
+        assertThat(cancelled).isFalse();
+        upstream.tryEmitValue("result");
+
+        assertThat(shared).hasValue("result-shared");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void upstreamIsCancelledOnlyWhenLastWaiterLeaves() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Disposable leader = singleFlight.executeMono(KEY,
+                () -> Mono.<String>never().doOnCancel(() -> cancelled.set(true)), s -> s).subscribe();
+        Disposable waiter = singleFlight.<String>executeMono(KEY, Mono::never, s -> s).subscribe();
+
+        leader.dispose();
+        assertThat(cancelled).isFalse();
+        waiter.dispose();
+        assertThat(cancelled).isTrue();
+
+        // 취소된 호출에는 합류하지 않고 새로 호출
+        assertThat(singleFlight.executeMono(KEY, () -> Mono.just("next"), s -> s).block()).isEqualTo("next");
+    }
+
+    @Test
+    void lastWaiterLeavingDropsNoErrors() {
+        List<Throwable> dropped = new CopyOnWriteArrayList<>();
+        Hooks.onErrorDropped(dropped::add);
+        try {
+            Disposable leader = singleFlight.executeMono(KEY, Mono::<String>never, s -> s).subscribe();
+            leader.dispose(); // 클라이언트 연결 끊김
+
+            assertThat(dropped).isEmpty();
+        } finally {
+            Hooks.resetOnErrorDropped();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageConversionExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ImageConversionExecutor executor;
+
+    private ImageConversionExecutor executor(int threads, int queue, Duration timeout) {
+        ImageProperties props = new ImageProperties();
+        props.getExecutor().setThreads(threads);
+        props.getExecutor().setQueueCapacity(queue);
+        props.getExecutor().setTaskTimeout(timeout);
+        executor = new ImageConversionExecutor(props, registry);
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsWithBusyWhenPoolAndQueueAreFull() throws Exception {
+        ImageConversionExecutor pool = executor(1, 0, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        pool.mono(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).subscribe();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> pool.call(() -> "second"))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("BUSY"));
+        assertThat(registry.get("image.convert.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void timesOutSlowTaskAsBusy() {
+        ImageConversionExecutor pool = executor(1, 4, Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> pool.call(() -> {
+            Thread.sleep(5_000);
+            return "late";
+        })).isInstanceOf(AnalysisRejectedException.class);
+        assertThat(registry.get("image.convert.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void propagatesTaskIOExceptionAndRecordsTimings() throws IOException {
+        ImageConversionExecutor pool = executor(2, 4, Duration.ofSeconds(5));
+
+        assertThat(pool.call(() -> "ok")).isEqualTo("ok");
+        assertThatThrownBy(() -> pool.call(() -> {
+            throw new IOException("decode failed");
+        })).isInstanceOf(IOException.class).hasMessage("decode failed");
+        assertThat(registry.get("image.convert.time").timer().count()).isEqualTo(2);
+        assertThat(registry.get("executor.queued").tag("name", "image.convert").gauge()).isNotNull();
+    }
+}
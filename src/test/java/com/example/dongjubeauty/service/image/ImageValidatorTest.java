@@ -0,0 +1,103 @@
+package com.example.dongjubeauty.service.image;
+
+import com.example.dongjubeauty.config.ImageProperties;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.support.ImageFixtures;
+import com.example.dongjubeauty.util.ImageValidationUtils.Quality;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Offset.offset;
+
+class ImageValidatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImageProperties props = new ImageProperties();
+
+    private ImageValidator validator() {
+        return new ImageValidator(props, registry);
+    }
+
+    private static MockMultipartFile file(String filename, String contentType, byte[] bytes) {
+        return new MockMultipartFile("file", filename, contentType, bytes);
+    }
+
+    private double rejected(String code, String reason) {
+        return registry.get("image.validation.checks").tag("result", "reject")
+                .tag("code", code).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void rejectsByMagicBytesAndHeaderSizeAndCountsSavedUpstreamTime() throws IOException {
+        Timer.builder("analysis.upstream").tag("endpoint", "analyze_file").tag("status", "200").register(registry)
+                .record(Duration.ofMillis(400));
+        ImageValidator validator = validator();
+
+        // 이름·Content-Type 은 JPEG 이지만 내용은 HTML
+        byte[] html = "<html>error page</html>".getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> validator.inspect(file("face.jpg", "image/jpeg", html)))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("INVALID_IMAGE"));
+
+        byte[] tiny = encode(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png");
+        assertThatThrownBy(() -> validator.inspect(file("tiny.png", "image/png", tiny)))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("LOW_QUALITY"));
+
+        assertThat(rejected("INVALID_IMAGE", "unsupported")).isEqualTo(1);
+        assertThat(rejected("LOW_QUALITY", "too_small")).isEqualTo(1);
+        assertThat(registry.get("image.validation.saved.time").counter().count()).isCloseTo(0.8, offset(1e-9));
+        assertThat(registry.get("image.validation.saved.bytes").counter().count()).isEqualTo(html.length + tiny.length);
+    }
+
+    @Test
+    void photoWithoutExifThumbnailIsCheckedWithPreprocessMetrics() throws IOException {
+        ImageFixtures.Fixture photo = ImageFixtures.generated(ImageFixtures.JPEG_MEDIUM);
+        ImageValidator validator = validator();
+
+        ImageValidator.Inspection inspection = validator.inspect(file(photo.filename(), photo.contentType(), photo.bytes()));
+        assertThat(validator.needsQuality(inspection)).isTrue();
+
+        assertThatThrownBy(() -> validator.finish(inspection, new Quality(6, 0, 0)))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("LOW_QUALITY"));
+        validator.finish(inspection, new Quality(120, 40, 0.2));
+
+        assertThat(rejected("LOW_QUALITY", "dark")).isEqualTo(1);
+        assertThat(registry.get("image.validation.checks").tag("result", "pass").counter().count()).isEqualTo(1);
+        assertThat(registry.get("image.validation.time").tag("stage", "header").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void skinPrefilterRejectsAsNoFaceOnlyWhenEnabled() throws IOException {
+        ImageFixtures.Fixture photo = ImageFixtures.generated(ImageFixtures.JPEG_SMALL);
+        Quality noSkin = new Quality(120, 40, 0.0);
+
+        ImageValidator off = validator();
+        off.finish(off.inspect(file(photo.filename(), photo.contentType(), photo.bytes())), noSkin);
+
+        props.getValidation().setMinSkinRatio(0.02);
+        ImageValidator on = validator();
+        ImageValidator.Inspection inspection = on.inspect(file(photo.filename(), photo.contentType(), photo.bytes()));
+        assertThatThrownBy(() -> on.finish(inspection, noSkin))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("NO_FACE"));
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+}
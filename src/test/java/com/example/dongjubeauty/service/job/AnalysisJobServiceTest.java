@@ -0,0 +1,125 @@
+package com.example.dongjubeauty.service.job;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.service.AnalysisResults;
+import com.example.dongjubeauty.service.CombinedAnalysisService;
+import com.example.dongjubeauty.service.PersonalColorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.map;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisJobServiceTest {
+
+    private final PersonalColorService service = mock(PersonalColorService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Sinks.One<Map<String, Object>> upstream = Sinks.one();
+    private AnalysisJobService jobs;
+
+    @BeforeEach
+    void setUp() {
+        PythonApiProperties props = new PythonApiProperties();
+        props.getJobs().setParallelism(1);
+        props.getJobs().setQueueCapacity(1);
+        jobs = new AnalysisJobService(service, mock(CombinedAnalysisService.class),
+                new AnalysisResults(new ObjectMapper()), props, registry);
+        when(service.faceShapeFileReactive(any(MultipartFile.class), anyBoolean(), anyBoolean(), anyString(), isNull()))
+                .thenReturn(upstream.asMono());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobs.shutdown();
+    }
+
+    private AnalysisJob submit(String traceId) {
+        return submit(AnalysisJob.Type.FACE_SHAPE, new byte[]{1, 2, 3}, traceId);
+    }
+
+    private AnalysisJob submit(AnalysisJob.Type type, byte[] image, String traceId) {
+        return jobs.submitFile(type, new MockMultipartFile("file", "a.jpg", "image/jpeg", image),
+                false, true, traceId, null);
+    }
+
+    @Test
+    void runsJobAndKeepsLocalizedResult() {
+        AnalysisJob job = submit("trace-1");
+        assertThat(job.getId()).isNotEqualTo("trace-1");
+        assertThat(job.getTraceId()).isEqualTo("trace-1");
+        assertThat(job.getState()).isEqualTo(AnalysisJob.State.RUNNING);
+
+        upstream.tryEmitValue(Map.of("status", "ok", "face_shape", "oval"));
+
+        AnalysisJob done = jobs.get(job.getId());
+        assertThat(done.getState()).isEqualTo(AnalysisJob.State.DONE);
+        assertThat(done.snapshot().get("result")).asInstanceOf(map(String.class, Object.class))
+                .containsEntry("http_status", 200).containsEntry("face_shape_ko", "계란형");
+    }
+
+    @Test
+    void sameTraceIdReturnsExistingJobWithoutNewCall() {
+        AnalysisJob first = submit("trace-1");
+        AnalysisJob again = submit("trace-1");
+
+        assertThat(again).isSameAs(first);
+        verify(service, times(1)).faceShapeFileReactive(any(MultipartFile.class), anyBoolean(), anyBoolean(), anyString(), isNull());
+    }
+
+    @Test
+    void sameTraceIdWithDifferentTypeOrImageIsANewJob() {
+        AnalysisJob first = submit("trace-1");
+        AnalysisJob otherImage = submit(AnalysisJob.Type.FACE_SHAPE, new byte[]{9, 9, 9}, "trace-1");
+
+        assertThat(otherImage).isNotSameAs(first);
+        assertThatThrownBy(() -> submit(AnalysisJob.Type.PERSONAL_COLOR, new byte[]{1, 2, 3}, "trace-1"))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("JOB_QUEUE_FULL")); // 기존 작업이 아니라 새로 접수됨
+        assertThatThrownBy(() -> jobs.get("trace-1"))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("JOB_NOT_FOUND"));
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        submit("running");
+        submit("queued");
+
+        assertThatThrownBy(() -> submit("overflow"))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("JOB_QUEUE_FULL"));
+        assertThatThrownBy(() -> jobs.get("overflow"))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("JOB_NOT_FOUND"));
+        assertThat(registry.get("analysis.jobs.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedUpstreamMarksJobFailed() {
+        AnalysisJob job = submit(null);
+        upstream.tryEmitError(new IllegalStateException("boom"));
+
+        assertThat(job.getState()).isEqualTo(AnalysisJob.State.FAILED);
+        assertThat(job.events().blockLast(Duration.ofSeconds(1)))
+                .containsEntry("state", "failed");
+    }
+}
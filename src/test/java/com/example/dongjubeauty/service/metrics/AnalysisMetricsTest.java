@@ -0,0 +1,67 @@
+package com.example.dongjubeauty.service.metrics;
+
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(registry);
+    private final TraceExemplars exemplars = new TraceExemplars();
+
+    @Test
+    void recordsPhaseTimersPerEndpoint() {
+        metrics.record(AnalysisEndpoint.ANALYZE_FILE, AnalysisMetrics.Phase.HASH, null, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.record(AnalysisEndpoint.ANALYZE_FILE, AnalysisMetrics.Phase.HASH, null, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.record("combined", AnalysisMetrics.Phase.PREPROCESS, null, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertThat(registry.get("analysis.phase").tags("endpoint", "analyze_file", "phase", "hash").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("analysis.phase").tags("endpoint", "combined", "phase", "preprocess").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+    }
+
+    @Test
+    void mapsUpstreamErrorsToStatusTag() {
+        URI uri = URI.create("http://py:8000/analyze");
+        assertThat(AnalysisMetrics.statusOf(WebClientResponseException.create(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(), "", HttpHeaders.EMPTY, null, null))).isEqualTo("422");
+        assertThat(AnalysisMetrics.statusOf(new WebClientRequestException(
+                new ConnectException("refused"), HttpMethod.POST, uri, HttpHeaders.EMPTY))).isEqualTo("CONNECT_ERROR");
+        assertThat(AnalysisMetrics.statusOf(new WebClientRequestException(
+                ReadTimeoutException.INSTANCE, HttpMethod.POST, uri, HttpHeaders.EMPTY))).isEqualTo("TIMEOUT");
+        assertThat(AnalysisMetrics.statusOf(new IllegalStateException())).isEqualTo("ERROR");
+    }
+
+    @Test
+    void exposesTraceIdOnlyWhileRecording() {
+        assertThat(exemplars.isCurrentSpanSampled()).isFalse();
+
+        TraceExemplars.Scope scope = TraceExemplars.bind("trace-1");
+        try {
+            TraceExemplars.record(null, "analyze.hash", () -> {
+                assertThat(exemplars.getCurrentTraceId()).isEqualTo("trace-1");
+                assertThat(exemplars.getCurrentSpanId()).isEqualTo("analyze.hash");
+            });
+            TraceExemplars.record("trace-2", "analyze.localize",
+                    () -> assertThat(exemplars.getCurrentTraceId()).isEqualTo("trace-2"));
+            assertThat(exemplars.getCurrentSpanId()).isEqualTo("request");
+        } finally {
+            scope.close();
+        }
+        assertThat(exemplars.getCurrentTraceId()).isNull();
+    }
+}
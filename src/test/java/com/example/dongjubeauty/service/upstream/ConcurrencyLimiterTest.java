@@ -0,0 +1,65 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimiter limiter(int initialLimit) {
+        PythonApiProperties props = new PythonApiProperties();
+        props.getLimiter().setInitialLimit(initialLimit);
+        props.getLimiter().setMinLimit(1);
+        return new ConcurrencyLimiter(props, registry);
+    }
+
+    private double limit(AnalysisEndpoint endpoint) {
+        return registry.get("upstream.limiter.limit").tag("endpoint", endpoint.getTag()).gauge().value();
+    }
+
+    @Test
+    void rejectsFastOverLimitAndLimitsAreIndependentPerEndpoint() {
+        ConcurrencyLimiter limiter = limiter(2);
+        limiter.acquire(AnalysisEndpoint.FACE_SHAPE_FILE);
+        limiter.acquire(AnalysisEndpoint.FACE_SHAPE_FILE);
+
+        assertThatThrownBy(() -> limiter.acquire(AnalysisEndpoint.FACE_SHAPE_FILE))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("OVERLOADED"));
+        // 다른 엔드포인트는 영향 없음
+        limiter.acquire(AnalysisEndpoint.ANALYZE_JSON).ignore();
+        assertThat(registry.counter("upstream.limiter.rejected", "endpoint", "face_shape_file").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shrinksOnDropsAndGrowsWhenSaturatedWithStableLatency() {
+        ConcurrencyLimiter limiter = limiter(10);
+
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            permits.add(limiter.acquire(AnalysisEndpoint.ANALYZE_JSON));
+        }
+        permits.forEach(p -> p.release(true));
+        assertThat(limit(AnalysisEndpoint.ANALYZE_JSON)).isLessThan(10);
+
+        double shrunk = limit(AnalysisEndpoint.ANALYZE_JSON);
+        for (int round = 0; round < 20; round++) {
+            permits.clear();
+            for (int i = 0; i < (int) limit(AnalysisEndpoint.ANALYZE_JSON); i++) {
+                permits.add(limiter.acquire(AnalysisEndpoint.ANALYZE_JSON));
+            }
+            permits.forEach(p -> p.release(false));
+        }
+        assertThat(limit(AnalysisEndpoint.ANALYZE_JSON)).isGreaterThan(shrunk);
+    }
+}
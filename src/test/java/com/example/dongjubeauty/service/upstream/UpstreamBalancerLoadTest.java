@@ -0,0 +1,70 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.DongjubeautyApplication;
+import com.example.dongjubeauty.support.LoadDriver;
+import com.example.dongjubeauty.support.PythonApiStub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 레플리카 3대 중 1대가 느릴 때 분산 전략별 꼬리 지연 비교.
+ * ./gradlew loadTest --tests '*UpstreamBalancerLoadTest'
+ */
+@Tag("load")
+class UpstreamBalancerLoadTest {
+
+    private static final byte[] BODY = "{\"image_base64\":\"/9j/4AAQSkZJRgABAQ==\"}".getBytes(StandardCharsets.UTF_8);
+    private static final int USERS = 12;
+    private static final int REQUESTS_PER_USER = 25;
+
+    @Test
+    void leastLoadedStrategiesAvoidSlowReplica() throws Exception {
+        try (PythonApiStub fast1 = PythonApiStub.start(Duration.ofMillis(50));
+             PythonApiStub fast2 = PythonApiStub.start(Duration.ofMillis(50));
+             PythonApiStub slow = PythonApiStub.start(Duration.ofMillis(1500))) {
+            String upstreams = String.join(",", fast1.baseUrl(), fast2.baseUrl(), slow.baseUrl());
+
+            LoadDriver.Result roundRobin = run(upstreams, "ROUND_ROBIN");
+            int slowShareRoundRobin = slow.requests();
+            slow.reset();
+            LoadDriver.Result p2c = run(upstreams, "POWER_OF_TWO_CHOICES");
+            int slowShareP2c = slow.requests();
+            slow.reset();
+            LoadDriver.Result lor = run(upstreams, "LEAST_OUTSTANDING");
+            int slowShareLor = slow.requests();
+
+            System.out.println(roundRobin.summary("round robin       ") + " slowReplicaRequests=" + slowShareRoundRobin);
+            System.out.println(p2c.summary("power of two      ") + " slowReplicaRequests=" + slowShareP2c);
+            System.out.println(lor.summary("least outstanding ") + " slowReplicaRequests=" + slowShareLor);
+
+            assertThat(p2c.ok()).isEqualTo(p2c.requests());
+            assertThat(lor.ok()).isEqualTo(lor.requests());
+            assertThat(p2c.percentile(90)).isLessThan(roundRobin.percentile(90));
+            assertThat(lor.percentile(90)).isLessThan(roundRobin.percentile(90));
+        }
+    }
+
+    private static LoadDriver.Result run(String upstreams, String strategy) {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(DongjubeautyApplication.class).run(
+                "--server.port=0",
+                "--python.api.base-urls=" + upstreams,
+                "--python.api.balancer.strategy=" + strategy,
+                "--python.api.cache.enabled=false",
+                "--python.api.coalescing.enabled=false",
+                "--logging.level.org.springframework.web=INFO",
+                "--logging.level.org.springframework.web.reactive.function.client=INFO",
+                "--logging.level.reactor.netty=INFO")) {
+            String port = ctx.getEnvironment().getProperty("local.server.port");
+            return new LoadDriver().closedLoop(URI.create("http://127.0.0.1:" + port + "/api/reactive/analyze"),
+                    "application/json", BODY, USERS, REQUESTS_PER_USER);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamBalancerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private UpstreamBalancer balancer(PythonApiProperties.Strategy strategy) {
+        PythonApiProperties props = new PythonApiProperties();
+        props.setBaseUrls(List.of("http://py-1:8000", "http://py-2:8000"));
+        props.getBalancer().setStrategy(strategy);
+        props.getBalancer().setFailureThreshold(2);
+        props.getBalancer().setEjectionTime(Duration.ofSeconds(10));
+        props.getBalancer().setSlowStart(Duration.ofSeconds(10));
+        return new UpstreamBalancer(props, new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void prefersReplicaWithFewerOutstandingRequests() {
+        UpstreamBalancer balancer = balancer(PythonApiProperties.Strategy.LEAST_OUTSTANDING);
+        UpstreamReplica busy = balancer.acquire();
+
+        for (int i = 0; i < 5; i++) {
+            UpstreamReplica next = balancer.acquire();
+            assertThat(next).isNotSameAs(busy);
+            balancer.release(next, false);
+        }
+    }
+
+    @Test
+    void ejectsFailingReplicaAndReadmitsWithSlowStart() {
+        UpstreamBalancer balancer = balancer(PythonApiProperties.Strategy.ROUND_ROBIN);
+        UpstreamReplica bad = balancer.replicas().get(0);
+        UpstreamReplica good = balancer.replicas().get(1);
+
+        for (int i = 0; i < 2; i++) {
+            bad.begin();
+            balancer.release(bad, true);
+        }
+
+        // 격리 기간에는 정상 레플리카만 선택
+        for (int i = 0; i < 4; i++) {
+            UpstreamReplica r = balancer.acquire();
+            assertThat(r).isSameAs(good);
+            balancer.release(r, false);
+        }
+
+        // 격리 해제 직후에는 가중치가 낮아 부하 비교에서 밀림
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(bad.isAvailable(now.get())).isTrue();
+        assertThat(bad.load(now.get())).isGreaterThan(good.load(now.get()));
+
+        // slow-start 가 끝나면 동일한 가중치
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(bad.load(now.get())).isEqualTo(good.load(now.get()));
+    }
+
+    @Test
+    void excludedReplicaIsNotChosenEvenWhenLessLoaded() {
+        UpstreamBalancer balancer = balancer(PythonApiProperties.Strategy.LEAST_OUTSTANDING);
+        UpstreamReplica slow = balancer.replicas().get(0);
+        UpstreamReplica other = balancer.replicas().get(1);
+        other.begin();
+        other.begin();
+
+        for (int i = 0; i < 4; i++) {
+            UpstreamReplica r = balancer.acquire(slow);
+            assertThat(r).isSameAs(other);
+            balancer.release(r, false);
+        }
+    }
+}
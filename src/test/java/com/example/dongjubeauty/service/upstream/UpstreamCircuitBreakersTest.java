@@ -0,0 +1,139 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import com.example.dongjubeauty.util.LocalizationUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.dongjubeauty.service.upstream.UpstreamCircuitBreakers.State.CLOSED;
+import static com.example.dongjubeauty.service.upstream.UpstreamCircuitBreakers.State.HALF_OPEN;
+import static com.example.dongjubeauty.service.upstream.UpstreamCircuitBreakers.State.OPEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamCircuitBreakersTest {
+
+    private static final AnalysisEndpoint ENDPOINT = AnalysisEndpoint.FACE_SHAPE_FILE;
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<UpstreamCircuitBreakers.StateChanged> events = new ArrayList<>();
+
+    private UpstreamCircuitBreakers breakers() {
+        return breakers(event -> events.add((UpstreamCircuitBreakers.StateChanged) event));
+    }
+
+    private UpstreamCircuitBreakers breakers(ApplicationEventPublisher publisher) {
+        PythonApiProperties props = new PythonApiProperties();
+        PythonApiProperties.CircuitBreaker conf = props.getCircuitBreaker();
+        conf.setWindowSize(10);
+        conf.setMinimumCalls(10);
+        conf.setFailureRateThreshold(0.5);
+        conf.setSlowCallRateThreshold(0.8);
+        conf.setSlowCallDuration(Duration.ofSeconds(1));
+        conf.setOpenDuration(Duration.ofSeconds(30));
+        conf.setHalfOpenCalls(2);
+        return new UpstreamCircuitBreakers(props, registry, publisher, now::get);
+    }
+
+    private static void calls(UpstreamCircuitBreakers breakers, int n, boolean failed, long elapsedNanos) {
+        for (int i = 0; i < n; i++) {
+            breakers.acquire(ENDPOINT).release(failed, elapsedNanos);
+        }
+    }
+
+    @Test
+    void opensOnFailureRateAndFailsFastWithLocalizedCode() {
+        UpstreamCircuitBreakers breakers = breakers();
+        calls(breakers, 5, false, FAST);
+        calls(breakers, 4, true, FAST);
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(CLOSED);
+
+        calls(breakers, 1, true, FAST); // 10건 중 5건 실패
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(OPEN);
+        assertThat(events).singleElement().satisfies(e -> {
+            assertThat(e.from()).isEqualTo(CLOSED);
+            assertThat(e.to()).isEqualTo(OPEN);
+            assertThat(e.failureRate()).isEqualTo(0.5);
+        });
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThatThrownBy(() -> breakers.acquire(ENDPOINT))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class, e -> {
+                    assertThat(e.getCode()).isEqualTo("CIRCUIT_OPEN");
+                    assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(20));
+                    assertThat(LocalizationUtils.addKoreanLabels(Map.of("status", "error", "code", e.getCode())))
+                            .containsEntry("message_ko", "분석 서버에 일시적으로 연결할 수 없습니다. 잠시 후 다시 시도해 주세요.");
+                });
+        // 다른 엔드포인트는 영향 없음
+        breakers.acquire(AnalysisEndpoint.ANALYZE_JSON).release(false, FAST);
+        assertThat(registry.get("upstream.circuit.rejected").tag("endpoint", ENDPOINT.getTag()).counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("upstream.circuit.state").tag("endpoint", ENDPOINT.getTag()).gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        UpstreamCircuitBreakers breakers = breakers();
+        calls(breakers, 2, false, FAST);
+        calls(breakers, 8, false, Duration.ofSeconds(2).toNanos());
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(OPEN);
+    }
+
+    @Test
+    void halfOpenProbesCloseOrReopen() {
+        UpstreamCircuitBreakers breakers = breakers();
+        calls(breakers, 10, true, FAST);
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // 시험 호출 2건만 허용, 하나라도 실패율 기준을 넘으면 다시 열림
+        UpstreamCircuitBreakers.Permit first = breakers.acquire(ENDPOINT);
+        UpstreamCircuitBreakers.Permit second = breakers.acquire(ENDPOINT);
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(HALF_OPEN);
+        assertThatThrownBy(() -> breakers.acquire(ENDPOINT)).isInstanceOf(AnalysisRejectedException.class);
+        first.release(false, FAST);
+        second.release(true, FAST);
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(OPEN);
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        // 취소된 시험 호출은 자리만 돌려줌
+        breakers.acquire(ENDPOINT).ignore();
+        calls(breakers, 2, false, FAST);
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(CLOSED);
+        assertThat(events).extracting(UpstreamCircuitBreakers.StateChanged::to)
+                .containsExactly(OPEN, HALF_OPEN, OPEN, HALF_OPEN, CLOSED);
+
+        // 닫히면 창을 비우므로 이전 실패가 남지 않음
+        calls(breakers, 9, true, FAST);
+        assertThat(breakers.state(ENDPOINT)).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void listenersRunOutsideTheBreakerLock() {
+        AtomicReference<UpstreamCircuitBreakers> self = new AtomicReference<>();
+        List<UpstreamCircuitBreakers.State> seen = new ArrayList<>();
+        // 다른 스레드에서 같은 브레이커를 부르고 기다리는 리스너 (잠금 안에서 발행하면 교착)
+        self.set(breakers(event -> seen.add(CompletableFuture
+                .supplyAsync(() -> self.get().state(ENDPOINT))
+                .orTimeout(2, TimeUnit.SECONDS)
+                .join())));
+
+        calls(self.get(), 10, true, FAST);
+
+        assertThat(seen).containsExactly(OPEN);
+    }
+}
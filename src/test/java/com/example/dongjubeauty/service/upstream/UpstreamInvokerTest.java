@@ -0,0 +1,152 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.metrics.AnalysisMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamInvokerTest {
+
+    private static final AnalysisEndpoint ENDPOINT = AnalysisEndpoint.ANALYZE_FILE;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PythonApiProperties props = new PythonApiProperties();
+
+    UpstreamInvokerTest() {
+        props.setBaseUrls(List.of("http://py-1:8000", "http://py-2:8000"));
+        props.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        props.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        props.getHedge().setMinSamples(1);
+        props.getHedge().setMinDelay(Duration.ofMillis(20));
+    }
+
+    private UpstreamInvoker invoker() {
+        return new UpstreamInvoker(new UpstreamBalancer(props, registry),
+                new UpstreamScheduler(new ConcurrencyLimiter(props, registry), props, registry),
+                new UpstreamCircuitBreakers(props, registry, event -> { }), new AnalysisMetrics(registry), props, registry);
+    }
+
+    private double count(String name, String tag, String value) {
+        var counter = registry.find(name).tag("endpoint", ENDPOINT.getTag()).tag(tag, value).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void retriesConnectionErrorsAndUnavailableResponses() {
+        // 첫 호출의 클래스 로딩 지연으로 hedge 가 섞이지 않도록
+        props.getHedge().setEnabled(false);
+        UpstreamInvoker invoker = invoker();
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = invoker.call(ENDPOINT, replica -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ResourceAccessException("connection reset");
+            }
+            return "ok";
+        });
+        assertThat(result).isEqualTo("ok");
+
+        calls.set(0);
+        ResponseEntity<String> res = invoker.callMono(ENDPOINT, replica -> Mono.just(calls.incrementAndGet() < 3
+                        ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("busy")
+                        : ResponseEntity.ok("done")))
+                .block();
+        assertThat(res.getBody()).isEqualTo("done");
+        assertThat(calls).hasValue(3);
+        assertThat(count("upstream.retries", "reason", "CONNECT_ERROR")).isEqualTo(1);
+        assertThat(count("upstream.retries", "reason", "503")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryClientErrorsOrPastMaxRetries() {
+        UpstreamInvoker invoker = invoker();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> invoker.call(ENDPOINT, replica -> {
+            calls.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "bad", null, null, null);
+        })).isInstanceOf(HttpClientErrorException.class);
+        assertThat(calls).hasValue(1);
+
+        calls.set(0);
+        assertThatThrownBy(() -> invoker.call(ENDPOINT, replica -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("connection refused");
+        })).isInstanceOf(ResourceAccessException.class);
+        assertThat(calls).hasValue(1 + props.getRetry().getMaxRetries());
+    }
+
+    @Test
+    void exhaustedBudgetStopsRetries() {
+        props.getRetry().setBudgetRatio(0);
+        props.getRetry().setMinRetriesPerSecond(0);
+        UpstreamInvoker invoker = invoker();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> invoker.call(ENDPOINT, replica -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("connection refused");
+        })).isInstanceOf(ResourceAccessException.class);
+        assertThat(calls).hasValue(1);
+        assertThat(count("upstream.retry.budget.exhausted", "kind", "retry")).isEqualTo(1);
+    }
+
+    @Test
+    void hedgeWinsOverSlowPrimaryAndCancelsIt() {
+        UpstreamInvoker invoker = invoker();
+        // 응답 시간 표본 1개 (hedge 지연 = min-delay 20ms)
+        invoker.callMono(ENDPOINT, replica -> Mono.just("warm")).block();
+
+        AtomicInteger calls = new AtomicInteger();
+        List<UpstreamReplica> sentTo = new CopyOnWriteArrayList<>();
+        long started = System.nanoTime();
+        String result = invoker.callMono(ENDPOINT, replica -> {
+                    sentTo.add(replica);
+                    return calls.incrementAndGet() == 1
+                            ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                            : Mono.just("hedged");
+                })
+                .block(Duration.ofSeconds(2));
+
+        assertThat(result).isEqualTo("hedged");
+        assertThat(sentTo).hasSize(2);
+        assertThat(sentTo.get(1)).isNotSameAs(sentTo.get(0));
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(count("upstream.hedges", "outcome", "fired")).isEqualTo(1);
+        assertThat(count("upstream.hedges", "outcome", "won")).isEqualTo(1);
+        assertThat(registry.get("analysis.upstream").tag("endpoint", ENDPOINT.getTag()).tag("status", "CANCELLED")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void neverHedgesWithSingleReplica() {
+        props.setBaseUrls(List.of("http://py-1:8000"));
+        UpstreamInvoker invoker = invoker();
+        invoker.callMono(ENDPOINT, replica -> Mono.just("warm")).block();
+
+        AtomicInteger calls = new AtomicInteger();
+        String result = invoker.callMono(ENDPOINT, replica -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(200)).thenReturn("slow");
+                })
+                .block(Duration.ofSeconds(2));
+
+        assertThat(result).isEqualTo("slow");
+        assertThat(calls).hasValue(1);
+        assertThat(count("upstream.hedges", "outcome", "fired")).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.dongjubeauty.service.upstream;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisEndpoint;
+import com.example.dongjubeauty.service.AnalysisRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamSchedulerTest {
+
+    private static final AnalysisEndpoint ENDPOINT = AnalysisEndpoint.FACE_SHAPE_FILE;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PythonApiProperties props = new PythonApiProperties();
+
+    /** 동시 처리 한도 1 */
+    private UpstreamScheduler scheduler() {
+        props.getLimiter().setInitialLimit(1);
+        props.getLimiter().setMinLimit(1);
+        return new UpstreamScheduler(new ConcurrencyLimiter(props, registry), props, registry);
+    }
+
+    private static ClientContext interactive(String client) {
+        return new ClientContext(client, ClientContext.Priority.INTERACTIVE, false, 0);
+    }
+
+    private static ClientContext debug(String client) {
+        return new ClientContext(client, ClientContext.Priority.BULK, true, 0);
+    }
+
+    /** permit 을 받으면 이름을 기록하고 바로 반납 (다음 대기 요청이 나감) */
+    private static Disposable enqueue(UpstreamScheduler scheduler, ClientContext client, String name, List<String> order) {
+        return scheduler.acquireMono(ENDPOINT, client).subscribe(permit -> {
+            order.add(name);
+            permit.ignore();
+        });
+    }
+
+    private double depth(ClientContext.Priority priority) {
+        return registry.get("upstream.scheduler.queue.depth").tag("endpoint", ENDPOINT.getTag())
+                .tag("priority", priority.getTag()).gauge().value();
+    }
+
+    private double dropped(String reason) {
+        return registry.get("upstream.scheduler.dropped").tag("endpoint", ENDPOINT.getTag())
+                .tag("reason", reason).counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    @Test
+    void queuesOverLimitAndServesInteractiveAheadOfDebugFlood() {
+        UpstreamScheduler scheduler = scheduler();
+        ConcurrencyLimiter.Permit held = scheduler.acquire(ENDPOINT, interactive("user"));
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            enqueue(scheduler, debug("partner"), "partner-" + i, order);
+        }
+        enqueue(scheduler, interactive("user"), "user", order);
+        assertThat(depth(ClientContext.Priority.BULK)).isEqualTo(3);
+        assertThat(depth(ClientContext.Priority.INTERACTIVE)).isEqualTo(1);
+
+        held.ignore();
+        assertThat(order).containsExactly("user", "partner-0", "partner-1", "partner-2");
+        assertThat(depth(ClientContext.Priority.BULK)).isZero();
+        assertThat(registry.get("upstream.scheduler.wait").tag("endpoint", ENDPOINT.getTag())
+                .tag("priority", "bulk").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void sharesCapacityBetweenClientsOfTheSameClass() {
+        UpstreamScheduler scheduler = scheduler();
+        ConcurrencyLimiter.Permit held = scheduler.acquire(ENDPOINT, interactive("a"));
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            enqueue(scheduler, interactive("a"), "a", order);
+        }
+        enqueue(scheduler, interactive("b"), "b", order);
+        enqueue(scheduler, interactive("b"), "b", order);
+
+        held.ignore();
+        assertThat(order).containsExactly("a", "b", "a", "b", "a");
+    }
+
+    @Test
+    void dropsWaitersPastDeadlineOrCancelledAndRejectsWhenFull() {
+        props.getScheduler().setMaxQueuedPerClient(2);
+        UpstreamScheduler scheduler = scheduler();
+        ConcurrencyLimiter.Permit held = scheduler.acquire(ENDPOINT, interactive("user"));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        assertThatThrownBy(() -> scheduler.acquire(ENDPOINT,
+                new ClientContext("user", ClientContext.Priority.INTERACTIVE, false, deadline)))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("QUEUE_TIMEOUT"));
+        assertThat(dropped("deadline")).isEqualTo(1);
+
+        Disposable first = scheduler.acquireMono(ENDPOINT, interactive("user")).subscribe();
+        scheduler.acquireMono(ENDPOINT, interactive("user")).timeout(Duration.ofSeconds(1)).subscribe(p -> { }, e -> { });
+        assertThatThrownBy(() -> scheduler.acquire(ENDPOINT, interactive("user")))
+                .isInstanceOfSatisfying(AnalysisRejectedException.class,
+                        e -> assertThat(e.getCode()).isEqualTo("OVERLOADED"));
+
+        first.dispose();
+        assertThat(dropped("cancelled")).isEqualTo(1);
+        assertThat(depth(ClientContext.Priority.INTERACTIVE)).isEqualTo(1);
+
+        held.ignore(); // 남은 대기 요청이 permit 을 받음
+        assertThat(depth(ClientContext.Priority.INTERACTIVE)).isZero();
+    }
+}
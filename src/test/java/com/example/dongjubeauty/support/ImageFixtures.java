@@ -0,0 +1,169 @@
+package com.example.dongjubeauty.support;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 부하 테스트·벤치마크용 이미지 샘플.
+ * 기본 세트는 시드를 고정해 매번 같은 바이트를 만들고 (휴대폰 사진 크기 JPEG, EXIF 회전 JPEG, PNG),
+ * -Dload.fixtures=&lt;디렉터리&gt; 를 주면 그 안의 실제 사진(.jpg/.jpeg/.png/.heic/.heif)을 덧붙입니다.
+ * HEIC 는 JDK 만으로 만들 수 없으므로 실제 아이폰 사진을 이 디렉터리에 두고 씁니다.
+ */
+public final class ImageFixtures {
+
+    public record Fixture(String name, String filename, String contentType, byte[] bytes) {
+
+        public int size() {
+            return bytes.length;
+        }
+    }
+
+    /** 생성 샘플 이름 (벤치마크 @Param 값) */
+    public static final String JPEG_SMALL = "jpeg-640x480";
+    public static final String JPEG_MEDIUM = "jpeg-1600x1200";
+    public static final String JPEG_LARGE = "jpeg-4032x3024";
+    public static final String JPEG_LARGE_ROTATED = "jpeg-4032x3024-exif6";
+    public static final String PNG_MEDIUM = "png-1200x900";
+
+    private static final Map<String, Fixture> GENERATED = new LinkedHashMap<>();
+
+    private ImageFixtures() {
+    }
+
+    /** 생성 샘플 전체 */
+    public static synchronized List<Fixture> generated() {
+        return Stream.of(JPEG_SMALL, JPEG_MEDIUM, JPEG_LARGE, JPEG_LARGE_ROTATED, PNG_MEDIUM)
+                .map(ImageFixtures::generated)
+                .toList();
+    }
+
+    /** 이름으로 생성 샘플 하나 (처음 요청할 때 만들어 캐시) */
+    public static synchronized Fixture generated(String name) {
+        return GENERATED.computeIfAbsent(name, ImageFixtures::create);
+    }
+
+    /** 생성 샘플 + load.fixtures 디렉터리의 파일 */
+    public static List<Fixture> all() {
+        List<Fixture> out = new ArrayList<>(generated());
+        String dir = System.getProperty("load.fixtures");
+        if (dir != null && !dir.isBlank()) {
+            out.addAll(load(Path.of(dir)));
+        }
+        return out;
+    }
+
+    /** 디렉터리의 이미지 파일 (하위 디렉터리는 보지 않음) */
+    public static List<Fixture> load(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> contentType(p.getFileName().toString()) != null)
+                    .sorted()
+                    .map(ImageFixtures::read)
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Fixture read(Path file) {
+        String filename = file.getFileName().toString();
+        try {
+            return new Fixture(filename, filename, contentType(filename), Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String contentType(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "image/jpeg";
+        }
+        if (lower.endsWith(".png")) {
+            return "image/png";
+        }
+        if (lower.endsWith(".heic") || lower.endsWith(".heif")) {
+            return "image/heic";
+        }
+        return null;
+    }
+
+    private static Fixture create(String name) {
+        return switch (name) {
+            case JPEG_SMALL -> jpeg(name, 640, 480, 1);
+            case JPEG_MEDIUM -> jpeg(name, 1600, 1200, 1);
+            case JPEG_LARGE -> jpeg(name, 4032, 3024, 1);
+            case JPEG_LARGE_ROTATED -> jpeg(name, 4032, 3024, 6);
+            case PNG_MEDIUM -> new Fixture(name, name + ".png", "image/png", encode(photo(1200, 900), "png"));
+            default -> throw new IllegalArgumentException("알 수 없는 샘플: " + name);
+        };
+    }
+
+    private static Fixture jpeg(String name, int w, int h, int orientation) {
+        byte[] jpeg = encode(photo(w, h), "jpeg");
+        if (orientation != 1) {
+            jpeg = withExifOrientation(jpeg, orientation);
+        }
+        return new Fixture(name, name + ".jpg", "image/jpeg", jpeg);
+    }
+
+    /** 압축이 너무 잘 되지 않도록 그라데이션 + 잡음 (실제 사진과 비슷한 크기) */
+    private static BufferedImage photo(int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int r = (x * 255 / w) ^ random.nextInt(32);
+                int g = (y * 255 / h) ^ random.nextInt(32);
+                img.setRGB(x, y, (r << 16) | (g << 8) | 128);
+            }
+        }
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(img, format, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** SOI 바로 뒤에 Orientation 태그 하나만 있는 APP1(Exif, 빅엔디언) 세그먼트를 끼워 넣습니다. */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1,
+                0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0};
+        int len = 2 + exif.length + tiff.length;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(len >> 8);
+        out.write(len & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(tiff, 0, tiff.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.dongjubeauty.support;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 부하 테스트용 요청 발생기.
+ * 같은 요청을 한꺼번에(fire) 또는 사용자별 순차 반복(closedLoop)으로 보내고
+ * 상태 코드별 건수와 지연 분포를 집계합니다. 전송 실패(연결 오류 등)는 상태 코드 -1 로 셉니다.
+ */
+public final class LoadDriver {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public Result fire(URI uri, String contentType, byte[] body, int concurrency) {
+        HttpRequest request = request(uri, contentType, body);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Sample>> samples = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long sent = System.nanoTime();
+            samples.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((resp, err) -> new Sample(err == null ? resp.statusCode() : -1, System.nanoTime() - sent)));
+        }
+        CompletableFuture.allOf(samples.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        return Result.of(samples.stream().map(CompletableFuture::join).toList(), elapsed);
+    }
+
+    /**
+     * users 명이 각자 이전 응답을 받은 뒤 다음 요청을 보내는 방식(closed loop)으로
+     * 총 users × requestsPerUser 건을 보냅니다.
+     */
+    public Result closedLoop(URI uri, String contentType, byte[] body, int users, int requestsPerUser) {
+        HttpRequest request = request(uri, contentType, body);
+        return closedLoop(i -> request, users, requestsPerUser);
+    }
+
+    /** 요청마다 requests.apply(순번) 으로 만든 요청을 보냅니다 (샘플 이미지를 돌려 가며 보낼 때). */
+    public Result closedLoop(IntFunction<HttpRequest> requests, int users, int requestsPerUser) {
+        AtomicInteger seq = new AtomicInteger();
+        List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> loops = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            CompletableFuture<Void> loop = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < requestsPerUser; i++) {
+                loop = loop.thenCompose(ignored -> {
+                    HttpRequest request = requests.apply(seq.getAndIncrement());
+                    long sent = System.nanoTime();
+                    return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .handle((resp, err) -> {
+                                samples.add(new Sample(err == null ? resp.statusCode() : -1, System.nanoTime() - sent));
+                                return null;
+                            });
+                });
+            }
+            loops.add(loop);
+        }
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).join();
+        return Result.of(samples, System.nanoTime() - start);
+    }
+
+    public static HttpRequest request(URI uri, String contentType, byte[] body) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    /** 파일 하나를 담은 multipart/form-data 요청 */
+    public static HttpRequest multipart(URI uri, String field, String filename, String contentType, byte[] content) {
+        String boundary = "load-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return request(uri, "multipart/form-data; boundary=" + boundary, body.toByteArray());
+    }
+
+    private record Sample(int status, long nanos) {
+    }
+
+    /**
+     * @param statuses 상태 코드별 건수 (전송 실패는 -1)
+     */
+    public record Result(int requests, long ok, Duration elapsed, long[] sortedLatencyNanos, Map<Integer, Long> statuses) {
+
+        static Result of(Collection<Sample> samples, long elapsedNanos) {
+            long[] latencies = samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+            Map<Integer, Long> statuses = samples.stream()
+                    .collect(Collectors.groupingBy(Sample::status, TreeMap::new, Collectors.counting()));
+            return new Result(samples.size(), statuses.getOrDefault(200, 0L), Duration.ofNanos(elapsedNanos),
+                    latencies, statuses);
+        }
+
+        public long failures() {
+            return statuses.getOrDefault(-1, 0L);
+        }
+
+        public double throughput() {
+            return requests / (elapsed.toNanos() / 1e9);
+        }
+
+        public Duration percentile(double p) {
+            if (sortedLatencyNanos.length == 0) {
+                return Duration.ZERO;
+            }
+            int idx = (int) Math.ceil(p / 100.0 * sortedLatencyNanos.length) - 1;
+            return Duration.ofNanos(sortedLatencyNanos[Math.max(0, Math.min(idx, sortedLatencyNanos.length - 1))]);
+        }
+
+        public String summary(String label) {
+            return String.format("[load] %s: requests=%d ok=%d elapsed=%dms throughput=%.1f req/s p50=%dms p99=%dms p999=%dms",
+                    label, requests, ok, elapsed.toMillis(), throughput(),
+                    percentile(50).toMillis(), percentile(99).toMillis(), percentile(99.9).toMillis());
+        }
+
+        /** 보고서(JSON)용 요약. 지연은 소수점 3자리 밀리초 */
+        public Map<String, Object> toMap() {
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("p50", millis(percentile(50)));
+            latency.put("p90", millis(percentile(90)));
+            latency.put("p99", millis(percentile(99)));
+            latency.put("p999", millis(percentile(99.9)));
+            latency.put("max", sortedLatencyNanos.length == 0 ? 0.0
+                    : millis(Duration.ofNanos(sortedLatencyNanos[sortedLatencyNanos.length - 1])));
+
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("requests", requests);
+            out.put("ok", ok);
+            out.put("statuses", statuses.entrySet().stream()
+                    .collect(Collectors.toMap(e -> String.valueOf(e.getKey()), Map.Entry::getValue,
+                            (a, b) -> a, LinkedHashMap::new)));
+            out.put("elapsed_ms", elapsed.toMillis());
+            out.put("throughput_rps", Math.round(throughput() * 10) / 10.0);
+            out.put("latency_ms", latency);
+            return out;
+        }
+
+        private static double millis(Duration d) {
+            return Math.round(d.toNanos() / 1_000.0) / 1_000.0;
+        }
+    }
+}
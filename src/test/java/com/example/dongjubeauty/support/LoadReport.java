@@ -0,0 +1,61 @@
+package com.example.dongjubeauty.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트 결과를 JSON 파일로 남깁니다 (버전 간 비교·CI 수집용).
+ * 위치: -Dload.report.dir (기본 build/reports/load) / &lt;name&gt;.json
+ * <pre>
+ * {"name":..., "timestamp":..., "settings":{...},
+ *  "endpoints":{"/api/analyze/file":{"requests":..,"ok":..,"statuses":{"200":..},
+ *               "elapsed_ms":..,"throughput_rps":..,"latency_ms":{"p50":..,"p90":..,"p99":..,"p999":..,"max":..}}}}
+ * </pre>
+ */
+public final class LoadReport {
+
+    private final String name;
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final Map<String, Object> endpoints = new LinkedHashMap<>();
+
+    public LoadReport(String name) {
+        this.name = name;
+    }
+
+    public LoadReport setting(String key, Object value) {
+        settings.put(key, value);
+        return this;
+    }
+
+    public LoadReport add(String endpoint, LoadDriver.Result result) {
+        endpoints.put(endpoint, result.toMap());
+        return this;
+    }
+
+    /** 보고서를 쓰고 파일 경로를 돌려줍니다. */
+    public Path write() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("name", name);
+        out.put("timestamp", Instant.now().toString());
+        out.put("settings", settings);
+        out.put("endpoints", endpoints);
+
+        Path dir = Path.of(System.getProperty("load.report.dir", "build/reports/load"));
+        Path file = dir.resolve(name + ".json");
+        try {
+            Files.createDirectories(dir);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), out);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.dongjubeauty.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 FastAPI 대역.
+ * 요청 본문을 끝까지 읽은 뒤 지정한 지연만큼 기다렸다가 고정된 분석 결과를 돌려줍니다.
+ * {@link Profile} 로 지연 분포(기본 지연 + 지터, 일부 느린 응답)와 오류 비율을 흉내 낼 수 있습니다.
+ * 요청마다 스레드를 새로 쓰므로 지연 중인 요청 수에 제한이 없습니다.
+ * (가상 스레드 모드를 측정할 때 캐리어 스레드를 앱과 나눠 쓰지 않도록 플랫폼 스레드 사용)
+ */
+public final class PythonApiStub implements AutoCloseable {
+
+    static {
+        // JDK HttpServer 는 기본적으로 유휴 커넥션을 200개만 유지하고 나머지를 닫아
+        // keep-alive 풀을 쓰는 클라이언트에 PrematureClose 가 발생합니다.
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "10000");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private volatile Profile profile;
+
+    /**
+     * 응답 특성.
+     *
+     * @param latency     기본 지연
+     * @param jitter      기본 지연에 더하는 0 ~ jitter 균등 분포 지연
+     * @param errorRate   오류로 응답할 비율 (0 ~ 1)
+     * @param errorStatus 오류 응답 상태 코드
+     * @param slowRate    slowLatency 로 응답할 비율 (꼬리 지연)
+     * @param slowLatency 느린 응답의 지연
+     */
+    public record Profile(Duration latency, Duration jitter, double errorRate, int errorStatus,
+                          double slowRate, Duration slowLatency) {
+
+        public static Profile fixed(Duration latency) {
+            return new Profile(latency, Duration.ZERO, 0, 500, 0, Duration.ZERO);
+        }
+
+        /**
+         * 프리셋 이름(fast, steady, flaky, degraded) 또는
+         * "latency=20ms,jitter=10ms,error-rate=0.01,error-status=503,slow-rate=0.01,slow-latency=1s" 형식.
+         * 키/값 형식은 fast 를 기준으로 지정한 항목만 바꿉니다.
+         */
+        public static Profile parse(String spec) {
+            String value = spec.strip().toLowerCase(Locale.ROOT);
+            Profile preset = switch (value) {
+                case "fast" -> fixed(Duration.ofMillis(5));
+                case "steady" -> new Profile(Duration.ofMillis(80), Duration.ofMillis(40), 0, 500, 0.01, Duration.ofMillis(600));
+                case "flaky" -> new Profile(Duration.ofMillis(80), Duration.ofMillis(40), 0.05, 503, 0.02, Duration.ofSeconds(1));
+                case "degraded" -> new Profile(Duration.ofMillis(400), Duration.ofMillis(300), 0.10, 500, 0.10, Duration.ofSeconds(3));
+                default -> null;
+            };
+            if (preset != null) {
+                return preset;
+            }
+            Profile p = parse("fast");
+            for (String pair : value.split(",")) {
+                String[] kv = pair.split("=", 2);
+                if (kv.length != 2) {
+                    throw new IllegalArgumentException("알 수 없는 스텁 프로필: " + spec);
+                }
+                String v = kv[1].strip();
+                p = switch (kv[0].strip()) {
+                    case "latency" -> new Profile(duration(v), p.jitter, p.errorRate, p.errorStatus, p.slowRate, p.slowLatency);
+                    case "jitter" -> new Profile(p.latency, duration(v), p.errorRate, p.errorStatus, p.slowRate, p.slowLatency);
+                    case "error-rate" -> new Profile(p.latency, p.jitter, Double.parseDouble(v), p.errorStatus, p.slowRate, p.slowLatency);
+                    case "error-status" -> new Profile(p.latency, p.jitter, p.errorRate, Integer.parseInt(v), p.slowRate, p.slowLatency);
+                    case "slow-rate" -> new Profile(p.latency, p.jitter, p.errorRate, p.errorStatus, Double.parseDouble(v), p.slowLatency);
+                    case "slow-latency" -> new Profile(p.latency, p.jitter, p.errorRate, p.errorStatus, p.slowRate, duration(v));
+                    default -> throw new IllegalArgumentException("알 수 없는 스텁 프로필 항목: " + kv[0]);
+                };
+            }
+            return p;
+        }
+
+        /** 1500ms / 2s / 250 (밀리초) */
+        private static Duration duration(String v) {
+            if (v.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+            }
+            if (v.endsWith("s")) {
+                return Duration.ofMillis(Math.round(Double.parseDouble(v.substring(0, v.length() - 1)) * 1000));
+            }
+            return Duration.ofMillis(Long.parseLong(v));
+        }
+
+        long sampleMillis(ThreadLocalRandom random) {
+            if (slowRate > 0 && random.nextDouble() < slowRate) {
+                return slowLatency.toMillis();
+            }
+            long jitterMs = jitter.toMillis();
+            return latency.toMillis() + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        }
+    }
+
+    private PythonApiStub(Profile profile) throws IOException {
+        this.profile = profile;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public static PythonApiStub start(Duration latency) throws IOException {
+        return start(Profile.fixed(latency));
+    }
+
+    public static PythonApiStub start(Profile profile) throws IOException {
+        return new PythonApiStub(profile);
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setLatency(Duration latency) {
+        this.profile = Profile.fixed(latency);
+    }
+
+    public void setProfile(Profile profile) {
+        this.profile = profile;
+    }
+
+    public Profile profile() {
+        return profile;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    /** 프로필에 따라 일부러 돌려준 오류 응답 수 */
+    public int errors() {
+        return errors.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public void reset() {
+        requests.set(0);
+        errors.set(0);
+        maxInFlight.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+            Profile p = profile;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(p.sampleMillis(random));
+
+            String traceId = exchange.getRequestHeaders().getFirst("X-Trace-Id");
+            int status = 200;
+            String json;
+            if (p.errorRate() > 0 && random.nextDouble() < p.errorRate()) {
+                errors.incrementAndGet();
+                status = p.errorStatus();
+                json = "{\"status\":\"error\",\"code\":\"UPSTREAM_ERROR\",\"message\":\"stub error\"}";
+            } else {
+                json = responseFor(exchange.getRequestURI().getPath(), traceId);
+            }
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String responseFor(String path, String traceId) {
+        String trace = traceId != null ? ",\"traceId\":\"" + traceId + "\"" : "";
+        if (path.startsWith("/face-shape")) {
+            return "{\"status\":\"ok\",\"face_shape\":\"oval\"" + trace + "}";
+        }
+        return "{\"status\":\"ok\",\"season\":\"spring\",\"tone\":\"warm\"" + trace + "}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.dto.DecodedImageRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Base64ImageReaderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final byte[] image = "ÿØfake-jpeg-bytes".getBytes(StandardCharsets.ISO_8859_1);
+
+    private DecodedImageRequest read(String json, long max) throws IOException {
+        return Base64ImageReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), mapper, max, 0);
+    }
+
+    @Test
+    void decodesBothAliasesAndOptionsInAnyOrder() throws IOException {
+        String b64 = Base64.getEncoder().encodeToString(image);
+
+        DecodedImageRequest snake = read("{\"image_base64\":\"" + b64 + "\",\"options\":{\"trace_id\":\"t-1\",\"exifCorrection\":false}}", 1024);
+        DecodedImageRequest camel = read("{\"extra\":[1,{\"a\":2}],\"options\":{\"traceId\":\"t-2\"},\"imageBase64\":\"" + b64 + "\"}", 1024);
+
+        assertThat(Arrays.copyOf(snake.buffer(), snake.length())).isEqualTo(image);
+        assertThat(snake.traceId()).isEqualTo("t-1");
+        assertThat(snake.exifCorrection()).isFalse();
+        assertThat(Arrays.copyOf(camel.buffer(), camel.length())).isEqualTo(image);
+        assertThat(camel.exifCorrection()).isTrue();
+        // 기존 base64 문자열 해시와 같은 캐시 키
+        assertThat(snake.imageHash()).isEqualTo(ImageHashUtils.sha256OfBase64(b64)).isEqualTo(camel.imageHash());
+    }
+
+    @Test
+    void acceptsMimeLineBreaksAndMissingPadding() throws IOException {
+        String mime = Base64.getMimeEncoder(8, "\r\n".getBytes()).encodeToString(image).replace("\r\n", "\\r\\n");
+        String unpadded = Base64.getEncoder().withoutPadding().encodeToString(image);
+
+        DecodedImageRequest a = read("{\"image_base64\":\"" + mime + "\"}", 1024);
+        DecodedImageRequest b = read("{\"image_base64\":\"" + unpadded + "\"}", 1024);
+
+        assertThat(a.imageHash()).isEqualTo(b.imageHash()).isEqualTo(ImageHashUtils.sha256(image));
+    }
+
+    @Test
+    void stripsDataUrlPrefix() throws IOException {
+        String b64 = Base64.getEncoder().encodeToString(image);
+        String dataUrl = "data:image/jpeg;base64," + b64;
+
+        DecodedImageRequest snake = read("{\"options\":{\"traceId\":\"t-1\"}, \"image_base64\": \"" + dataUrl + "\"}", 1024);
+        DecodedImageRequest camel = read("{\"imageBase64\":\"" + dataUrl + "\"}", 1024);
+
+        assertThat(Arrays.copyOf(snake.buffer(), snake.length())).isEqualTo(image);
+        assertThat(snake.traceId()).isEqualTo("t-1");
+        assertThat(camel.imageHash()).isEqualTo(snake.imageHash()).isEqualTo(ImageHashUtils.sha256OfBase64(dataUrl));
+    }
+
+    @Test
+    void rejectsMissingOversizedAndMalformedImages() {
+        String b64 = Base64.getEncoder().encodeToString(image);
+
+        assertThatThrownBy(() -> read("{\"options\":{}}", 1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> read("{\"image_base64\":\"" + b64 + "\"}", 4))
+                .isInstanceOf(Base64ImageReader.TooLargeException.class);
+        assertThatThrownBy(() -> read("{\"image_base64\":\"not base64!\"}", 1024))
+                .isInstanceOfAny(IOException.class, IllegalArgumentException.class)
+                .isNotInstanceOf(Base64ImageReader.TooLargeException.class);
+    }
+
+    @Test
+    void writesEquivalentJsonForUpstream() throws IOException {
+        String b64 = Base64.getEncoder().encodeToString(image);
+        DecodedImageRequest req = read("{\"image_base64\":\"" + b64 + "\",\"options\":{\"traceId\":\"t-3\"}}", 1024);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Base64ImageReader.write(req, mapper, out);
+        JsonNode json = mapper.readTree(out.toByteArray());
+
+        assertThat(json.get("image_base64").asText()).isEqualTo(b64);
+        assertThat(json.get("options").get("traceId").asText()).isEqualTo("t-3");
+        assertThat(json.get("options").get("exif_correction").asBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessOptions;
+import com.example.dongjubeauty.util.ImageConversionUtils.PreprocessResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageConversionUtilsTest {
+
+    private static final PreprocessOptions OPTIONS = new PreprocessOptions(1600, 0.85f, true);
+
+    @Test
+    void downscalesLargeImageToMaxDimensionAndReencodesAsJpeg() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "big.png", "image/png", encode(image(4000, 2000), "png"));
+
+        PreprocessResult r = ImageConversionUtils.preprocess(file, OPTIONS);
+
+        assertThat(r.passedThrough()).isFalse();
+        assertThat(r.image().filename()).isEqualTo("big.jpg");
+        assertThat(r.bytesOut()).isLessThan(r.bytesIn());
+        BufferedImage out = decode(r.image().bytes());
+        assertThat(out.getWidth()).isEqualTo(1600);
+        assertThat(out.getHeight()).isEqualTo(800);
+    }
+
+    @Test
+    void smallUprightJpegPassesThroughWithoutReencoding() throws IOException {
+        byte[] jpeg = encode(image(800, 600), "jpeg");
+        MockMultipartFile file = new MockMultipartFile("file", "small.jpg", "image/jpeg", jpeg);
+
+        PreprocessResult r = ImageConversionUtils.preprocess(file, OPTIONS);
+
+        assertThat(r.passedThrough()).isTrue();
+        assertThat(r.bytesOut()).isEqualTo(jpeg.length);
+    }
+
+    @Test
+    void appliesExifOrientationOnlyWhenRequested() throws IOException {
+        // 왼쪽 절반이 빨간 가로 이미지 + Orientation=6(시계 방향 90° 회전 필요)
+        byte[] jpeg = withExifOrientation(encode(image(800, 400), "jpeg"), 6);
+        MockMultipartFile file = new MockMultipartFile("file", "rotated.jpg", "image/jpeg", jpeg);
+
+        assertThat(ImageConversionUtils.readExifOrientation(jpeg)).isEqualTo(6);
+
+        BufferedImage out = decode(ImageConversionUtils.preprocess(file, OPTIONS).image().bytes());
+        assertThat(out.getWidth()).isEqualTo(400);
+        assertThat(out.getHeight()).isEqualTo(800);
+        // 회전 후 빨간 영역은 위쪽
+        assertThat(new Color(out.getRGB(200, 100)).getRed()).isGreaterThan(200);
+        assertThat(new Color(out.getRGB(200, 700)).getRed()).isLessThan(60);
+
+        PreprocessResult untouched = ImageConversionUtils.preprocess(file,
+                new PreprocessOptions(1600, 0.85f, false));
+        assertThat(untouched.passedThrough()).isTrue();
+    }
+
+    @Test
+    void subsamplesToTargetResolutionAndRespectsMemoryCeiling() {
+        // 48MP(8000x6000) → 긴 변 1600 이면 5픽셀 간격으로 읽어 1600x1200
+        assertThat(ImageConversionUtils.subsampling(8000, 6000, 1600, Long.MAX_VALUE)).isEqualTo(5);
+        // 작은 이미지는 그대로
+        assertThat(ImageConversionUtils.subsampling(1200, 900, 1600, Long.MAX_VALUE)).isEqualTo(1);
+        // 해상도 제한이 없어도 래스터 4MB 상한이면 1143x858(약 3.9MB) 까지 줄임
+        assertThat(ImageConversionUtils.subsampling(8000, 6000, Integer.MAX_VALUE, 4L * 1024 * 1024)).isEqualTo(7);
+    }
+
+    @Test
+    void subsampledDecodeStillProducesTargetSize() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "big.jpg", "image/jpeg", encode(image(6000, 3000), "jpeg"));
+
+        PreprocessResult r = ImageConversionUtils.preprocess(file,
+                new PreprocessOptions(1000, 0.85f, false, 8L * 1024 * 1024));
+
+        BufferedImage out = decode(r.image().bytes());
+        assertThat(out.getWidth()).isEqualTo(1000);
+        assertThat(out.getHeight()).isEqualTo(500);
+    }
+
+    @Test
+    void unreadableInputIsSentAsIs() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "x.webp", "image/webp", new byte[]{1, 2, 3, 4});
+
+        assertThat(ImageConversionUtils.preprocess(file, OPTIONS).passedThrough()).isTrue();
+    }
+
+    @Test
+    void perceptualHashSurvivesResizeRecompressionAndFormatChange() throws IOException {
+        PreprocessOptions options = new PreprocessOptions(1600, 0.85f, true, ImageConversionUtils.DEFAULT_MAX_DECODE_BYTES, true);
+        // 큰 PNG → 축소·재인코딩 경로, 작은 저품질 JPEG → 원본 통과 경로(축소 디코딩으로 해시)
+        PreprocessResult original = ImageConversionUtils.preprocess(
+                new MockMultipartFile("file", "a.png", "image/png", encode(scene(2400, 1800, 7), "png")), options);
+        PreprocessResult resent = ImageConversionUtils.preprocess(
+                new MockMultipartFile("file", "a.jpg", "image/jpeg", encode(scene(900, 675, 7), "jpeg")), options);
+        PreprocessResult other = ImageConversionUtils.preprocess(
+                new MockMultipartFile("file", "b.jpg", "image/jpeg", encode(scene(900, 675, 8), "jpeg")), options);
+        PreprocessResult warm = ImageConversionUtils.preprocess(
+                new MockMultipartFile("file", "a.jpg", "image/jpeg", encode(warm(scene(900, 675, 7)), "jpeg")), options);
+
+        assertThat(original.passedThrough()).isFalse();
+        assertThat(resent.passedThrough()).isTrue();
+        assertThat(distance(original, resent)).isLessThanOrEqualTo(4);
+        assertThat(distance(original, other)).isGreaterThan(12);
+        // 색 보정만 다른 사진: dHash 는 같지만 평균 색차로 구분
+        assertThat(original.perceptualHash().colorDistance(resent.perceptualHash())).isLessThanOrEqualTo(3);
+        assertThat(distance(resent, warm)).isLessThanOrEqualTo(4);
+        assertThat(resent.perceptualHash().colorDistance(warm.perceptualHash())).isGreaterThan(3);
+        assertThat(ImageConversionUtils.preprocess(
+                new MockMultipartFile("file", "a.png", "image/png", encode(scene(900, 675, 7), "png")), OPTIONS).perceptualHash())
+                .isNull();
+    }
+
+    private static int distance(PreprocessResult a, PreprocessResult b) {
+        return ImageHashUtils.hammingDistance(a.perceptualHash().dHash(), b.perceptualHash().dHash());
+    }
+
+    /** 밝기는 거의 그대로 두는 따뜻한 톤 화이트밸런스 (R 올리고 B 내림) */
+    private static BufferedImage warm(BufferedImage img) {
+        BufferedImage out = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                int rgb = img.getRGB(x, y);
+                int r = Math.min(255, ((rgb >> 16) & 0xFF) + 10);
+                int b = Math.max(0, (rgb & 0xFF) - 26);
+                out.setRGB(x, y, (r << 16) | (rgb & 0xFF00) | b);
+            }
+        }
+        return out;
+    }
+
+    /** seed 로 정해진 타원 여러 개 (해상도만 다르게 같은 장면을 그림) */
+    private static BufferedImage scene(int w, int h, long seed) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(Color.GRAY);
+        g.fillRect(0, 0, w, h);
+        Random random = new Random(seed);
+        for (int i = 0; i < 12; i++) {
+            g.setColor(new Color(random.nextInt(0x1000000)));
+            double x = random.nextDouble() * 0.8;
+            double y = random.nextDouble() * 0.8;
+            double size = 0.1 + random.nextDouble() * 0.3;
+            g.fill(new Ellipse2D.Double(x * w, y * h, size * w, size * h));
+        }
+        g.dispose();
+        return img;
+    }
+
+    private static BufferedImage image(int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, w / 2, h);
+        g.setColor(Color.BLUE);
+        g.fillRect(w / 2, 0, w - w / 2, h);
+        g.dispose();
+        return img;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    /** SOI 바로 뒤에 Orientation 태그 하나만 있는 APP1(Exif, 빅엔디언) 세그먼트를 끼워 넣습니다. */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,          // 헤더, IFD0 오프셋 8
+                0, 1,                                   // 엔트리 1개
+                0x01, 0x12, 0, 3, 0, 0, 0, 1,           // Orientation, SHORT, count 1
+                0, (byte) orientation, 0, 0,
+                0, 0, 0, 0                              // 다음 IFD 없음
+        };
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0};
+        int len = 2 + exif.length + tiff.length;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(len >> 8);
+        out.write(len & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(tiff, 0, tiff.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.dongjubeauty.util;
+
+import com.example.dongjubeauty.util.ImageValidationUtils.Format;
+import com.example.dongjubeauty.util.ImageValidationUtils.Header;
+import com.example.dongjubeauty.util.ImageValidationUtils.Quality;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.data.Offset.offset;
+
+class ImageValidationUtilsTest {
+
+    @Test
+    void readsFormatAndDimensionsFromHeaderBytes() throws IOException {
+        assertHeader(encode(noise(640, 480), "jpeg"), Format.JPEG, 640, 480);
+        assertHeader(encode(noise(300, 200), "png"), Format.PNG, 300, 200);
+        assertHeader(encode(noise(300, 200), "gif"), Format.GIF, 300, 200);
+        assertHeader(encode(noise(300, 200), "bmp"), Format.BMP, 300, 200);
+        assertHeader(webpExtended(1920, 1080), Format.WEBP, 1920, 1080);
+        // 그리드 HEIC: 타일(512x512)보다 큰 전체 이미지 ispe 를 씀
+        assertHeader(heif(new int[][]{{512, 512}, {4032, 3024}}), Format.HEIF, 4032, 3024);
+
+        byte[] text = "<html>not an image</html>".getBytes(StandardCharsets.UTF_8);
+        assertThat(ImageValidationUtils.readHeader(text, true).format()).isEqualTo(Format.UNKNOWN);
+    }
+
+    @Test
+    void truncatedOrBrokenHeaderIsRejectedOnlyWhenWholeFileWasScanned() throws IOException {
+        byte[] jpeg = encode(noise(640, 480), "jpeg");
+        byte[] cut = Arrays.copyOf(jpeg, 10);
+
+        assertThat(ImageValidationUtils.readHeader(cut, false).hasDimensions()).isFalse();
+        assertThatThrownBy(() -> ImageValidationUtils.readHeader(cut, true)).isInstanceOf(IOException.class);
+
+        byte[] garbage = jpeg.clone();
+        garbage[20] = 0x12; // APP0(JFIF) 다음 세그먼트 마커 자리
+        assertThatThrownBy(() -> ImageValidationUtils.readHeader(garbage, false)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void findsExifThumbnailBeforeFrameHeader() throws IOException {
+        byte[] thumbnail = encode(noise(160, 120), "jpeg");
+        byte[] jpeg = withExifThumbnail(encode(noise(1600, 1200), "jpeg"), thumbnail);
+
+        Header header = ImageValidationUtils.readHeader(jpeg, true);
+
+        assertThat(header.width()).isEqualTo(1600);
+        assertThat(header.exifThumbnail()).isEqualTo(thumbnail);
+        assertThat(ImageValidationUtils.measureThumbnail(header.exifThumbnail()).sharpness()).isGreaterThan(100);
+    }
+
+    @Test
+    void measuresExposureSharpnessAndSkin() {
+        Quality sharp = ImageValidationUtils.measure(noise(1600, 1200));
+        Quality blurred = ImageValidationUtils.measure(blur(noise(1600, 1200), 80));
+        Quality defocused = ImageValidationUtils.measure(gradient(1600, 1200));
+        Quality dark = ImageValidationUtils.measure(filled(800, 600, new Color(8, 8, 8)));
+        Quality skin = ImageValidationUtils.measure(filled(800, 600, new Color(224, 172, 140)));
+
+        assertThat(sharp.sharpness()).isGreaterThan(100);
+        assertThat(blurred.sharpness()).isLessThan(sharp.sharpness() / 50);
+        assertThat(defocused.sharpness()).isLessThan(2);
+        assertThat(dark.meanLuminance()).isCloseTo(8, offset(0.5));
+        assertThat(dark.sharpness()).isZero();
+        assertThat(dark.skinRatio()).isZero();
+        assertThat(skin.skinRatio()).isEqualTo(1.0);
+    }
+
+    private static void assertHeader(byte[] bytes, Format format, int width, int height) throws IOException {
+        Header header = ImageValidationUtils.readHeader(bytes, true);
+        assertThat(header.format()).isEqualTo(format);
+        assertThat(header.width()).isEqualTo(width);
+        assertThat(header.height()).isEqualTo(height);
+    }
+
+    /** VP8X(확장 형식) 청크까지만 있는 WebP 헤더 */
+    private static byte[] webpExtended(int width, int height) {
+        ByteBuffer b = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(22).put("WEBP".getBytes(StandardCharsets.US_ASCII));
+        b.put("VP8X".getBytes(StandardCharsets.US_ASCII)).putInt(10).putInt(0);
+        b.put((byte) (width - 1)).put((byte) ((width - 1) >> 8)).put((byte) ((width - 1) >> 16));
+        b.put((byte) (height - 1)).put((byte) ((height - 1) >> 8)).put((byte) ((height - 1) >> 16));
+        return b.array();
+    }
+
+    /** ftyp(heic) 뒤에 ispe 상자들만 이어 붙인 HEIF 앞부분 */
+    private static byte[] heif(int[][] sizes) {
+        ByteBuffer b = ByteBuffer.allocate(16 + sizes.length * 20);
+        b.putInt(16).put("ftypheic".getBytes(StandardCharsets.US_ASCII)).putInt(0);
+        for (int[] size : sizes) {
+            b.putInt(20).put("ispe".getBytes(StandardCharsets.US_ASCII)).putInt(0).putInt(size[0]).putInt(size[1]);
+        }
+        return b.array();
+    }
+
+    /** SOI 바로 뒤에 IFD1 썸네일만 있는 APP1(Exif, 빅엔디언) 세그먼트를 끼워 넣습니다. */
+    private static byte[] withExifThumbnail(byte[] jpeg, byte[] thumbnail) {
+        ByteBuffer tiff = ByteBuffer.allocate(44 + thumbnail.length);
+        tiff.put(new byte[]{'M', 'M', 0, 42}).putInt(8);
+        tiff.putShort((short) 0).putInt(14);                                // IFD0: 엔트리 없음, 다음 IFD 14
+        tiff.putShort((short) 2);                                          // IFD1: 엔트리 2개
+        tiff.putShort((short) 0x0201).putShort((short) 4).putInt(1).putInt(44);
+        tiff.putShort((short) 0x0202).putShort((short) 4).putInt(1).putInt(thumbnail.length);
+        tiff.putInt(0);
+        tiff.put(thumbnail);
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0};
+        int len = 2 + exif.length + tiff.capacity();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(len >> 8);
+        out.write(len & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(tiff.array(), 0, tiff.capacity());
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage noise(int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                img.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return img;
+    }
+
+    /** 경계 없이 밝기만 천천히 바뀌는 이미지 */
+    private static BufferedImage gradient(int w, int h) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = 40 + (x + y) * 160 / (w + h);
+                img.setRGB(x, y, v << 16 | v << 8 | v);
+            }
+        }
+        return img;
+    }
+
+    private static BufferedImage filled(int w, int h, Color color) {
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = img.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, w, h);
+        g.dispose();
+        return img;
+    }
+
+    /** factor 배로 줄였다가 다시 키워 초점이 나간 사진처럼 만듦 */
+    private static BufferedImage blur(BufferedImage src, int factor) {
+        BufferedImage small = new BufferedImage(src.getWidth() / factor, src.getHeight() / factor, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = small.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, 0, 0, small.getWidth(), small.getHeight(), null);
+        g.dispose();
+        BufferedImage out = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_RGB);
+        g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.drawImage(small, 0, 0, out.getWidth(), out.getHeight(), null);
+        g.dispose();
+        return out;
+    }
+
+    private static byte[] encode(BufferedImage img, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.dongjubeauty.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingLocalizerTest {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<String, Object> parse(byte[] json) throws IOException {
+        return mapper.readValue(json, MAP_TYPE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"status\":\"ok\",\"season\":\"Spring\",\"tone\":\"WARM\",\"traceId\":\"t-1\",\"confidence\":0.92}",
+            "{\"status\":\"ok\",\"face_shape\":\"  Inverted   Triangle \",\"debug\":{\"landmarks\":[[1,2],[3,4]],\"overlay\":\"AAAA\"}}",
+            "{\"status\":\"ok\",\"shape\":\"heart\",\"message_ko\":\"업스트림 문구\"}",
+            "{\"status\":\"ok\",\"face_shape\":null,\"shape\":\"oval\"}",
+            "{\"season\":\"monsoon\",\"tone\":7,\"season_ko\":\"우기\",\"tone_ko\":\"?\"}",
+            "{\"status\":\"error\",\"code\":\"NO_FACE\",\"message\":\"no face\",\"message_ko\":\"이전 문구\"}",
+            "{\"status\":\"error\",\"code\":\"SOMETHING_NEW\"}",
+            "{\"status\":\"error\"}",
+            "{ \"debug\" : { \"overlay\" : \"a\\\"b\\u00e9\" } ,\n  \"note\" : \"x,\\\\\" , \"n\" : [ ] ,\"tone\":\"Cool\" }",
+            "{}"
+    })
+    void matchesMapLocalization(String json) throws IOException {
+        Map<String, Object> expected = LocalizationUtils.addKoreanLabels(mapper.readValue(json, MAP_TYPE));
+
+        assertThat(parse(StreamingLocalizer.localize(json))).isEqualTo(expected);
+    }
+
+    @Test
+    void emptyBodyBecomesEmptyResponseAndNonObjectsPassThrough() throws IOException {
+        assertThat(parse(StreamingLocalizer.localize(""))).isEqualTo(LocalizationUtils.addKoreanLabels(null));
+        assertThat(new String(StreamingLocalizer.localize("[1,{\"season\":\"spring\"}]"))).isEqualTo("[1,{\"season\":\"spring\"}]");
+    }
+
+    @Test
+    void retraceReplacesInPlaceAppendsOrRemoves() throws IOException {
+        String json = "{\"status\":\"ok\",\"traceId\":\"old\",\"season\":\"winter\"}";
+
+        assertThat(StreamingLocalizer.retrace(json, "new")).isEqualTo("{\"status\":\"ok\",\"traceId\":\"new\",\"season\":\"winter\"}");
+        assertThat(StreamingLocalizer.retrace(json, " ")).isEqualTo("{\"status\":\"ok\",\"season\":\"winter\"}");
+        assertThat(StreamingLocalizer.retrace("{\"status\":\"ok\"}", "new")).isEqualTo("{\"status\":\"ok\",\"traceId\":\"new\"}");
+    }
+
+    @Test
+    void lookupIgnoresCaseAndWhitespace() {
+        assertThat(LocalizationUtils.faceShapeKo("OVAL")).isEqualTo(LocalizationUtils.faceShapeKo("oval"));
+        assertThat(LocalizationUtils.faceShapeKo("\tInverted\n triangle ")).isEqualTo(LocalizationUtils.faceShapeKo("inverted triangle"));
+        assertThat(LocalizationUtils.seasonKo("Monsoon")).isEqualTo("Monsoon");
+        assertThat(LocalizationUtils.normalize("  A \t B  ")).isEqualTo("a b");
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.AnalysisResults;
+import com.example.dongjubeauty.service.BatchAnalysisService;
+import com.example.dongjubeauty.service.PersonalColorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BatchAnalysisControllerTest {
+
+    @Test
+    void tooManyFilesIsPayloadTooLarge() throws Exception {
+        PythonApiProperties props = new PythonApiProperties();
+        props.getBatch().setMaxItems(1);
+        BatchAnalysisService service = new BatchAnalysisService(mock(PersonalColorService.class), props,
+                new AnalysisResults(new ObjectMapper()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new BatchAnalysisController(service))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        MvcResult started = mvc.perform(multipart("/api/batch/analyze")
+                        .file(new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[]{1}))
+                        .file(new MockMultipartFile("files", "b.jpg", "image/jpeg", new byte[]{2})))
+                .andReturn();
+
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.code").value("BATCH_TOO_LARGE"))
+                .andExpect(jsonPath("$.message_ko").value("한 번에 보낼 수 있는 사진 수를 넘었습니다."));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.config.PythonApiProperties;
+import com.example.dongjubeauty.service.upstream.ClientContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientContextFilterTest {
+
+    private final PythonApiProperties.Scheduler conf = new PythonApiProperties().getScheduler();
+
+    private ClientContext resolve(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/analyze/file");
+        request.setRemoteAddr("10.0.0.7");
+        if (apiKey != null) {
+            request.addHeader("X-Api-Key", apiKey);
+        }
+        return ClientContextFilter.resolve(request, conf);
+    }
+
+    @Test
+    void unknownHeaderValuesFallBackToRemoteAddress() {
+        conf.getClientWeights().put("partner-a", 2);
+        conf.getKnownClients().add("partner-b");
+
+        // 요청마다 새 키를 보내도 같은 흐름
+        assertThat(resolve("random-1").clientKey()).isEqualTo("ip:10.0.0.7");
+        assertThat(resolve("random-2").clientKey()).isEqualTo("ip:10.0.0.7");
+        assertThat(resolve(null).clientKey()).isEqualTo("ip:10.0.0.7");
+        assertThat(resolve(" partner-a ").clientKey()).isEqualTo("partner-a");
+        assertThat(resolve("partner-b").clientKey()).isEqualTo("partner-b");
+    }
+
+    @Test
+    void trustedGatewayHeaderIsUsedAsIs() {
+        conf.setTrustClientHeader(true);
+
+        assertThat(resolve("tenant-42").clientKey()).isEqualTo("tenant-42");
+        assertThat(resolve("").clientKey()).isEqualTo("ip:10.0.0.7");
+    }
+}
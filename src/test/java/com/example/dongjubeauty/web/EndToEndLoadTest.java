@@ -0,0 +1,142 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.support.ImageFixtures;
+import com.example.dongjubeauty.support.LoadDriver;
+import com.example.dongjubeauty.support.LoadReport;
+import com.example.dongjubeauty.support.PythonApiStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 엔드포인트별 종단 간 부하 테스트 (앱 → 로컬 FastAPI 스텁).
+ * 샘플 이미지(ImageFixtures)를 돌려 가며 보내고 엔드포인트마다 p50/p90/p99/p999·처리량·상태 코드별 건수를
+ * build/reports/load/end-to-end.json 으로 남깁니다. 캐시·요청 합치기는 꺼서 매 요청이 전체 경로를 탑니다.
+ * <pre>
+ * ./gradlew loadTest --tests '*EndToEndLoadTest' \
+ *     -Dload.profile=flaky -Dload.users=64 -Dload.requests=50 \
+ *     -Dload.endpoints=/api/analyze/file,/api/analyze/combined -Dload.fixtures=/path/to/photos
+ * </pre>
+ * load.profile 은 PythonApiStub.Profile 프리셋(fast, steady, flaky, degraded) 또는 키/값 지정입니다.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "python.api.cache.enabled=false",
+                "python.api.coalescing.enabled=false",
+                "python.api.pool.max-connections=2000",
+                "logging.level.org.springframework.web=INFO",
+                "logging.level.org.springframework.web.reactive.function.client=INFO",
+                "logging.level.reactor.netty=INFO"
+        })
+class EndToEndLoadTest {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/analyze/file",
+            "/api/face-shape/file",
+            "/api/reactive/analyze/file",
+            "/api/analyze/combined",
+            "/api/analyze",
+            "/api/face-shape");
+
+    private static PythonApiStub stub;
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void pythonApi(DynamicPropertyRegistry registry) throws IOException {
+        stub = PythonApiStub.start(PythonApiStub.Profile.parse(System.getProperty("load.profile", "fast")));
+        registry.add("python.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void reportsLatencyDistributionPerEndpoint() {
+        int users = Integer.getInteger("load.users", 16);
+        int requestsPerUser = Integer.getInteger("load.requests", 20);
+        int warmup = Integer.getInteger("load.warmup", 3);
+        List<ImageFixtures.Fixture> fixtures = ImageFixtures.all();
+        List<String> endpoints = selectedEndpoints();
+
+        LoadDriver driver = new LoadDriver();
+        LoadReport report = new LoadReport("end-to-end")
+                .setting("profile", System.getProperty("load.profile", "fast"))
+                .setting("users", users)
+                .setting("requests_per_user", requestsPerUser)
+                .setting("fixtures", fixtures.stream().map(ImageFixtures.Fixture::name).toList());
+
+        Map<String, LoadDriver.Result> results = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            IntFunction<HttpRequest> requests = requestsFor(endpoint, fixtures);
+            driver.closedLoop(requests, users, warmup);
+            stub.reset();
+
+            LoadDriver.Result result = driver.closedLoop(requests, users, requestsPerUser);
+            System.out.println(result.summary(endpoint) + " statuses=" + result.statuses()
+                    + " upstreamRequests=" + stub.requests() + " upstreamErrors=" + stub.errors());
+            report.add(endpoint, result);
+            results.put(endpoint, result);
+        }
+        Path file = report.write();
+        System.out.println("[load] report: " + file.toAbsolutePath());
+
+        results.forEach((endpoint, result) -> {
+            assertThat(result.failures()).as("전송 실패 %s", endpoint).isZero();
+            assertThat(result.requests()).isEqualTo(users * requestsPerUser);
+            if (stub.profile().errorRate() == 0) {
+                assertThat(result.ok()).as("200 응답 %s", endpoint).isEqualTo(result.requests());
+            }
+        });
+    }
+
+    private List<String> selectedEndpoints() {
+        String selected = System.getProperty("load.endpoints");
+        if (selected == null || selected.isBlank()) {
+            return ENDPOINTS;
+        }
+        Set<String> wanted = Arrays.stream(selected.split(",")).map(String::strip).collect(Collectors.toSet());
+        return ENDPOINTS.stream().filter(wanted::contains).toList();
+    }
+
+    /** 파일 엔드포인트는 multipart, JSON 엔드포인트는 image_base64 본문으로 샘플을 돌려 가며 보냅니다. */
+    private IntFunction<HttpRequest> requestsFor(String endpoint, List<ImageFixtures.Fixture> fixtures) {
+        URI uri = URI.create("http://127.0.0.1:" + port + endpoint);
+        List<HttpRequest> prepared = fixtures.stream()
+                .map(f -> endpoint.endsWith("/file") || endpoint.endsWith("/combined")
+                        ? LoadDriver.multipart(uri, "file", f.filename(), f.contentType(), f.bytes())
+                        : LoadDriver.request(uri, "application/json", json(f)))
+                .toList();
+        return i -> prepared.get(i % prepared.size());
+    }
+
+    private static byte[] json(ImageFixtures.Fixture fixture) {
+        return ("{\"image_base64\":\"" + Base64.getEncoder().encodeToString(fixture.bytes()) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
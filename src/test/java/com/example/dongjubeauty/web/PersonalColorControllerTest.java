@@ -0,0 +1,47 @@
+package com.example.dongjubeauty.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonalColorControllerTest {
+
+    @Test
+    void missingUpstreamResponseIsBadGatewayWithEmptyBody() {
+        ResponseEntity<byte[]> res = PersonalColorController.localizedJson(null);
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(res.getBody()).isEmpty();
+    }
+
+    @Test
+    void emptyUpstreamBodyKeepsStatus() {
+        ResponseEntity<byte[]> res = PersonalColorController.localizedJson(ResponseEntity.status(HttpStatus.NO_CONTENT).build());
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(res.getBody()).isEmpty();
+    }
+
+    @Test
+    void malformedUpstreamJsonIsPassedThroughWithItsStatus() {
+        ResponseEntity<byte[]> res = PersonalColorController.localizedJson(
+                ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"status\":"));
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(new String(res.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"status\":");
+    }
+
+    @Test
+    void addsKoreanLabelsAndTraceHeader() {
+        ResponseEntity<byte[]> res = PersonalColorController.localizedJson(
+                ResponseEntity.ok("{\"status\":\"ok\",\"season\":\"spring\",\"traceId\":\"t-1\"}"));
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getHeaders().getFirst("X-Trace-Id")).isEqualTo("t-1");
+        assertThat(new String(res.getBody(), StandardCharsets.UTF_8)).contains("\"season\":\"spring\"");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.support.LoadDriver;
+import com.example.dongjubeauty.support.PythonApiStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 논블로킹 경로 부하 테스트: Tomcat 워커 4개로 수천 건의 추론을 동시에 대기시킬 수 있는지 확인합니다.
+ * ./gradlew loadTest -Dload.concurrency=2000
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=4",
+                "server.tomcat.threads.min-spare=1",
+                "python.api.cache.enabled=false",
+                "python.api.coalescing.enabled=false",
+                "python.api.limiter.enabled=false",
+                "python.api.pool.max-connections=5000",
+                "logging.level.org.springframework.web=INFO",
+                "logging.level.org.springframework.web.reactive.function.client=INFO",
+                "logging.level.reactor.netty=INFO"
+        })
+class ReactivePipelineLoadTest {
+
+    private static final int TOMCAT_THREADS = 4;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofSeconds(2);
+    private static final String BODY = "{\"image_base64\":\"/9j/4AAQSkZJRgABAQ==\"}";
+
+    private static PythonApiStub stub;
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void pythonApi(DynamicPropertyRegistry registry) throws IOException {
+        stub = PythonApiStub.start(UPSTREAM_LATENCY);
+        registry.add("python.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void thousandsOfInFlightAnalysesOnHandfulOfThreads() {
+        int concurrency = Integer.getInteger("load.concurrency", 1000);
+        LoadDriver.Result result = new LoadDriver().fire(
+                URI.create("http://127.0.0.1:" + port + "/api/reactive/analyze"),
+                "application/json", BODY.getBytes(StandardCharsets.UTF_8), concurrency);
+        System.out.println(result.summary("reactive /api/analyze") + " upstreamMaxInFlight=" + stub.maxInFlight());
+
+        assertThat(result.ok()).isEqualTo(concurrency);
+        // 블로킹 경로라면 워커 4개가 2초씩 붙잡혀 concurrency/4 × 2초가 걸린다
+        Duration blockingEstimate = UPSTREAM_LATENCY.multipliedBy(concurrency / TOMCAT_THREADS);
+        assertThat(stub.maxInFlight()).isGreaterThan(concurrency / 4);
+        assertThat(result.elapsed()).isLessThan(blockingEstimate.dividedBy(5));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.dongjubeauty.web;
+
+import com.example.dongjubeauty.DongjubeautyApplication;
+import com.example.dongjubeauty.support.LoadDriver;
+import com.example.dongjubeauty.support.PythonApiStub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 블로킹 RestClient 경로(/api/analyze) 비교 부하 테스트: 플랫폼 스레드 vs 가상 스레드.
+ * 같은 Tomcat 워커 상한에서 동시 요청을 보내고 처리량/지연을 나란히 출력합니다.
+ * ./gradlew loadTest -Dload.concurrency=800
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int TOMCAT_THREADS = 16;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofSeconds(1);
+    private static final byte[] BODY = "{\"image_base64\":\"/9j/4AAQSkZJRgABAQ==\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void virtualThreadsServeMoreConcurrentBlockingCalls() throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 400);
+        try (PythonApiStub stub = PythonApiStub.start(UPSTREAM_LATENCY)) {
+            LoadDriver.Result platform = run(stub, false, concurrency);
+            LoadDriver.Result virtual = run(stub, true, concurrency);
+
+            System.out.println(platform.summary("platform threads /api/analyze"));
+            System.out.println(virtual.summary("virtual threads  /api/analyze"));
+
+            assertThat(platform.ok()).isEqualTo(concurrency);
+            assertThat(virtual.ok()).isEqualTo(concurrency);
+            assertThat(virtual.throughput()).isGreaterThan(platform.throughput() * 2);
+        }
+    }
+
+    private static LoadDriver.Result run(PythonApiStub stub, boolean virtualThreads, int concurrency) {
+        // 명령행 인자로 넘겨 application.properties 보다 우선 적용
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(DongjubeautyApplication.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--python.api.base-url=" + stub.baseUrl(),
+                "--python.api.virtual-threads.enabled=" + virtualThreads,
+                "--python.api.cache.enabled=false",
+                "--python.api.coalescing.enabled=false",
+                "--python.api.limiter.enabled=false",
+                "--logging.level.org.springframework.web=INFO",
+                "--logging.level.org.springframework.web.reactive.function.client=INFO",
+                "--logging.level.reactor.netty=INFO")) {
+            String port = ctx.getEnvironment().getProperty("local.server.port");
+            return new LoadDriver().fire(URI.create("http://127.0.0.1:" + port + "/api/analyze"),
+                    "application/json", BODY, concurrency);
+        }
+    }
+}